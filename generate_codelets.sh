@@ -0,0 +1,10 @@
+#!/bin/bash
+echo "script: script for generating the codelets of the project"
+echo "script: what javac?"
+javac -version
+echo "script: compiling CodeletGenerator"
+javac src/test/java/hageldave/generator/CodeletGenerator.java
+echo "script: running CodeletGenerator"
+java -cp  src/test/java/ hageldave/generator/CodeletGenerator
+echo "script: deleting compiled class file of CodeletGenerator again"
+rm src/test/java/hageldave/generator/CodeletGenerator.class
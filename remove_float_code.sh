@@ -3,4 +3,8 @@ echo "script: script for removeing the float part of the project"
 echo "script: removing src/main/../fp"
 rm -r src/main/java/hageldave/ezfftw/fp
 echo "script: removing src/test/../fp"
-rm -r src/test/java/hageldave/ezfftw/fp
\ No newline at end of file
+rm -r src/test/java/hageldave/ezfftw/fp
+echo "script: removing src/main/java16/../fp"
+rm -r src/main/java16/hageldave/ezfftw/fp
+echo "script: removing src/main/java22/../fp"
+rm -r src/main/java22/hageldave/ezfftw/fp
\ No newline at end of file
@@ -0,0 +1,194 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+
+package hageldave.ezfftw.bench;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import hageldave.ezfftw.dp.FFT;
+import hageldave.ezfftw.dp.FFTW_Guru;
+import hageldave.ezfftw.dp.FFTW_Plan;
+import hageldave.ezfftw.dp.NativeRealArray;
+import hageldave.ezfftw.dp.RowMajorArrayAccessor;
+import hageldave.ezfftw.dp.samplers.RealValuedSampler;
+import hageldave.ezfftw.dp.writers.ComplexValuedWriter;
+
+/**
+ * Measures heap and native memory allocated per call for each API path of a real to complex transform.
+ * <p>
+ * Heap bytes per call are measured by JMH's {@link GCProfiler} (<tt>gc.alloc.rate.norm</tt>).
+ * Native bytes per call are measured afterwards by counting the bytes allocated by {@link NativeRealArray}s
+ * (see {@link NativeRealArray#getAllocatedBytes()}), memory allocated internally by FFTW for plans
+ * is not included. Note that JavaCPP's <tt>Pointer.totalBytes()</tt> is not suitable for this since
+ * it is only decreased after the garbage collector processed closed pointers.
+ * <p>
+ * Run with (the main method always adds the GC profiler, further JMH options can be passed)
+ * <pre>
+ * mvn -Pbenchmark clean test-compile exec:exec -Dbench.main=hageldave.ezfftw.bench.AllocationBenchmark
+ * </pre>
+ * The zero allocation of warm plan execution is asserted by the unit test
+ * <tt>FFTW_PlanTest.testZeroAllocationWhenWarm</tt>.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+
+	@Param({"1024","64x64"})
+	public String shape;
+
+	long[] dims;
+	double[] in, re, im;
+	RealValuedSampler sampler;
+	ComplexValuedWriter writer;
+	NativeRealArray nativeIn, nativeRe, nativeIm;
+	FFTW_Plan plan;
+
+	@Setup
+	public void setup() {
+		dims = BenchUtils.parseShape(shape);
+		int n = BenchUtils.numElements(dims);
+		in = BenchUtils.randomArray(n, 1);
+		re = new double[n];
+		im = new double[n];
+		sampler = new RowMajorArrayAccessor(in, dims);
+		writer = new RowMajorArrayAccessor(re, dims).combineToComplexWriter(new RowMajorArrayAccessor(im, dims));
+		nativeIn = new NativeRealArray(n).set(in);
+		nativeRe = new NativeRealArray(n);
+		nativeIm = new NativeRealArray(n);
+		plan = FFTW_Plan.plan_split_r2c(nativeIn, nativeRe, nativeIm, dims);
+	}
+
+	@TearDown
+	public void tearDown() {
+		plan.close();
+		nativeIm.close();
+		nativeRe.close();
+		nativeIn.close();
+	}
+
+	@Benchmark
+	public double[] fft_array() {
+		FFT.fft(in, re, im, dims);
+		return re;
+	}
+
+	@Benchmark
+	public double[] fft_sampler() {
+		FFT.fft(sampler, writer, dims);
+		return re;
+	}
+
+	@Benchmark
+	public double[] fft_supplier() {
+		int n = in.length;
+		FFT.fft(()->new NativeRealArray(n).set(in), (r,i)->{r.get(0, re); i.get(0, im);}, dims);
+		return re;
+	}
+
+	@Benchmark
+	public NativeRealArray guru() {
+		FFTW_Guru.execute_split_r2c(nativeIn, nativeRe, nativeIm, dims);
+		return nativeRe;
+	}
+
+	@Benchmark
+	public NativeRealArray plan_execute() {
+		plan.execute();
+		return nativeRe;
+	}
+
+	@Benchmark
+	public double[] plan_transferAndExecute() {
+		nativeIn.set(in);
+		plan.execute();
+		nativeRe.get(0, re);
+		nativeIm.get(0, im);
+		return re;
+	}
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder()
+				.parent(cmdOptions)
+				.include(AllocationBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build())
+		.run();
+		printNativeAllocations();
+	}
+
+	static void printNativeAllocations() {
+		System.out.format(Locale.ROOT, "%n%-24s %-8s %14s %14s%n", "path", "shape", "arrays/op", "nativeB/op");
+		for(String shape: new String[]{"1024","64x64"}){
+			AllocationBenchmark b = new AllocationBenchmark();
+			b.shape = shape;
+			b.setup();
+			try {
+				Map<String, Runnable> paths = new LinkedHashMap<>();
+				paths.put("fft_array", b::fft_array);
+				paths.put("fft_sampler", b::fft_sampler);
+				paths.put("fft_supplier", b::fft_supplier);
+				paths.put("guru", b::guru);
+				paths.put("plan_execute", b::plan_execute);
+				paths.put("plan_transferAndExecute", b::plan_transferAndExecute);
+				int reps = 100;
+				for(Map.Entry<String, Runnable> path: paths.entrySet()){
+					path.getValue().run();
+					long arrays = NativeRealArray.getNumAllocatedArrays();
+					long bytes = NativeRealArray.getAllocatedBytes();
+					for(int i = 0; i < reps; i++)
+						path.getValue().run();
+					System.out.format(Locale.ROOT, "%-24s %-8s %14.1f %14.1f%n", path.getKey(), shape,
+							(NativeRealArray.getNumAllocatedArrays()-arrays)/(double)reps,
+							(NativeRealArray.getAllocatedBytes()-bytes)/(double)reps);
+				}
+			} finally {
+				b.tearDown();
+			}
+		}
+	}
+
+}
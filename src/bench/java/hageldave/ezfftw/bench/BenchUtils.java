@@ -0,0 +1,76 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+
+package hageldave.ezfftw.bench;
+
+import java.util.Random;
+
+/**
+ * Helper methods shared by the benchmarks.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+public final class BenchUtils {
+
+	private BenchUtils() {}
+
+	/**
+	 * Parses a shape parameter like "64x32" to its dimensions.
+	 * The benchmarks use power of two (1024, 64x64, 32x32x32), prime (1021, 61x61, 31x31x31)
+	 * and mixed radix (1000, 60x60, 30x30x30) shapes.
+	 * @param shape dimensions separated by 'x'
+	 * @return dimensions
+	 */
+	public static long[] parseShape(String shape) {
+		String[] parts = shape.split("x");
+		long[] dims = new long[parts.length];
+		for(int i = 0; i < parts.length; i++){
+			dims[i] = Long.parseLong(parts[i].trim());
+		}
+		return dims;
+	}
+
+	/**
+	 * Returns the number of elements of the specified dimensions.
+	 * @param dims dimensions
+	 * @return product of dimensions
+	 */
+	public static int numElements(long[] dims) {
+		long n = 1;
+		for(long d: dims)
+			n *= d;
+		return Math.toIntExact(n);
+	}
+
+	/**
+	 * Creates an array of random values in [-1,1] with fixed seed.
+	 * @param length of the array
+	 * @param seed random seed
+	 * @return random array
+	 */
+	public static double[] randomArray(int length, long seed) {
+		Random rnd = new Random(seed);
+		double[] a = new double[length];
+		for(int i = 0; i < length; i++)
+			a[i] = rnd.nextDouble()*2-1;
+		return a;
+	}
+
+}
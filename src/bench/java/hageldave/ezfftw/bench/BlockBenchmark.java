@@ -0,0 +1,125 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hageldave.ezfftw.dp.FFT;
+import hageldave.ezfftw.dp.FFTW_Guru;
+import hageldave.ezfftw.dp.FFTW_Plan;
+import hageldave.ezfftw.dp.NativeRealArray;
+
+/**
+ * Compares complex to complex transforms of many small blocks by the codelets of
+ * {@link FFT#fftBlocks(double[], double[], double[], double[], long...)}, a reused batched
+ * {@link FFTW_Plan} and one {@link FFTW_Guru} call per block.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockBenchmark {
+
+	@Param({"8x8","16x16"})
+	public String shape;
+
+	@Param({"4096"})
+	public int numBlocks;
+
+	long[] dims;
+	double[] real, imag, realOut, imagOut;
+	NativeRealArray nReal, nImag, nRealOut, nImagOut;
+	NativeRealArray bReal, bImag, bRealOut, bImagOut;
+	FFTW_Plan batched;
+
+	@Setup
+	public void setup() {
+		dims = BenchUtils.parseShape(shape);
+		int n = BenchUtils.numElements(dims)*numBlocks;
+		real = BenchUtils.randomArray(n, 1);
+		imag = BenchUtils.randomArray(n, 2);
+		realOut = new double[n];
+		imagOut = new double[n];
+		nReal = new NativeRealArray(n).set(real);
+		nImag = new NativeRealArray(n).set(imag);
+		nRealOut = new NativeRealArray(n);
+		nImagOut = new NativeRealArray(n);
+		int blockSize = BenchUtils.numElements(dims);
+		bReal = new NativeRealArray(blockSize);
+		bImag = new NativeRealArray(blockSize);
+		bRealOut = new NativeRealArray(blockSize);
+		bImagOut = new NativeRealArray(blockSize);
+		batched = FFTW_Plan.plan_split_c2c_batched(nReal, nImag, nRealOut, nImagOut, numBlocks, dims);
+	}
+
+	@TearDown
+	public void tearDown() {
+		batched.close();
+		for(NativeRealArray a: new NativeRealArray[]{bImagOut, bRealOut, bImag, bReal, nImagOut, nRealOut, nImag, nReal})
+			a.close();
+	}
+
+	@Benchmark
+	public double[] codelets() {
+		FFT.fftBlocks(real, imag, realOut, imagOut, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] batchedPlan() {
+		nReal.set(real);
+		nImag.set(imag);
+		batched.execute();
+		nRealOut.get(0, realOut);
+		nImagOut.get(0, imagOut);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] guruPerBlock() {
+		int blockSize = (int)bReal.length;
+		for(int b = 0; b < numBlocks; b++){
+			bReal.set(0, blockSize, b*blockSize, real);
+			bImag.set(0, blockSize, b*blockSize, imag);
+			FFTW_Guru.execute_split_c2c(bReal, bImag, bRealOut, bImagOut, dims);
+			bRealOut.get(0, blockSize, b*blockSize, realOut);
+			bImagOut.get(0, blockSize, b*blockSize, imagOut);
+		}
+		return realOut;
+	}
+
+}
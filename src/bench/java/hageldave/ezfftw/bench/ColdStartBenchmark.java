@@ -0,0 +1,216 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+
+package hageldave.ezfftw.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hageldave.ezfftw.FFTW_Initializer;
+import hageldave.ezfftw.dp.FFT;
+import hageldave.ezfftw.dp.FFTW_Plan;
+import hageldave.ezfftw.dp.NativeRealArray;
+
+/**
+ * Measures the latency of the very first transform in a fresh JVM, broken down into its phases.
+ * Every benchmark is measured exactly once per fork (single shot) and many forks are used,
+ * so each measurement sees a cold JVM:
+ * <ul>
+ * <li>phase1_loadLibrary : {@link FFTW_Initializer#initFFTW()}, i.e. loading (and with
+ * <tt>freshCache=true</tt> also extracting) the native library</li>
+ * <li>phase2_firstPlan : creating the first {@link FFTW_Plan} after the library was loaded</li>
+ * <li>phase3_firstTransfer : first java to native and native to java copy</li>
+ * <li>phase4_firstExecute : first execution of a plan</li>
+ * <li>firstCall : first call to {@link FFT#fft(double[], double[], double[], long...)} including all of the above</li>
+ * <li>firstCallAfterPreload : first call after {@link FFTW_Initializer#initFFTWAsync()} has completed</li>
+ * <li>secondCall : call following a first call, the difference to firstCallAfterPreload is mostly
+ * class loading and interpreter/JIT warm-up</li>
+ * </ul>
+ * With <tt>freshCache=true</tt> the JavaCPP cache directory is redirected to an empty temporary
+ * directory, so that the native library has to be extracted from the jar again.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ColdStartBenchmark {
+
+	static final long SIZE = 1024;
+
+	/** JavaCPP cache location, has to be set up before anything touches the native library */
+	@State(Scope.Benchmark)
+	public static class Cache {
+		@Param({"false","true"})
+		public boolean freshCache;
+
+		Path cacheDir;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			if(freshCache){
+				cacheDir = Files.createTempDirectory("ezfftw-javacpp-cache");
+				System.setProperty("org.bytedeco.javacpp.cachedir", cacheDir.toString());
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			if(cacheDir != null){
+				try(Stream<Path> files = Files.walk(cacheDir)){
+					files.sorted(Comparator.reverseOrder()).forEach(p->p.toFile().delete());
+				}
+			}
+		}
+	}
+
+	/** library loaded, arrays allocated */
+	@State(Scope.Benchmark)
+	public static class Loaded {
+		double[] javaArray;
+		NativeRealArray in, re, im;
+
+		@Setup(Level.Trial)
+		public void setup(Cache cache) {
+			FFTW_Initializer.initFFTW();
+			javaArray = BenchUtils.randomArray((int)SIZE, 1);
+			in = new NativeRealArray(SIZE);
+			re = new NativeRealArray(SIZE);
+			im = new NativeRealArray(SIZE);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			im.close();
+			re.close();
+			in.close();
+		}
+	}
+
+	/** library loaded, arrays allocated, plan created */
+	@State(Scope.Benchmark)
+	public static class Planned {
+		FFTW_Plan plan;
+
+		@Setup(Level.Trial)
+		public void setup(Loaded loaded) {
+			loaded.in.set(loaded.javaArray);
+			plan = FFTW_Plan.plan_split_r2c(loaded.in, loaded.re, loaded.im, SIZE);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			plan.close();
+		}
+	}
+
+	/** java arrays for FFT calls */
+	@State(Scope.Benchmark)
+	public static class JavaArrays {
+		double[] in, re, im;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			in = BenchUtils.randomArray((int)SIZE, 1);
+			re = new double[(int)SIZE];
+			im = new double[(int)SIZE];
+		}
+	}
+
+	/** library preloaded asynchronously */
+	@State(Scope.Benchmark)
+	public static class Preloaded {
+		@Setup(Level.Trial)
+		public void setup(Cache cache) {
+			FFTW_Initializer.initFFTWAsync().join();
+		}
+	}
+
+	/** first call already happened */
+	@State(Scope.Benchmark)
+	public static class Called {
+		@Setup(Level.Trial)
+		public void setup(Cache cache, JavaArrays arrays) {
+			FFT.fft(arrays.in, arrays.re, arrays.im, SIZE);
+		}
+	}
+
+	@Benchmark
+	public boolean phase1_loadLibrary(Cache cache) {
+		FFTW_Initializer.initFFTW();
+		return FFTW_Initializer.isInitialized();
+	}
+
+	@Benchmark
+	public void phase2_firstPlan(Loaded loaded) {
+		FFTW_Plan.plan_split_r2c(loaded.in, loaded.re, loaded.im, SIZE).close();
+	}
+
+	@Benchmark
+	public double[] phase3_firstTransfer(Loaded loaded) {
+		loaded.in.set(loaded.javaArray);
+		return loaded.in.get(0, loaded.javaArray);
+	}
+
+	@Benchmark
+	public NativeRealArray phase4_firstExecute(Loaded loaded, Planned planned) {
+		planned.plan.execute();
+		return loaded.re;
+	}
+
+	@Benchmark
+	public double[] firstCall(Cache cache, JavaArrays arrays) {
+		FFT.fft(arrays.in, arrays.re, arrays.im, SIZE);
+		return arrays.re;
+	}
+
+	@Benchmark
+	public double[] firstCallAfterPreload(Preloaded preloaded, JavaArrays arrays) {
+		FFT.fft(arrays.in, arrays.re, arrays.im, SIZE);
+		return arrays.re;
+	}
+
+	@Benchmark
+	public double[] secondCall(Called called, JavaArrays arrays) {
+		FFT.fft(arrays.in, arrays.re, arrays.im, SIZE);
+		return arrays.re;
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+
+package hageldave.ezfftw.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import hageldave.ezfftw.FFTW_Initializer;
+import hageldave.ezfftw.dp.FFT;
+
+/**
+ * Multi-threaded scaling and contention benchmark for {@link FFT#fft(double[], double[], double[], long...)}.
+ * <p>
+ * For every combination of shape, thread kind (platform or virtual) and number of threads,
+ * all threads repeatedly execute transforms for a fixed duration. Reported are the overall
+ * throughput and the latency percentiles of single calls.
+ * Since every call creates and destroys a plan under {@link FFTW_Initializer.PLANNER_REENTRANT_LOCK},
+ * a sampling thread records how often the lock is held and how many threads are waiting for it
+ * (columns <tt>lockHeld</tt> and <tt>lockQueue</tt>).
+ * <p>
+ * This is not a JMH benchmark since JMH cannot run benchmark methods on virtual threads.
+ * Arguments are key=value pairs, defaults are
+ * <pre>
+ * threads=1,2,4,8,16,32,64 shapes=256,256x256 kinds=platform,virtual warmup=1000 duration=3000
+ * </pre>
+ * (times in milliseconds). Virtual threads require Java 21 or newer and are skipped otherwise.
+ * Run with
+ * <pre>
+ * mvn -Pbenchmark clean test-compile exec:exec -Dbench.main=hageldave.ezfftw.bench.ContentionBenchmark -Dbench.args="threads=1,8,64"
+ * </pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+public class ContentionBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int[] threadCounts = {1,2,4,8,16,32,64};
+		String[] shapes = {"256","256x256"};
+		String[] kinds = {"platform","virtual"};
+		long warmupMillis = 1000;
+		long durationMillis = 3000;
+		for(String arg: args){
+			String[] kv = arg.split("=", 2);
+			if(kv.length != 2)
+				throw new IllegalArgumentException("Expected key=value argument but got " + arg);
+			switch (kv[0]) {
+			case "threads":  threadCounts = Arrays.stream(kv[1].split(",")).mapToInt(Integer::parseInt).toArray(); break;
+			case "shapes":   shapes = kv[1].split(","); break;
+			case "kinds":    kinds = kv[1].split(","); break;
+			case "warmup":   warmupMillis = Long.parseLong(kv[1]); break;
+			case "duration": durationMillis = Long.parseLong(kv[1]); break;
+			default: throw new IllegalArgumentException("Unknown argument " + kv[0]);
+			}
+		}
+		FFTW_Initializer.initFFTW();
+		System.out.format(Locale.ROOT, "%-10s %-8s %7s %12s %10s %10s %10s %10s %10s %9s %9s%n",
+				"shape", "kind", "threads", "ops/s", "p50[us]", "p90[us]", "p99[us]", "p99.9[us]", "max[us]", "lockHeld", "lockQueue");
+		for(String shape: shapes){
+			long[] dims = BenchUtils.parseShape(shape);
+			for(String kind: kinds){
+				for(int numThreads: threadCounts){
+					ExecutorService executor = newExecutor(kind, numThreads);
+					if(executor == null){
+						System.out.format("%-10s %-8s skipped, virtual threads not supported by this JVM%n", shape, kind);
+						break;
+					}
+					try {
+						run(executor, numThreads, dims, warmupMillis);
+						Result r = run(executor, numThreads, dims, durationMillis);
+						System.out.format(Locale.ROOT, "%-10s %-8s %7d %12.1f %10.1f %10.1f %10.1f %10.1f %10.1f %8.1f%% %9.2f%n",
+								shape, kind, numThreads, r.numOps*1000.0/durationMillis,
+								r.percentile(0.5), r.percentile(0.9), r.percentile(0.99), r.percentile(0.999), r.percentile(1.0),
+								r.lockHeldFraction*100, r.avgLockQueueLength);
+					} finally {
+						executor.shutdownNow();
+					}
+				}
+			}
+		}
+	}
+
+	static ExecutorService newExecutor(String kind, int numThreads) {
+		switch (kind) {
+		case "platform":
+			return Executors.newFixedThreadPool(numThreads);
+		case "virtual":
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException e) {
+				return null;
+			}
+		default:
+			throw new IllegalArgumentException("Unknown thread kind " + kind + ", expected platform or virtual");
+		}
+	}
+
+	static Result run(ExecutorService executor, int numThreads, long[] dims, long durationMillis) throws Exception {
+		int n = BenchUtils.numElements(dims);
+		CountDownLatch ready = new CountDownLatch(numThreads);
+		CountDownLatch start = new CountDownLatch(1);
+		long[] deadline = {0};
+		List<Future<long[]>> futures = new ArrayList<>();
+		for(int t = 0; t < numThreads; t++){
+			final long seed = t;
+			futures.add(executor.submit(()->{
+				double[] in = BenchUtils.randomArray(n, seed);
+				double[] re = new double[n], im = new double[n];
+				long[] latencies = new long[1024];
+				int count = 0;
+				ready.countDown();
+				start.await();
+				long end = deadline[0];
+				long now = System.nanoTime();
+				while(now < end){
+					FFT.fft(in, re, im, dims);
+					long after = System.nanoTime();
+					if(count == latencies.length)
+						latencies = Arrays.copyOf(latencies, count*2);
+					latencies[count++] = after-now;
+					now = after;
+				}
+				return Arrays.copyOf(latencies, count);
+			}));
+		}
+		ready.await();
+		/* sample planner lock while workers are running */
+		ReentrantLock lock = FFTW_Initializer.PLANNER_REENTRANT_LOCK;
+		deadline[0] = System.nanoTime()+TimeUnit.MILLISECONDS.toNanos(durationMillis);
+		start.countDown();
+		long samples = 0, held = 0, queued = 0;
+		while(System.nanoTime() < deadline[0]){
+			samples++;
+			if(lock.isLocked())
+				held++;
+			queued += lock.getQueueLength();
+			LockSupport.parkNanos(20_000);
+		}
+		long[][] perThread = new long[numThreads][];
+		int total = 0;
+		for(int t = 0; t < numThreads; t++){
+			perThread[t] = futures.get(t).get();
+			total += perThread[t].length;
+		}
+		long[] all = new long[total];
+		int pos = 0;
+		for(long[] l: perThread){
+			System.arraycopy(l, 0, all, pos, l.length);
+			pos += l.length;
+		}
+		Arrays.sort(all);
+		return new Result(all, held/(double)Math.max(1, samples), queued/(double)Math.max(1, samples));
+	}
+
+	static final class Result {
+		final long[] sortedLatencies;
+		final long numOps;
+		final double lockHeldFraction;
+		final double avgLockQueueLength;
+
+		Result(long[] sortedLatencies, double lockHeldFraction, double avgLockQueueLength) {
+			this.sortedLatencies = sortedLatencies;
+			this.numOps = sortedLatencies.length;
+			this.lockHeldFraction = lockHeldFraction;
+			this.avgLockQueueLength = avgLockQueueLength;
+		}
+
+		/** latency percentile in microseconds */
+		double percentile(double p) {
+			if(sortedLatencies.length == 0)
+				return Double.NaN;
+			int idx = (int)Math.min(sortedLatencies.length-1, Math.ceil(p*sortedLatencies.length)-1);
+			return sortedLatencies[Math.max(0, idx)]/1000.0;
+		}
+	}
+
+}
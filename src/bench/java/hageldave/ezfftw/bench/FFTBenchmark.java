@@ -0,0 +1,179 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+
+package hageldave.ezfftw.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hageldave.ezfftw.dp.FFT;
+import hageldave.ezfftw.dp.NativeRealArray;
+import hageldave.ezfftw.dp.RowMajorArrayAccessor;
+import hageldave.ezfftw.dp.samplers.ComplexValuedSampler;
+import hageldave.ezfftw.dp.samplers.RealValuedSampler;
+import hageldave.ezfftw.dp.writers.ComplexValuedWriter;
+import hageldave.ezfftw.dp.writers.RealValuedWriter;
+
+/**
+ * Benchmarks every overload of {@link FFT} (double[], sampler/writer and Supplier/Consumer)
+ * end to end, i.e. including planning, transfer between java and native memory and execution.
+ * See {@link PhaseBenchmark} for the individual phases.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FFTBenchmark {
+
+	@Param({"1024","1021","1000","64x64","61x61","60x60","32x32x32","31x31x31","30x30x30"})
+	public String shape;
+
+	long[] dims;
+	double[] realIn, imagIn, realOut, imagOut;
+	RealValuedSampler realSampler;
+	ComplexValuedSampler complexSampler;
+	RealValuedWriter realWriter;
+	ComplexValuedWriter complexWriter;
+	Supplier<NativeRealArray> realSupplier, imagSupplier;
+	BiConsumer<NativeRealArray, NativeRealArray> complexConsumer;
+	Consumer<NativeRealArray> realConsumer;
+
+	@Setup
+	public void setup() {
+		dims = BenchUtils.parseShape(shape);
+		int n = BenchUtils.numElements(dims);
+		realIn = BenchUtils.randomArray(n, 1);
+		imagIn = BenchUtils.randomArray(n, 2);
+		realOut = new double[n];
+		imagOut = new double[n];
+		RowMajorArrayAccessor realInAccess = new RowMajorArrayAccessor(realIn, dims);
+		RowMajorArrayAccessor imagInAccess = new RowMajorArrayAccessor(imagIn, dims);
+		RowMajorArrayAccessor realOutAccess = new RowMajorArrayAccessor(realOut, dims);
+		RowMajorArrayAccessor imagOutAccess = new RowMajorArrayAccessor(imagOut, dims);
+		realSampler = realInAccess;
+		complexSampler = realInAccess.combineToComplexSampler(imagInAccess);
+		realWriter = realOutAccess;
+		complexWriter = realOutAccess.combineToComplexWriter(imagOutAccess);
+		realSupplier = ()->new NativeRealArray(n).set(realIn);
+		imagSupplier = ()->new NativeRealArray(n).set(imagIn);
+		complexConsumer = (re, im)->{
+			re.get(0, realOut);
+			im.get(0, imagOut);
+		};
+		realConsumer = re->re.get(0, realOut);
+	}
+
+	/* double[] */
+
+	@Benchmark
+	public double[] array_fft_r2c() {
+		FFT.fft(realIn, realOut, imagOut, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] array_fft_c2c() {
+		FFT.fft(realIn, imagIn, realOut, imagOut, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] array_ifft_c2c() {
+		FFT.ifft(realIn, imagIn, realOut, imagOut, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] array_ifft_c2r() {
+		FFT.ifft(realIn, imagIn, realOut, dims);
+		return realOut;
+	}
+
+	/* sampler / writer */
+
+	@Benchmark
+	public double[] sampler_fft_r2c() {
+		FFT.fft(realSampler, complexWriter, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] sampler_fft_c2c() {
+		FFT.fft(complexSampler, complexWriter, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] sampler_ifft_c2c() {
+		FFT.ifft(complexSampler, complexWriter, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] sampler_ifft_c2r() {
+		FFT.ifft(complexSampler, realWriter, dims);
+		return realOut;
+	}
+
+	/* Supplier / Consumer */
+
+	@Benchmark
+	public double[] supplier_fft_r2c() {
+		FFT.fft(realSupplier, complexConsumer, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] supplier_fft_c2c() {
+		FFT.fft(realSupplier, imagSupplier, complexConsumer, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] supplier_ifft_c2c() {
+		FFT.ifft(realSupplier, imagSupplier, complexConsumer, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public double[] supplier_ifft_c2r() {
+		FFT.ifft(realSupplier, imagSupplier, realConsumer, dims);
+		return realOut;
+	}
+
+}
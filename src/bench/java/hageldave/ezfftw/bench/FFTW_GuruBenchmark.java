@@ -0,0 +1,97 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+
+package hageldave.ezfftw.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hageldave.ezfftw.dp.FFTW_Guru;
+import hageldave.ezfftw.dp.NativeRealArray;
+
+/**
+ * Benchmarks the split transforms of {@link FFTW_Guru} on preallocated native arrays,
+ * i.e. planning and execution without transfer between java and native memory.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FFTW_GuruBenchmark {
+
+	@Param({"1024","1021","1000","64x64","61x61","60x60","32x32x32","31x31x31","30x30x30"})
+	public String shape;
+
+	long[] dims;
+	NativeRealArray realIn, imagIn, realOut, imagOut;
+
+	@Setup
+	public void setup() {
+		dims = BenchUtils.parseShape(shape);
+		int n = BenchUtils.numElements(dims);
+		realIn = new NativeRealArray(n).set(BenchUtils.randomArray(n, 1));
+		imagIn = new NativeRealArray(n).set(BenchUtils.randomArray(n, 2));
+		realOut = new NativeRealArray(n);
+		imagOut = new NativeRealArray(n);
+	}
+
+	@TearDown
+	public void tearDown() {
+		imagOut.close();
+		realOut.close();
+		imagIn.close();
+		realIn.close();
+	}
+
+	@Benchmark
+	public NativeRealArray execute_split_r2c() {
+		FFTW_Guru.execute_split_r2c(realIn, realOut, imagOut, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public NativeRealArray execute_split_c2c() {
+		FFTW_Guru.execute_split_c2c(realIn, imagIn, realOut, imagOut, dims);
+		return realOut;
+	}
+
+	@Benchmark
+	public NativeRealArray execute_split_c2r() {
+		FFTW_Guru.execute_split_c2r(realOut, imagOut, realIn, dims);
+		return realIn;
+	}
+
+}
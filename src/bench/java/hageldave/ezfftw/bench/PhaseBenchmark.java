@@ -0,0 +1,157 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+
+package hageldave.ezfftw.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hageldave.ezfftw.dp.FFTW_Plan;
+import hageldave.ezfftw.dp.NativeRealArray;
+
+/**
+ * Benchmarks the phases of a transform separately:
+ * <ul>
+ * <li>plan_* : creating and destroying an {@link FFTW_Plan} (includes waiting for the planner lock)</li>
+ * <li>execute_* : executing an existing plan</li>
+ * <li>refill_c2r : restoring the input spectrum of the c2r plan, which is destroyed by execution.
+ * This is included in execute_c2r and needs to be subtracted from it.</li>
+ * <li>transfer_* : copying a signal between java and native memory</li>
+ * </ul>
+ * The sum of the phases roughly makes up the end to end time measured by {@link FFTBenchmark}.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhaseBenchmark {
+
+	@Param({"1024","1021","1000","64x64","61x61","60x60","32x32x32","31x31x31","30x30x30"})
+	public String shape;
+
+	long[] dims;
+	double[] javaArray;
+	double[] spectrumRe, spectrumIm;
+	NativeRealArray realIn, imagIn, realOut, imagOut;
+	FFTW_Plan r2c, c2c, c2r;
+
+	@Setup
+	public void setup() {
+		dims = BenchUtils.parseShape(shape);
+		int n = BenchUtils.numElements(dims);
+		javaArray = BenchUtils.randomArray(n, 1);
+		realIn = new NativeRealArray(n).set(javaArray);
+		imagIn = new NativeRealArray(n).set(BenchUtils.randomArray(n, 2));
+		realOut = new NativeRealArray(n);
+		imagOut = new NativeRealArray(n);
+		r2c = FFTW_Plan.plan_split_r2c(realIn, realOut, imagOut, dims);
+		c2c = FFTW_Plan.plan_split_c2c(realIn, imagIn, realOut, imagOut, dims);
+		c2r = FFTW_Plan.plan_split_c2r(realIn, imagIn, realOut, dims);
+		/* pristine hermitian spectrum for c2r */
+		r2c.execute();
+		spectrumRe = realOut.get(0, n);
+		spectrumIm = imagOut.get(0, n);
+	}
+
+	@TearDown
+	public void tearDown() {
+		c2r.close();
+		c2c.close();
+		r2c.close();
+		imagOut.close();
+		realOut.close();
+		imagIn.close();
+		realIn.close();
+	}
+
+	/* planning */
+
+	@Benchmark
+	public void plan_r2c() {
+		FFTW_Plan.plan_split_r2c(realIn, realOut, imagOut, dims).close();
+	}
+
+	@Benchmark
+	public void plan_c2c() {
+		FFTW_Plan.plan_split_c2c(realIn, imagIn, realOut, imagOut, dims).close();
+	}
+
+	@Benchmark
+	public void plan_c2r() {
+		FFTW_Plan.plan_split_c2r(realIn, imagIn, realOut, dims).close();
+	}
+
+	/* execution */
+
+	@Benchmark
+	public NativeRealArray execute_r2c() {
+		r2c.execute();
+		return realOut;
+	}
+
+	@Benchmark
+	public NativeRealArray execute_c2c() {
+		c2c.execute();
+		return realOut;
+	}
+
+	@Benchmark
+	public NativeRealArray execute_c2r() {
+		/* c2r overwrites its input, restore it so every invocation transforms the same spectrum */
+		refill_c2r();
+		c2r.execute();
+		return realOut;
+	}
+
+	@Benchmark
+	public NativeRealArray refill_c2r() {
+		realIn.set(spectrumRe);
+		return imagIn.set(spectrumIm);
+	}
+
+	/* java <-> native transfer */
+
+	@Benchmark
+	public NativeRealArray transfer_toNative() {
+		return realIn.set(javaArray);
+	}
+
+	@Benchmark
+	public double[] transfer_fromNative() {
+		return realOut.get(0, javaArray);
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hageldave.ezfftw.dp.NativeRealArray;
+import hageldave.ezfftw.dp.Transpose;
+
+/**
+ * Compares transposing a {@link NativeRealArray} element by element through get/set
+ * with the cache blocked {@link Transpose} methods.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransposeBenchmark {
+
+	@Param({"256x256","1024x1024","2048x1000"})
+	public String shape;
+
+	long width, height;
+	NativeRealArray src, dst;
+
+	@Setup
+	public void setup() {
+		long[] dims = BenchUtils.parseShape(shape);
+		width = dims[0];
+		height = dims[1];
+		int n = BenchUtils.numElements(dims);
+		src = new NativeRealArray(n).set(BenchUtils.randomArray(n, 1));
+		dst = new NativeRealArray(n);
+	}
+
+	@TearDown
+	public void tearDown() {
+		dst.close();
+		src.close();
+	}
+
+	@Benchmark
+	public NativeRealArray perElement() {
+		for(long y = 0; y < height; y++){
+			for(long x = 0; x < width; x++){
+				dst.set(y+x*height, src.get(x+y*width));
+			}
+		}
+		return dst;
+	}
+
+	@Benchmark
+	public NativeRealArray blocked() {
+		Transpose.transpose(src, dst, width, height);
+		return dst;
+	}
+
+	@Benchmark
+	public NativeRealArray blockedInPlace() {
+		if(width == height)
+			Transpose.transposeInPlace(src, width);
+		return src;
+	}
+
+}
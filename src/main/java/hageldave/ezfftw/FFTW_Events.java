@@ -0,0 +1,126 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw;
+
+/**
+ * Facade for the Java Flight Recorder (JFR) events emitted by ezFFTW.
+ * <p>
+ * The following events are emitted (see <tt>hageldave.ezfftw.*</tt> in JDK Mission Control):
+ * <ul>
+ * <li><tt>hageldave.ezfftw.Plan</tt> - creation of an FFTW plan by the planner</li>
+ * <li><tt>hageldave.ezfftw.Execute</tt> - execution of a transform</li>
+ * <li><tt>hageldave.ezfftw.PlannerLock</tt> - waiting for the {@link FFTW_Initializer#PLANNER_LOCK}</li>
+ * <li><tt>hageldave.ezfftw.Transfer</tt> - copying between a java array, sampler or writer and a native array</li>
+ * </ul>
+ * Each event carries the transform kind, shape, planner flags, number of FFTW threads and the
+ * number of bytes moved. All events are disabled by default and have to be enabled explicitly
+ * for a recording, e.g. <tt>recording.enable("hageldave.ezfftw.Execute")</tt> or through a
+ * custom <tt>.jfc</tt> settings file.
+ * <p>
+ * This class only references the <tt>jdk.jfr</tt> API indirectly, so that ezFFTW keeps working on
+ * JVMs without Flight Recorder where all methods are no-ops. Events are passed around as
+ * {@link Object} for the same reason. When no recording is running or the event type is
+ * disabled, {@link #begin(int)} returns null without allocating anything.
+ * <p>
+ * Example Code (as used internally):
+ * <pre>
+ * {@code
+ * Object event = FFTW_Events.begin(FFTW_Events.EXECUTE);
+ * fftw3.fftw_execute(plan);
+ * FFTW_Events.commit(event, "r2c", shape, 1, flags, 1, bytes);
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+public final class FFTW_Events {
+
+	/** event types */
+	public static final int PLAN = 0, EXECUTE = 1, PLANNER_LOCK = 2, TRANSFER = 3;
+
+	private static final Recorder RECORDER = loadRecorder();
+
+	private FFTW_Events() {}
+
+	/**
+	 * Returns whether Flight Recorder is available on this JVM, i.e. whether events can be recorded at all.
+	 * @return true when the jdk.jfr API is present
+	 */
+	public static boolean isAvailable() {
+		return RECORDER != null;
+	}
+
+	/**
+	 * Returns whether events of the specified type are currently recorded.
+	 * @param type one of {@link #PLAN}, {@link #EXECUTE}, {@link #PLANNER_LOCK}, {@link #TRANSFER}
+	 * @return true when a running recording has the event type enabled
+	 */
+	public static boolean isEnabled(int type) {
+		Recorder recorder = RECORDER;
+		return recorder != null && recorder.isEnabled(type);
+	}
+
+	/**
+	 * Begins timing an event of the specified type.
+	 * @param type one of {@link #PLAN}, {@link #EXECUTE}, {@link #PLANNER_LOCK}, {@link #TRANSFER}
+	 * @return the event to be passed to {@link #commit(Object, String, long[], long, int, int, long)},
+	 * or null when the event type is not recorded
+	 */
+	public static Object begin(int type) {
+		Recorder recorder = RECORDER;
+		return recorder == null ? null : recorder.begin(type);
+	}
+
+	/**
+	 * Ends timing the specified event and commits it with the specified attributes.
+	 * Does nothing when the event is null.
+	 * @param event as returned by {@link #begin(int)}
+	 * @param kind of the transform (e.g. <tt>r2c</tt>) or transfer (<tt>sampler</tt>, <tt>writer</tt>, <tt>array in</tt>, <tt>array out</tt>)
+	 * @param shape dimensions of a single signal (not modified)
+	 * @param howmany number of signals of a batched transform, 1 otherwise
+	 * @param flags FFTW planner flags, 0 for transfers
+	 * @param threads number of threads used by FFTW
+	 * @param bytes number of bytes read and written
+	 */
+	public static void commit(Object event, String kind, long[] shape, long howmany, int flags, int threads, long bytes) {
+		if(event != null){
+			RECORDER.commit(event, kind, shape, howmany, flags, threads, bytes);
+		}
+	}
+
+	private static Recorder loadRecorder() {
+		try {
+			Class.forName("jdk.jfr.Event", false, FFTW_Events.class.getClassLoader());
+			return (Recorder) Class.forName("hageldave.ezfftw.FFTW_JfrRecorder").getDeclaredConstructor().newInstance();
+		} catch (LinkageError | ReflectiveOperationException | SecurityException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Implemented by <tt>FFTW_JfrRecorder</tt> (src/main/java11), which is only compiled on JDK 11+
+	 * and only loaded when jdk.jfr is present.
+	 */
+	interface Recorder {
+		boolean isEnabled(int type);
+		Object begin(int type);
+		void commit(Object event, String kind, long[] shape, long howmany, int flags, int threads, long bytes);
+	}
+
+}
@@ -18,6 +18,9 @@
 
 package hageldave.ezfftw;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.bytedeco.javacpp.DoublePointer;
 import org.bytedeco.javacpp.Loader;
 import org.bytedeco.javacpp.fftw3;
@@ -26,14 +29,19 @@ import org.bytedeco.javacpp.fftw3.fftw_plan;
 /**
  * Class with sole purpose of loading the native libraries via
  * {@link #initFFTW()}.
- * Also contains the {@link #PLANNER_LOCK} used for synchronizing 
+ * Also contains the {@link #PLANNER_REENTRANT_LOCK} used for synchronizing 
  * calls to FFTW planner routines.
+ * <p>
+ * Locking is done with {@link ReentrantLock}s instead of monitors (synchronized),
+ * so that threads waiting for the planner do not pin the carrier thread when
+ * running on virtual threads.
  * 
  * @author hageldave
  */
 public final class FFTW_Initializer {
 
-	private static boolean setupDone = false;
+	private static volatile boolean setupDone = false;
+	private static final ReentrantLock SETUP_LOCK = new ReentrantLock();
 
 	/**
 	 * Loads the native fftw3 library.
@@ -42,24 +50,100 @@ public final class FFTW_Initializer {
 	 */
 	public static void initFFTW(){
 		if(!setupDone){
-			synchronized (FFTW_Initializer.class) {
+			SETUP_LOCK.lock();
+			try {
 				if(!setupDone){
 					String loadedlib = Loader.load(fftw3.class);
 					setupDone = true;
 					System.out.format("Loaded FFTW library [%s]%n",loadedlib);
 				}
+			} finally {
+				SETUP_LOCK.unlock();
 			}
 		}
 	}
+
+	/**
+	 * Starts loading the native fftw3 library on a separate daemon thread (named <tt>ezfftw-preload</tt>)
+	 * and returns immediately. This way the loading (which may include extracting the native
+	 * library from the jar) can overlap with the startup of the application, so that the first
+	 * transform does not have to pay for it.
+	 * Calling {@link #initFFTW()} while loading is in progress blocks until loading is done.
+	 * @return future that completes when the library has been loaded, or exceptionally when
+	 * loading failed. An already completed future is returned when the library was loaded before.
+	 * @since 0.1.3
+	 */
+	public static CompletableFuture<Void> initFFTWAsync(){
+		if(setupDone){
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		Thread preloader = new Thread(()->{
+			try {
+				initFFTW();
+				future.complete(null);
+			} catch (Throwable t) {
+				future.completeExceptionally(t);
+			}
+		}, "ezfftw-preload");
+		preloader.setDaemon(true);
+		preloader.start();
+		return future;
+	}
+
+	/**
+	 * Returns whether the native fftw3 library has already been loaded.
+	 * @return true when loaded
+	 * @since 0.1.3
+	 */
+	public static boolean isInitialized(){
+		return setupDone;
+	}
 	
+	/**
+	 * Lock used for synchronizing calls to planner routines of FFTW
+	 * since planning is not thread safe.
+	 * Use it like this:
+	 * <pre>
+	 * {@code
+	 * PLANNER_REENTRANT_LOCK.lock();
+	 * try {
+	 *     // call planner routines
+	 * } finally {
+	 *     PLANNER_REENTRANT_LOCK.unlock();
+	 * }
+	 * }</pre>
+	 * The planner routines of this library are called while holding this lock and
+	 * additionally the monitor of the deprecated {@link #PLANNER_LOCK}.
+	 * @see <a href="http://www.fftw.org/fftw3_doc/Thread-safety.html">
+	 * http://www.fftw.org/fftw3_doc/Thread-safety.html
+	 * </a>
+	 * @since 0.1.3
+	 */
+	public static final ReentrantLock PLANNER_REENTRANT_LOCK = new ReentrantLock();
+
 	/**
 	 * Object used for synchronizing calls to planner routines of FFTW
 	 * since planning is not thread safe.
+	 * Use it like this:
+	 * <pre>
+	 * {@code
+	 * synchronized(PLANNER_LOCK){
+	 *     // call planner routines
+	 * }
+	 * }</pre>
+	 * The planner routines of this library are still called while holding this monitor, so
+	 * synchronizing on it keeps excluding them. The monitor is only entered after acquiring
+	 * {@link #PLANNER_REENTRANT_LOCK}, so threads of this library do not wait for it unless
+	 * other code synchronizes on it.
+	 * @deprecated blocking on a monitor pins the carrier thread of a virtual thread,
+	 * use {@link #PLANNER_REENTRANT_LOCK} instead.
 	 * @see <a href="http://www.fftw.org/fftw3_doc/Thread-safety.html">
 	 * http://www.fftw.org/fftw3_doc/Thread-safety.html
 	 * </a>
 	 * @since 0.1.1
 	 */
+	@Deprecated
 	public static final Object PLANNER_LOCK = new Object();
 
 }
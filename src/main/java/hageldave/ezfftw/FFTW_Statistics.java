@@ -0,0 +1,374 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Runtime statistics of ezFFTW, exposed through JMX as <tt>hageldave.ezfftw:type=FFTW_Statistics</tt>
+ * (see {@link FFTW_StatisticsMXBean} for the attributes).
+ * <p>
+ * The MBean is not registered automatically, since starting the platform MBean server takes
+ * considerable time. Register it with {@link #registerMBean()} or the system property
+ * <tt>{@value #MBEAN_PROPERTY}=true</tt> (then it is registered when this class is initialized,
+ * which happens when the first native array is created). Statistics of double and float precision
+ * classes are combined.
+ * <p>
+ * The static <tt>record</tt> and <tt>register</tt> methods are used by the dp and fp packages
+ * to report to the statistics and are not meant to be called by users.
+ * Recording is lock free and does not allocate (except for the first execution of a new
+ * transform shape). Recording can be disabled with the system property
+ * <tt>{@value #ENABLED_PROPERTY}=false</tt> or at runtime through the <tt>Enabled</tt> attribute.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+public final class FFTW_Statistics implements FFTW_StatisticsMXBean {
+
+	/** name under which the MBean is registered */
+	public static final String OBJECT_NAME = "hageldave.ezfftw:type=FFTW_Statistics";
+	/** system property that disables recording when set to <tt>false</tt> */
+	public static final String ENABLED_PROPERTY = "hageldave.ezfftw.statistics";
+	/** system property that registers the MBean on initialization when set to <tt>true</tt> (and recording is not disabled) */
+	public static final String MBEAN_PROPERTY = "hageldave.ezfftw.statistics.mbean";
+
+	private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+
+	private static final ConcurrentHashMap<String, LongAdder> transformCounts = new ConcurrentHashMap<>();
+	private static final LongAdder executeTime = new LongAdder();
+	private static final AtomicLong executeTimeMax = new AtomicLong();
+	private static final LongAdder numPlans = new LongAdder();
+	private static final LongAdder planningTime = new LongAdder();
+	private static final AtomicLong planningTimeMax = new AtomicLong();
+	private static final LongAdder lockWait = new LongAdder();
+	private static final AtomicLong lockWaitMax = new AtomicLong();
+	private static final LongAdder cacheHits = new LongAdder();
+	private static final LongAdder cacheMisses = new LongAdder();
+	/* gauges, native arrays per precision and open pools (weakly referenced) */
+	private static final CopyOnWriteArrayList<LongSupplier[]> nativeArrays = new CopyOnWriteArrayList<>();
+	private static final Set<PoolUsage> pools = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	private static final FFTW_Statistics INSTANCE = new FFTW_Statistics();
+	private static final AtomicBoolean registered = new AtomicBoolean();
+
+	static {
+		if(enabled && Boolean.getBoolean(MBEAN_PROPERTY)){
+			registerMBean();
+		}
+	}
+
+	private FFTW_Statistics() {}
+
+	/**
+	 * Returns the statistics (the MBean).
+	 * @return statistics
+	 */
+	public static FFTW_Statistics getStatistics() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers the statistics with the platform MBean server under {@value #OBJECT_NAME},
+	 * unless already registered by this method.
+	 * Note that this starts the platform MBean server if it is not running yet.
+	 * @return true when registered, false when registration failed (e.g. the name is
+	 * taken by another class loader or JMX is unavailable)
+	 */
+	public static boolean registerMBean() {
+		if(registered.compareAndSet(false, true)){
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+			} catch (JMException | SecurityException | LinkageError e) {
+				/* statistics stay accessible via getStatistics() */
+				registered.set(false);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Usage of a thread pool executing transforms, e.g. an <tt>AsyncFFT</tt>.
+	 * @see FFTW_Statistics#registerPool(PoolUsage)
+	 */
+	public interface PoolUsage {
+		/** @return number of threads */
+		int getNumThreads();
+		/** @return number of threads that are executing a task */
+		int getNumRunning();
+		/** @return number of queued tasks */
+		int getNumQueued();
+	}
+
+	/**
+	 * Returns whether statistics are currently recorded.
+	 * Callers should only prepare arguments to the <tt>record</tt> methods when this is true.
+	 * @return true when recording is enabled
+	 */
+	public static boolean isRecording() {
+		return enabled;
+	}
+
+	/**
+	 * Returns the key of the specified transform, which has to be passed to
+	 * {@link #recordExecute(String, long, long)}. Callers should obtain the key once
+	 * and only when {@link #isRecording()}.
+	 * @param kind precision and kind of the transform, e.g. <tt>double r2c</tt>
+	 * @param shape dimensions of a single signal of the transform
+	 * @return key of the transform
+	 */
+	public static String transformKey(String kind, long[] shape) {
+		return kind + " " + GeneralUtils.dimensionsToString(shape);
+	}
+
+	/**
+	 * Records the execution of a transform.
+	 * @param transformKey of the transform as obtained from {@link #transformKey(String, long[])}
+	 * @param howmany number of signals of a batched transform, 1 otherwise
+	 * @param nanos execution time
+	 */
+	public static void recordExecute(String transformKey, long howmany, long nanos) {
+		if(!enabled){
+			return;
+		}
+		/* get first, computeIfAbsent may lock even if present */
+		LongAdder counter = transformCounts.get(transformKey);
+		if(counter == null){
+			counter = transformCounts.computeIfAbsent(transformKey, k->new LongAdder());
+		}
+		counter.add(howmany);
+		executeTime.add(nanos);
+		updateMax(executeTimeMax, nanos);
+	}
+
+	/**
+	 * Records the creation of a plan.
+	 * @param lockWaitNanos time spent waiting for the planner lock
+	 * @param planningNanos time spent in the planner
+	 */
+	public static void recordPlanning(long lockWaitNanos, long planningNanos) {
+		if(!enabled){
+			return;
+		}
+		recordLockWait(lockWaitNanos);
+		numPlans.increment();
+		planningTime.add(planningNanos);
+		updateMax(planningTimeMax, planningNanos);
+	}
+
+	/**
+	 * Records waiting for the planner lock (e.g. for destroying a plan).
+	 * @param nanos time spent waiting
+	 */
+	public static void recordLockWait(long nanos) {
+		if(!enabled){
+			return;
+		}
+		lockWait.add(nanos);
+		updateMax(lockWaitMax, nanos);
+	}
+
+	/**
+	 * Records a lookup in a plan cache.
+	 * @param hit true when a cached plan was found
+	 */
+	public static void recordCacheAccess(boolean hit) {
+		if(!enabled){
+			return;
+		}
+		(hit ? cacheHits:cacheMisses).increment();
+	}
+
+	/**
+	 * Registers the live native array statistics of a precision (called once per precision).
+	 * @param numLive supplier of number of live arrays
+	 * @param bytesLive supplier of number of bytes of live arrays
+	 */
+	public static void registerNativeArrays(LongSupplier numLive, LongSupplier bytesLive) {
+		nativeArrays.add(new LongSupplier[]{numLive, bytesLive});
+	}
+
+	/**
+	 * Registers a pool whose usage is included in the statistics until it is unregistered
+	 * or garbage collected.
+	 * @param pool to register
+	 */
+	public static void registerPool(PoolUsage pool) {
+		pools.add(pool);
+	}
+
+	/**
+	 * Removes a pool from the statistics.
+	 * @param pool to unregister
+	 */
+	public static void unregisterPool(PoolUsage pool) {
+		pools.remove(pool);
+	}
+
+	private static void updateMax(AtomicLong max, long value) {
+		long current;
+		while(value > (current = max.get()) && !max.compareAndSet(current, value));
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		FFTW_Statistics.enabled = enabled;
+	}
+
+	@Override
+	public long getNumTransforms() {
+		long sum = 0;
+		for(LongAdder count: transformCounts.values())
+			sum += count.sum();
+		return sum;
+	}
+
+	@Override
+	public Map<String, Long> getTransformCounts() {
+		Map<String, Long> counts = new TreeMap<>();
+		transformCounts.forEach((k,v)->{
+			long count = v.sum();
+			if(count > 0) counts.put(k, count);
+		});
+		return counts;
+	}
+
+	@Override
+	public long getExecuteTimeTotalNanos() {
+		return executeTime.sum();
+	}
+
+	@Override
+	public long getExecuteTimeMaxNanos() {
+		return executeTimeMax.get();
+	}
+
+	@Override
+	public long getNumPlans() {
+		return numPlans.sum();
+	}
+
+	@Override
+	public long getPlanningTimeTotalNanos() {
+		return planningTime.sum();
+	}
+
+	@Override
+	public long getPlanningTimeMaxNanos() {
+		return planningTimeMax.get();
+	}
+
+	@Override
+	public long getPlannerLockWaitTotalNanos() {
+		return lockWait.sum();
+	}
+
+	@Override
+	public long getPlannerLockWaitMaxNanos() {
+		return lockWaitMax.get();
+	}
+
+	@Override
+	public long getLiveNativeArrays() {
+		long sum = 0;
+		for(LongSupplier[] s: nativeArrays)
+			sum += s[0].getAsLong();
+		return sum;
+	}
+
+	@Override
+	public long getLiveNativeBytes() {
+		long sum = 0;
+		for(LongSupplier[] s: nativeArrays)
+			sum += s[1].getAsLong();
+		return sum;
+	}
+
+	@Override
+	public int getPoolThreads() {
+		synchronized (pools) {
+			return pools.stream().mapToInt(PoolUsage::getNumThreads).sum();
+		}
+	}
+
+	@Override
+	public int getPoolActiveThreads() {
+		synchronized (pools) {
+			return pools.stream().mapToInt(PoolUsage::getNumRunning).sum();
+		}
+	}
+
+	@Override
+	public int getPoolQueuedTasks() {
+		synchronized (pools) {
+			return pools.stream().mapToInt(PoolUsage::getNumQueued).sum();
+		}
+	}
+
+	@Override
+	public long getPlanCacheHits() {
+		return cacheHits.sum();
+	}
+
+	@Override
+	public long getPlanCacheMisses() {
+		return cacheMisses.sum();
+	}
+
+	@Override
+	public double getPlanCacheHitRate() {
+		long hits = cacheHits.sum();
+		long lookups = hits + cacheMisses.sum();
+		return lookups == 0 ? 0 : hits/(double)lookups;
+	}
+
+	@Override
+	public void resetCounters() {
+		transformCounts.clear();
+		executeTime.reset();
+		executeTimeMax.set(0);
+		numPlans.reset();
+		planningTime.reset();
+		planningTimeMax.set(0);
+		lockWait.reset();
+		lockWaitMax.set(0);
+		cacheHits.reset();
+		cacheMisses.reset();
+	}
+
+}
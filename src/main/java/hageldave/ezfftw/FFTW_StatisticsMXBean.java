@@ -0,0 +1,105 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link FFTW_Statistics}, registered with the platform MBean server
+ * as <tt>hageldave.ezfftw:type=FFTW_Statistics</tt>.
+ * <p>
+ * Counters and times accumulate since the first use of ezFFTW or the last call to
+ * {@link #resetCounters()}. All times are in nanoseconds.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+public interface FFTW_StatisticsMXBean {
+
+	/** @return whether statistics are recorded */
+	boolean isEnabled();
+
+	/**
+	 * Enables or disables recording of statistics. Gauges like live native arrays or pool usage
+	 * are always reported.
+	 * @param enabled true to record statistics
+	 */
+	void setEnabled(boolean enabled);
+
+	/** @return total number of transformed signals */
+	long getNumTransforms();
+
+	/**
+	 * @return number of transformed signals by precision, kind and shape, e.g. <tt>double r2c 64x64</tt>,
+	 * where a batched transform counts each of its signals
+	 */
+	Map<String, Long> getTransformCounts();
+
+	/** @return total time spent executing transforms */
+	long getExecuteTimeTotalNanos();
+
+	/** @return longest execution of a single transform */
+	long getExecuteTimeMaxNanos();
+
+	/** @return number of plans created by the FFTW planner */
+	long getNumPlans();
+
+	/** @return total time spent in the FFTW planner (excluding waiting for the planner lock) */
+	long getPlanningTimeTotalNanos();
+
+	/** @return longest planning of a single plan */
+	long getPlanningTimeMaxNanos();
+
+	/** @return total time spent waiting for the planner lock (planning and destroying plans) */
+	long getPlannerLockWaitTotalNanos();
+
+	/** @return longest wait for the planner lock */
+	long getPlannerLockWaitMaxNanos();
+
+	/** @return number of native arrays that are currently allocated (not closed) */
+	long getLiveNativeArrays();
+
+	/** @return number of bytes of native arrays that are currently allocated (not closed) */
+	long getLiveNativeBytes();
+
+	/** @return number of threads of all open asynchronous transform pools */
+	int getPoolThreads();
+
+	/** @return number of threads of all open asynchronous transform pools that are executing a transform */
+	int getPoolActiveThreads();
+
+	/** @return number of transforms waiting in all open asynchronous transform pools */
+	int getPoolQueuedTasks();
+
+	/** @return number of plan cache lookups that found a cached plan */
+	long getPlanCacheHits();
+
+	/** @return number of plan cache lookups that required planning */
+	long getPlanCacheMisses();
+
+	/** @return ratio of plan cache hits to lookups, 0 when there were no lookups */
+	double getPlanCacheHitRate();
+
+	/**
+	 * Resets all counters, accumulated and maximum times to zero.
+	 * Current values like live native arrays or pool usage are unaffected.
+	 */
+	void resetCounters();
+
+}
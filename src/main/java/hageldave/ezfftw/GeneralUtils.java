@@ -128,6 +128,21 @@ public class GeneralUtils {
 	}
 
 
+	/**
+	 * Returns the specified dimensions as string of the sizes separated by 'x',
+	 * e.g. <tt>1024x768</tt> for {1024,768}.
+	 * @param dimensions to be formatted
+	 * @return string of dimensions
+	 */
+	public static String dimensionsToString(long... dimensions){
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < dimensions.length; i++){
+			if(i > 0) sb.append('x');
+			sb.append(dimensions[i]);
+		}
+		return sb.toString();
+	}
+
 	/* increment as in binary counter but with arbitrary limits for each position */
 	private static void incrementCoords(int i, long[] coordinates, long[] dims){
 		coordinates[i]++;
@@ -0,0 +1,275 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Describes where the elements of an N-dimensional signal are located inside a
+ * (larger) one dimensional array, by an offset to the first element and a size and
+ * stride (distance between two consecutive elements in array elements) per axis.
+ * The element at coordinates <tt>(x0,x1,...)</tt> is located at index
+ * <br><tt>offset + x0*stride0 + x1*stride1 + ...</tt><br>
+ * of the array.
+ * <p>
+ * Views are used to transform sub-regions of an array in place without copying,
+ * e.g. a rectangular region of interest, a single column or a decimated grid.
+ * The view of a dense array in row major order is obtained by {@link #of(long...)},
+ * from which other views can be derived using {@link #region(long[], long[])},
+ * {@link #subsample(long...)} or {@link #axis(int, long...)}.
+ * <p>
+ * Views also describe the memory layout of data that is not in ezFFTW's row major order,
+ * e.g. C order arrays by {@link #lastFastest(long...)} or any other layout by explicit strides,
+ * so that such data can be transformed without transposing it first.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * // 64x64 region at (100,200) of a 1024x768 image
+ * StridedView roi = StridedView.of(1024,768).region(new long[]{100,200}, new long[]{64,64});
+ * FFTW_Guru.execute_split_c2c(roi, real, imag, roi, real, imag); // in place
+ * }</pre>
+ * Instances are immutable.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+public final class StridedView {
+
+	/** index of the first element (at coordinates 0,0,...) in the array */
+	public final long offset;
+	private final long[] sizes;
+	private final long[] strides;
+
+	/**
+	 * Creates a new view with the specified offset, sizes and strides.
+	 * @param offset index of the first element in the array
+	 * @param sizes number of elements along each axis
+	 * @param strides distance in array elements between consecutive elements along each axis
+	 * @throws NullPointerException when sizes or strides is null
+	 * @throws IllegalArgumentException <br>
+	 * when offset is negative <br>
+	 * when no sizes are specified <br>
+	 * when the number of strides differs from the number of sizes <br>
+	 * when a size or stride is not positive
+	 */
+	public StridedView(long offset, long[] sizes, long[] strides) {
+		Objects.requireNonNull(sizes, ()->"Cannot use null as sizes.");
+		Objects.requireNonNull(strides, ()->"Cannot use null as strides.");
+		if(offset < 0){
+			throw new IllegalArgumentException("Offset cannot be negative but is " + offset + ".");
+		}
+		GeneralUtils.requirePositive(sizes.length, ()->"No sizes were specified, need to pass at least 1 size.");
+		GeneralUtils.requireEqual(sizes.length, strides.length,
+				()->"Number of sizes (" + sizes.length + ") and strides (" + strides.length + ") differ.");
+		GeneralUtils.requirePosititveDimensions(sizes);
+		for(int i = 0; i < strides.length; i++){
+			final int i_ = i;
+			GeneralUtils.requirePositive(strides[i], ()->"All strides need to be positive, but stride number "+i_+" is "+strides[i_]+".");
+		}
+		this.offset = offset;
+		this.sizes = sizes.clone();
+		this.strides = strides.clone();
+	}
+
+	/**
+	 * Returns the view of a dense array of the specified dimensions in row major order
+	 * (first dimension is fastest varying), i.e. the layout assumed by {@link hageldave.ezfftw.dp.FFTW_Guru}.
+	 * Same as {@link #firstFastest(long...)}.
+	 * @param dimensions of the array
+	 * @return view of the whole array
+	 * @throws IllegalArgumentException when no dimensions are specified or one is not positive
+	 */
+	public static StridedView of(long... dimensions) {
+		return firstFastest(dimensions);
+	}
+
+	/**
+	 * Returns the view of a dense array of the specified dimensions where the first dimension
+	 * is the fastest varying one (ezFFTW's row major order, Fortran order).
+	 * @param dimensions of the array
+	 * @return view of the whole array
+	 * @throws IllegalArgumentException when no dimensions are specified or one is not positive
+	 */
+	public static StridedView firstFastest(long... dimensions) {
+		long[] strides = new long[dimensions.length];
+		long stride = 1;
+		for(int i = 0; i < dimensions.length; i++){
+			strides[i] = stride;
+			stride *= dimensions[i];
+		}
+		return new StridedView(0, dimensions, strides);
+	}
+
+	/**
+	 * Returns the view of a dense array of the specified dimensions where the last dimension
+	 * is the fastest varying one (C order as used by C and NumPy).
+	 * E.g. a NumPy array of shape (depth,height,width) is described by
+	 * <tt>lastFastest(depth,height,width)</tt>.
+	 * Transforms using this view are computed on the data as is, without transposing it.
+	 * @param dimensions of the array
+	 * @return view of the whole array
+	 * @throws IllegalArgumentException when no dimensions are specified or one is not positive
+	 */
+	public static StridedView lastFastest(long... dimensions) {
+		long[] strides = new long[dimensions.length];
+		long stride = 1;
+		for(int i = dimensions.length-1; i >= 0; i--){
+			strides[i] = stride;
+			stride *= dimensions[i];
+		}
+		return new StridedView(0, dimensions, strides);
+	}
+
+	/**
+	 * Returns the rectangular sub-region of this view starting at the specified origin.
+	 * @param origin coordinates (in this view) of the first element of the region
+	 * @param sizes of the region
+	 * @return view of the region
+	 * @throws IllegalArgumentException when origin or sizes do not match the rank of this view
+	 * or the region is not inside this view.
+	 */
+	public StridedView region(long[] origin, long[] sizes) {
+		requireRank(origin.length, "origin");
+		requireRank(sizes.length, "sizes");
+		long offset = this.offset;
+		for(int i = 0; i < sizes.length; i++){
+			if(origin[i] < 0 || sizes[i] < 1 || origin[i]+sizes[i] > this.sizes[i]){
+				throw new IllegalArgumentException(
+						"Region of size " + sizes[i] + " at " + origin[i] + " does not fit into axis " + i + " of size " + this.sizes[i] + ".");
+			}
+			offset += origin[i]*strides[i];
+		}
+		return new StridedView(offset, sizes, strides);
+	}
+
+	/**
+	 * Returns the view of every <tt>steps[i]</tt>-th element along axis i (decimated grid),
+	 * starting with the first element of this view.
+	 * @param steps per axis
+	 * @return subsampled view
+	 * @throws IllegalArgumentException when steps do not match the rank of this view or a step is not positive
+	 */
+	public StridedView subsample(long... steps) {
+		requireRank(steps.length, "steps");
+		GeneralUtils.requirePosititveDimensions(steps);
+		long[] sizes = new long[steps.length];
+		long[] strides = new long[steps.length];
+		for(int i = 0; i < steps.length; i++){
+			sizes[i] = (this.sizes[i]+steps[i]-1)/steps[i];
+			strides[i] = this.strides[i]*steps[i];
+		}
+		return new StridedView(offset, sizes, strides);
+	}
+
+	/**
+	 * Returns the one dimensional view of the line along the specified axis through
+	 * the specified coordinates, e.g. a single column of an image.
+	 * The coordinate for the specified axis itself is ignored.
+	 * @param axis along which the line runs
+	 * @param coordinates of a point on the line
+	 * @return 1D view of the line
+	 * @throws IllegalArgumentException when coordinates do not match the rank of this view or are out of bounds
+	 */
+	public StridedView axis(int axis, long... coordinates) {
+		requireRank(coordinates.length, "coordinates");
+		if(axis < 0 || axis >= sizes.length){
+			throw new IllegalArgumentException("Axis " + axis + " is not in [0," + sizes.length + "[.");
+		}
+		long[] origin = coordinates.clone();
+		origin[axis] = 0;
+		long[] regionSizes = new long[sizes.length];
+		Arrays.fill(regionSizes, 1);
+		regionSizes[axis] = sizes[axis];
+		StridedView line = region(origin, regionSizes);
+		return new StridedView(line.offset, new long[]{sizes[axis]}, new long[]{strides[axis]});
+	}
+
+	/**
+	 * Returns the array index of the element at the specified coordinates.
+	 * No bounds checks are performed.
+	 * @param coordinates of the element
+	 * @return index in the array
+	 */
+	public long indexOf(long... coordinates) {
+		long index = offset;
+		for(int i = 0; i < coordinates.length; i++){
+			index += coordinates[i]*strides[i];
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the largest array index covered by this view.
+	 * @return index of last element
+	 */
+	public long getMaxIndex() {
+		long index = offset;
+		for(int i = 0; i < sizes.length; i++){
+			index += (sizes[i]-1)*strides[i];
+		}
+		return index;
+	}
+
+	/**
+	 * Throws an {@link IllegalArgumentException} when this view does not fit into an array of
+	 * the specified length.
+	 * @param length of the array
+	 * @param arrayIdentifier name of the array argument to provide informal errors.
+	 * @throws IllegalArgumentException when the largest index of this view is not smaller than length
+	 */
+	public void requireFitsInto(long length, String arrayIdentifier) {
+		if(getMaxIndex() >= length){
+			throw new IllegalArgumentException(
+					"View " + this + " does not fit into " + arrayIdentifier + " of length " + length + ".");
+		}
+	}
+
+	/** @return number of axes */
+	public int getRank() {
+		return sizes.length;
+	}
+
+	/** @return a copy of the sizes */
+	public long[] getSizes() {
+		return sizes.clone();
+	}
+
+	/** @return a copy of the strides */
+	public long[] getStrides() {
+		return strides.clone();
+	}
+
+	/** @return number of elements in this view */
+	public long getNumElements() {
+		return GeneralUtils.numElementsFromDimensions(sizes);
+	}
+
+	@Override
+	public String toString() {
+		return "[offset " + offset + ", sizes " + Arrays.toString(sizes) + ", strides " + Arrays.toString(strides) + "]";
+	}
+
+	private void requireRank(int n, String identifier) {
+		GeneralUtils.requireEqual(n, sizes.length,
+				()->"Number of " + identifier + " (" + n + ") does not match rank of view (" + sizes.length + ").");
+	}
+
+}
@@ -0,0 +1,296 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Objects;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+
+/**
+ * Element-wise kernels for the Java side of the transform pipeline, i.e. precision conversion,
+ * conversion between split and interleaved complex layouts, and spectral math on split complex arrays.
+ * <p>
+ * When the <tt>jdk.incubator.vector</tt> module is available (JDK 16+ with
+ * <tt>--add-modules jdk.incubator.vector</tt>), the kernels are computed with the Vector API
+ * (see {@link #isVectorized()}). Otherwise plain counted loops without data dependent branches
+ * or calls are used, which the HotSpot C2 compiler compiles to SIMD instructions where it can
+ * (superword optimization, which does not cover the layout conversions).
+ * Output arrays may be the same as input arrays for in place operation unless stated otherwise.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public final class ArrayMath {
+
+	/* scalar kernels, always available */
+	static final Kernels SCALAR = new ScalarKernels();
+	/* Vector API kernels when available (compiled from src/main/java16), scalar kernels otherwise */
+	static final Kernels KERNELS = loadKernels();
+
+	private ArrayMath() {}
+
+	/**
+	 * Returns whether the kernels are computed with the Vector API (<tt>jdk.incubator.vector</tt>).
+	 * @return true when vectorized kernels are used, false when scalar kernels are used
+	 */
+	public static boolean isVectorized() {
+		return KERNELS != SCALAR;
+	}
+
+	/**
+	 * Widening conversion of 32 bit floating point values to 64 bit floating point values,
+	 * analogous to {@link System#arraycopy(Object, int, Object, int, int)}.
+	 * @param src source array
+	 * @param srcPos index of first value in source
+	 * @param dst destination array
+	 * @param dstPos index of first value in destination
+	 * @param length number of values to convert
+	 * @throws NullPointerException when one of the arrays is null
+	 * @throws ArrayIndexOutOfBoundsException when one of the ranges exceeds its array
+	 */
+	@DoublePrecisionVersion
+	public static void widen(float[] src, int srcPos, double[] dst, int dstPos, int length) { //#FLOATGEN_IGNORE
+		checkRange(Objects.requireNonNull(src, ()->"Cannot use null as source.").length, srcPos, length);
+		checkRange(Objects.requireNonNull(dst, ()->"Cannot use null as destination.").length, dstPos, length);
+		KERNELS.widen(src, srcPos, dst, dstPos, length);
+	}
+
+	/**
+	 * Narrowing conversion of 64 bit floating point values to 32 bit floating point values,
+	 * analogous to {@link System#arraycopy(Object, int, Object, int, int)}.
+	 * @param src source array
+	 * @param srcPos index of first value in source
+	 * @param dst destination array
+	 * @param dstPos index of first value in destination
+	 * @param length number of values to convert
+	 * @throws NullPointerException when one of the arrays is null
+	 * @throws ArrayIndexOutOfBoundsException when one of the ranges exceeds its array
+	 */
+	@DoublePrecisionVersion
+	public static void narrow(double[] src, int srcPos, float[] dst, int dstPos, int length) { //#FLOATGEN_IGNORE
+		checkRange(Objects.requireNonNull(src, ()->"Cannot use null as source.").length, srcPos, length);
+		checkRange(Objects.requireNonNull(dst, ()->"Cannot use null as destination.").length, dstPos, length);
+		KERNELS.narrow(src, srcPos, dst, dstPos, length);
+	}
+
+	/**
+	 * Converts split complex values to interleaved format, i.e.
+	 * <tt>interleaved[2*i] = real[i]</tt> and <tt>interleaved[2*i+1] = imag[i]</tt>.
+	 * @param real real parts
+	 * @param imag imaginary parts, same length as real
+	 * @param interleaved destination of twice the length of real
+	 * @throws NullPointerException when one of the arrays is null
+	 * @throws IllegalArgumentException when the array lengths do not match
+	 */
+	@DoublePrecisionVersion
+	public static void interleave(double[] real, double[] imag, double[] interleaved) {
+		Objects.requireNonNull(real, ()->"real array cannot be null");
+		int n = real.length;
+		PrecisionDependentUtils.sanityCheckArray(imag, n, "imaginary");
+		PrecisionDependentUtils.sanityCheckArray(interleaved, 2L*n, "interleaved");
+		KERNELS.interleave(real, imag, 0, interleaved, 0, n);
+	}
+
+	/**
+	 * Converts interleaved complex values to split format, i.e.
+	 * <tt>real[i] = interleaved[2*i]</tt> and <tt>imag[i] = interleaved[2*i+1]</tt>.
+	 * @param interleaved complex values
+	 * @param real destination for real parts of half the length of interleaved
+	 * @param imag destination for imaginary parts of half the length of interleaved
+	 * @throws NullPointerException when one of the arrays is null
+	 * @throws IllegalArgumentException when the array lengths do not match
+	 */
+	@DoublePrecisionVersion
+	public static void deinterleave(double[] interleaved, double[] real, double[] imag) {
+		Objects.requireNonNull(real, ()->"real array cannot be null");
+		int n = real.length;
+		PrecisionDependentUtils.sanityCheckArray(imag, n, "imaginary");
+		PrecisionDependentUtils.sanityCheckArray(interleaved, 2L*n, "interleaved");
+		KERNELS.deinterleave(interleaved, 0, real, imag, 0, n);
+	}
+
+	/**
+	 * Element-wise complex multiplication of split complex arrays <tt>out = a*b</tt>.
+	 * @param aReal real parts of a
+	 * @param aImag imaginary parts of a
+	 * @param bReal real parts of b
+	 * @param bImag imaginary parts of b
+	 * @param outReal destination for real parts (may be aReal or bReal)
+	 * @param outImag destination for imaginary parts (may be aImag or bImag)
+	 * @throws NullPointerException when one of the arrays is null
+	 * @throws IllegalArgumentException when the array lengths differ
+	 */
+	@DoublePrecisionVersion
+	public static void multiply(double[] aReal, double[] aImag, double[] bReal, double[] bImag, double[] outReal, double[] outImag) {
+		Objects.requireNonNull(aReal, ()->"real a array cannot be null");
+		int n = aReal.length;
+		PrecisionDependentUtils.sanityCheckArray(aImag, n, "imaginary a");
+		PrecisionDependentUtils.sanityCheckArray(bReal, n, "real b");
+		PrecisionDependentUtils.sanityCheckArray(bImag, n, "imaginary b");
+		PrecisionDependentUtils.sanityCheckArray(outReal, n, "real output");
+		PrecisionDependentUtils.sanityCheckArray(outImag, n, "imaginary output");
+		KERNELS.multiply(aReal, aImag, bReal, bImag, outReal, outImag, n);
+	}
+
+	/**
+	 * Computes the magnitude <tt>sqrt(real^2 + imag^2)</tt> of split complex values.
+	 * Unlike <tt>Math.hypot</tt> intermediate overflow is not avoided.
+	 * @param real real parts
+	 * @param imag imaginary parts
+	 * @param magnitude destination (may be real or imag)
+	 * @throws NullPointerException when one of the arrays is null
+	 * @throws IllegalArgumentException when the array lengths differ
+	 */
+	@DoublePrecisionVersion
+	public static void magnitude(double[] real, double[] imag, double[] magnitude) {
+		Objects.requireNonNull(real, ()->"real array cannot be null");
+		int n = real.length;
+		PrecisionDependentUtils.sanityCheckArray(imag, n, "imaginary");
+		PrecisionDependentUtils.sanityCheckArray(magnitude, n, "magnitude");
+		KERNELS.magnitude(real, imag, magnitude, n);
+	}
+
+	/**
+	 * Multiplies all values of the specified array by the specified factor in place.
+	 * @param array to be scaled
+	 * @param factor to multiply with
+	 * @throws NullPointerException when array is null
+	 */
+	@DoublePrecisionVersion
+	public static void scale(double[] array, double factor) {
+		Objects.requireNonNull(array, ()->"Cannot scale null array.");
+		KERNELS.scale(array, factor, array.length);
+	}
+
+	/**
+	 * Divides the specified split complex values by their number in place, which normalizes
+	 * the result of a 1D or multi-dimensional inverse transform of {@link FFT}.
+	 * @param real real parts
+	 * @param imag imaginary parts, same length as real
+	 * @throws NullPointerException when one of the arrays is null
+	 * @throws IllegalArgumentException when the array lengths differ
+	 */
+	@DoublePrecisionVersion
+	public static void normalize(double[] real, double[] imag) {
+		Objects.requireNonNull(real, ()->"real array cannot be null");
+		PrecisionDependentUtils.sanityCheckArray(imag, real.length, "imaginary");
+		double factor = 1.0/real.length;
+		scale(real, factor);
+		scale(imag, factor);
+	}
+
+	private static Kernels loadKernels() {
+		try {
+			return (Kernels) Class.forName("hageldave.ezfftw.dp.VectorizedArrayMath").getDeclaredConstructor().newInstance();
+		} catch (LinkageError | ReflectiveOperationException | SecurityException e) {
+			/* not compiled (JDK < 16), unsupported class version or module jdk.incubator.vector not added */
+			return SCALAR;
+		}
+	}
+
+	private static void checkRange(int arrayLength, int offset, int length) {
+		if(offset < 0 || length < 0 || offset > arrayLength-length){
+			throw new ArrayIndexOutOfBoundsException(
+				String.format("Cannot access %d values starting from %d, array is of length %d",
+						length, offset, arrayLength));
+		}
+	}
+
+	/**
+	 * Implementation of the kernels on ranges of arrays, arguments are not checked.
+	 * Implemented by {@link ScalarKernels} and <tt>VectorizedArrayMath</tt> (src/main/java16).
+	 */
+	interface Kernels {
+		void widen(float[] src, int srcPos, double[] dst, int dstPos, int length); //#FLOATGEN_IGNORE
+		void narrow(double[] src, int srcPos, float[] dst, int dstPos, int length); //#FLOATGEN_IGNORE
+		/* values pos..pos+length of real and imag to interleavedPos..interleavedPos+2*length */
+		void interleave(double[] real, double[] imag, int pos, double[] interleaved, int interleavedPos, int length);
+		/* values interleavedPos..interleavedPos+2*length to pos..pos+length of real and imag */
+		void deinterleave(double[] interleaved, int interleavedPos, double[] real, double[] imag, int pos, int length);
+		void multiply(double[] aReal, double[] aImag, double[] bReal, double[] bImag, double[] outReal, double[] outImag, int length);
+		void magnitude(double[] real, double[] imag, double[] magnitude, int length);
+		void scale(double[] array, double factor, int length);
+	}
+
+	/* plain loops, vectorized by C2 where possible */
+	static class ScalarKernels implements Kernels {
+
+		@Override
+		public void widen(float[] src, int srcPos, double[] dst, int dstPos, int length) { //#FLOATGEN_IGNORE
+			for(int i = 0; i < length; i++){
+				dst[dstPos+i] = src[srcPos+i];
+			}
+		}
+
+		@Override
+		public void narrow(double[] src, int srcPos, float[] dst, int dstPos, int length) { //#FLOATGEN_IGNORE
+			for(int i = 0; i < length; i++){
+				dst[dstPos+i] = (float)src[srcPos+i];
+			}
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		public void interleave(double[] real, double[] imag, int pos, double[] interleaved, int interleavedPos, int length) {
+			for(int i = 0; i < length; i++){
+				interleaved[interleavedPos+2*i] = real[pos+i];
+				interleaved[interleavedPos+2*i+1] = imag[pos+i];
+			}
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		public void deinterleave(double[] interleaved, int interleavedPos, double[] real, double[] imag, int pos, int length) {
+			for(int i = 0; i < length; i++){
+				real[pos+i] = interleaved[interleavedPos+2*i];
+				imag[pos+i] = interleaved[interleavedPos+2*i+1];
+			}
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		public void multiply(double[] aReal, double[] aImag, double[] bReal, double[] bImag, double[] outReal, double[] outImag, int length) {
+			for(int i = 0; i < length; i++){
+				double ar = aReal[i], ai = aImag[i];
+				double br = bReal[i], bi = bImag[i];
+				outReal[i] = ar*br - ai*bi;
+				outImag[i] = ar*bi + ai*br;
+			}
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		public void magnitude(double[] real, double[] imag, double[] magnitude, int length) {
+			for(int i = 0; i < length; i++){
+				double r = real[i], j = imag[i];
+				magnitude[i] = (double)Math.sqrt(r*r + j*j);
+			}
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		public void scale(double[] array, double factor, int length) {
+			for(int i = 0; i < length; i++){
+				array[i] *= factor;
+			}
+		}
+	}
+
+}
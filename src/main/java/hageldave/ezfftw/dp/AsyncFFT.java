@@ -0,0 +1,400 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.FFTW_Statistics;
+import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.dp.samplers.ComplexValuedSampler;
+import hageldave.ezfftw.dp.samplers.RealValuedSampler;
+import hageldave.ezfftw.dp.writers.ComplexValuedWriter;
+import hageldave.ezfftw.dp.writers.RealValuedWriter;
+
+/**
+ * The AsyncFFT class is an asynchronous facade to the methods of {@link FFT}.
+ * Instead of blocking the calling thread, transforms are submitted to a dedicated
+ * thread pool and a {@link CompletableFuture} is returned that completes when the
+ * transform has been written to the specified output.
+ * <p>
+ * The arguments of a transform are validated on submission, so that an
+ * {@link IllegalArgumentException} or {@link NullPointerException} is thrown
+ * immediately by the submitting method instead of completing the future exceptionally.
+ * Exceptions occurring during the transform itself (e.g. thrown by a sampler or writer)
+ * complete the future exceptionally.
+ * <p>
+ * Cancelling a returned future removes the corresponding transform from the queue of the
+ * executor if it has not been started yet, so the output will not be touched.
+ * A transform that is already running cannot be interrupted since it is executed by native code,
+ * in this case the result will be written to the output regardless of the cancellation.
+ * <p>
+ * The pool uses a fixed number of daemon threads (named <tt>ezfftw-async-#</tt>),
+ * which by default is the number of available processors since FFTW execution is CPU bound.
+ * Other work such as {@link FFTW_Guru} calls or {@link FFTW_Plan} executions can be run on
+ * the same pool using {@link #submit(Runnable)}.
+ * The usage of the pool is included in the {@link FFTW_Statistics} until it is closed.
+ * <p>
+ * This class implements the {@link AutoCloseable} interface to enable the use
+ * of try-with-resources statement, closing shuts down the executor after all
+ * previously submitted transforms have been executed.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * AsyncFFT async = new AsyncFFT();
+ * async.fft(signal, real, imag, width, height)
+ *     .thenRun(()->respond(real, imag));
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class AsyncFFT implements AutoCloseable, FFTW_Statistics.PoolUsage {
+
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Creates a new AsyncFFT with as many threads as processors are available.
+	 */
+	@DoublePrecisionVersion
+	public AsyncFFT() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new AsyncFFT with the specified number of threads.
+	 * @param numThreads number of threads executing transforms concurrently
+	 * @throws IllegalArgumentException when number of threads is not positive
+	 */
+	@DoublePrecisionVersion
+	public AsyncFFT(int numThreads) {
+		GeneralUtils.requirePositive(numThreads, ()->"Number of threads needs to be positive but is " + numThreads + ".");
+		ThreadFactory threadFactory = r -> {
+			Thread t = new Thread(r, "ezfftw-async-" + THREAD_COUNTER.getAndIncrement());
+			t.setDaemon(true);
+			return t;
+		};
+		this.executor = new ThreadPoolExecutor(
+				numThreads, numThreads,
+				0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(),
+				threadFactory);
+		FFTW_Statistics.registerPool(this);
+	}
+
+	/**
+	 * Asynchronous version of {@link FFT#fft(double[], double[], double[], long...)}.
+	 * The arrays must not be modified until the returned future is completed.
+	 * @param realIn real valued input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * @return future that completes when the transform has been written to the output arrays
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @throws IllegalStateException when this AsyncFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public CompletableFuture<Void> fft(double[] realIn, double[] realOut, double[] imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		long[] dims = dimensions.clone();
+		return submit(()->FFT.fft(realIn, realOut, imagOut, dims));
+	}
+
+	/**
+	 * Asynchronous version of {@link FFT#fft(double[], double[], double[], double[], long...)}.
+	 * The arrays must not be modified until the returned future is completed.
+	 * @param realIn real valued part of the complex input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the complex input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * @return future that completes when the transform has been written to the output arrays
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @throws IllegalStateException when this AsyncFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public CompletableFuture<Void> fft(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		long[] dims = dimensions.clone();
+		return submit(()->FFT.fft(realIn, imagIn, realOut, imagOut, dims));
+	}
+
+	/**
+	 * Asynchronous version of {@link FFT#ifft(double[], double[], double[], double[], long...)}.
+	 * The arrays must not be modified until the returned future is completed.
+	 * @param realIn real valued part of the complex input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the complex input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * @return future that completes when the transform has been written to the output arrays
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @throws IllegalStateException when this AsyncFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public CompletableFuture<Void> ifft(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		long[] dims = dimensions.clone();
+		return submit(()->FFT.ifft(realIn, imagIn, realOut, imagOut, dims));
+	}
+
+	/**
+	 * Asynchronous version of {@link FFT#ifft(double[], double[], double[], long...)}.
+	 * The arrays must not be modified until the returned future is completed.
+	 * @param realIn real valued part of the complex input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the complex input in row major order to be transformed
+	 * @param realOut real valued transform result in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * @return future that completes when the transform has been written to the output array
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @throws IllegalStateException when this AsyncFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public CompletableFuture<Void> ifft(double[] realIn, double[] imagIn, double[] realOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		long[] dims = dimensions.clone();
+		return submit(()->FFT.ifft(realIn, imagIn, realOut, dims));
+	}
+
+	/**
+	 * Asynchronous version of {@link FFT#fft(RealValuedSampler, ComplexValuedWriter, long...)}.
+	 * Sampler and writer will be called from a thread of this AsyncFFT's pool.
+	 * @param realIn sampler for gaining the discrete real valued signal
+	 * @param complexOut writer for the discrete complex valued transform
+	 * @param dimensions of the sampled signal (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * @return future that completes when the transform has been written to the writer
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive
+	 * @throws NullPointerException when the specified sampler or writer is null.
+	 * @throws IllegalStateException when this AsyncFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public CompletableFuture<Void> fft(RealValuedSampler realIn, ComplexValuedWriter complexOut, long... dimensions) {
+		sanityCheckDimensions(dimensions);
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn sampler.");
+		Objects.requireNonNull(complexOut, ()->"Cannot use null as complexOut writer.");
+		long[] dims = dimensions.clone();
+		return submit(()->FFT.fft(realIn, complexOut, dims));
+	}
+
+	/**
+	 * Asynchronous version of {@link FFT#fft(ComplexValuedSampler, ComplexValuedWriter, long...)}.
+	 * Sampler and writer will be called from a thread of this AsyncFFT's pool.
+	 * @param complexIn sampler for gaining the discrete complex valued signal
+	 * @param complexOut writer for the discrete complex valued transform
+	 * @param dimensions of the sampled signal (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * @return future that completes when the transform has been written to the writer
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive
+	 * @throws NullPointerException when the specified sampler or writer is null.
+	 * @throws IllegalStateException when this AsyncFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public CompletableFuture<Void> fft(ComplexValuedSampler complexIn, ComplexValuedWriter complexOut, long... dimensions) {
+		sanityCheckDimensions(dimensions);
+		Objects.requireNonNull(complexIn, ()->"Cannot use null as complexIn sampler.");
+		Objects.requireNonNull(complexOut, ()->"Cannot use null as complexOut writer.");
+		long[] dims = dimensions.clone();
+		return submit(()->FFT.fft(complexIn, complexOut, dims));
+	}
+
+	/**
+	 * Asynchronous version of {@link FFT#ifft(ComplexValuedSampler, ComplexValuedWriter, long...)}.
+	 * Sampler and writer will be called from a thread of this AsyncFFT's pool.
+	 * @param complexIn sampler for gaining the discrete complex valued signal
+	 * @param complexOut writer for the discrete complex valued transform
+	 * @param dimensions of the sampled signal (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * @return future that completes when the transform has been written to the writer
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive
+	 * @throws NullPointerException when the specified sampler or writer is null.
+	 * @throws IllegalStateException when this AsyncFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public CompletableFuture<Void> ifft(ComplexValuedSampler complexIn, ComplexValuedWriter complexOut, long... dimensions) {
+		sanityCheckDimensions(dimensions);
+		Objects.requireNonNull(complexIn, ()->"Cannot use null as complexIn sampler.");
+		Objects.requireNonNull(complexOut, ()->"Cannot use null as complexOut writer.");
+		long[] dims = dimensions.clone();
+		return submit(()->FFT.ifft(complexIn, complexOut, dims));
+	}
+
+	/**
+	 * Asynchronous version of {@link FFT#ifft(ComplexValuedSampler, RealValuedWriter, long...)}.
+	 * Sampler and writer will be called from a thread of this AsyncFFT's pool.
+	 * @param complexIn sampler for gaining the discrete complex valued signal
+	 * @param realOut writer for the discrete real valued transform
+	 * @param dimensions of the sampled signal (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * @return future that completes when the transform has been written to the writer
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive
+	 * @throws NullPointerException when the specified sampler or writer is null.
+	 * @throws IllegalStateException when this AsyncFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public CompletableFuture<Void> ifft(ComplexValuedSampler complexIn, RealValuedWriter realOut, long... dimensions) {
+		sanityCheckDimensions(dimensions);
+		Objects.requireNonNull(complexIn, ()->"Cannot use null as complexIn sampler.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut writer.");
+		long[] dims = dimensions.clone();
+		return submit(()->FFT.ifft(complexIn, realOut, dims));
+	}
+
+	/**
+	 * Submits an arbitrary job (e.g. calls to {@link FFTW_Guru} or {@link FFTW_Plan#execute()})
+	 * for execution on the pool of this AsyncFFT.
+	 * Cancelling the returned future removes the job from the queue if it has not been started yet.
+	 * @param job to be executed
+	 * @return future that completes when the job has been executed, or exceptionally when
+	 * the job threw an exception.
+	 * @throws NullPointerException when job is null
+	 * @throws IllegalStateException when this AsyncFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public CompletableFuture<Void> submit(Runnable job) {
+		Objects.requireNonNull(job, ()->"Cannot use null as job.");
+		if(executor.isShutdown()){
+			throw new IllegalStateException("Cannot submit job, AsyncFFT has already been closed.");
+		}
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		Runnable task = ()->{
+			/* skip jobs that were cancelled before they could be removed from the queue */
+			if(future.isDone())
+				return;
+			try {
+				job.run();
+				future.complete(null);
+			} catch (Throwable t) {
+				future.completeExceptionally(t);
+			}
+		};
+		future.whenComplete((result, exception)->{
+			if(future.isCancelled()){
+				executor.remove(task);
+			}
+		});
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			/* closed concurrently after the check above, release the future (no-op task removal) */
+			future.cancel(false);
+			throw new IllegalStateException("Cannot submit job, AsyncFFT has already been closed.", e);
+		}
+		return future;
+	}
+
+	/**
+	 * Returns the number of threads executing transforms.
+	 * @return number of threads of the pool
+	 */
+	@DoublePrecisionVersion
+	public int getNumThreads() {
+		return executor.getCorePoolSize();
+	}
+
+	/**
+	 * Returns the number of submitted jobs that are currently running.
+	 * @return approximate number of running jobs
+	 */
+	@DoublePrecisionVersion
+	public int getNumRunning() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * Returns the number of submitted jobs waiting for execution.
+	 * @return number of queued jobs
+	 */
+	@DoublePrecisionVersion
+	public int getNumQueued() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Shuts down the executor of this AsyncFFT. Previously submitted jobs are still executed,
+	 * but submitting new jobs will throw an {@link IllegalStateException}.
+	 * This method does not wait for the queued jobs to finish.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+		FFTW_Statistics.unregisterPool(this);
+	}
+
+	private static long sanityCheckDimensions(long[] dimensions) {
+		Objects.requireNonNull(dimensions, ()->"Cannot use null as dimensions.");
+		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		return GeneralUtils.numElementsFromDimensions(dimensions);
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.dp.samplers.RealValuedSampler;
+import hageldave.ezfftw.dp.writers.RealValuedWriter;
+
+/**
+ * The ChunkedArrayAccessor implements the {@link RealValuedSampler} and
+ * {@link RealValuedWriter} interfaces for sampling and writing arbitrary
+ * dimensional data that is stored in row major order across several double[] pages.
+ * <p>
+ * In contrast to the {@link RowMajorArrayAccessor}, the number of elements is not limited
+ * to Integer.MAX_VALUE, so this class can hold signals that are too large for a single java array
+ * (e.g. large 3D volumes), as long as they fit into the heap.
+ * All pages are of the same power of two size {@link #pageSize} except for the last page,
+ * which only holds the remaining elements.
+ * <p>
+ * The element with row major index i is stored at <tt>pages[i/pageSize][i%pageSize]</tt>.
+ * Values are transferred to and from {@link NativeRealArray}s page by page with
+ * {@link #copyTo(NativeRealArray)} and {@link #copyFrom(NativeRealArray)}, which is
+ * also used by the ChunkedArrayAccessor based methods of the {@link FFT} class and by
+ * {@link PrecisionDependentUtils#fillNativeArrayFromSampler(NativeRealArray, RealValuedSampler, long...)}.
+ * <p>
+ * Please note that for performance reasons, no checks are made to the fitness
+ * of the coordinates passed to {@link #getValueAt(long...)} or {@link #setValueAt(double, long...)}. 
+ * When using this class, it has to be made sure that only appropriate coordinates will be
+ * used with it (correct dimensions here: {@link #getDimensions()}).
+ * 
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class ChunkedArrayAccessor implements RealValuedSampler, RealValuedWriter {
+
+	/** default number of elements per page (2^24) */
+	public static final int DEFAULT_PAGE_SIZE = 1<<24;
+
+	/** the pages holding the values in row major order */
+	public final double[][] pages;
+	/** number of elements per page (a power of two) */
+	public final int pageSize;
+	/** total number of elements */
+	public final long length;
+	private final int pageShift;
+	private final long pageMask;
+	private final long[] dimensions;
+
+	/**
+	 * Creates a new {@link ChunkedArrayAccessor} with pages of {@link #DEFAULT_PAGE_SIZE}
+	 * that can store as many elements as spanned by the specified dimensions.
+	 * Elements are accessed in row major order.
+	 * The first (least significant) dimension thus defines the row length.
+	 * 
+	 * @param dimensions of the data
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive
+	 */
+	@DoublePrecisionVersion
+	public ChunkedArrayAccessor(long... dimensions) {
+		this(dimensions, DEFAULT_PAGE_SIZE);
+	}
+
+	/**
+	 * Creates a new {@link ChunkedArrayAccessor} with pages of the specified size
+	 * that can store as many elements as spanned by the specified dimensions.
+	 * 
+	 * @param dimensions of the data
+	 * @param pageSize number of elements per page, needs to be a power of two
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the page size is not a positive power of two <br>
+	 * when the resulting number of pages is larger than Integer.MAX_VALUE
+	 * @throws NullPointerException if <tt>dimensions</tt> is null.
+	 */
+	@DoublePrecisionVersion
+	public ChunkedArrayAccessor(long[] dimensions, int pageSize) {
+		Objects.requireNonNull(dimensions, ()->"Cannot use null as dimensions.");
+		GeneralUtils.requirePositive(dimensions.length, ()->"No dimensions were specified, need to pass at least 1 dimension");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		GeneralUtils.requirePositive(pageSize, ()->"Page size needs to be positive but is " + pageSize + ".");
+		if(Integer.bitCount(pageSize) != 1){
+			throw new IllegalArgumentException("Page size needs to be a power of two but is " + pageSize + ".");
+		}
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		long numPages = (numElements+pageSize-1)/pageSize;
+		if(numPages > Integer.MAX_VALUE){
+			throw new IllegalArgumentException(
+					"The specified dimensions result in too many pages of size " + pageSize + ". Num elements:" + numElements);
+		}
+		this.pageSize = pageSize;
+		this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+		this.pageMask = pageSize-1;
+		this.length = numElements;
+		this.dimensions = dimensions.clone();
+		this.pages = new double[(int)numPages][];
+		for(int p = 0; p < pages.length; p++){
+			pages[p] = new double[getPageLength(p)];
+		}
+	}
+
+	/**
+	 * Returns the value at the specified row major index.
+	 * @param index row major index in [0, {@link #length}[
+	 * @return value at index
+	 */
+	@DoublePrecisionVersion
+	public double get(long index) {
+		return pages[(int)(index >>> pageShift)][(int)(index & pageMask)];
+	}
+
+	/**
+	 * Sets the value at the specified row major index.
+	 * @param index row major index in [0, {@link #length}[
+	 * @param val value to set
+	 */
+	@DoublePrecisionVersion
+	public void set(long index, double val) {
+		pages[(int)(index >>> pageShift)][(int)(index & pageMask)] = val;
+	}
+
+	/**
+	 * Calculates the row major index for the specified coordinates using the dimensions of this sampler,
+	 * and gets the value.
+	 * First coordinate is least significant (most frequently changing when iterating over array elements).
+	 */
+	@Override
+	@DoublePrecisionVersion
+	public double getValueAt(long... coordinates) {
+		return get(GeneralUtils.indexFromCoordinates(coordinates, dimensions));
+	}
+
+	/**
+	 * Calculates the row major index for the specified coordinates using the dimensions of this writer,
+	 * and sets the value.
+	 * First coordinate is least significant (most frequently changing when iterating over array elements).
+	 */
+	@Override
+	@DoublePrecisionVersion
+	public void setValueAt(double val, long... coordinates) {
+		set(GeneralUtils.indexFromCoordinates(coordinates, dimensions), val);
+	}
+
+	/**
+	 * Copies all values of this accessor to the specified {@link NativeRealArray}, one bulk copy per page.
+	 * @param array to be filled
+	 * @throws IllegalArgumentException when the length of the native array differs from {@link #length}
+	 * @see #copyFrom(NativeRealArray)
+	 */
+	@DoublePrecisionVersion
+	public void copyTo(NativeRealArray array) {
+		requireLength(array);
+		for(int p = 0; p < pages.length; p++){
+			array.set(((long)p) << pageShift, pages[p].length, 0, pages[p]);
+		}
+	}
+
+	/**
+	 * Copies all values of the specified {@link NativeRealArray} to this accessor, one bulk copy per page.
+	 * @param array to read from
+	 * @throws IllegalArgumentException when the length of the native array differs from {@link #length}
+	 * @see #copyTo(NativeRealArray)
+	 */
+	@DoublePrecisionVersion
+	public void copyFrom(NativeRealArray array) {
+		requireLength(array);
+		for(int p = 0; p < pages.length; p++){
+			array.get(((long)p) << pageShift, pages[p].length, 0, pages[p]);
+		}
+	}
+
+	/**
+	 * Returns the number of elements of the specified page, which is {@link #pageSize}
+	 * for all but the last page.
+	 * @param page index of the page
+	 * @return number of elements in page
+	 */
+	@DoublePrecisionVersion
+	public int getPageLength(int page) {
+		long start = ((long)page) << pageShift;
+		return (int)Math.min(pageSize, length-start);
+	}
+
+	/**
+	 * Returns a copy of this ChunkedArrayAccessors dimensions.
+	 * @return dimensions
+	 */
+	@DoublePrecisionVersion
+	public long[] getDimensions() {
+		return Arrays.copyOf(dimensions, dimensions.length);
+	}
+
+	/**
+	 * Returns true when this accessor has the specified dimensions.
+	 * @param dimensions to compare against
+	 * @return true when dimensions are equal
+	 */
+	@DoublePrecisionVersion
+	public boolean hasDimensions(long... dimensions) {
+		return Arrays.equals(this.dimensions, dimensions);
+	}
+
+	private void requireLength(NativeRealArray array) {
+		GeneralUtils.requireEqual(array.length, length, ()->
+				"number of elements of the native array (" + array.length + ") does not match the length of the chunked array (" + length + ").");
+	}
+
+}
@@ -0,0 +1,597 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.FFTW_Statistics;
+import hageldave.ezfftw.GeneralUtils;
+
+/**
+ * The CoalescingFFT merges transforms of the same kind and shape that are requested
+ * concurrently by different threads into a single batched transform.
+ * <p>
+ * When many threads each transform a small signal at the same time, each of them pays
+ * the full cost for planning, allocation and JNI calls on its own. With the CoalescingFFT
+ * the first thread requesting a transform of a certain shape becomes the leader of a batch
+ * and waits up to {@link #maxWaitNanos} for other threads to join the batch with requests
+ * of the same shape. When the batch is full ({@link #maxBatchSize} requests) or the wait time
+ * has elapsed, the leader packs all inputs into contiguous native arrays, executes a single
+ * batched {@link FFTW_Plan} (see {@link FFTW_Plan#plan_split_r2c_batched(NativeRealArray, NativeRealArray, NativeRealArray, long, long...)})
+ * and scatters the results to the output arrays of each request. All methods block until
+ * the result of the calling thread's request has been written.
+ * <p>
+ * The latency/throughput trade-off is controlled by the two parameters:
+ * <ul>
+ * <li>{@link #maxWaitNanos} is the maximum additional latency a request may suffer from waiting
+ * for other requests. A longer wait allows for larger batches when requests arrive sporadically.</li>
+ * <li>{@link #maxBatchSize} limits the number of transforms per batch. A batch is executed
+ * as soon as it is full, so under high load requests do not need to wait for the full wait time.
+ * A batch size of 1 disables coalescing.</li>
+ * </ul>
+ * The batched plans and their native arrays are cached per shape and batch size, so that
+ * subsequent batches do not need to plan or allocate again. Batch sizes are rounded up to the
+ * next power of two (unused signals of a batch are not transformed into any output), so that
+ * there are at most log2(maxBatchSize)+1 plans per shape. At most {@link #MAX_CACHED_PLANS} unused
+ * plans are kept, the least recently used plans are closed first. {@link #clearCache()} releases
+ * the cached native resources. Cache hits and misses are also counted by {@link FFTW_Statistics}.
+ * <p>
+ * The transforms are unnormalized as the transforms of {@link FFT}.
+ * This class implements the {@link AutoCloseable} interface to enable the use
+ * of try-with-resources statement for easy management of the native resources.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * // shared by all request handler threads
+ * CoalescingFFT coalescer = new CoalescingFFT(32, 200, TimeUnit.MICROSECONDS);
+ * ...
+ * // in request handler thread
+ * coalescer.fft(samples, real, imag, 256);
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class CoalescingFFT implements AutoCloseable {
+
+	/** maximum number of unused batched plans that are cached */
+	public static final int MAX_CACHED_PLANS = 16;
+
+	/** maximum number of requests merged into a single batched transform */
+	public final int maxBatchSize;
+	/** maximum time in nanoseconds the leader of a batch waits for further requests */
+	public final long maxWaitNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<BatchKey, Batch> openBatches = new HashMap<>();
+	/* unused plans in access order (least recently used first), guarded by cacheLock */
+	private final ReentrantLock cacheLock = new ReentrantLock();
+	private final LinkedHashMap<BatchKey, ArrayDeque<BatchPlan>> planCache = new LinkedHashMap<>(16, 0.75f, true);
+	private int numCachedPlans = 0;
+	private final AtomicLong numRequests = new AtomicLong();
+	private final AtomicLong numBatches = new AtomicLong();
+	private final AtomicLong cacheHits = new AtomicLong();
+	private final AtomicLong cacheMisses = new AtomicLong();
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new CoalescingFFT with a maximum batch size of 16 and a maximum wait time of 100 microseconds.
+	 */
+	@DoublePrecisionVersion
+	public CoalescingFFT() {
+		this(16, 100, TimeUnit.MICROSECONDS);
+	}
+
+	/**
+	 * Creates a new CoalescingFFT.
+	 * @param maxBatchSize maximum number of requests merged into a single batched transform
+	 * @param maxWait maximum time the leader of a batch waits for further requests
+	 * @param unit time unit of maxWait
+	 * @throws IllegalArgumentException when maxBatchSize is not positive or maxWait is negative
+	 * @throws NullPointerException when unit is null
+	 */
+	@DoublePrecisionVersion
+	public CoalescingFFT(int maxBatchSize, long maxWait, TimeUnit unit) {
+		GeneralUtils.requirePositive(maxBatchSize, ()->"Maximum batch size needs to be positive but is " + maxBatchSize + ".");
+		if(maxWait < 0){
+			throw new IllegalArgumentException("Maximum wait time cannot be negative but is " + maxWait + ".");
+		}
+		Objects.requireNonNull(unit, ()->"Cannot use null as time unit.");
+		this.maxBatchSize = maxBatchSize;
+		this.maxWaitNanos = unit.toNanos(maxWait);
+	}
+
+	/**
+	 * Coalescing version of {@link FFT#fft(double[], double[], double[], long...)}.
+	 * Blocks until the transform has been written to the output arrays.
+	 * @param realIn real valued input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @throws IllegalStateException when this CoalescingFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public void fft(double[] realIn, double[] realOut, double[] imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		coalesce(FFTW_Plan.KIND_R2C, dimensions, new Request(
+				new double[][]{realIn},
+				new double[][]{realOut, imagOut}));
+	}
+
+	/**
+	 * Coalescing version of {@link FFT#fft(double[], double[], double[], double[], long...)}.
+	 * Blocks until the transform has been written to the output arrays.
+	 * @param realIn real valued part of the complex input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the complex input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @throws IllegalStateException when this CoalescingFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public void fft(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		coalesce(FFTW_Plan.KIND_C2C, dimensions, new Request(
+				new double[][]{realIn, imagIn},
+				new double[][]{realOut, imagOut}));
+	}
+
+	/**
+	 * Coalescing version of {@link FFT#ifft(double[], double[], double[], double[], long...)}.
+	 * Blocks until the transform has been written to the output arrays.
+	 * Inverse complex to complex transforms are coalesced with forward complex to complex
+	 * transforms of the same shape.
+	 * @param realIn real valued part of the complex input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the complex input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @throws IllegalStateException when this CoalescingFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public void ifft(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		/* inverse is forward transform with swapped real and imaginary parts */
+		coalesce(FFTW_Plan.KIND_C2C, dimensions, new Request(
+				new double[][]{imagIn, realIn},
+				new double[][]{imagOut, realOut}));
+	}
+
+	/**
+	 * Coalescing version of {@link FFT#ifft(double[], double[], double[], long...)}.
+	 * Blocks until the transform has been written to the output array.
+	 * @param realIn real valued part of the complex input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the complex input in row major order to be transformed
+	 * @param realOut real valued transform result in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @throws IllegalStateException when this CoalescingFFT has been closed
+	 */
+	@DoublePrecisionVersion
+	public void ifft(double[] realIn, double[] imagIn, double[] realOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		coalesce(FFTW_Plan.KIND_C2R, dimensions, new Request(
+				new double[][]{realIn, imagIn},
+				new double[][]{realOut}));
+	}
+
+	/**
+	 * Returns the number of transforms requested so far.
+	 * @return number of requests
+	 */
+	@DoublePrecisionVersion
+	public long getNumRequests() {
+		return numRequests.get();
+	}
+
+	/**
+	 * Returns the number of batched transforms executed so far.
+	 * The ratio of requests to batches is the average batch size.
+	 * @return number of batches
+	 */
+	@DoublePrecisionVersion
+	public long getNumBatches() {
+		return numBatches.get();
+	}
+
+	/**
+	 * Returns the number of batches that could reuse a cached plan.
+	 * @return number of plan cache hits
+	 */
+	@DoublePrecisionVersion
+	public long getCacheHits() {
+		return cacheHits.get();
+	}
+
+	/**
+	 * Returns the number of batches that needed to create a new plan.
+	 * @return number of plan cache misses
+	 */
+	@DoublePrecisionVersion
+	public long getCacheMisses() {
+		return cacheMisses.get();
+	}
+
+	/**
+	 * Returns the number of cached plans that are currently not in use.
+	 * @return number of cached plans, at most {@link #MAX_CACHED_PLANS}
+	 */
+	@DoublePrecisionVersion
+	public int getNumCachedPlans() {
+		cacheLock.lock();
+		try {
+			return numCachedPlans;
+		} finally {
+			cacheLock.unlock();
+		}
+	}
+
+	/**
+	 * Closes all cached plans and their native arrays that are currently not in use.
+	 */
+	@DoublePrecisionVersion
+	public void clearCache() {
+		ArrayList<BatchPlan> evicted = new ArrayList<>();
+		cacheLock.lock();
+		try {
+			for(ArrayDeque<BatchPlan> plans: planCache.values()){
+				evicted.addAll(plans);
+			}
+			planCache.clear();
+			numCachedPlans = 0;
+		} finally {
+			cacheLock.unlock();
+		}
+		/* close outside of lock, destroying plans takes the planner lock */
+		for(BatchPlan plan: evicted){
+			plan.close();
+		}
+	}
+
+	/**
+	 * Closes this CoalescingFFT and releases all cached native resources.
+	 * Requests that are already being processed will still complete,
+	 * subsequent requests throw an {@link IllegalStateException}.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		clearCache();
+	}
+
+	/* --- implementation --- */
+
+	/**
+	 * Adds the request to the open batch of the same kind and shape (or opens a new one)
+	 * and waits until its result has been written.
+	 */
+	private void coalesce(int kind, long[] dimensions, Request request) {
+		BatchKey key = new BatchKey(kind, dimensions.clone(), 0);
+		Batch batch;
+		boolean isLeader = false;
+		lock.lock();
+		try {
+			if(closed){
+				throw new IllegalStateException("Cannot process request, CoalescingFFT has already been closed.");
+			}
+			numRequests.incrementAndGet();
+			batch = openBatches.get(key);
+			if(batch == null){
+				batch = new Batch(key);
+				openBatches.put(key, batch);
+				isLeader = true;
+			}
+			batch.requests.add(request);
+			if(batch.requests.size() >= maxBatchSize){
+				seal(batch);
+			}
+			if(isLeader){
+				/* wait for followers */
+				long remaining = maxWaitNanos;
+				while(!batch.sealed && remaining > 0){
+					try {
+						remaining = batch.sealedCondition.awaitNanos(remaining);
+					} catch (InterruptedException e) {
+						/* stop waiting and execute what we have */
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+				if(!batch.sealed){
+					seal(batch);
+				}
+			} else {
+				/* wait for leader to execute batch */
+				while(!batch.executed){
+					batch.executedCondition.awaitUninterruptibly();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		if(isLeader){
+			/* execute outside of lock so other batches can be collected meanwhile */
+			try {
+				execute(batch);
+			} catch (RuntimeException | Error e) {
+				for(Request r: batch.requests)
+					r.failure = e;
+			}
+			lock.lock();
+			try {
+				batch.executed = true;
+				batch.executedCondition.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+		if(request.failure instanceof RuntimeException){
+			throw (RuntimeException)request.failure;
+		}
+		if(request.failure instanceof Error){
+			throw (Error)request.failure;
+		}
+	}
+
+	/** closes batch for further requests, lock has to be held */
+	private void seal(Batch batch) {
+		batch.sealed = true;
+		openBatches.remove(batch.key);
+		batch.sealedCondition.signal();
+	}
+
+	private void execute(Batch batch) {
+		int howmany = batch.requests.size();
+		numBatches.incrementAndGet();
+		/* round up to power of two to bound the number of distinct plans */
+		int planSize = Integer.bitCount(howmany) == 1 ? howmany : Integer.highestOneBit(howmany)<<1;
+		BatchKey planKey = new BatchKey(batch.key.kind, batch.key.dimensions, planSize);
+		BatchPlan plan = acquirePlan(planKey);
+		try {
+			int numElements = (int)GeneralUtils.numElementsFromDimensions(planKey.dimensions);
+			int numIn = plan.numInputs;
+			/* gather */
+			for(int r = 0; r < howmany; r++){
+				double[][] in = batch.requests.get(r).inputs;
+				for(int a = 0; a < numIn; a++){
+					plan.arrays[a].set((long)r*numElements, numElements, 0, in[a]);
+				}
+			}
+			plan.plan.execute();
+			/* scatter */
+			for(int r = 0; r < howmany; r++){
+				double[][] out = batch.requests.get(r).outputs;
+				for(int a = 0; a < out.length; a++){
+					plan.arrays[numIn+a].get((long)r*numElements, numElements, 0, out[a]);
+				}
+			}
+		} finally {
+			releasePlan(planKey, plan);
+		}
+	}
+
+	private BatchPlan acquirePlan(BatchKey planKey) {
+		BatchPlan plan = null;
+		cacheLock.lock();
+		try {
+			ArrayDeque<BatchPlan> plans = planCache.get(planKey);
+			if(plans != null){
+				plan = plans.poll();
+				numCachedPlans--;
+				if(plans.isEmpty())
+					planCache.remove(planKey);
+			}
+		} finally {
+			cacheLock.unlock();
+		}
+		if(plan != null){
+			cacheHits.incrementAndGet();
+			FFTW_Statistics.recordCacheAccess(true);
+			return plan;
+		}
+		cacheMisses.incrementAndGet();
+		FFTW_Statistics.recordCacheAccess(false);
+		return new BatchPlan(planKey);
+	}
+
+	private void releasePlan(BatchKey planKey, BatchPlan plan) {
+		if(closed){
+			plan.close();
+			return;
+		}
+		ArrayList<BatchPlan> evicted = new ArrayList<>();
+		cacheLock.lock();
+		try {
+			planCache.computeIfAbsent(planKey, k->new ArrayDeque<>()).add(plan);
+			numCachedPlans++;
+			/* evict least recently used plans */
+			Iterator<ArrayDeque<BatchPlan>> lru = planCache.values().iterator();
+			while(numCachedPlans > MAX_CACHED_PLANS){
+				ArrayDeque<BatchPlan> plans = lru.next();
+				evicted.add(plans.poll());
+				numCachedPlans--;
+				if(plans.isEmpty())
+					lru.remove();
+			}
+		} finally {
+			cacheLock.unlock();
+		}
+		for(BatchPlan p: evicted){
+			p.close();
+		}
+		/* close could have happened in between */
+		if(closed){
+			clearCache();
+		}
+	}
+
+	private static long sanityCheckDimensions(long[] dimensions) {
+		Objects.requireNonNull(dimensions, ()->"Cannot use null as dimensions.");
+		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		return GeneralUtils.numElementsFromDimensions(dimensions);
+	}
+
+	/** transform kind, shape and batch size (0 for open batches) */
+	private static final class BatchKey {
+		final int kind;
+		final long[] dimensions;
+		final int howmany;
+
+		BatchKey(int kind, long[] dimensions, int howmany) {
+			this.kind = kind;
+			this.dimensions = dimensions;
+			this.howmany = howmany;
+		}
+
+		@Override
+		public int hashCode() {
+			return (Arrays.hashCode(dimensions)*31 + kind)*31 + howmany;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof BatchKey))
+				return false;
+			BatchKey other = (BatchKey)obj;
+			return kind == other.kind && howmany == other.howmany && Arrays.equals(dimensions, other.dimensions);
+		}
+	}
+
+	/** a single transform request, inputs and outputs in the order of the planner arrays */
+	private static final class Request {
+		final double[][] inputs;
+		final double[][] outputs;
+		Throwable failure;
+
+		Request(double[][] inputs, double[][] outputs) {
+			this.inputs = inputs;
+			this.outputs = outputs;
+		}
+	}
+
+	/** requests of same kind and shape that are executed together */
+	private final class Batch {
+		final BatchKey key;
+		final ArrayList<Request> requests = new ArrayList<>();
+		final Condition sealedCondition = lock.newCondition();
+		final Condition executedCondition = lock.newCondition();
+		boolean sealed = false;
+		boolean executed = false;
+
+		Batch(BatchKey key) {
+			this.key = key;
+		}
+	}
+
+	/** batched plan together with its contiguous native arrays */
+	private static final class BatchPlan implements AutoCloseable {
+		final NativeRealArray[] arrays;
+		final int numInputs;
+		final FFTW_Plan plan;
+
+		BatchPlan(BatchKey key) {
+			int numArrays = key.kind == FFTW_Plan.KIND_C2C ? 4:3;
+			this.numInputs = key.kind == FFTW_Plan.KIND_R2C ? 1:2;
+			this.arrays = new NativeRealArray[numArrays];
+			long length = key.howmany*GeneralUtils.numElementsFromDimensions(key.dimensions);
+			try {
+				for(int i = 0; i < numArrays; i++){
+					arrays[i] = new NativeRealArray(length);
+				}
+				switch (key.kind) {
+				case FFTW_Plan.KIND_R2C:
+					this.plan = FFTW_Plan.plan_split_r2c_batched(arrays[0], arrays[1], arrays[2], key.howmany, key.dimensions);
+					break;
+				case FFTW_Plan.KIND_C2C:
+					this.plan = FFTW_Plan.plan_split_c2c_batched(arrays[0], arrays[1], arrays[2], arrays[3], key.howmany, key.dimensions);
+					break;
+				default:
+					this.plan = FFTW_Plan.plan_split_c2r_batched(arrays[0], arrays[1], arrays[2], key.howmany, key.dimensions);
+					break;
+				}
+			} catch (RuntimeException e) {
+				for(int i = numArrays-1; i >= 0; i--){
+					if(arrays[i] != null) arrays[i].close();
+				}
+				throw e;
+			}
+		}
+
+		@Override
+		public void close() {
+			plan.close();
+			for(int i = arrays.length-1; i >= 0; i--){
+				arrays[i].close();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,749 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+
+/**
+ * Unrolled, allocation free forward transforms of fixed power of two sizes from 2 to 64,
+ * working in place on split complex arrays with arbitrary offset and stride.
+ * <p>
+ * THIS CLASS WAS GENERATED BY hageldave.generator.CodeletGenerator, DO NOT MODIFY
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+final class Codelets {
+
+	/** largest size of a codelet */
+	static final int MAX_SIZE = 64;
+
+	/* twiddle factors e^(-2*pi*i*k/n) */
+	private static final double C8_1 = (double)Math.cos(2*Math.PI*1/8);
+	private static final double S8_1 = (double)-Math.sin(2*Math.PI*1/8);
+	private static final double C8_3 = (double)Math.cos(2*Math.PI*3/8);
+	private static final double S8_3 = (double)-Math.sin(2*Math.PI*3/8);
+	private static final double C16_1 = (double)Math.cos(2*Math.PI*1/16);
+	private static final double S16_1 = (double)-Math.sin(2*Math.PI*1/16);
+	private static final double C16_3 = (double)Math.cos(2*Math.PI*3/16);
+	private static final double S16_3 = (double)-Math.sin(2*Math.PI*3/16);
+	private static final double C16_5 = (double)Math.cos(2*Math.PI*5/16);
+	private static final double S16_5 = (double)-Math.sin(2*Math.PI*5/16);
+	private static final double C16_7 = (double)Math.cos(2*Math.PI*7/16);
+	private static final double S16_7 = (double)-Math.sin(2*Math.PI*7/16);
+	private static final double C32_1 = (double)Math.cos(2*Math.PI*1/32);
+	private static final double S32_1 = (double)-Math.sin(2*Math.PI*1/32);
+	private static final double C32_3 = (double)Math.cos(2*Math.PI*3/32);
+	private static final double S32_3 = (double)-Math.sin(2*Math.PI*3/32);
+	private static final double C32_5 = (double)Math.cos(2*Math.PI*5/32);
+	private static final double S32_5 = (double)-Math.sin(2*Math.PI*5/32);
+	private static final double C32_7 = (double)Math.cos(2*Math.PI*7/32);
+	private static final double S32_7 = (double)-Math.sin(2*Math.PI*7/32);
+	private static final double C32_9 = (double)Math.cos(2*Math.PI*9/32);
+	private static final double S32_9 = (double)-Math.sin(2*Math.PI*9/32);
+	private static final double C32_11 = (double)Math.cos(2*Math.PI*11/32);
+	private static final double S32_11 = (double)-Math.sin(2*Math.PI*11/32);
+	private static final double C32_13 = (double)Math.cos(2*Math.PI*13/32);
+	private static final double S32_13 = (double)-Math.sin(2*Math.PI*13/32);
+	private static final double C32_15 = (double)Math.cos(2*Math.PI*15/32);
+	private static final double S32_15 = (double)-Math.sin(2*Math.PI*15/32);
+	private static final double C64_1 = (double)Math.cos(2*Math.PI*1/64);
+	private static final double S64_1 = (double)-Math.sin(2*Math.PI*1/64);
+	private static final double C64_3 = (double)Math.cos(2*Math.PI*3/64);
+	private static final double S64_3 = (double)-Math.sin(2*Math.PI*3/64);
+	private static final double C64_5 = (double)Math.cos(2*Math.PI*5/64);
+	private static final double S64_5 = (double)-Math.sin(2*Math.PI*5/64);
+	private static final double C64_7 = (double)Math.cos(2*Math.PI*7/64);
+	private static final double S64_7 = (double)-Math.sin(2*Math.PI*7/64);
+	private static final double C64_9 = (double)Math.cos(2*Math.PI*9/64);
+	private static final double S64_9 = (double)-Math.sin(2*Math.PI*9/64);
+	private static final double C64_11 = (double)Math.cos(2*Math.PI*11/64);
+	private static final double S64_11 = (double)-Math.sin(2*Math.PI*11/64);
+	private static final double C64_13 = (double)Math.cos(2*Math.PI*13/64);
+	private static final double S64_13 = (double)-Math.sin(2*Math.PI*13/64);
+	private static final double C64_15 = (double)Math.cos(2*Math.PI*15/64);
+	private static final double S64_15 = (double)-Math.sin(2*Math.PI*15/64);
+	private static final double C64_17 = (double)Math.cos(2*Math.PI*17/64);
+	private static final double S64_17 = (double)-Math.sin(2*Math.PI*17/64);
+	private static final double C64_19 = (double)Math.cos(2*Math.PI*19/64);
+	private static final double S64_19 = (double)-Math.sin(2*Math.PI*19/64);
+	private static final double C64_21 = (double)Math.cos(2*Math.PI*21/64);
+	private static final double S64_21 = (double)-Math.sin(2*Math.PI*21/64);
+	private static final double C64_23 = (double)Math.cos(2*Math.PI*23/64);
+	private static final double S64_23 = (double)-Math.sin(2*Math.PI*23/64);
+	private static final double C64_25 = (double)Math.cos(2*Math.PI*25/64);
+	private static final double S64_25 = (double)-Math.sin(2*Math.PI*25/64);
+	private static final double C64_27 = (double)Math.cos(2*Math.PI*27/64);
+	private static final double S64_27 = (double)-Math.sin(2*Math.PI*27/64);
+	private static final double C64_29 = (double)Math.cos(2*Math.PI*29/64);
+	private static final double S64_29 = (double)-Math.sin(2*Math.PI*29/64);
+	private static final double C64_31 = (double)Math.cos(2*Math.PI*31/64);
+	private static final double S64_31 = (double)-Math.sin(2*Math.PI*31/64);
+
+	private Codelets() {}
+
+	/**
+	 * Returns whether there is a codelet for the specified size.
+	 * @param n size of the transform
+	 * @return true when n is a power of two from 1 to {@link #MAX_SIZE}
+	 */
+	static boolean isSupported(long n) {
+		return n > 0 && n <= MAX_SIZE && Long.bitCount(n) == 1;
+	}
+
+	/**
+	 * Computes the forward DFT of the n elements at <tt>offset + k*stride</tt> in place.
+	 * @param re real part
+	 * @param im imaginary part
+	 * @param offset index of first element
+	 * @param stride distance between consecutive elements
+	 * @param n size of the transform, needs to be supported (see {@link #isSupported(long)})
+	 */
+	@DoublePrecisionVersion
+	static void fft(double[] re, double[] im, int offset, int stride, int n) {
+		switch(n){
+		case 1: return;
+		case 2: fft2(re, im, offset, stride); return;
+		case 4: fft4(re, im, offset, stride); return;
+		case 8: fft8(re, im, offset, stride); return;
+		case 16: fft16(re, im, offset, stride); return;
+		case 32: fft32(re, im, offset, stride); return;
+		case 64: fft64(re, im, offset, stride); return;
+		default: throw new IllegalArgumentException("No codelet for size " + n + ".");
+		}
+	}
+
+	@DoublePrecisionVersion
+	private static void fft2(double[] re, double[] im, int o, int s) {
+		double r0 = re[o], i0 = im[o];
+		double r1 = re[o+s], i1 = im[o+s];
+		double tr, ti;
+		tr = r1; ti = i1;
+		r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+		re[o] = r0; im[o] = i0;
+		re[o+s] = r1; im[o+s] = i1;
+	}
+
+	@DoublePrecisionVersion
+	private static void fft4(double[] re, double[] im, int o, int s) {
+		double r0 = re[o], i0 = im[o];
+		double r1 = re[o+2*s], i1 = im[o+2*s];
+		double r2 = re[o+s], i2 = im[o+s];
+		double r3 = re[o+3*s], i3 = im[o+3*s];
+		double tr, ti;
+		tr = r1; ti = i1;
+		r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r3; ti = i3;
+		r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r2; ti = i2;
+		r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+		tr = i3; ti = -r3;
+		r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+		re[o] = r0; im[o] = i0;
+		re[o+s] = r1; im[o+s] = i1;
+		re[o+2*s] = r2; im[o+2*s] = i2;
+		re[o+3*s] = r3; im[o+3*s] = i3;
+	}
+
+	@DoublePrecisionVersion
+	private static void fft8(double[] re, double[] im, int o, int s) {
+		double r0 = re[o], i0 = im[o];
+		double r1 = re[o+4*s], i1 = im[o+4*s];
+		double r2 = re[o+2*s], i2 = im[o+2*s];
+		double r3 = re[o+6*s], i3 = im[o+6*s];
+		double r4 = re[o+s], i4 = im[o+s];
+		double r5 = re[o+5*s], i5 = im[o+5*s];
+		double r6 = re[o+3*s], i6 = im[o+3*s];
+		double r7 = re[o+7*s], i7 = im[o+7*s];
+		double tr, ti;
+		tr = r1; ti = i1;
+		r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r3; ti = i3;
+		r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r5; ti = i5;
+		r5 = r4 - tr; i5 = i4 - ti; r4 += tr; i4 += ti;
+		tr = r7; ti = i7;
+		r7 = r6 - tr; i7 = i6 - ti; r6 += tr; i6 += ti;
+		tr = r2; ti = i2;
+		r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+		tr = i3; ti = -r3;
+		r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+		tr = r6; ti = i6;
+		r6 = r4 - tr; i6 = i4 - ti; r4 += tr; i4 += ti;
+		tr = i7; ti = -r7;
+		r7 = r5 - tr; i7 = i5 - ti; r5 += tr; i5 += ti;
+		tr = r4; ti = i4;
+		r4 = r0 - tr; i4 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r5*C8_1 - i5*S8_1; ti = r5*S8_1 + i5*C8_1;
+		r5 = r1 - tr; i5 = i1 - ti; r1 += tr; i1 += ti;
+		tr = i6; ti = -r6;
+		r6 = r2 - tr; i6 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r7*C8_3 - i7*S8_3; ti = r7*S8_3 + i7*C8_3;
+		r7 = r3 - tr; i7 = i3 - ti; r3 += tr; i3 += ti;
+		re[o] = r0; im[o] = i0;
+		re[o+s] = r1; im[o+s] = i1;
+		re[o+2*s] = r2; im[o+2*s] = i2;
+		re[o+3*s] = r3; im[o+3*s] = i3;
+		re[o+4*s] = r4; im[o+4*s] = i4;
+		re[o+5*s] = r5; im[o+5*s] = i5;
+		re[o+6*s] = r6; im[o+6*s] = i6;
+		re[o+7*s] = r7; im[o+7*s] = i7;
+	}
+
+	@DoublePrecisionVersion
+	private static void fft16(double[] re, double[] im, int o, int s) {
+		double r0 = re[o], i0 = im[o];
+		double r1 = re[o+8*s], i1 = im[o+8*s];
+		double r2 = re[o+4*s], i2 = im[o+4*s];
+		double r3 = re[o+12*s], i3 = im[o+12*s];
+		double r4 = re[o+2*s], i4 = im[o+2*s];
+		double r5 = re[o+10*s], i5 = im[o+10*s];
+		double r6 = re[o+6*s], i6 = im[o+6*s];
+		double r7 = re[o+14*s], i7 = im[o+14*s];
+		double r8 = re[o+s], i8 = im[o+s];
+		double r9 = re[o+9*s], i9 = im[o+9*s];
+		double r10 = re[o+5*s], i10 = im[o+5*s];
+		double r11 = re[o+13*s], i11 = im[o+13*s];
+		double r12 = re[o+3*s], i12 = im[o+3*s];
+		double r13 = re[o+11*s], i13 = im[o+11*s];
+		double r14 = re[o+7*s], i14 = im[o+7*s];
+		double r15 = re[o+15*s], i15 = im[o+15*s];
+		double tr, ti;
+		tr = r1; ti = i1;
+		r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r3; ti = i3;
+		r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r5; ti = i5;
+		r5 = r4 - tr; i5 = i4 - ti; r4 += tr; i4 += ti;
+		tr = r7; ti = i7;
+		r7 = r6 - tr; i7 = i6 - ti; r6 += tr; i6 += ti;
+		tr = r9; ti = i9;
+		r9 = r8 - tr; i9 = i8 - ti; r8 += tr; i8 += ti;
+		tr = r11; ti = i11;
+		r11 = r10 - tr; i11 = i10 - ti; r10 += tr; i10 += ti;
+		tr = r13; ti = i13;
+		r13 = r12 - tr; i13 = i12 - ti; r12 += tr; i12 += ti;
+		tr = r15; ti = i15;
+		r15 = r14 - tr; i15 = i14 - ti; r14 += tr; i14 += ti;
+		tr = r2; ti = i2;
+		r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+		tr = i3; ti = -r3;
+		r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+		tr = r6; ti = i6;
+		r6 = r4 - tr; i6 = i4 - ti; r4 += tr; i4 += ti;
+		tr = i7; ti = -r7;
+		r7 = r5 - tr; i7 = i5 - ti; r5 += tr; i5 += ti;
+		tr = r10; ti = i10;
+		r10 = r8 - tr; i10 = i8 - ti; r8 += tr; i8 += ti;
+		tr = i11; ti = -r11;
+		r11 = r9 - tr; i11 = i9 - ti; r9 += tr; i9 += ti;
+		tr = r14; ti = i14;
+		r14 = r12 - tr; i14 = i12 - ti; r12 += tr; i12 += ti;
+		tr = i15; ti = -r15;
+		r15 = r13 - tr; i15 = i13 - ti; r13 += tr; i13 += ti;
+		tr = r4; ti = i4;
+		r4 = r0 - tr; i4 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r5*C8_1 - i5*S8_1; ti = r5*S8_1 + i5*C8_1;
+		r5 = r1 - tr; i5 = i1 - ti; r1 += tr; i1 += ti;
+		tr = i6; ti = -r6;
+		r6 = r2 - tr; i6 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r7*C8_3 - i7*S8_3; ti = r7*S8_3 + i7*C8_3;
+		r7 = r3 - tr; i7 = i3 - ti; r3 += tr; i3 += ti;
+		tr = r12; ti = i12;
+		r12 = r8 - tr; i12 = i8 - ti; r8 += tr; i8 += ti;
+		tr = r13*C8_1 - i13*S8_1; ti = r13*S8_1 + i13*C8_1;
+		r13 = r9 - tr; i13 = i9 - ti; r9 += tr; i9 += ti;
+		tr = i14; ti = -r14;
+		r14 = r10 - tr; i14 = i10 - ti; r10 += tr; i10 += ti;
+		tr = r15*C8_3 - i15*S8_3; ti = r15*S8_3 + i15*C8_3;
+		r15 = r11 - tr; i15 = i11 - ti; r11 += tr; i11 += ti;
+		tr = r8; ti = i8;
+		r8 = r0 - tr; i8 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r9*C16_1 - i9*S16_1; ti = r9*S16_1 + i9*C16_1;
+		r9 = r1 - tr; i9 = i1 - ti; r1 += tr; i1 += ti;
+		tr = r10*C8_1 - i10*S8_1; ti = r10*S8_1 + i10*C8_1;
+		r10 = r2 - tr; i10 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r11*C16_3 - i11*S16_3; ti = r11*S16_3 + i11*C16_3;
+		r11 = r3 - tr; i11 = i3 - ti; r3 += tr; i3 += ti;
+		tr = i12; ti = -r12;
+		r12 = r4 - tr; i12 = i4 - ti; r4 += tr; i4 += ti;
+		tr = r13*C16_5 - i13*S16_5; ti = r13*S16_5 + i13*C16_5;
+		r13 = r5 - tr; i13 = i5 - ti; r5 += tr; i5 += ti;
+		tr = r14*C8_3 - i14*S8_3; ti = r14*S8_3 + i14*C8_3;
+		r14 = r6 - tr; i14 = i6 - ti; r6 += tr; i6 += ti;
+		tr = r15*C16_7 - i15*S16_7; ti = r15*S16_7 + i15*C16_7;
+		r15 = r7 - tr; i15 = i7 - ti; r7 += tr; i7 += ti;
+		re[o] = r0; im[o] = i0;
+		re[o+s] = r1; im[o+s] = i1;
+		re[o+2*s] = r2; im[o+2*s] = i2;
+		re[o+3*s] = r3; im[o+3*s] = i3;
+		re[o+4*s] = r4; im[o+4*s] = i4;
+		re[o+5*s] = r5; im[o+5*s] = i5;
+		re[o+6*s] = r6; im[o+6*s] = i6;
+		re[o+7*s] = r7; im[o+7*s] = i7;
+		re[o+8*s] = r8; im[o+8*s] = i8;
+		re[o+9*s] = r9; im[o+9*s] = i9;
+		re[o+10*s] = r10; im[o+10*s] = i10;
+		re[o+11*s] = r11; im[o+11*s] = i11;
+		re[o+12*s] = r12; im[o+12*s] = i12;
+		re[o+13*s] = r13; im[o+13*s] = i13;
+		re[o+14*s] = r14; im[o+14*s] = i14;
+		re[o+15*s] = r15; im[o+15*s] = i15;
+	}
+
+	@DoublePrecisionVersion
+	private static void fft32(double[] re, double[] im, int o, int s) {
+		double r0 = re[o], i0 = im[o];
+		double r1 = re[o+16*s], i1 = im[o+16*s];
+		double r2 = re[o+8*s], i2 = im[o+8*s];
+		double r3 = re[o+24*s], i3 = im[o+24*s];
+		double r4 = re[o+4*s], i4 = im[o+4*s];
+		double r5 = re[o+20*s], i5 = im[o+20*s];
+		double r6 = re[o+12*s], i6 = im[o+12*s];
+		double r7 = re[o+28*s], i7 = im[o+28*s];
+		double r8 = re[o+2*s], i8 = im[o+2*s];
+		double r9 = re[o+18*s], i9 = im[o+18*s];
+		double r10 = re[o+10*s], i10 = im[o+10*s];
+		double r11 = re[o+26*s], i11 = im[o+26*s];
+		double r12 = re[o+6*s], i12 = im[o+6*s];
+		double r13 = re[o+22*s], i13 = im[o+22*s];
+		double r14 = re[o+14*s], i14 = im[o+14*s];
+		double r15 = re[o+30*s], i15 = im[o+30*s];
+		double r16 = re[o+s], i16 = im[o+s];
+		double r17 = re[o+17*s], i17 = im[o+17*s];
+		double r18 = re[o+9*s], i18 = im[o+9*s];
+		double r19 = re[o+25*s], i19 = im[o+25*s];
+		double r20 = re[o+5*s], i20 = im[o+5*s];
+		double r21 = re[o+21*s], i21 = im[o+21*s];
+		double r22 = re[o+13*s], i22 = im[o+13*s];
+		double r23 = re[o+29*s], i23 = im[o+29*s];
+		double r24 = re[o+3*s], i24 = im[o+3*s];
+		double r25 = re[o+19*s], i25 = im[o+19*s];
+		double r26 = re[o+11*s], i26 = im[o+11*s];
+		double r27 = re[o+27*s], i27 = im[o+27*s];
+		double r28 = re[o+7*s], i28 = im[o+7*s];
+		double r29 = re[o+23*s], i29 = im[o+23*s];
+		double r30 = re[o+15*s], i30 = im[o+15*s];
+		double r31 = re[o+31*s], i31 = im[o+31*s];
+		double tr, ti;
+		tr = r1; ti = i1;
+		r1 = r0 - tr; i1 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r3; ti = i3;
+		r3 = r2 - tr; i3 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r5; ti = i5;
+		r5 = r4 - tr; i5 = i4 - ti; r4 += tr; i4 += ti;
+		tr = r7; ti = i7;
+		r7 = r6 - tr; i7 = i6 - ti; r6 += tr; i6 += ti;
+		tr = r9; ti = i9;
+		r9 = r8 - tr; i9 = i8 - ti; r8 += tr; i8 += ti;
+		tr = r11; ti = i11;
+		r11 = r10 - tr; i11 = i10 - ti; r10 += tr; i10 += ti;
+		tr = r13; ti = i13;
+		r13 = r12 - tr; i13 = i12 - ti; r12 += tr; i12 += ti;
+		tr = r15; ti = i15;
+		r15 = r14 - tr; i15 = i14 - ti; r14 += tr; i14 += ti;
+		tr = r17; ti = i17;
+		r17 = r16 - tr; i17 = i16 - ti; r16 += tr; i16 += ti;
+		tr = r19; ti = i19;
+		r19 = r18 - tr; i19 = i18 - ti; r18 += tr; i18 += ti;
+		tr = r21; ti = i21;
+		r21 = r20 - tr; i21 = i20 - ti; r20 += tr; i20 += ti;
+		tr = r23; ti = i23;
+		r23 = r22 - tr; i23 = i22 - ti; r22 += tr; i22 += ti;
+		tr = r25; ti = i25;
+		r25 = r24 - tr; i25 = i24 - ti; r24 += tr; i24 += ti;
+		tr = r27; ti = i27;
+		r27 = r26 - tr; i27 = i26 - ti; r26 += tr; i26 += ti;
+		tr = r29; ti = i29;
+		r29 = r28 - tr; i29 = i28 - ti; r28 += tr; i28 += ti;
+		tr = r31; ti = i31;
+		r31 = r30 - tr; i31 = i30 - ti; r30 += tr; i30 += ti;
+		tr = r2; ti = i2;
+		r2 = r0 - tr; i2 = i0 - ti; r0 += tr; i0 += ti;
+		tr = i3; ti = -r3;
+		r3 = r1 - tr; i3 = i1 - ti; r1 += tr; i1 += ti;
+		tr = r6; ti = i6;
+		r6 = r4 - tr; i6 = i4 - ti; r4 += tr; i4 += ti;
+		tr = i7; ti = -r7;
+		r7 = r5 - tr; i7 = i5 - ti; r5 += tr; i5 += ti;
+		tr = r10; ti = i10;
+		r10 = r8 - tr; i10 = i8 - ti; r8 += tr; i8 += ti;
+		tr = i11; ti = -r11;
+		r11 = r9 - tr; i11 = i9 - ti; r9 += tr; i9 += ti;
+		tr = r14; ti = i14;
+		r14 = r12 - tr; i14 = i12 - ti; r12 += tr; i12 += ti;
+		tr = i15; ti = -r15;
+		r15 = r13 - tr; i15 = i13 - ti; r13 += tr; i13 += ti;
+		tr = r18; ti = i18;
+		r18 = r16 - tr; i18 = i16 - ti; r16 += tr; i16 += ti;
+		tr = i19; ti = -r19;
+		r19 = r17 - tr; i19 = i17 - ti; r17 += tr; i17 += ti;
+		tr = r22; ti = i22;
+		r22 = r20 - tr; i22 = i20 - ti; r20 += tr; i20 += ti;
+		tr = i23; ti = -r23;
+		r23 = r21 - tr; i23 = i21 - ti; r21 += tr; i21 += ti;
+		tr = r26; ti = i26;
+		r26 = r24 - tr; i26 = i24 - ti; r24 += tr; i24 += ti;
+		tr = i27; ti = -r27;
+		r27 = r25 - tr; i27 = i25 - ti; r25 += tr; i25 += ti;
+		tr = r30; ti = i30;
+		r30 = r28 - tr; i30 = i28 - ti; r28 += tr; i28 += ti;
+		tr = i31; ti = -r31;
+		r31 = r29 - tr; i31 = i29 - ti; r29 += tr; i29 += ti;
+		tr = r4; ti = i4;
+		r4 = r0 - tr; i4 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r5*C8_1 - i5*S8_1; ti = r5*S8_1 + i5*C8_1;
+		r5 = r1 - tr; i5 = i1 - ti; r1 += tr; i1 += ti;
+		tr = i6; ti = -r6;
+		r6 = r2 - tr; i6 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r7*C8_3 - i7*S8_3; ti = r7*S8_3 + i7*C8_3;
+		r7 = r3 - tr; i7 = i3 - ti; r3 += tr; i3 += ti;
+		tr = r12; ti = i12;
+		r12 = r8 - tr; i12 = i8 - ti; r8 += tr; i8 += ti;
+		tr = r13*C8_1 - i13*S8_1; ti = r13*S8_1 + i13*C8_1;
+		r13 = r9 - tr; i13 = i9 - ti; r9 += tr; i9 += ti;
+		tr = i14; ti = -r14;
+		r14 = r10 - tr; i14 = i10 - ti; r10 += tr; i10 += ti;
+		tr = r15*C8_3 - i15*S8_3; ti = r15*S8_3 + i15*C8_3;
+		r15 = r11 - tr; i15 = i11 - ti; r11 += tr; i11 += ti;
+		tr = r20; ti = i20;
+		r20 = r16 - tr; i20 = i16 - ti; r16 += tr; i16 += ti;
+		tr = r21*C8_1 - i21*S8_1; ti = r21*S8_1 + i21*C8_1;
+		r21 = r17 - tr; i21 = i17 - ti; r17 += tr; i17 += ti;
+		tr = i22; ti = -r22;
+		r22 = r18 - tr; i22 = i18 - ti; r18 += tr; i18 += ti;
+		tr = r23*C8_3 - i23*S8_3; ti = r23*S8_3 + i23*C8_3;
+		r23 = r19 - tr; i23 = i19 - ti; r19 += tr; i19 += ti;
+		tr = r28; ti = i28;
+		r28 = r24 - tr; i28 = i24 - ti; r24 += tr; i24 += ti;
+		tr = r29*C8_1 - i29*S8_1; ti = r29*S8_1 + i29*C8_1;
+		r29 = r25 - tr; i29 = i25 - ti; r25 += tr; i25 += ti;
+		tr = i30; ti = -r30;
+		r30 = r26 - tr; i30 = i26 - ti; r26 += tr; i26 += ti;
+		tr = r31*C8_3 - i31*S8_3; ti = r31*S8_3 + i31*C8_3;
+		r31 = r27 - tr; i31 = i27 - ti; r27 += tr; i27 += ti;
+		tr = r8; ti = i8;
+		r8 = r0 - tr; i8 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r9*C16_1 - i9*S16_1; ti = r9*S16_1 + i9*C16_1;
+		r9 = r1 - tr; i9 = i1 - ti; r1 += tr; i1 += ti;
+		tr = r10*C8_1 - i10*S8_1; ti = r10*S8_1 + i10*C8_1;
+		r10 = r2 - tr; i10 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r11*C16_3 - i11*S16_3; ti = r11*S16_3 + i11*C16_3;
+		r11 = r3 - tr; i11 = i3 - ti; r3 += tr; i3 += ti;
+		tr = i12; ti = -r12;
+		r12 = r4 - tr; i12 = i4 - ti; r4 += tr; i4 += ti;
+		tr = r13*C16_5 - i13*S16_5; ti = r13*S16_5 + i13*C16_5;
+		r13 = r5 - tr; i13 = i5 - ti; r5 += tr; i5 += ti;
+		tr = r14*C8_3 - i14*S8_3; ti = r14*S8_3 + i14*C8_3;
+		r14 = r6 - tr; i14 = i6 - ti; r6 += tr; i6 += ti;
+		tr = r15*C16_7 - i15*S16_7; ti = r15*S16_7 + i15*C16_7;
+		r15 = r7 - tr; i15 = i7 - ti; r7 += tr; i7 += ti;
+		tr = r24; ti = i24;
+		r24 = r16 - tr; i24 = i16 - ti; r16 += tr; i16 += ti;
+		tr = r25*C16_1 - i25*S16_1; ti = r25*S16_1 + i25*C16_1;
+		r25 = r17 - tr; i25 = i17 - ti; r17 += tr; i17 += ti;
+		tr = r26*C8_1 - i26*S8_1; ti = r26*S8_1 + i26*C8_1;
+		r26 = r18 - tr; i26 = i18 - ti; r18 += tr; i18 += ti;
+		tr = r27*C16_3 - i27*S16_3; ti = r27*S16_3 + i27*C16_3;
+		r27 = r19 - tr; i27 = i19 - ti; r19 += tr; i19 += ti;
+		tr = i28; ti = -r28;
+		r28 = r20 - tr; i28 = i20 - ti; r20 += tr; i20 += ti;
+		tr = r29*C16_5 - i29*S16_5; ti = r29*S16_5 + i29*C16_5;
+		r29 = r21 - tr; i29 = i21 - ti; r21 += tr; i21 += ti;
+		tr = r30*C8_3 - i30*S8_3; ti = r30*S8_3 + i30*C8_3;
+		r30 = r22 - tr; i30 = i22 - ti; r22 += tr; i22 += ti;
+		tr = r31*C16_7 - i31*S16_7; ti = r31*S16_7 + i31*C16_7;
+		r31 = r23 - tr; i31 = i23 - ti; r23 += tr; i23 += ti;
+		tr = r16; ti = i16;
+		r16 = r0 - tr; i16 = i0 - ti; r0 += tr; i0 += ti;
+		tr = r17*C32_1 - i17*S32_1; ti = r17*S32_1 + i17*C32_1;
+		r17 = r1 - tr; i17 = i1 - ti; r1 += tr; i1 += ti;
+		tr = r18*C16_1 - i18*S16_1; ti = r18*S16_1 + i18*C16_1;
+		r18 = r2 - tr; i18 = i2 - ti; r2 += tr; i2 += ti;
+		tr = r19*C32_3 - i19*S32_3; ti = r19*S32_3 + i19*C32_3;
+		r19 = r3 - tr; i19 = i3 - ti; r3 += tr; i3 += ti;
+		tr = r20*C8_1 - i20*S8_1; ti = r20*S8_1 + i20*C8_1;
+		r20 = r4 - tr; i20 = i4 - ti; r4 += tr; i4 += ti;
+		tr = r21*C32_5 - i21*S32_5; ti = r21*S32_5 + i21*C32_5;
+		r21 = r5 - tr; i21 = i5 - ti; r5 += tr; i5 += ti;
+		tr = r22*C16_3 - i22*S16_3; ti = r22*S16_3 + i22*C16_3;
+		r22 = r6 - tr; i22 = i6 - ti; r6 += tr; i6 += ti;
+		tr = r23*C32_7 - i23*S32_7; ti = r23*S32_7 + i23*C32_7;
+		r23 = r7 - tr; i23 = i7 - ti; r7 += tr; i7 += ti;
+		tr = i24; ti = -r24;
+		r24 = r8 - tr; i24 = i8 - ti; r8 += tr; i8 += ti;
+		tr = r25*C32_9 - i25*S32_9; ti = r25*S32_9 + i25*C32_9;
+		r25 = r9 - tr; i25 = i9 - ti; r9 += tr; i9 += ti;
+		tr = r26*C16_5 - i26*S16_5; ti = r26*S16_5 + i26*C16_5;
+		r26 = r10 - tr; i26 = i10 - ti; r10 += tr; i10 += ti;
+		tr = r27*C32_11 - i27*S32_11; ti = r27*S32_11 + i27*C32_11;
+		r27 = r11 - tr; i27 = i11 - ti; r11 += tr; i11 += ti;
+		tr = r28*C8_3 - i28*S8_3; ti = r28*S8_3 + i28*C8_3;
+		r28 = r12 - tr; i28 = i12 - ti; r12 += tr; i12 += ti;
+		tr = r29*C32_13 - i29*S32_13; ti = r29*S32_13 + i29*C32_13;
+		r29 = r13 - tr; i29 = i13 - ti; r13 += tr; i13 += ti;
+		tr = r30*C16_7 - i30*S16_7; ti = r30*S16_7 + i30*C16_7;
+		r30 = r14 - tr; i30 = i14 - ti; r14 += tr; i14 += ti;
+		tr = r31*C32_15 - i31*S32_15; ti = r31*S32_15 + i31*C32_15;
+		r31 = r15 - tr; i31 = i15 - ti; r15 += tr; i15 += ti;
+		re[o] = r0; im[o] = i0;
+		re[o+s] = r1; im[o+s] = i1;
+		re[o+2*s] = r2; im[o+2*s] = i2;
+		re[o+3*s] = r3; im[o+3*s] = i3;
+		re[o+4*s] = r4; im[o+4*s] = i4;
+		re[o+5*s] = r5; im[o+5*s] = i5;
+		re[o+6*s] = r6; im[o+6*s] = i6;
+		re[o+7*s] = r7; im[o+7*s] = i7;
+		re[o+8*s] = r8; im[o+8*s] = i8;
+		re[o+9*s] = r9; im[o+9*s] = i9;
+		re[o+10*s] = r10; im[o+10*s] = i10;
+		re[o+11*s] = r11; im[o+11*s] = i11;
+		re[o+12*s] = r12; im[o+12*s] = i12;
+		re[o+13*s] = r13; im[o+13*s] = i13;
+		re[o+14*s] = r14; im[o+14*s] = i14;
+		re[o+15*s] = r15; im[o+15*s] = i15;
+		re[o+16*s] = r16; im[o+16*s] = i16;
+		re[o+17*s] = r17; im[o+17*s] = i17;
+		re[o+18*s] = r18; im[o+18*s] = i18;
+		re[o+19*s] = r19; im[o+19*s] = i19;
+		re[o+20*s] = r20; im[o+20*s] = i20;
+		re[o+21*s] = r21; im[o+21*s] = i21;
+		re[o+22*s] = r22; im[o+22*s] = i22;
+		re[o+23*s] = r23; im[o+23*s] = i23;
+		re[o+24*s] = r24; im[o+24*s] = i24;
+		re[o+25*s] = r25; im[o+25*s] = i25;
+		re[o+26*s] = r26; im[o+26*s] = i26;
+		re[o+27*s] = r27; im[o+27*s] = i27;
+		re[o+28*s] = r28; im[o+28*s] = i28;
+		re[o+29*s] = r29; im[o+29*s] = i29;
+		re[o+30*s] = r30; im[o+30*s] = i30;
+		re[o+31*s] = r31; im[o+31*s] = i31;
+	}
+
+	@DoublePrecisionVersion
+	private static void fft64(double[] re, double[] im, int o, int s) {
+		double ar, ai, br, bi;
+		ar = re[o]; ai = im[o]; br = re[o+32*s]; bi = im[o+32*s];
+		re[o] = ar + br; im[o] = ai + bi;
+		re[o+32*s] = ar - br; im[o+32*s] = ai - bi;
+		ar = re[o+s]; ai = im[o+s]; br = re[o+33*s]; bi = im[o+33*s];
+		re[o+s] = ar + br; im[o+s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+33*s] = ar*C64_1 - ai*S64_1; im[o+33*s] = ar*S64_1 + ai*C64_1;
+		ar = re[o+2*s]; ai = im[o+2*s]; br = re[o+34*s]; bi = im[o+34*s];
+		re[o+2*s] = ar + br; im[o+2*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+34*s] = ar*C32_1 - ai*S32_1; im[o+34*s] = ar*S32_1 + ai*C32_1;
+		ar = re[o+3*s]; ai = im[o+3*s]; br = re[o+35*s]; bi = im[o+35*s];
+		re[o+3*s] = ar + br; im[o+3*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+35*s] = ar*C64_3 - ai*S64_3; im[o+35*s] = ar*S64_3 + ai*C64_3;
+		ar = re[o+4*s]; ai = im[o+4*s]; br = re[o+36*s]; bi = im[o+36*s];
+		re[o+4*s] = ar + br; im[o+4*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+36*s] = ar*C16_1 - ai*S16_1; im[o+36*s] = ar*S16_1 + ai*C16_1;
+		ar = re[o+5*s]; ai = im[o+5*s]; br = re[o+37*s]; bi = im[o+37*s];
+		re[o+5*s] = ar + br; im[o+5*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+37*s] = ar*C64_5 - ai*S64_5; im[o+37*s] = ar*S64_5 + ai*C64_5;
+		ar = re[o+6*s]; ai = im[o+6*s]; br = re[o+38*s]; bi = im[o+38*s];
+		re[o+6*s] = ar + br; im[o+6*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+38*s] = ar*C32_3 - ai*S32_3; im[o+38*s] = ar*S32_3 + ai*C32_3;
+		ar = re[o+7*s]; ai = im[o+7*s]; br = re[o+39*s]; bi = im[o+39*s];
+		re[o+7*s] = ar + br; im[o+7*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+39*s] = ar*C64_7 - ai*S64_7; im[o+39*s] = ar*S64_7 + ai*C64_7;
+		ar = re[o+8*s]; ai = im[o+8*s]; br = re[o+40*s]; bi = im[o+40*s];
+		re[o+8*s] = ar + br; im[o+8*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+40*s] = ar*C8_1 - ai*S8_1; im[o+40*s] = ar*S8_1 + ai*C8_1;
+		ar = re[o+9*s]; ai = im[o+9*s]; br = re[o+41*s]; bi = im[o+41*s];
+		re[o+9*s] = ar + br; im[o+9*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+41*s] = ar*C64_9 - ai*S64_9; im[o+41*s] = ar*S64_9 + ai*C64_9;
+		ar = re[o+10*s]; ai = im[o+10*s]; br = re[o+42*s]; bi = im[o+42*s];
+		re[o+10*s] = ar + br; im[o+10*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+42*s] = ar*C32_5 - ai*S32_5; im[o+42*s] = ar*S32_5 + ai*C32_5;
+		ar = re[o+11*s]; ai = im[o+11*s]; br = re[o+43*s]; bi = im[o+43*s];
+		re[o+11*s] = ar + br; im[o+11*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+43*s] = ar*C64_11 - ai*S64_11; im[o+43*s] = ar*S64_11 + ai*C64_11;
+		ar = re[o+12*s]; ai = im[o+12*s]; br = re[o+44*s]; bi = im[o+44*s];
+		re[o+12*s] = ar + br; im[o+12*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+44*s] = ar*C16_3 - ai*S16_3; im[o+44*s] = ar*S16_3 + ai*C16_3;
+		ar = re[o+13*s]; ai = im[o+13*s]; br = re[o+45*s]; bi = im[o+45*s];
+		re[o+13*s] = ar + br; im[o+13*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+45*s] = ar*C64_13 - ai*S64_13; im[o+45*s] = ar*S64_13 + ai*C64_13;
+		ar = re[o+14*s]; ai = im[o+14*s]; br = re[o+46*s]; bi = im[o+46*s];
+		re[o+14*s] = ar + br; im[o+14*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+46*s] = ar*C32_7 - ai*S32_7; im[o+46*s] = ar*S32_7 + ai*C32_7;
+		ar = re[o+15*s]; ai = im[o+15*s]; br = re[o+47*s]; bi = im[o+47*s];
+		re[o+15*s] = ar + br; im[o+15*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+47*s] = ar*C64_15 - ai*S64_15; im[o+47*s] = ar*S64_15 + ai*C64_15;
+		ar = re[o+16*s]; ai = im[o+16*s]; br = re[o+48*s]; bi = im[o+48*s];
+		re[o+16*s] = ar + br; im[o+16*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+48*s] = ai; im[o+48*s] = -ar;
+		ar = re[o+17*s]; ai = im[o+17*s]; br = re[o+49*s]; bi = im[o+49*s];
+		re[o+17*s] = ar + br; im[o+17*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+49*s] = ar*C64_17 - ai*S64_17; im[o+49*s] = ar*S64_17 + ai*C64_17;
+		ar = re[o+18*s]; ai = im[o+18*s]; br = re[o+50*s]; bi = im[o+50*s];
+		re[o+18*s] = ar + br; im[o+18*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+50*s] = ar*C32_9 - ai*S32_9; im[o+50*s] = ar*S32_9 + ai*C32_9;
+		ar = re[o+19*s]; ai = im[o+19*s]; br = re[o+51*s]; bi = im[o+51*s];
+		re[o+19*s] = ar + br; im[o+19*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+51*s] = ar*C64_19 - ai*S64_19; im[o+51*s] = ar*S64_19 + ai*C64_19;
+		ar = re[o+20*s]; ai = im[o+20*s]; br = re[o+52*s]; bi = im[o+52*s];
+		re[o+20*s] = ar + br; im[o+20*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+52*s] = ar*C16_5 - ai*S16_5; im[o+52*s] = ar*S16_5 + ai*C16_5;
+		ar = re[o+21*s]; ai = im[o+21*s]; br = re[o+53*s]; bi = im[o+53*s];
+		re[o+21*s] = ar + br; im[o+21*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+53*s] = ar*C64_21 - ai*S64_21; im[o+53*s] = ar*S64_21 + ai*C64_21;
+		ar = re[o+22*s]; ai = im[o+22*s]; br = re[o+54*s]; bi = im[o+54*s];
+		re[o+22*s] = ar + br; im[o+22*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+54*s] = ar*C32_11 - ai*S32_11; im[o+54*s] = ar*S32_11 + ai*C32_11;
+		ar = re[o+23*s]; ai = im[o+23*s]; br = re[o+55*s]; bi = im[o+55*s];
+		re[o+23*s] = ar + br; im[o+23*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+55*s] = ar*C64_23 - ai*S64_23; im[o+55*s] = ar*S64_23 + ai*C64_23;
+		ar = re[o+24*s]; ai = im[o+24*s]; br = re[o+56*s]; bi = im[o+56*s];
+		re[o+24*s] = ar + br; im[o+24*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+56*s] = ar*C8_3 - ai*S8_3; im[o+56*s] = ar*S8_3 + ai*C8_3;
+		ar = re[o+25*s]; ai = im[o+25*s]; br = re[o+57*s]; bi = im[o+57*s];
+		re[o+25*s] = ar + br; im[o+25*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+57*s] = ar*C64_25 - ai*S64_25; im[o+57*s] = ar*S64_25 + ai*C64_25;
+		ar = re[o+26*s]; ai = im[o+26*s]; br = re[o+58*s]; bi = im[o+58*s];
+		re[o+26*s] = ar + br; im[o+26*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+58*s] = ar*C32_13 - ai*S32_13; im[o+58*s] = ar*S32_13 + ai*C32_13;
+		ar = re[o+27*s]; ai = im[o+27*s]; br = re[o+59*s]; bi = im[o+59*s];
+		re[o+27*s] = ar + br; im[o+27*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+59*s] = ar*C64_27 - ai*S64_27; im[o+59*s] = ar*S64_27 + ai*C64_27;
+		ar = re[o+28*s]; ai = im[o+28*s]; br = re[o+60*s]; bi = im[o+60*s];
+		re[o+28*s] = ar + br; im[o+28*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+60*s] = ar*C16_7 - ai*S16_7; im[o+60*s] = ar*S16_7 + ai*C16_7;
+		ar = re[o+29*s]; ai = im[o+29*s]; br = re[o+61*s]; bi = im[o+61*s];
+		re[o+29*s] = ar + br; im[o+29*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+61*s] = ar*C64_29 - ai*S64_29; im[o+61*s] = ar*S64_29 + ai*C64_29;
+		ar = re[o+30*s]; ai = im[o+30*s]; br = re[o+62*s]; bi = im[o+62*s];
+		re[o+30*s] = ar + br; im[o+30*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+62*s] = ar*C32_15 - ai*S32_15; im[o+62*s] = ar*S32_15 + ai*C32_15;
+		ar = re[o+31*s]; ai = im[o+31*s]; br = re[o+63*s]; bi = im[o+63*s];
+		re[o+31*s] = ar + br; im[o+31*s] = ai + bi;
+		ar -= br; ai -= bi;
+		re[o+63*s] = ar*C64_31 - ai*S64_31; im[o+63*s] = ar*S64_31 + ai*C64_31;
+		fft32(re, im, o, s);
+		fft32(re, im, o+32*s, s);
+		/* even frequencies are in the first half, odd in the second */
+		ar = re[o+s]; ai = im[o+s];
+		re[o+s] = re[o+32*s]; im[o+s] = im[o+32*s];
+		re[o+32*s] = re[o+16*s]; im[o+32*s] = im[o+16*s];
+		re[o+16*s] = re[o+8*s]; im[o+16*s] = im[o+8*s];
+		re[o+8*s] = re[o+4*s]; im[o+8*s] = im[o+4*s];
+		re[o+4*s] = re[o+2*s]; im[o+4*s] = im[o+2*s];
+		re[o+2*s] = ar; im[o+2*s] = ai;
+		ar = re[o+3*s]; ai = im[o+3*s];
+		re[o+3*s] = re[o+33*s]; im[o+3*s] = im[o+33*s];
+		re[o+33*s] = re[o+48*s]; im[o+33*s] = im[o+48*s];
+		re[o+48*s] = re[o+24*s]; im[o+48*s] = im[o+24*s];
+		re[o+24*s] = re[o+12*s]; im[o+24*s] = im[o+12*s];
+		re[o+12*s] = re[o+6*s]; im[o+12*s] = im[o+6*s];
+		re[o+6*s] = ar; im[o+6*s] = ai;
+		ar = re[o+5*s]; ai = im[o+5*s];
+		re[o+5*s] = re[o+34*s]; im[o+5*s] = im[o+34*s];
+		re[o+34*s] = re[o+17*s]; im[o+34*s] = im[o+17*s];
+		re[o+17*s] = re[o+40*s]; im[o+17*s] = im[o+40*s];
+		re[o+40*s] = re[o+20*s]; im[o+40*s] = im[o+20*s];
+		re[o+20*s] = re[o+10*s]; im[o+20*s] = im[o+10*s];
+		re[o+10*s] = ar; im[o+10*s] = ai;
+		ar = re[o+7*s]; ai = im[o+7*s];
+		re[o+7*s] = re[o+35*s]; im[o+7*s] = im[o+35*s];
+		re[o+35*s] = re[o+49*s]; im[o+35*s] = im[o+49*s];
+		re[o+49*s] = re[o+56*s]; im[o+49*s] = im[o+56*s];
+		re[o+56*s] = re[o+28*s]; im[o+56*s] = im[o+28*s];
+		re[o+28*s] = re[o+14*s]; im[o+28*s] = im[o+14*s];
+		re[o+14*s] = ar; im[o+14*s] = ai;
+		ar = re[o+9*s]; ai = im[o+9*s];
+		re[o+9*s] = re[o+36*s]; im[o+9*s] = im[o+36*s];
+		re[o+36*s] = re[o+18*s]; im[o+36*s] = im[o+18*s];
+		re[o+18*s] = ar; im[o+18*s] = ai;
+		ar = re[o+11*s]; ai = im[o+11*s];
+		re[o+11*s] = re[o+37*s]; im[o+11*s] = im[o+37*s];
+		re[o+37*s] = re[o+50*s]; im[o+37*s] = im[o+50*s];
+		re[o+50*s] = re[o+25*s]; im[o+50*s] = im[o+25*s];
+		re[o+25*s] = re[o+44*s]; im[o+25*s] = im[o+44*s];
+		re[o+44*s] = re[o+22*s]; im[o+44*s] = im[o+22*s];
+		re[o+22*s] = ar; im[o+22*s] = ai;
+		ar = re[o+13*s]; ai = im[o+13*s];
+		re[o+13*s] = re[o+38*s]; im[o+13*s] = im[o+38*s];
+		re[o+38*s] = re[o+19*s]; im[o+38*s] = im[o+19*s];
+		re[o+19*s] = re[o+41*s]; im[o+19*s] = im[o+41*s];
+		re[o+41*s] = re[o+52*s]; im[o+41*s] = im[o+52*s];
+		re[o+52*s] = re[o+26*s]; im[o+52*s] = im[o+26*s];
+		re[o+26*s] = ar; im[o+26*s] = ai;
+		ar = re[o+15*s]; ai = im[o+15*s];
+		re[o+15*s] = re[o+39*s]; im[o+15*s] = im[o+39*s];
+		re[o+39*s] = re[o+51*s]; im[o+39*s] = im[o+51*s];
+		re[o+51*s] = re[o+57*s]; im[o+51*s] = im[o+57*s];
+		re[o+57*s] = re[o+60*s]; im[o+57*s] = im[o+60*s];
+		re[o+60*s] = re[o+30*s]; im[o+60*s] = im[o+30*s];
+		re[o+30*s] = ar; im[o+30*s] = ai;
+		ar = re[o+21*s]; ai = im[o+21*s];
+		re[o+21*s] = re[o+42*s]; im[o+21*s] = im[o+42*s];
+		re[o+42*s] = ar; im[o+42*s] = ai;
+		ar = re[o+23*s]; ai = im[o+23*s];
+		re[o+23*s] = re[o+43*s]; im[o+23*s] = im[o+43*s];
+		re[o+43*s] = re[o+53*s]; im[o+43*s] = im[o+53*s];
+		re[o+53*s] = re[o+58*s]; im[o+53*s] = im[o+58*s];
+		re[o+58*s] = re[o+29*s]; im[o+58*s] = im[o+29*s];
+		re[o+29*s] = re[o+46*s]; im[o+29*s] = im[o+46*s];
+		re[o+46*s] = ar; im[o+46*s] = ai;
+		ar = re[o+27*s]; ai = im[o+27*s];
+		re[o+27*s] = re[o+45*s]; im[o+27*s] = im[o+45*s];
+		re[o+45*s] = re[o+54*s]; im[o+45*s] = im[o+54*s];
+		re[o+54*s] = ar; im[o+54*s] = ai;
+		ar = re[o+31*s]; ai = im[o+31*s];
+		re[o+31*s] = re[o+47*s]; im[o+31*s] = im[o+47*s];
+		re[o+47*s] = re[o+55*s]; im[o+47*s] = im[o+55*s];
+		re[o+55*s] = re[o+59*s]; im[o+55*s] = im[o+59*s];
+		re[o+59*s] = re[o+61*s]; im[o+59*s] = im[o+61*s];
+		re[o+61*s] = re[o+62*s]; im[o+61*s] = im[o+62*s];
+		re[o+62*s] = ar; im[o+62*s] = ai;
+	}
+
+}
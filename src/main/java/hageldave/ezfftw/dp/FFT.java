@@ -18,6 +18,7 @@
 
 package hageldave.ezfftw.dp;
 
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -301,17 +302,7 @@ public class FFT {
 		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
 		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
 		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
-		/* setup argument lambdas */
-		Supplier<NativeRealArray> r_input = ()-> {
-			NativeRealArray ri = new NativeRealArray(numElements);
-			ri.set(realIn);
-			return ri;
-		};
-		BiConsumer<NativeRealArray, NativeRealArray> c_output = (real,imag) -> {
-			real.get(0, realOut);
-			imag.get(0, imagOut);
-		};
-		fft(r_input, c_output, dimensions);
+		FFTBackends.select(dimensions).r2c(realIn, realOut, imagOut, dimensions);
 	}
 
 	/**
@@ -356,22 +347,7 @@ public class FFT {
 		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
 		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
 		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
-		/* setup argument lambdas */
-		Supplier<NativeRealArray> r_input = ()-> {
-			NativeRealArray ri = new NativeRealArray(numElements);
-			ri.set(realIn);
-			return ri;
-		};
-		Supplier<NativeRealArray> i_input = ()-> {
-			NativeRealArray ii = new NativeRealArray(numElements);
-			ii.set(imagIn);
-			return ii;
-		};
-		BiConsumer<NativeRealArray, NativeRealArray> c_output = (real,imag) -> {
-			real.get(0, realOut);
-			imag.get(0, imagOut);
-		};
-		fft(r_input, i_input, c_output, dimensions);
+		FFTBackends.select(dimensions).c2c(realIn, imagIn, realOut, imagOut, dimensions);
 	}
 
 	/**
@@ -416,22 +392,8 @@ public class FFT {
 		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
 		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
 		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
-		/* setup argument lambdas */
-		Supplier<NativeRealArray> r_input = ()-> {
-			NativeRealArray ri = new NativeRealArray(numElements);
-			ri.set(realIn);
-			return ri;
-		};
-		Supplier<NativeRealArray> i_input = ()-> {
-			NativeRealArray ii = new NativeRealArray(numElements);
-			ii.set(imagIn);
-			return ii;
-		};
-		BiConsumer<NativeRealArray, NativeRealArray> c_output = (real,imag) -> {
-			real.get(0, realOut);
-			imag.get(0, imagOut);
-		};
-		ifft(r_input, i_input, c_output, dimensions);
+		/* inverse is forward transform with swapped real and imaginary parts */
+		FFTBackends.select(dimensions).c2c(imagIn, realIn, imagOut, realOut, dimensions);
 	}
 
 	/**
@@ -473,23 +435,865 @@ public class FFT {
 		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
 		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
 		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		FFTBackends.select(dimensions).c2r(realIn, imagIn, realOut, dimensions);
+	}
+
+	/**
+	 * Parallel mode of {@link #fft(double[], double[], double[], long...)}.
+	 * Multi-dimensional transforms of at least {@link ParallelFFT#MIN_PARALLEL_ELEMENTS} values are decomposed
+	 * into batched transforms that are executed on the common {@link java.util.concurrent.ForkJoinPool},
+	 * see {@link ParallelFFT}. Plans are cached per shape, smaller and one dimensional transforms are
+	 * computed by the calling thread as with {@link #fft(double[], double[], double[], long...)}.
+	 * 
+	 * @param realIn real valued input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fftParallel(double[] realIn, double[] realOut, double[] imagOut, long... dimensions) {
+		ParallelFFT.common().fft(realIn, realOut, imagOut, dimensions);
+	}
+
+	/**
+	 * Parallel mode of {@link #fft(double[], double[], double[], double[], long...)},
+	 * see {@link #fftParallel(double[], double[], double[], long...)}.
+	 * 
+	 * @param realIn real valued part of the input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fftParallel(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		ParallelFFT.common().fft(realIn, imagIn, realOut, imagOut, dimensions);
+	}
+
+	/**
+	 * Parallel mode of {@link #ifft(double[], double[], double[], double[], long...)},
+	 * see {@link #fftParallel(double[], double[], double[], long...)}.
+	 * 
+	 * @param realIn real valued part of the input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifftParallel(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		ParallelFFT.common().ifft(realIn, imagIn, realOut, imagOut, dimensions);
+	}
+
+	/**
+	 * Parallel mode of {@link #ifft(double[], double[], double[], long...)},
+	 * see {@link #fftParallel(double[], double[], double[], long...)}.
+	 * 
+	 * @param realIn real valued part of the input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the input in row major order to be transformed
+	 * @param realOut real valued transform result in row major order
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifftParallel(double[] realIn, double[] imagIn, double[] realOut, long... dimensions) {
+		ParallelFFT.common().ifft(realIn, imagIn, realOut, dimensions);
+	}
+
+	/**
+	 * Calls {@link #fft(Supplier, BiConsumer, long...)} with appropriate {@link NativeRealArray} {@link Supplier}
+	 * and {@link BiConsumer}.
+	 * <p>
+	 * Calculates a Fast Fourier Transform of the provided <tt>realIn</tt> {@link ChunkedArrayAccessor}.
+	 * The resulting transform will be written to the provided <tt>realOut</tt> and <tt>imagOut</tt> accessors
+	 * with separate real and imaginary part of the complex valued transform.
+	 * <p>
+	 * The pages of the accessors are copied to and from native memory in bulk, so in contrast to the
+	 * double[] based methods the number of elements is not limited to Integer.MAX_VALUE.
+	 * The dimensions are taken from <tt>realIn</tt>, all other accessors need to have the same dimensions.
+	 * <p>
+	 * The inverse counter part to this method is
+	 * {@link #ifft(ChunkedArrayAccessor, ChunkedArrayAccessor, ChunkedArrayAccessor)}.
+	 * Please note that the FFT and subsequent inverse FFT restores the original signal scaled by the number of
+	 * values in the input.
+	 * 
+	 * @param realIn real valued input to be transformed
+	 * @param realOut real valued part of the resulting transform
+	 * @param imagOut imaginary valued part of the resulting transform
+	 * 
+	 * @throws IllegalArgumentException when the dimensions of the accessors do not match
+	 * @throws NullPointerException if any of the specified accessors is null.
+	 * 
+	 * @see #fft(double[], double[], double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fft(ChunkedArrayAccessor realIn, ChunkedArrayAccessor realOut, ChunkedArrayAccessor imagOut) {
+		/* sanity checks */
+		Objects.requireNonNull(realIn, ()->"real input array cannot be null");
+		long[] dimensions = realIn.getDimensions();
+		PrecisionDependentUtils.sanityCheckChunks(realOut, dimensions, "real output");
+		PrecisionDependentUtils.sanityCheckChunks(imagOut, dimensions, "imaginary output");
 		/* setup argument lambdas */
 		Supplier<NativeRealArray> r_input = ()-> {
-			NativeRealArray ri = new NativeRealArray(numElements);
-			ri.set(realIn);
-			return ri;
+			NativeRealArray a = new NativeRealArray(realIn.length);
+			PrecisionDependentUtils.fillNativeArrayFromChunks(a, realIn);
+			return a;
+		};
+		BiConsumer<NativeRealArray, NativeRealArray> c_output = (real,imag) -> {
+			PrecisionDependentUtils.readNativeArrayToChunks(real, realOut);
+			PrecisionDependentUtils.readNativeArrayToChunks(imag, imagOut);
+		};
+		fft(r_input, c_output, dimensions);
+	}
+
+	/**
+	 * Calls {@link #fft(Supplier, Supplier, BiConsumer, long...)} with appropriate {@link NativeRealArray} {@link Supplier}s
+	 * and {@link BiConsumer}.
+	 * <p>
+	 * Calculates a Fast Fourier Transform of the complex valued input given by the <tt>realIn</tt> and <tt>imagIn</tt>
+	 * {@link ChunkedArrayAccessor}s.
+	 * The resulting transform will be written to the provided <tt>realOut</tt> and <tt>imagOut</tt> accessors
+	 * with separate real and imaginary part of the complex valued transform.
+	 * <p>
+	 * The pages of the accessors are copied to and from native memory in bulk, so in contrast to the
+	 * double[] based methods the number of elements is not limited to Integer.MAX_VALUE.
+	 * The dimensions are taken from <tt>realIn</tt>, all other accessors need to have the same dimensions.
+	 * <p>
+	 * The inverse counter part to this method is
+	 * {@link #ifft(ChunkedArrayAccessor, ChunkedArrayAccessor, ChunkedArrayAccessor, ChunkedArrayAccessor)}.
+	 * 
+	 * @param realIn real valued part of the complex input to be transformed
+	 * @param imagIn imaginary valued part of the complex input to be transformed
+	 * @param realOut real valued part of the resulting transform
+	 * @param imagOut imaginary valued part of the resulting transform
+	 * 
+	 * @throws IllegalArgumentException when the dimensions of the accessors do not match
+	 * @throws NullPointerException if any of the specified accessors is null.
+	 * 
+	 * @see #fft(double[], double[], double[], double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fft(ChunkedArrayAccessor realIn, ChunkedArrayAccessor imagIn, ChunkedArrayAccessor realOut, ChunkedArrayAccessor imagOut) {
+		/* sanity checks */
+		Objects.requireNonNull(realIn, ()->"real input array cannot be null");
+		long[] dimensions = realIn.getDimensions();
+		PrecisionDependentUtils.sanityCheckChunks(imagIn,  dimensions, "imaginary input");
+		PrecisionDependentUtils.sanityCheckChunks(realOut, dimensions, "real output");
+		PrecisionDependentUtils.sanityCheckChunks(imagOut, dimensions, "imaginary output");
+		/* setup argument lambdas */
+		Supplier<NativeRealArray> r_input = ()-> {
+			NativeRealArray a = new NativeRealArray(realIn.length);
+			PrecisionDependentUtils.fillNativeArrayFromChunks(a, realIn);
+			return a;
 		};
 		Supplier<NativeRealArray> i_input = ()-> {
-			NativeRealArray ii = new NativeRealArray(numElements);
-			ii.set(imagIn);
-			return ii;
+			NativeRealArray a = new NativeRealArray(imagIn.length);
+			PrecisionDependentUtils.fillNativeArrayFromChunks(a, imagIn);
+			return a;
+		};
+		BiConsumer<NativeRealArray, NativeRealArray> c_output = (real,imag) -> {
+			PrecisionDependentUtils.readNativeArrayToChunks(real, realOut);
+			PrecisionDependentUtils.readNativeArrayToChunks(imag, imagOut);
+		};
+		fft(r_input, i_input, c_output, dimensions);
+	}
+
+	/**
+	 * Calls {@link #ifft(Supplier, Supplier, BiConsumer, long...)} with appropriate {@link NativeRealArray} {@link Supplier}s
+	 * and {@link BiConsumer}.
+	 * <p>
+	 * Calculates an inverse Fast Fourier Transform of the complex valued input given by the <tt>realIn</tt> and
+	 * <tt>imagIn</tt> {@link ChunkedArrayAccessor}s.
+	 * The resulting transform will be written to the provided <tt>realOut</tt> and <tt>imagOut</tt> accessors
+	 * with separate real and imaginary part of the complex valued transform.
+	 * <p>
+	 * The pages of the accessors are copied to and from native memory in bulk, so in contrast to the
+	 * double[] based methods the number of elements is not limited to Integer.MAX_VALUE.
+	 * The dimensions are taken from <tt>realIn</tt>, all other accessors need to have the same dimensions.
+	 * <p>
+	 * The (forward) counter part to this method is
+	 * {@link #fft(ChunkedArrayAccessor, ChunkedArrayAccessor, ChunkedArrayAccessor, ChunkedArrayAccessor)}.
+	 * Please note that the FFT and subsequent inverse FFT restores the original signal scaled by the number of
+	 * values in the input.
+	 * 
+	 * @param realIn real valued part of the complex input to be transformed
+	 * @param imagIn imaginary valued part of the complex input to be transformed
+	 * @param realOut real valued part of the resulting transform
+	 * @param imagOut imaginary valued part of the resulting transform
+	 * 
+	 * @throws IllegalArgumentException when the dimensions of the accessors do not match
+	 * @throws NullPointerException if any of the specified accessors is null.
+	 * 
+	 * @see #ifft(double[], double[], double[], double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifft(ChunkedArrayAccessor realIn, ChunkedArrayAccessor imagIn, ChunkedArrayAccessor realOut, ChunkedArrayAccessor imagOut) {
+		/* sanity checks */
+		Objects.requireNonNull(realIn, ()->"real input array cannot be null");
+		long[] dimensions = realIn.getDimensions();
+		PrecisionDependentUtils.sanityCheckChunks(imagIn,  dimensions, "imaginary input");
+		PrecisionDependentUtils.sanityCheckChunks(realOut, dimensions, "real output");
+		PrecisionDependentUtils.sanityCheckChunks(imagOut, dimensions, "imaginary output");
+		/* setup argument lambdas */
+		Supplier<NativeRealArray> r_input = ()-> {
+			NativeRealArray a = new NativeRealArray(realIn.length);
+			PrecisionDependentUtils.fillNativeArrayFromChunks(a, realIn);
+			return a;
+		};
+		Supplier<NativeRealArray> i_input = ()-> {
+			NativeRealArray a = new NativeRealArray(imagIn.length);
+			PrecisionDependentUtils.fillNativeArrayFromChunks(a, imagIn);
+			return a;
+		};
+		BiConsumer<NativeRealArray, NativeRealArray> c_output = (real,imag) -> {
+			PrecisionDependentUtils.readNativeArrayToChunks(real, realOut);
+			PrecisionDependentUtils.readNativeArrayToChunks(imag, imagOut);
+		};
+		ifft(r_input, i_input, c_output, dimensions);
+	}
+
+	/**
+	 * Calls {@link #ifft(Supplier, Supplier, Consumer, long...)} with appropriate {@link NativeRealArray} {@link Supplier}s
+	 * and {@link Consumer}.
+	 * <p>
+	 * Calculates an inverse Fast Fourier Transform of the complex valued input given by the <tt>realIn</tt> and
+	 * <tt>imagIn</tt> {@link ChunkedArrayAccessor}s.
+	 * The resulting real valued transform will be written to the provided <tt>realOut</tt> accessor.
+	 * <p>
+	 * The pages of the accessors are copied to and from native memory in bulk, so in contrast to the
+	 * double[] based methods the number of elements is not limited to Integer.MAX_VALUE.
+	 * The dimensions are taken from <tt>realIn</tt>, all other accessors need to have the same dimensions.
+	 * <p>
+	 * The (forward) counter part to this method is
+	 * {@link #fft(ChunkedArrayAccessor, ChunkedArrayAccessor, ChunkedArrayAccessor)}.
+	 * Please note that the FFT and subsequent inverse FFT restores the original signal scaled by the number of
+	 * values in the input.
+	 * 
+	 * @param realIn real valued part of the complex input to be transformed
+	 * @param imagIn imaginary valued part of the complex input to be transformed
+	 * @param realOut real valued transform result
+	 * 
+	 * @throws IllegalArgumentException when the dimensions of the accessors do not match
+	 * @throws NullPointerException if any of the specified accessors is null.
+	 * 
+	 * @see #ifft(double[], double[], double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifft(ChunkedArrayAccessor realIn, ChunkedArrayAccessor imagIn, ChunkedArrayAccessor realOut) {
+		/* sanity checks */
+		Objects.requireNonNull(realIn, ()->"real input array cannot be null");
+		long[] dimensions = realIn.getDimensions();
+		PrecisionDependentUtils.sanityCheckChunks(imagIn,  dimensions, "imaginary input");
+		PrecisionDependentUtils.sanityCheckChunks(realOut, dimensions, "real output");
+		/* setup argument lambdas */
+		Supplier<NativeRealArray> r_input = ()-> {
+			NativeRealArray a = new NativeRealArray(realIn.length);
+			PrecisionDependentUtils.fillNativeArrayFromChunks(a, realIn);
+			return a;
+		};
+		Supplier<NativeRealArray> i_input = ()-> {
+			NativeRealArray a = new NativeRealArray(imagIn.length);
+			PrecisionDependentUtils.fillNativeArrayFromChunks(a, imagIn);
+			return a;
 		};
 		Consumer<NativeRealArray> r_output = (real) -> {
-			real.get(0, realOut);
+			PrecisionDependentUtils.readNativeArrayToChunks(real, realOut);
 		};
 		ifft(r_input, i_input, r_output, dimensions);
 	}
 
+	/**
+	 * Calculates Fast Fourier Transforms along the specified axes of the provided <tt>realIn</tt> array.
+	 * The supplied array is assumed to be in row major order and its dimensionality is specified by the
+	 * <tt>dimensions</tt> argument.
+	 * The resulting transform will be written to the provided <tt>realOut</tt> and <tt>imagOut</tt> arrays
+	 * with separate real and imaginary part of the complex valued transform (in row major order).
+	 * <p>
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column). All of these transforms are computed by a single FFTW plan.
+	 * <p>
+	 * The inverse counter part to this method is {@link #ifft(double[], double[], double[], int[], long...)}.
+	 * 
+	 * @param realIn real valued input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when no axes were specified, an axis is out of range or is specified twice <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fft(double[] realIn, double[] realOut, double[] imagOut, int[] axes, long... dimensions) {
+		/* sanity checks */
+		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		try(
+			/* allocate native resources */
+			NativeRealArray a1 = new NativeRealArray(numElements);
+			NativeRealArray a2 = new NativeRealArray(numElements);
+		){
+			PrecisionDependentUtils.fillNativeArrayFromArray(a1, realIn, dimensions);
+			/* execute FFT */
+			FFTW_Guru.execute_split_r2c_axes(a1, a1, a2, axes, dimensions);
+			PrecisionDependentUtils.readNativeArrayToArray(a1, realOut, dimensions);
+			PrecisionDependentUtils.readNativeArrayToArray(a2, imagOut, dimensions);
+		}
+	}
+
+	/**
+	 * Calculates Fast Fourier Transforms along the specified axes of the provided <tt>realIn</tt> and
+	 * <tt>imagIn</tt> arrays (split complex format, row major order of the specified dimensions).
+	 * The resulting transform will be written to the provided <tt>realOut</tt> and <tt>imagOut</tt> arrays.
+	 * <p>
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column). All of these transforms are computed by a single FFTW plan.
+	 * <p>
+	 * The inverse counter part to this method is {@link #ifft(double[], double[], double[], double[], int[], long...)}.
+	 * 
+	 * @param realIn real valued part of the complex input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the complex input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when no axes were specified, an axis is out of range or is specified twice <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fft(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, int[] axes, long... dimensions) {
+		/* sanity checks */
+		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		try(
+			/* allocate native resources */
+			NativeRealArray a1 = new NativeRealArray(numElements);
+			NativeRealArray a2 = new NativeRealArray(numElements);
+		){
+			PrecisionDependentUtils.fillNativeArrayFromArray(a1, realIn, dimensions);
+			PrecisionDependentUtils.fillNativeArrayFromArray(a2, imagIn, dimensions);
+			/* execute FFT */
+			FFTW_Guru.execute_split_c2c_axes(a1, a2, a1, a2, axes, dimensions);
+			PrecisionDependentUtils.readNativeArrayToArray(a1, realOut, dimensions);
+			PrecisionDependentUtils.readNativeArrayToArray(a2, imagOut, dimensions);
+		}
+	}
+
+	/**
+	 * Calculates inverse Fast Fourier Transforms along the specified axes of the provided <tt>realIn</tt> and
+	 * <tt>imagIn</tt> arrays (split complex format, row major order of the specified dimensions).
+	 * The resulting transform will be written to the provided <tt>realOut</tt> and <tt>imagOut</tt> arrays.
+	 * <p>
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column). All of these transforms are computed by a single FFTW plan.
+	 * <p>
+	 * The (forward) counter part to this method is {@link #fft(double[], double[], double[], double[], int[], long...)}.
+	 * Please note that the FFT and subsequent inverse FFT restores the original signal scaled by the number of
+	 * values along the transformed axes.
+	 * 
+	 * @param realIn real valued part of the complex input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the complex input in row major order to be transformed
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when no axes were specified, an axis is out of range or is specified twice <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifft(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, int[] axes, long... dimensions) {
+		fft(imagIn, realIn, imagOut, realOut, axes, dimensions);// swapped arguments
+	}
+
+	/**
+	 * Calculates inverse Fast Fourier Transforms along the specified axes of the provided <tt>realIn</tt> and
+	 * <tt>imagIn</tt> arrays (split complex format, row major order of the specified dimensions).
+	 * The resulting real valued transform will be written to the provided <tt>realOut</tt> array.
+	 * <p>
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column). All of these transforms are computed by a single FFTW plan.
+	 * <p>
+	 * The (forward) counter part to this method is {@link #fft(double[], double[], double[], int[], long...)}.
+	 * Please note that the FFT and subsequent inverse FFT restores the original signal scaled by the number of
+	 * values along the transformed axes.
+	 * 
+	 * @param realIn real valued part of the complex input in row major order to be transformed
+	 * @param imagIn imaginary valued part of the complex input in row major order to be transformed
+	 * @param realOut real valued transform result in row major order
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (e.g. {10,20,30} for 3 dimensions of width=10, height=20 and depth=30)
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when no axes were specified, an axis is out of range or is specified twice <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifft(double[] realIn, double[] imagIn, double[] realOut, int[] axes, long... dimensions) {
+		/* sanity checks */
+		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		try(
+			/* allocate native resources */
+			NativeRealArray a1 = new NativeRealArray(numElements);
+			NativeRealArray a2 = new NativeRealArray(numElements);
+		){
+			PrecisionDependentUtils.fillNativeArrayFromArray(a1, realIn, dimensions);
+			PrecisionDependentUtils.fillNativeArrayFromArray(a2, imagIn, dimensions);
+			/* execute FFT */
+			FFTW_Guru.execute_split_c2r_axes(a1, a2, a1, axes, dimensions);
+			PrecisionDependentUtils.readNativeArrayToArray(a1, realOut, dimensions);
+		}
+	}
+
+	/**
+	 * Calculates a Fast Fourier Transform of the provided real valued <tt>realIn</tt> double[][] array.
+	 * The arrays are indexed as <tt>array[y][x]</tt>, i.e. the last index is the fastest varying one and the
+	 * dimensions of the transform are {width, height}.
+	 * Rows are copied to and from native memory with one bulk copy per row (in parallel for large arrays,
+	 * see {@link PrecisionDependentUtils#PARALLEL_TRANSFER_THRESHOLD}), no flattened copy of the data is made.
+	 * <p>
+	 * The inverse counter part to this method is {@link #ifft(double[][], double[][], double[][])}.
+	 * 
+	 * @param realIn real valued input to be transformed
+	 * @param realOut real valued part of the resulting transform
+	 * @param imagOut imaginary valued part of the resulting transform
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when an array is empty or not rectangular <br>
+	 * when the arrays differ in size
+	 * @throws NullPointerException if any of the specified arrays (or their rows) is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fft(double[][] realIn, double[][] realOut, double[][] imagOut) {
+		/* sanity checks */
+		long[] dimensions = PrecisionDependentUtils.dimensionsOf(realIn, "real input");
+		requireDimensions(realOut, dimensions, "real output");
+		requireDimensions(imagOut, dimensions, "imaginary output");
+		fftRows(realIn, realOut, imagOut, dimensions);
+	}
+
+	/**
+	 * Calculates a Fast Fourier Transform of the complex valued input given by the <tt>realIn</tt> and <tt>imagIn</tt> double[][] arrays.
+	 * The arrays are indexed as <tt>array[y][x]</tt>, i.e. the last index is the fastest varying one and the
+	 * dimensions of the transform are {width, height}.
+	 * Rows are copied to and from native memory with one bulk copy per row (in parallel for large arrays,
+	 * see {@link PrecisionDependentUtils#PARALLEL_TRANSFER_THRESHOLD}), no flattened copy of the data is made.
+	 * <p>
+	 * The inverse counter part to this method is {@link #ifft(double[][], double[][], double[][], double[][])}.
+	 * 
+	 * @param realIn real valued input to be transformed
+	 * @param imagIn imaginary valued input to be transformed
+	 * @param realOut real valued part of the resulting transform
+	 * @param imagOut imaginary valued part of the resulting transform
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when an array is empty or not rectangular <br>
+	 * when the arrays differ in size
+	 * @throws NullPointerException if any of the specified arrays (or their rows) is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fft(double[][] realIn, double[][] imagIn, double[][] realOut, double[][] imagOut) {
+		/* sanity checks */
+		long[] dimensions = PrecisionDependentUtils.dimensionsOf(realIn, "real input");
+		requireDimensions(imagIn, dimensions, "imaginary input");
+		requireDimensions(realOut, dimensions, "real output");
+		requireDimensions(imagOut, dimensions, "imaginary output");
+		fftRows(realIn, imagIn, realOut, imagOut, dimensions);
+	}
+
+	/**
+	 * Calculates an inverse Fast Fourier Transform of the complex valued input given by the <tt>realIn</tt> and <tt>imagIn</tt> double[][] arrays.
+	 * The arrays are indexed as <tt>array[y][x]</tt>, i.e. the last index is the fastest varying one and the
+	 * dimensions of the transform are {width, height}.
+	 * Rows are copied to and from native memory with one bulk copy per row (in parallel for large arrays,
+	 * see {@link PrecisionDependentUtils#PARALLEL_TRANSFER_THRESHOLD}), no flattened copy of the data is made.
+	 * <p>
+	 * The (forward) counter part to this method is {@link #fft(double[][], double[][], double[][], double[][])}. Please note that the FFT and subsequent inverse FFT restores the original signal scaled by the number of values in the input.
+	 * 
+	 * @param realIn real valued input to be transformed
+	 * @param imagIn imaginary valued input to be transformed
+	 * @param realOut real valued part of the resulting transform
+	 * @param imagOut imaginary valued part of the resulting transform
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when an array is empty or not rectangular <br>
+	 * when the arrays differ in size
+	 * @throws NullPointerException if any of the specified arrays (or their rows) is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifft(double[][] realIn, double[][] imagIn, double[][] realOut, double[][] imagOut) {
+		/* sanity checks */
+		long[] dimensions = PrecisionDependentUtils.dimensionsOf(realIn, "real input");
+		requireDimensions(imagIn, dimensions, "imaginary input");
+		requireDimensions(realOut, dimensions, "real output");
+		requireDimensions(imagOut, dimensions, "imaginary output");
+		ifftRows(realIn, imagIn, realOut, imagOut, dimensions);
+	}
+
+	/**
+	 * Calculates an inverse Fast Fourier Transform of the complex valued input given by the <tt>realIn</tt> and <tt>imagIn</tt> double[][] arrays, resulting in a real valued transform.
+	 * The arrays are indexed as <tt>array[y][x]</tt>, i.e. the last index is the fastest varying one and the
+	 * dimensions of the transform are {width, height}.
+	 * Rows are copied to and from native memory with one bulk copy per row (in parallel for large arrays,
+	 * see {@link PrecisionDependentUtils#PARALLEL_TRANSFER_THRESHOLD}), no flattened copy of the data is made.
+	 * <p>
+	 * The (forward) counter part to this method is {@link #fft(double[][], double[][], double[][])}. Please note that the FFT and subsequent inverse FFT restores the original signal scaled by the number of values in the input.
+	 * 
+	 * @param realIn real valued input to be transformed
+	 * @param imagIn imaginary valued input to be transformed
+	 * @param realOut real valued transform result
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when an array is empty or not rectangular <br>
+	 * when the arrays differ in size
+	 * @throws NullPointerException if any of the specified arrays (or their rows) is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifft(double[][] realIn, double[][] imagIn, double[][] realOut) {
+		/* sanity checks */
+		long[] dimensions = PrecisionDependentUtils.dimensionsOf(realIn, "real input");
+		requireDimensions(imagIn, dimensions, "imaginary input");
+		requireDimensions(realOut, dimensions, "real output");
+		ifftRows(realIn, imagIn, realOut, dimensions);
+	}
+
+	/**
+	 * Calculates a Fast Fourier Transform of the provided real valued <tt>realIn</tt> double[][][] array.
+	 * The arrays are indexed as <tt>array[z][y][x]</tt>, i.e. the last index is the fastest varying one and the
+	 * dimensions of the transform are {width, height, depth}.
+	 * Rows are copied to and from native memory with one bulk copy per row (in parallel for large arrays,
+	 * see {@link PrecisionDependentUtils#PARALLEL_TRANSFER_THRESHOLD}), no flattened copy of the data is made.
+	 * <p>
+	 * The inverse counter part to this method is {@link #ifft(double[][][], double[][][], double[][][])}.
+	 * 
+	 * @param realIn real valued input to be transformed
+	 * @param realOut real valued part of the resulting transform
+	 * @param imagOut imaginary valued part of the resulting transform
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when an array is empty or not rectangular <br>
+	 * when the arrays differ in size
+	 * @throws NullPointerException if any of the specified arrays (or their rows) is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fft(double[][][] realIn, double[][][] realOut, double[][][] imagOut) {
+		/* sanity checks */
+		long[] dimensions = PrecisionDependentUtils.dimensionsOf(realIn, "real input");
+		requireDimensions(realOut, dimensions, "real output");
+		requireDimensions(imagOut, dimensions, "imaginary output");
+		fftRows(PrecisionDependentUtils.rowsOf(realIn), PrecisionDependentUtils.rowsOf(realOut), PrecisionDependentUtils.rowsOf(imagOut), dimensions);
+	}
+
+	/**
+	 * Calculates a Fast Fourier Transform of the complex valued input given by the <tt>realIn</tt> and <tt>imagIn</tt> double[][][] arrays.
+	 * The arrays are indexed as <tt>array[z][y][x]</tt>, i.e. the last index is the fastest varying one and the
+	 * dimensions of the transform are {width, height, depth}.
+	 * Rows are copied to and from native memory with one bulk copy per row (in parallel for large arrays,
+	 * see {@link PrecisionDependentUtils#PARALLEL_TRANSFER_THRESHOLD}), no flattened copy of the data is made.
+	 * <p>
+	 * The inverse counter part to this method is {@link #ifft(double[][][], double[][][], double[][][], double[][][])}.
+	 * 
+	 * @param realIn real valued input to be transformed
+	 * @param imagIn imaginary valued input to be transformed
+	 * @param realOut real valued part of the resulting transform
+	 * @param imagOut imaginary valued part of the resulting transform
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when an array is empty or not rectangular <br>
+	 * when the arrays differ in size
+	 * @throws NullPointerException if any of the specified arrays (or their rows) is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fft(double[][][] realIn, double[][][] imagIn, double[][][] realOut, double[][][] imagOut) {
+		/* sanity checks */
+		long[] dimensions = PrecisionDependentUtils.dimensionsOf(realIn, "real input");
+		requireDimensions(imagIn, dimensions, "imaginary input");
+		requireDimensions(realOut, dimensions, "real output");
+		requireDimensions(imagOut, dimensions, "imaginary output");
+		fftRows(PrecisionDependentUtils.rowsOf(realIn), PrecisionDependentUtils.rowsOf(imagIn), PrecisionDependentUtils.rowsOf(realOut), PrecisionDependentUtils.rowsOf(imagOut), dimensions);
+	}
+
+	/**
+	 * Calculates an inverse Fast Fourier Transform of the complex valued input given by the <tt>realIn</tt> and <tt>imagIn</tt> double[][][] arrays.
+	 * The arrays are indexed as <tt>array[z][y][x]</tt>, i.e. the last index is the fastest varying one and the
+	 * dimensions of the transform are {width, height, depth}.
+	 * Rows are copied to and from native memory with one bulk copy per row (in parallel for large arrays,
+	 * see {@link PrecisionDependentUtils#PARALLEL_TRANSFER_THRESHOLD}), no flattened copy of the data is made.
+	 * <p>
+	 * The (forward) counter part to this method is {@link #fft(double[][][], double[][][], double[][][], double[][][])}. Please note that the FFT and subsequent inverse FFT restores the original signal scaled by the number of values in the input.
+	 * 
+	 * @param realIn real valued input to be transformed
+	 * @param imagIn imaginary valued input to be transformed
+	 * @param realOut real valued part of the resulting transform
+	 * @param imagOut imaginary valued part of the resulting transform
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when an array is empty or not rectangular <br>
+	 * when the arrays differ in size
+	 * @throws NullPointerException if any of the specified arrays (or their rows) is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifft(double[][][] realIn, double[][][] imagIn, double[][][] realOut, double[][][] imagOut) {
+		/* sanity checks */
+		long[] dimensions = PrecisionDependentUtils.dimensionsOf(realIn, "real input");
+		requireDimensions(imagIn, dimensions, "imaginary input");
+		requireDimensions(realOut, dimensions, "real output");
+		requireDimensions(imagOut, dimensions, "imaginary output");
+		ifftRows(PrecisionDependentUtils.rowsOf(realIn), PrecisionDependentUtils.rowsOf(imagIn), PrecisionDependentUtils.rowsOf(realOut), PrecisionDependentUtils.rowsOf(imagOut), dimensions);
+	}
+
+	/**
+	 * Calculates an inverse Fast Fourier Transform of the complex valued input given by the <tt>realIn</tt> and <tt>imagIn</tt> double[][][] arrays, resulting in a real valued transform.
+	 * The arrays are indexed as <tt>array[z][y][x]</tt>, i.e. the last index is the fastest varying one and the
+	 * dimensions of the transform are {width, height, depth}.
+	 * Rows are copied to and from native memory with one bulk copy per row (in parallel for large arrays,
+	 * see {@link PrecisionDependentUtils#PARALLEL_TRANSFER_THRESHOLD}), no flattened copy of the data is made.
+	 * <p>
+	 * The (forward) counter part to this method is {@link #fft(double[][][], double[][][], double[][][])}. Please note that the FFT and subsequent inverse FFT restores the original signal scaled by the number of values in the input.
+	 * 
+	 * @param realIn real valued input to be transformed
+	 * @param imagIn imaginary valued input to be transformed
+	 * @param realOut real valued transform result
+	 * 
+	 * @throws IllegalArgumentException <br>
+	 * when an array is empty or not rectangular <br>
+	 * when the arrays differ in size
+	 * @throws NullPointerException if any of the specified arrays (or their rows) is null.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifft(double[][][] realIn, double[][][] imagIn, double[][][] realOut) {
+		/* sanity checks */
+		long[] dimensions = PrecisionDependentUtils.dimensionsOf(realIn, "real input");
+		requireDimensions(imagIn, dimensions, "imaginary input");
+		requireDimensions(realOut, dimensions, "real output");
+		ifftRows(PrecisionDependentUtils.rowsOf(realIn), PrecisionDependentUtils.rowsOf(imagIn), PrecisionDependentUtils.rowsOf(realOut), dimensions);
+	}
+
+	/**
+	 * Calculates Fast Fourier Transforms of many blocks of the same dimensions with a single call.
+	 * The <tt>realIn</tt> array contains the blocks one after another (each in row major order), i.e. the
+	 * <tt>i</tt>-th block starts at index <tt>i*numElements</tt> where <tt>numElements</tt> is the number of
+	 * elements determined from the block dimensions. The transforms of the blocks are written to the
+	 * <tt>realOut</tt> and <tt>imagOut</tt> arrays in the same layout.
+	 * <p>
+	 * Tiny blocks (power of two dimensions up to 64, e.g. 8x8 or 16x16) are transformed by
+	 * generated unrolled Java codelets without native calls or allocations (unless FFTW was selected
+	 * explicitly, see {@link FFTBackends#setBackend(FFTBackend)}), other blocks by a single
+	 * batched FFTW plan (see {@link FFTW_Plan#plan_split_r2c_batched(NativeRealArray, NativeRealArray, NativeRealArray, long, long...)}).
+	 *
+	 * @param realIn real valued blocks to be transformed
+	 * @param realOut real valued part of the resulting transforms
+	 * @param imagOut imaginary valued part of the resulting transforms
+	 * @param blockDimensions dimensions of a single block (e.g. {8,8} for 8x8 blocks)
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the arrays is not a positive multiple of the number of elements of a block or the lengths differ
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @see #fft(double[], double[], double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fftBlocks(double[] realIn, double[] realOut, double[] imagOut, long... blockDimensions) {
+		/* sanity checks */
+		long numBlocks = numBlocks(realIn, blockDimensions);
+		PrecisionDependentUtils.sanityCheckArray(realOut, realIn.length, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, realIn.length, "imaginary output");
+		if(FFTBackends.isCodeletShape(blockDimensions, realIn.length/numBlocks) && FFTBackends.select(blockDimensions) == FFTBackends.JAVA){
+			if(realOut != realIn)
+				System.arraycopy(realIn, 0, realOut, 0, realIn.length);
+			Arrays.fill(imagOut, 0);
+			JavaFFTBackend.transform(realOut, imagOut, blockDimensions);
+			return;
+		}
+		try(
+				NativeRealArray ri = new NativeRealArray(realIn.length);
+				NativeRealArray ro = new NativeRealArray(realIn.length);
+				NativeRealArray io = new NativeRealArray(realIn.length);
+				FFTW_Plan plan = FFTW_Plan.plan_split_r2c_batched(ri, ro, io, numBlocks, blockDimensions);
+				)
+		{
+			PrecisionDependentUtils.fillNativeArrayFromBlocks(ri, realIn, numBlocks, blockDimensions);
+			plan.execute();
+			PrecisionDependentUtils.readNativeArrayToBlocks(ro, realOut, numBlocks, blockDimensions);
+			PrecisionDependentUtils.readNativeArrayToBlocks(io, imagOut, numBlocks, blockDimensions);
+		}
+	}
+
+	/**
+	 * Calculates Fast Fourier Transforms of many complex valued blocks of the same dimensions with a single call.
+	 * The arrays contain the blocks one after another as described in {@link #fftBlocks(double[], double[], double[], long...)}.
+	 * The inverse counter part to this method is {@link #ifftBlocks(double[], double[], double[], double[], long...)}.
+	 *
+	 * @param realIn real valued part of the blocks to be transformed
+	 * @param imagIn imaginary valued part of the blocks to be transformed
+	 * @param realOut real valued part of the resulting transforms
+	 * @param imagOut imaginary valued part of the resulting transforms
+	 * @param blockDimensions dimensions of a single block (e.g. {8,8} for 8x8 blocks)
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the arrays is not a positive multiple of the number of elements of a block or the lengths differ
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @see #fft(double[], double[], double[], double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fftBlocks(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... blockDimensions) {
+		/* sanity checks */
+		long numBlocks = numBlocks(realIn, blockDimensions);
+		PrecisionDependentUtils.sanityCheckArray(imagIn, realIn.length, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, realIn.length, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, realIn.length, "imaginary output");
+		if(FFTBackends.isCodeletShape(blockDimensions, realIn.length/numBlocks) && FFTBackends.select(blockDimensions) == FFTBackends.JAVA){
+			if(realOut != realIn)
+				System.arraycopy(realIn, 0, realOut, 0, realIn.length);
+			if(imagOut != imagIn)
+				System.arraycopy(imagIn, 0, imagOut, 0, imagIn.length);
+			JavaFFTBackend.transform(realOut, imagOut, blockDimensions);
+			return;
+		}
+		try(
+				NativeRealArray ri = new NativeRealArray(realIn.length);
+				NativeRealArray ii = new NativeRealArray(realIn.length);
+				NativeRealArray ro = new NativeRealArray(realIn.length);
+				NativeRealArray io = new NativeRealArray(realIn.length);
+				FFTW_Plan plan = FFTW_Plan.plan_split_c2c_batched(ri, ii, ro, io, numBlocks, blockDimensions);
+				)
+		{
+			PrecisionDependentUtils.fillNativeArrayFromBlocks(ri, realIn, numBlocks, blockDimensions);
+			PrecisionDependentUtils.fillNativeArrayFromBlocks(ii, imagIn, numBlocks, blockDimensions);
+			plan.execute();
+			PrecisionDependentUtils.readNativeArrayToBlocks(ro, realOut, numBlocks, blockDimensions);
+			PrecisionDependentUtils.readNativeArrayToBlocks(io, imagOut, numBlocks, blockDimensions);
+		}
+	}
+
+	/**
+	 * Calculates inverse Fast Fourier Transforms of many complex valued blocks of the same dimensions with a single call.
+	 * The arrays contain the blocks one after another as described in {@link #fftBlocks(double[], double[], double[], long...)}.
+	 * The (forward) counter part to this method is {@link #fftBlocks(double[], double[], double[], double[], long...)}.
+	 * Please note that the FFT and subsequent inverse FFT restores the original blocks scaled by the number of
+	 * values in a block.
+	 *
+	 * @param realIn real valued part of the blocks to be transformed
+	 * @param imagIn imaginary valued part of the blocks to be transformed
+	 * @param realOut real valued part of the resulting transforms
+	 * @param imagOut imaginary valued part of the resulting transforms
+	 * @param blockDimensions dimensions of a single block (e.g. {8,8} for 8x8 blocks)
+	 *
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the arrays is not a positive multiple of the number of elements of a block or the lengths differ
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 * @see #ifft(double[], double[], double[], double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void ifftBlocks(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... blockDimensions) {
+		/* inverse is forward transform with swapped real and imaginary parts */
+		fftBlocks(imagIn, realIn, imagOut, realOut, blockDimensions);
+	}
+
+	/* number of blocks in the specified array after checking dimensions */
+	@DoublePrecisionVersion
+	private static long numBlocks(double[] array, long[] blockDimensions) {
+		GeneralUtils.requirePositive(blockDimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(blockDimensions);
+		Objects.requireNonNull(array, ()->"real input array cannot be null");
+		long blockElements = GeneralUtils.numElementsFromDimensions(blockDimensions);
+		long numBlocks = array.length/blockElements;
+		if(numBlocks < 1 || numBlocks*blockElements != array.length){
+			throw new IllegalArgumentException(
+					"Length of real input (" + array.length + ") is not a positive multiple of the number of elements of a block (" + blockElements + ").");
+		}
+		return numBlocks;
+	}
+
 	/**
 	 * Calculates a Fast Fourier Transform of the {@link NativeRealArray} provided by the specified {@link Supplier}.
 	 * The supplied array is assumed to be in row major order and its dimensionality is specified by the dimensions
@@ -715,6 +1519,76 @@ public class FFT {
 		}
 	}
 
-}
+	/* transforms on rows of equal length in row major order */
+	private static void fftRows(double[][] realIn, double[][] realOut, double[][] imagOut, long[] dimensions) {
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		Supplier<NativeRealArray> r_input = ()-> {
+			NativeRealArray ri = new NativeRealArray(numElements);
+			PrecisionDependentUtils.fillNativeArrayFromRows(ri, realIn, dimensions);
+			return ri;
+		};
+		BiConsumer<NativeRealArray, NativeRealArray> c_output = (real,imag) -> {
+			PrecisionDependentUtils.readNativeArrayToRows(real, realOut, dimensions);
+			PrecisionDependentUtils.readNativeArrayToRows(imag, imagOut, dimensions);
+		};
+		fft(r_input, c_output, dimensions);
+	}
 
+	private static void fftRows(double[][] realIn, double[][] imagIn, double[][] realOut, double[][] imagOut, long[] dimensions) {
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		Supplier<NativeRealArray> r_input = ()-> {
+			NativeRealArray ri = new NativeRealArray(numElements);
+			PrecisionDependentUtils.fillNativeArrayFromRows(ri, realIn, dimensions);
+			return ri;
+		};
+		Supplier<NativeRealArray> i_input = ()-> {
+			NativeRealArray ii = new NativeRealArray(numElements);
+			PrecisionDependentUtils.fillNativeArrayFromRows(ii, imagIn, dimensions);
+			return ii;
+		};
+		BiConsumer<NativeRealArray, NativeRealArray> c_output = (real,imag) -> {
+			PrecisionDependentUtils.readNativeArrayToRows(real, realOut, dimensions);
+			PrecisionDependentUtils.readNativeArrayToRows(imag, imagOut, dimensions);
+		};
+		fft(r_input, i_input, c_output, dimensions);
+	}
+
+	private static void ifftRows(double[][] realIn, double[][] imagIn, double[][] realOut, double[][] imagOut, long[] dimensions) {
+		fftRows(imagIn, realIn, imagOut, realOut, dimensions);// swapped arguments
+	}
 
+	private static void ifftRows(double[][] realIn, double[][] imagIn, double[][] realOut, long[] dimensions) {
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		Supplier<NativeRealArray> r_input = ()-> {
+			NativeRealArray ri = new NativeRealArray(numElements);
+			PrecisionDependentUtils.fillNativeArrayFromRows(ri, realIn, dimensions);
+			return ri;
+		};
+		Supplier<NativeRealArray> i_input = ()-> {
+			NativeRealArray ii = new NativeRealArray(numElements);
+			PrecisionDependentUtils.fillNativeArrayFromRows(ii, imagIn, dimensions);
+			return ii;
+		};
+		Consumer<NativeRealArray> r_output = (real) -> {
+			PrecisionDependentUtils.readNativeArrayToRows(real, realOut, dimensions);
+		};
+		ifft(r_input, i_input, r_output, dimensions);
+	}
+
+	private static void requireDimensions(double[][] array, long[] dimensions, String arrayIdentifier) {
+		long[] actual = PrecisionDependentUtils.dimensionsOf(array, arrayIdentifier);
+		if(!Arrays.equals(actual, dimensions)){
+			throw new IllegalArgumentException("Size of " + arrayIdentifier + " array " + GeneralUtils.dimensionsToString(actual)
+					+ " does not match " + GeneralUtils.dimensionsToString(dimensions) + ".");
+		}
+	}
+
+	private static void requireDimensions(double[][][] array, long[] dimensions, String arrayIdentifier) {
+		long[] actual = PrecisionDependentUtils.dimensionsOf(array, arrayIdentifier);
+		if(!Arrays.equals(actual, dimensions)){
+			throw new IllegalArgumentException("Size of " + arrayIdentifier + " array " + GeneralUtils.dimensionsToString(actual)
+					+ " does not match " + GeneralUtils.dimensionsToString(dimensions) + ".");
+		}
+	}
+
+}
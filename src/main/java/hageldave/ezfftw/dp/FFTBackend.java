@@ -0,0 +1,83 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+
+/**
+ * The FFTBackend interface is the service provider interface for the engines computing
+ * the transforms of the double[] based methods of {@link FFT}
+ * (e.g. {@link FFT#fft(double[], double[], double[], long...)}).
+ * The backend used is managed by {@link FFTBackends}, the default is
+ * {@link FFTBackends#FFTW} and the pure Java {@link FFTBackends#JAVA} engine is used as fallback
+ * when the native library cannot be loaded.
+ * <p>
+ * All methods compute unnormalized transforms of data in row major order with full-sized
+ * complex arrays, exactly as described by the corresponding methods of {@link FFT}.
+ * The arguments are validated by {@link FFT} before being passed to a backend, i.e. the arrays
+ * are not null and are of the length determined by the dimensions.
+ * Outputs may be the same arrays as the corresponding inputs (in-place transform).
+ * Implementations have to be thread safe.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public interface FFTBackend {
+
+	/**
+	 * Returns the name of this backend.
+	 * @return name
+	 */
+	public String getName();
+
+	/**
+	 * Computes the forward DFT of the real valued input.
+	 * @param realIn real valued input
+	 * @param realOut real part of complex valued output
+	 * @param imagOut imaginary part of complex valued output
+	 * @param dimensions of the input
+	 */
+	@DoublePrecisionVersion
+	public void r2c(double[] realIn, double[] realOut, double[] imagOut, long... dimensions);
+
+	/**
+	 * Computes the forward DFT of the complex valued input.
+	 * The inverse DFT is computed by swapping real and imaginary parts in both, input and output.
+	 * @param realIn real part of complex valued input
+	 * @param imagIn imaginary part of complex valued input
+	 * @param realOut real part of complex valued output
+	 * @param imagOut imaginary part of complex valued output
+	 * @param dimensions of the input
+	 */
+	@DoublePrecisionVersion
+	public void c2c(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions);
+
+	/**
+	 * Computes the inverse DFT of the complex valued input which is assumed to be the
+	 * (Hermitian symmetric) transform of a real valued signal.
+	 * @param realIn real part of complex valued input
+	 * @param imagIn imaginary part of complex valued input
+	 * @param realOut real valued output
+	 * @param dimensions of the input
+	 */
+	@DoublePrecisionVersion
+	public void c2r(double[] realIn, double[] imagIn, double[] realOut, long... dimensions);
+
+}
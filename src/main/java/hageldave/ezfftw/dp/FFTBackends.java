@@ -0,0 +1,277 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.FFTW_Initializer;
+import hageldave.ezfftw.GeneralUtils;
+
+/**
+ * The FFTBackends class manages the {@link FFTBackend} that computes the transforms of the
+ * double[] based methods of {@link FFT}.
+ * <p>
+ * Unless set explicitly with {@link #setBackend(FFTBackend)}, the backend is determined on first use:
+ * <ul>
+ * <li>When the system property <tt>{@value #BACKEND_PROPERTY}</tt> is <tt>java</tt> or <tt>fftw</tt>,
+ * the corresponding backend is used.</li>
+ * <li>Otherwise {@link #FFTW} is used if the native library can be loaded, and the pure Java
+ * {@link #JAVA} engine if loading fails (e.g. on a platform not covered by the native builds).</li>
+ * </ul>
+ * When the FFTW backend was determined this way (not selected explicitly by the property or
+ * {@link #setBackend(FFTBackend)}), 1D transforms of power of two size up to
+ * {@link #getSmallTransformSize()} are computed by the {@link #JAVA} engine instead, since the overhead
+ * of copying to native memory and planning dominates tiny transforms. This size is 0 by default and
+ * can be determined for the running machine by {@link #calibrate()}, which is done on first use when
+ * the system property <tt>{@value #CALIBRATE_PROPERTY}</tt> is <tt>true</tt>.
+ * Independent of this size, tiny shapes for which the Java engine has generated unrolled codelets
+ * (power of two dimensions up to 64, e.g. 8x8 or 16x16 blocks) are computed by the {@link #JAVA}
+ * engine, unless {@link #FFTW} was selected explicitly.
+ * <p>
+ * Please note that only the double[] based methods of {@link FFT} are dispatched to backends,
+ * all other methods (and the {@link FFTW_Guru} and {@link FFTW_Plan} classes) always use FFTW.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public final class FFTBackends {
+
+	/** system property selecting the backend (<tt>fftw</tt> or <tt>java</tt>) */
+	public static final String BACKEND_PROPERTY = "hageldave.ezfftw.backend";
+	/** system property enabling calibration on first use (<tt>true</tt>) */
+	public static final String CALIBRATE_PROPERTY = "hageldave.ezfftw.calibrate";
+
+	/** backend using the native FFTW library */
+	public static final FFTBackend FFTW = new FFTW_Backend();
+	/** pure Java backend */
+	public static final FFTBackend JAVA = new JavaFFTBackend();
+
+	/** largest number of elements of a shape that is routed to the codelets of the Java engine */
+	static final long MAX_CODELET_ELEMENTS = Codelets.MAX_SIZE*Codelets.MAX_SIZE;
+	/** largest 1D size considered by calibration */
+	private static final int MAX_CALIBRATION_SIZE = 1<<12;
+	/* calls of measure per backend and size before timing, enough for C2 compilation of the Java engine */
+	private static final int WARMUP_ROUNDS = 4;
+	private static final Logger LOGGER = Logger.getLogger(FFTBackends.class.getName());
+
+	/* guards detection of the backend, so that it happens only once */
+	private static final ReentrantLock DETECTION_LOCK = new ReentrantLock();
+	private static volatile FFTBackend backend = null;
+	/* true when the backend was selected by property or setBackend, disables routing to the Java engine */
+	private static volatile boolean explicitBackend = false;
+	private static volatile long smallTransformSize = 0;
+
+	private FFTBackends() {}
+
+	/**
+	 * Returns the backend used by {@link FFT}, determining it on first call as described in the class documentation.
+	 * @return the backend
+	 */
+	public static FFTBackend getBackend() {
+		FFTBackend b = backend;
+		if(b == null){
+			DETECTION_LOCK.lock();
+			try {
+				b = backend;
+				if(b == null){
+					b = determineBackend();
+					backend = b;
+					if(b == FFTW && Boolean.getBoolean(CALIBRATE_PROPERTY)){
+						calibrate();
+					}
+				}
+			} finally {
+				DETECTION_LOCK.unlock();
+			}
+		}
+		return b;
+	}
+
+	/**
+	 * Sets the backend used by {@link FFT}. All transforms are computed by this backend,
+	 * including small transforms that would otherwise be routed to the {@link #JAVA} engine.
+	 * @param backend to be used
+	 * @throws NullPointerException when backend is null
+	 */
+	public static void setBackend(FFTBackend backend) {
+		Objects.requireNonNull(backend, ()->"Cannot use null as backend.");
+		explicitBackend = true;
+		FFTBackends.backend = backend;
+	}
+
+	/**
+	 * Discards the current backend, so that it is determined again on next use
+	 * as described in the class documentation.
+	 */
+	public static void resetBackend() {
+		DETECTION_LOCK.lock();
+		try {
+			backend = null;
+			explicitBackend = false;
+		} finally {
+			DETECTION_LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Returns the size up to which 1D transforms of power of two size are computed by {@link #JAVA}
+	 * when {@link #FFTW} is the automatically determined backend.
+	 * @return number of elements of the largest transform routed to the Java engine
+	 */
+	public static long getSmallTransformSize() {
+		return smallTransformSize;
+	}
+
+	/**
+	 * Sets the size up to which 1D transforms of power of two size are computed by {@link #JAVA}
+	 * when {@link #FFTW} is the automatically determined backend, 0 disables the routing.
+	 * @param size number of elements of the largest transform routed to the Java engine
+	 * @throws IllegalArgumentException when size is negative
+	 */
+	public static void setSmallTransformSize(long size) {
+		if(size < 0){
+			throw new IllegalArgumentException("Small transform size cannot be negative but is " + size + ".");
+		}
+		smallTransformSize = size;
+	}
+
+	/**
+	 * Measures complex to complex transforms of power of two sizes up to {@value #MAX_CALIBRATION_SIZE}
+	 * with both {@link #FFTW} and {@link #JAVA} and sets the small transform size to the largest size
+	 * for which the Java engine was faster (for this and all smaller sizes).
+	 * Both backends are warmed up on all sizes before timing, so that the Java engine is measured
+	 * after JIT compilation. Calibration takes in the order of a second.
+	 * @return the new small transform size, 0 when FFTW was faster for all sizes
+	 * @throws UnsatisfiedLinkError when the native library cannot be loaded
+	 */
+	@DoublePrecisionVersion
+	public static long calibrate() {
+		for(int n = 2; n <= MAX_CALIBRATION_SIZE; n <<= 1){
+			double[] re = new double[n];
+			double[] im = new double[n];
+			re[1] = 1;
+			for(int i = 0; i < WARMUP_ROUNDS; i++){
+				measure(FFTW, re, im);
+				measure(JAVA, re, im);
+			}
+		}
+		long size = 0;
+		for(int n = 2; n <= MAX_CALIBRATION_SIZE; n <<= 1){
+			double[] re = new double[n];
+			double[] im = new double[n];
+			re[1] = 1;
+			long fftwTime = measure(FFTW, re, im);
+			long javaTime = measure(JAVA, re, im);
+			if(javaTime >= fftwTime){
+				break;
+			}
+			size = n;
+		}
+		LOGGER.log(Level.FINE, "Calibrated small transform size: {0}", size);
+		smallTransformSize = size;
+		return size;
+	}
+
+	/**
+	 * Returns the backend for a transform of the specified dimensions.
+	 * @param dimensions of the transform
+	 * @return the backend
+	 */
+	static FFTBackend select(long[] dimensions) {
+		FFTBackend b = getBackend();
+		if(b != FFTW || explicitBackend){
+			return b;
+		}
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		return isCalibratedShape(dimensions, numElements) || isCodeletShape(dimensions, numElements) ? JAVA : b;
+	}
+
+	/**
+	 * Returns whether the specified dimensions are of the shape class measured by {@link #calibrate()},
+	 * i.e. 1D of power of two size, and not larger than the small transform size.
+	 * @param dimensions of the transform
+	 * @param numElements determined from the dimensions
+	 * @return true when the shape is routed to the Java engine according to calibration
+	 */
+	static boolean isCalibratedShape(long[] dimensions, long numElements) {
+		return dimensions.length == 1 && numElements <= smallTransformSize && Long.bitCount(numElements) == 1;
+	}
+
+	/**
+	 * Returns whether the specified dimensions are a tiny shape that is transformed by codelets,
+	 * i.e. each dimension is a power of two up to 64 and there are at most
+	 * 64*64 elements.
+	 * @param dimensions of the transform
+	 * @param numElements determined from the dimensions
+	 * @return true when the shape is transformed by codelets
+	 */
+	static boolean isCodeletShape(long[] dimensions, long numElements) {
+		if(numElements > MAX_CODELET_ELEMENTS){
+			return false;
+		}
+		for(long dimension: dimensions){
+			if(!Codelets.isSupported(dimension)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/* best time of several rounds in nanoseconds, first rounds serve as warm up */
+	@DoublePrecisionVersion
+	private static long measure(FFTBackend b, double[] re, double[] im) {
+		double[] reOut = new double[re.length];
+		double[] imOut = new double[re.length];
+		int repetitions = Math.max(4, (1<<8)/re.length);
+		long best = Long.MAX_VALUE;
+		for(int round = 0; round < 3; round++){
+			long start = System.nanoTime();
+			for(int i = 0; i < repetitions; i++){
+				b.c2c(re, im, reOut, imOut, re.length);
+			}
+			best = Math.min(best, System.nanoTime()-start);
+		}
+		return best;
+	}
+
+	private static FFTBackend determineBackend() {
+		String property = System.getProperty(BACKEND_PROPERTY);
+		if(property != null){
+			switch(property.trim().toLowerCase()){
+			case "java": explicitBackend = true; return JAVA;
+			case "fftw": explicitBackend = true; return FFTW;
+			default:
+				LOGGER.warning("Unknown value of " + BACKEND_PROPERTY + ": '" + property + "', expected 'fftw' or 'java'.");
+			}
+		}
+		try {
+			FFTW_Initializer.initFFTW();
+			return FFTW;
+		} catch (LinkageError | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Could not load native FFTW library, falling back to pure Java transforms.", e);
+			return JAVA;
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+
+/**
+ * The FFTW_Backend is the default {@link FFTBackend}, which copies the arrays to
+ * {@link NativeRealArray}s and executes the transforms with FFTW.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class FFTW_Backend implements FFTBackend {
+
+	@Override
+	public String getName() {
+		return "fftw";
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void r2c(double[] realIn, double[] realOut, double[] imagOut, long... dimensions) {
+		FFT.fft(input(realIn, dimensions), output(realOut, imagOut, dimensions), dimensions);
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void c2c(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		FFT.fft(input(realIn, dimensions), input(imagIn, dimensions), output(realOut, imagOut, dimensions), dimensions);
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void c2r(double[] realIn, double[] imagIn, double[] realOut, long... dimensions) {
+		Consumer<NativeRealArray> r_output = (real) -> {
+			PrecisionDependentUtils.readNativeArrayToArray(real, realOut, dimensions);
+		};
+		FFT.ifft(input(realIn, dimensions), input(imagIn, dimensions), r_output, dimensions);
+	}
+
+	@DoublePrecisionVersion
+	private static Supplier<NativeRealArray> input(double[] values, long[] dimensions) {
+		return ()-> {
+			NativeRealArray array = new NativeRealArray(values.length);
+			PrecisionDependentUtils.fillNativeArrayFromArray(array, values, dimensions);
+			return array;
+		};
+	}
+
+	@DoublePrecisionVersion
+	private static BiConsumer<NativeRealArray, NativeRealArray> output(double[] realOut, double[] imagOut, long[] dimensions) {
+		return (real,imag) -> {
+			PrecisionDependentUtils.readNativeArrayToArray(real, realOut, dimensions);
+			PrecisionDependentUtils.readNativeArrayToArray(imag, imagOut, dimensions);
+		};
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+}
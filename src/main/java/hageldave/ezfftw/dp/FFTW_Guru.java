@@ -18,17 +18,8 @@
 
 package hageldave.ezfftw.dp;
 
-import static hageldave.ezfftw.FFTW_Initializer.initFFTW;
-import static hageldave.ezfftw.FFTW_Initializer.PLANNER_LOCK;
-
-import java.util.Objects;
-
-import org.bytedeco.javacpp.fftw3;
-import org.bytedeco.javacpp.fftw3.fftw_iodim64; //#FLOATGEN_KEEPLINE
-import org.bytedeco.javacpp.fftw3.fftw_plan;
-
 import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
-import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.StridedView;
 
 
 /**
@@ -44,6 +35,10 @@ import hageldave.ezfftw.GeneralUtils;
  * </ul>
  * Split DFTs use seperate arrays for real and imaginary parts of complex numbers in contrast
  * to the interleaved real/imaginary format.
+ * <p>
+ * Each call creates, executes and destroys an FFTW plan. When the same transform has to
+ * be executed repeatedly, an {@link FFTW_Plan} can be used instead to avoid the repeated
+ * planning cost.
  *
  * @author hageldave
  * @see <a href="http://www.fftw.org/fftw3_doc/Guru-Interface.html">FFTW Guru Interface documentation (www.fftw.org)</a>
@@ -96,71 +91,8 @@ public class FFTW_Guru {
 			NativeRealArray imagOut,
 			long... dimensions)
 	{
-		initFFTW();
-		/* parameter sanity check */
-		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
-		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
-		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
-		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
-		GeneralUtils.requirePosititveDimensions(dimensions);
-		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
-		GeneralUtils.requireEqual(numElements, realIn.length,
-				()->"provided real input does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + realIn.length);
-		GeneralUtils.requireEqual(numElements, realOut.length,
-				()->"provided real output does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + realOut.length);
-		GeneralUtils.requireEqual(numElements, imagOut.length,
-				()->"provided imaginary output does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + imagOut.length);
-		/* declare native resources first */
-		fftw_iodim64 array = null; //#FLOATGEN_IGNORE
-		fftw_iodim64 dims = null;
-		fftw_iodim64[] individualDims = new fftw_iodim64[dimensions.length]; //#FLOATGEN_IGNORE
-		fftw_iodim64 lastDim = null; //#FLOATGEN_IGNORE
-		fftw_plan plan = null;
-		try {
-			/* allocate native resources */
-			array = new fftw_iodim64(dimensions.length+1); //#FLOATGEN_IGNORE
-			dims = new fftw_iodim64(array);
-			for(int i = 0; i < dimensions.length; i++){
-				individualDims[i] = new fftw_iodim64(); //#FLOATGEN_IGNORE
-			}
-			lastDim = new fftw_iodim64(); //#FLOATGEN_IGNORE
-			/* fill native resources */
-			long stride = 1;
-			for(int i = 0; i < dimensions.length; i++){
-				individualDims[i]
-						.n(dimensions[i]) 	// dimension size
-						.is(stride) 	// input stride
-						.os(stride);	// output stride
-				array.position(i).put(individualDims[i]);
-				stride *= dimensions[i];
-			}
-			lastDim.n(1).is(stride).os(stride);
-			array.position(dimensions.length).put(lastDim);
-			/* make and execute plan */
-			synchronized (PLANNER_LOCK) {
-				plan = fftw3.fftw_plan_guru64_split_dft_r2c(
-						dimensions.length+1, dims,
-						0, null,
-						realIn.getPointer(), realOut.getPointer(), imagOut.getPointer(),
-						(int)fftw3.FFTW_ESTIMATE);
-			}
-			fftw3.fftw_execute_split_dft_r2c(plan, realIn.getPointer(), realOut.getPointer(), imagOut.getPointer());
-			/* destroy plan after use */
-			synchronized (PLANNER_LOCK) {
-				fftw3.fftw_destroy_plan(plan);
-			}
-		} finally {
-			/* close resources in reverse allocation order */
-			if(plan != null) plan.close();
-			if(lastDim != null) lastDim.close();
-			for(int i = dimensions.length-1; i >= 0; i--){
-				if(individualDims[i] != null) individualDims[i].close();
-			}
-			if(dims != null) dims.close();
-			if(array != null) array.close();
+		try(FFTW_Plan plan = FFTW_Plan.plan_split_r2c(realIn, realOut, imagOut, dimensions)){
+			plan.execute();
 		}
 	}
 
@@ -215,78 +147,9 @@ public class FFTW_Guru {
 			NativeRealArray imagOut,
 			long... dimensions)
 	{
-		initFFTW();
-		/* parameter sanity check */
-		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
-		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
-		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
-		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
-		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
-		GeneralUtils.requirePosititveDimensions(dimensions);
-		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
-		GeneralUtils.requireEqual(numElements, realIn.length,
-				()->"provided real input does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + realIn.length);
-		GeneralUtils.requireEqual(numElements, imagIn.length,
-				()->"provided imaginary input does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + imagIn.length);
-		GeneralUtils.requireEqual(numElements, realOut.length,
-				()->"provided real output does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + realOut.length);
-		GeneralUtils.requireEqual(numElements, imagOut.length,
-				()->"provided imaginary output does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + imagOut.length);
-		/* declare native resources first */
-		fftw_iodim64 array = null; //#FLOATGEN_IGNORE
-		fftw_iodim64 dims = null;
-		fftw_iodim64[] individualDims = new fftw_iodim64[dimensions.length]; //#FLOATGEN_IGNORE
-		fftw_iodim64 lastDim = null; //#FLOATGEN_IGNORE
-		fftw_plan plan = null;
-		try {
-			/* allocate native resources */
-			array = new fftw_iodim64(dimensions.length+1); //#FLOATGEN_IGNORE
-			dims = new fftw_iodim64(array);
-			for(int i = 0; i < dimensions.length; i++){
-				individualDims[i] = new fftw_iodim64(); //#FLOATGEN_IGNORE
-			}
-			lastDim = new fftw_iodim64(); //#FLOATGEN_IGNORE
-			/* fill native resources */
-			long stride = 1;
-			for(int i = 0; i < dimensions.length; i++){
-				individualDims[i]
-						.n(dimensions[i]) 	// dimension size
-						.is(stride) 	// input stride
-						.os(stride);	// output stride
-				array.position(i).put(individualDims[i]);
-				stride *= dimensions[i];
-			}
-			lastDim.n(1).is(stride).os(stride);
-			array.position(dimensions.length).put(lastDim);
-			/* make and execute plan */
-			synchronized (PLANNER_LOCK) {
-				plan = fftw3.fftw_plan_guru64_split_dft(
-						dimensions.length+1, dims,
-						0, null,
-						realIn.getPointer(), imagIn.getPointer(), realOut.getPointer(), imagOut.getPointer(),
-						(int)fftw3.FFTW_ESTIMATE);
-			}
-			fftw3.fftw_execute_split_dft(plan, realIn.getPointer(), imagIn.getPointer(), realOut.getPointer(), imagOut.getPointer());
-			/* destroy plan after use */
-			synchronized (PLANNER_LOCK) {
-				fftw3.fftw_destroy_plan(plan);
-			}
-		} finally {
-			/* close resources in reverse allocation order */
-			if(plan != null) plan.close();
-			if(lastDim != null) lastDim.close();
-			for(int i = dimensions.length-1; i >= 0; i--){
-				if(individualDims[i] != null) individualDims[i].close();
-			}
-			if(dims != null) dims.close();
-			if(array != null) array.close();
+		try(FFTW_Plan plan = FFTW_Plan.plan_split_c2c(realIn, imagIn, realOut, imagOut, dimensions)){
+			plan.execute();
 		}
-
-
 	}
 
 	/**
@@ -329,77 +192,216 @@ public class FFTW_Guru {
 			NativeRealArray realOut,
 			long... dimensions)
 	{
-		initFFTW();
-		/* parameter sanity check */
-		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
-		Objects.requireNonNull(imagIn, ()->"Cannot use null as realOut parameter.");
-		Objects.requireNonNull(realOut, ()->"Cannot use null as imagOut parameter.");
-		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
-		GeneralUtils.requirePosititveDimensions(dimensions);
-		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
-		GeneralUtils.requireEqual(numElements, realIn.length,
-				()->"provided real input does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + realIn.length);
-		GeneralUtils.requireEqual(numElements, imagIn.length,
-				()->"provided imaginary input does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + imagIn.length);
-		GeneralUtils.requireEqual(numElements, realOut.length,
-				()->"provided real output does not have the same number of elements as determined from dimensions. "
-						+ "Should be " + numElements + " but only has " + realOut.length);
-		/* declare native resources first */
-		fftw_iodim64 array = null; //#FLOATGEN_IGNORE
-		fftw_iodim64 dims = null;
-		fftw_iodim64[] individualDims = new fftw_iodim64[dimensions.length]; //#FLOATGEN_IGNORE
-		fftw_iodim64 lastDim = null; //#FLOATGEN_IGNORE
-		fftw_plan plan = null;
-		try {
-			/* allocate native resources */
-			array = new fftw_iodim64(dimensions.length+1); //#FLOATGEN_IGNORE
-			dims = new fftw_iodim64(array);
-			for(int i = 0; i < dimensions.length; i++){
-				individualDims[i] = new fftw_iodim64(); //#FLOATGEN_IGNORE
-			}
-			lastDim = new fftw_iodim64(); //#FLOATGEN_IGNORE
-			/* fill native resources */
-			long stride = 1;
-			for(int i = 0; i < dimensions.length; i++){
-				individualDims[i]
-						.n(dimensions[i]) 	// dimension size
-						.is(stride) 	// input stride
-						.os(stride);	// output stride
-				array.position(i).put(individualDims[i]);
-				stride *= dimensions[i];
-			}
-			lastDim.n(1).is(stride).os(stride);
-			array.position(dimensions.length).put(lastDim);
-			/* make and execute plan */
-			synchronized (PLANNER_LOCK) {
-				plan = fftw3.fftw_plan_guru64_split_dft_c2r(
-						dimensions.length+1, dims,
-						0, null,
-						realIn.getPointer(), imagIn.getPointer(), realOut.getPointer(),
-						(int)fftw3.FFTW_ESTIMATE);
-			}
-			fftw3.fftw_execute_split_dft_c2r(plan, realIn.getPointer(), imagIn.getPointer(), realOut.getPointer());
-			/* destroy plan after use */
-			synchronized (PLANNER_LOCK) {
-				fftw3.fftw_destroy_plan(plan);
-			}
-		} finally {
-			/* close resources in reverse allocation order */
-			if(plan != null) plan.close();
-			if(lastDim != null) lastDim.close();
-			for(int i = dimensions.length-1; i >= 0; i--){
-				if(individualDims[i] != null) individualDims[i].close();
-			}
-			if(dims != null) dims.close();
-			if(array != null) array.close();
+		try(FFTW_Plan plan = FFTW_Plan.plan_split_c2r(realIn, imagIn, realOut, dimensions)){
+			plan.execute();
+		}
+	}
+
+	/**
+	 * Performs a split real to complex DFT of the sub-region described by <tt>inView</tt> and writes
+	 * the transform to the sub-region described by <tt>outView</tt>, using the FFTW_ESTIMATE planner flag.
+	 * The offsets and strides of the views are passed to FFTW directly so that no data is copied,
+	 * which allows for transforming e.g. a region of interest, a single column or a decimated grid
+	 * of a larger array in place.
+	 * See {@link #execute_split_r2c(NativeRealArray, NativeRealArray, NativeRealArray, long...)} for the
+	 * semantics of the transform.
+	 *
+	 * @param inView view of the input array
+	 * @param realIn real valued input array
+	 * @param outView view of the output arrays (needs same sizes as inView)
+	 * @param realOut real part of complex valued output array
+	 * @param imagOut imaginary part of complex valued output array
+	 * @throws NullPointerException when one of the specified arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when the sizes of the views differ,<br>
+	 * when a view does not fit into its arrays.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void execute_split_r2c(
+			StridedView inView,
+			NativeRealArray realIn,
+			StridedView outView,
+			NativeRealArray realOut,
+			NativeRealArray imagOut)
+	{
+		try(FFTW_Plan plan = FFTW_Plan.plan_split_r2c(inView, realIn, outView, realOut, imagOut)){
+			plan.execute();
 		}
 	}
 
+	/**
+	 * Performs a split complex to complex DFT of the sub-region described by <tt>inView</tt> and writes
+	 * the transform to the sub-region described by <tt>outView</tt>, using the FFTW_ESTIMATE planner flag.
+	 * The offsets and strides of the views are passed to FFTW directly so that no data is copied.
+	 * See {@link #execute_split_c2c(NativeRealArray, NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * for the semantics of the transform.
+	 *
+	 * @param inView view of the input arrays
+	 * @param realIn real valued input array (or imaginary for inverse)
+	 * @param imagIn imaginary valued input array (or real for inverse)
+	 * @param outView view of the output arrays (needs same sizes as inView)
+	 * @param realOut real part of complex valued output array (or imaginary for inverse)
+	 * @param imagOut imaginary part of complex valued output array (or real for inverse)
+	 * @throws NullPointerException when one of the specified arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when the sizes of the views differ,<br>
+	 * when a view does not fit into its arrays.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void execute_split_c2c(
+			StridedView inView,
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			StridedView outView,
+			NativeRealArray realOut,
+			NativeRealArray imagOut)
+	{
+		try(FFTW_Plan plan = FFTW_Plan.plan_split_c2c(inView, realIn, imagIn, outView, realOut, imagOut)){
+			plan.execute();
+		}
+	}
 
+	/**
+	 * Performs a split complex to real DFT of the sub-region described by <tt>inView</tt> and writes
+	 * the transform to the sub-region described by <tt>outView</tt>, using the FFTW_ESTIMATE planner flag.
+	 * The offsets and strides of the views are passed to FFTW directly so that no data is copied.
+	 * See {@link #execute_split_c2r(NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * for the semantics of the transform.
+	 *
+	 * @param inView view of the input arrays
+	 * @param realIn real part of complex valued input array
+	 * @param imagIn imaginary part of complex valued input array
+	 * @param outView view of the output array (needs same sizes as inView)
+	 * @param realOut real valued output array
+	 * @throws NullPointerException when one of the specified arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when the sizes of the views differ,<br>
+	 * when a view does not fit into its arrays.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void execute_split_c2r(
+			StridedView inView,
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			StridedView outView,
+			NativeRealArray realOut)
+	{
+		try(FFTW_Plan plan = FFTW_Plan.plan_split_c2r(inView, realIn, imagIn, outView, realOut)){
+			plan.execute();
+		}
+	}
 
+	/**
+	 * Performs split real to complex DFTs along the specified axes of the row major data of the specified
+	 * dimensions using the FFTW_ESTIMATE planner flag.
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column). All of these transforms are computed by a single plan.
+	 * See {@link #execute_split_r2c(NativeRealArray, NativeRealArray, NativeRealArray, long...)} for the
+	 * semantics of the transform.
+	 *
+	 * @param realIn real valued input array
+	 * @param realOut real part of complex valued output array
+	 * @param imagOut imaginary part of complex valued output array
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (assuming input in row major order)
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when no axes were specified, an axis is out of range or is specified twice,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void execute_split_r2c_axes(
+			NativeRealArray realIn,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			int[] axes,
+			long... dimensions)
+	{
+		try(FFTW_Plan plan = FFTW_Plan.plan_split_r2c_axes(realIn, realOut, imagOut, axes, dimensions)){
+			plan.execute();
+		}
+	}
 
+	/**
+	 * Performs split complex to complex DFTs along the specified axes of the row major data of the specified
+	 * dimensions using the FFTW_ESTIMATE planner flag.
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column). All of these transforms are computed by a single plan.
+	 * See {@link #execute_split_c2c(NativeRealArray, NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * for the semantics of the transform.
+	 *
+	 * @param realIn real valued input array (or imaginary for inverse)
+	 * @param imagIn imaginary valued input array (or real for inverse)
+	 * @param realOut real part of complex valued output array (or imaginary for inverse)
+	 * @param imagOut imaginary part of complex valued output array (or real for inverse)
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (assuming input in row major order)
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when no axes were specified, an axis is out of range or is specified twice,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void execute_split_c2c_axes(
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			int[] axes,
+			long... dimensions)
+	{
+		try(FFTW_Plan plan = FFTW_Plan.plan_split_c2c_axes(realIn, imagIn, realOut, imagOut, axes, dimensions)){
+			plan.execute();
+		}
+	}
 
+	/**
+	 * Performs split complex to real DFTs along the specified axes of the row major data of the specified
+	 * dimensions using the FFTW_ESTIMATE planner flag.
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column). All of these transforms are computed by a single plan.
+	 * See {@link #execute_split_c2r(NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * for the semantics of the transform.
+	 *
+	 * @param realIn real part of complex valued input array
+	 * @param imagIn imaginary part of complex valued input array
+	 * @param realOut real valued output array
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (assuming input in row major order)
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when no axes were specified, an axis is out of range or is specified twice,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void execute_split_c2r_axes(
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			NativeRealArray realOut,
+			int[] axes,
+			long... dimensions)
+	{
+		try(FFTW_Plan plan = FFTW_Plan.plan_split_c2r_axes(realIn, imagIn, realOut, axes, dimensions)){
+			plan.execute();
+		}
+	}
 
 }
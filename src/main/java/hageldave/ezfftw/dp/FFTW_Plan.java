@@ -0,0 +1,1067 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.FFTW_Initializer.initFFTW;
+import static hageldave.ezfftw.FFTW_Initializer.PLANNER_REENTRANT_LOCK;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.fftw3;
+import org.bytedeco.javacpp.fftw3.fftw_iodim64; //#FLOATGEN_KEEPLINE
+import org.bytedeco.javacpp.fftw3.fftw_plan;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.FFTW_Events;
+import hageldave.ezfftw.FFTW_Initializer;
+import hageldave.ezfftw.FFTW_Statistics;
+import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.StridedView;
+import hageldave.ezfftw.listeners.Listeners;
+import hageldave.ezfftw.listeners.TransformListener.Phase;
+
+/**
+ * A reusable FFTW plan for one of the split transforms offered by {@link FFTW_Guru}.
+ * <p>
+ * The methods of {@link FFTW_Guru} create a plan, execute it once and destroy it again,
+ * which means that the planning cost is paid on every call.
+ * An FFTW_Plan instead is created once for a set of {@link NativeRealArray}s and can then be
+ * executed as often as required. The arrays are bound to the plan, so in order to transform
+ * new data, the data has to be written to the input arrays before calling {@link #execute()}.
+ * <p>
+ * Transforms of an FFTW_Plan have exactly the same semantics as the corresponding
+ * {@link FFTW_Guru} methods (row major order, full sized complex arrays, unnormalized).
+ * Data in other memory layouts (e.g. C order, see {@link StridedView#lastFastest(long...)})
+ * or sub-regions of arrays can be transformed without copying by the methods taking a {@link StridedView}.
+ * <p>
+ * This class implements the {@link AutoCloseable} interface so that the native plan can be
+ * destroyed using the try-with-resources statement. Plans are not destroyed on garbage collection,
+ * so a plan that is never closed leaks its native resources.
+ * The bound arrays are not closed along with the plan, and have to stay open as long as the plan is in use.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * try(
+ *     NativeRealArray signal = new NativeRealArray(1024);
+ *     NativeRealArray real = new NativeRealArray(1024);
+ *     NativeRealArray imag = new NativeRealArray(1024);
+ *     FFTW_Plan plan = FFTW_Plan.plan_split_r2c(signal, real, imag, 1024);
+ * ){
+ *     for(double[] block: blocks){
+ *         signal.set(block);
+ *         plan.execute();
+ *         // do something with real and imag
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class FFTW_Plan implements AutoCloseable {
+
+	/** transform kinds */
+	static final int KIND_R2C = 0, KIND_C2C = 1, KIND_C2R = 2;
+	/** names of transform kinds as reported in flight recorder events */
+	static final String[] KIND_NAMES = {"r2c", "c2c", "c2r"};
+	/** number of threads used by FFTW, plans are single threaded */
+	static final int NUM_THREADS = 1;
+
+	private fftw_plan plan;
+	/* bound arrays, kept reachable while the plan is in use since NativeRealArray releases its memory when garbage collected */
+	private final NativeRealArray[] arrays;
+	/* description of the transform for flight recorder events, statistics and listeners */
+	private String statisticsKey;
+	private final int kind;
+	private final int flags;
+	private final long[] shape;
+	private final long howmany;
+	private final long bytes;
+
+	private FFTW_Plan(fftw_plan plan, int kind, int flags, long[] shape, long howmany, NativeRealArray... arrays) {
+		this.plan = plan;
+		this.arrays = arrays;
+		this.kind = kind;
+		this.flags = flags;
+		this.shape = shape;
+		this.howmany = howmany;
+		long bytes = 0;
+		for(NativeRealArray a: arrays){
+			bytes += a.length*Double.BYTES;
+		}
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Creates a plan for a split real to complex DFT using the FFTW_ESTIMATE planner flag.
+	 * When executed, the plan computes the same transform as
+	 * {@link FFTW_Guru#execute_split_r2c(NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * on the specified arrays.
+	 *
+	 * @param realIn real valued input array
+	 * @param realOut real part of complex valued output array
+	 * @param imagOut imaginary part of complex valued output array
+	 * @param dimensions of the input (assuming input in row major order)
+	 * e.g. {1024, 768} for a 2D signal of width=1024 and height=768
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_r2c(
+			NativeRealArray realIn,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			long... dimensions)
+	{
+		return plan_split_r2c_batched(realIn, realOut, imagOut, 1, dimensions);
+	}
+
+	/**
+	 * Creates a plan for a split complex to complex DFT using the FFTW_ESTIMATE planner flag.
+	 * When executed, the plan computes the same transform as
+	 * {@link FFTW_Guru#execute_split_c2c(NativeRealArray, NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * on the specified arrays.
+	 * For an inverse transform, real and imaginary arrays have to be swapped for both, input and output.
+	 *
+	 * @param realIn real valued input array (or imaginary for inverse)
+	 * @param imagIn imaginary valued input array (or real for inverse)
+	 * @param realOut real part of complex valued output array (or imaginary for inverse)
+	 * @param imagOut imaginary part of complex valued output array (or real for inverse)
+	 * @param dimensions of the input (assuming input in row major order)
+	 * e.g. {1024, 768} for a 2D signal of width=1024 and height=768
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2c(
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			long... dimensions)
+	{
+		return plan_split_c2c_batched(realIn, imagIn, realOut, imagOut, 1, dimensions);
+	}
+
+	/**
+	 * Creates a plan for a split complex to real DFT using the FFTW_ESTIMATE planner flag.
+	 * When executed, the plan computes the same transform as
+	 * {@link FFTW_Guru#execute_split_c2r(NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * on the specified arrays.
+	 * Please note that FFTW may overwrite the input arrays of a complex to real transform.
+	 *
+	 * @param realIn real part of complex valued input array
+	 * @param imagIn imaginary part of complex valued input array
+	 * @param realOut real valued output array
+	 * @param dimensions of the input (assuming input in row major order)
+	 * e.g. {1024, 768} for a 2D signal of width=1024 and height=768
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2r(
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			NativeRealArray realOut,
+			long... dimensions)
+	{
+		return plan_split_c2r_batched(realIn, imagIn, realOut, 1, dimensions);
+	}
+
+	/**
+	 * Creates a plan for <tt>howmany</tt> split real to complex DFTs of the same size which are
+	 * computed by a single execution of the plan.
+	 * The arrays contain the signals one after another, i.e. the <tt>i</tt>-th signal starts at
+	 * index <tt>i*numElements</tt> where <tt>numElements</tt> is the number of elements determined
+	 * from the dimensions. Each signal is transformed as in
+	 * {@link #plan_split_r2c(NativeRealArray, NativeRealArray, NativeRealArray, long...)}.
+	 * <p>
+	 * Executing a batched plan is usually a lot cheaper than executing a plan for a single signal
+	 * <tt>howmany</tt> times.
+	 *
+	 * @param realIn real valued input array
+	 * @param realOut real part of complex valued output array
+	 * @param imagOut imaginary part of complex valued output array
+	 * @param howmany number of signals
+	 * @param dimensions of a single signal (assuming row major order)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when howmany is not positive,<br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when the lengths of the specified arrays are not howmany times the number of elements determined from the dimensions.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_r2c_batched(
+			NativeRealArray realIn,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			long howmany,
+			long... dimensions)
+	{
+		initFFTW();
+		/* parameter sanity check */
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
+		long numElements = sanityCheckDimensions(howmany, dimensions);
+		sanityCheckLength(realIn, howmany*numElements, "real input");
+		sanityCheckLength(realOut, howmany*numElements, "real output");
+		sanityCheckLength(imagOut, howmany*numElements, "imaginary output");
+		return create(KIND_R2C, rowMajorIODims(dimensions), batchIODims(howmany, numElements), realIn, realOut, imagOut);
+	}
+
+	/**
+	 * Creates a plan for <tt>howmany</tt> split complex to complex DFTs of the same size which are
+	 * computed by a single execution of the plan.
+	 * The arrays contain the signals one after another, i.e. the <tt>i</tt>-th signal starts at
+	 * index <tt>i*numElements</tt> where <tt>numElements</tt> is the number of elements determined
+	 * from the dimensions. Each signal is transformed as in
+	 * {@link #plan_split_c2c(NativeRealArray, NativeRealArray, NativeRealArray, NativeRealArray, long...)}.
+	 *
+	 * @param realIn real valued input array (or imaginary for inverse)
+	 * @param imagIn imaginary valued input array (or real for inverse)
+	 * @param realOut real part of complex valued output array (or imaginary for inverse)
+	 * @param imagOut imaginary part of complex valued output array (or real for inverse)
+	 * @param howmany number of signals
+	 * @param dimensions of a single signal (assuming row major order)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when howmany is not positive,<br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when the lengths of the specified arrays are not howmany times the number of elements determined from the dimensions.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2c_batched(
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			long howmany,
+			long... dimensions)
+	{
+		initFFTW();
+		/* parameter sanity check */
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
+		long numElements = sanityCheckDimensions(howmany, dimensions);
+		sanityCheckLength(realIn, howmany*numElements, "real input");
+		sanityCheckLength(imagIn, howmany*numElements, "imaginary input");
+		sanityCheckLength(realOut, howmany*numElements, "real output");
+		sanityCheckLength(imagOut, howmany*numElements, "imaginary output");
+		return create(KIND_C2C, rowMajorIODims(dimensions), batchIODims(howmany, numElements), realIn, imagIn, realOut, imagOut);
+	}
+
+	/**
+	 * Creates a plan for <tt>howmany</tt> split complex to real DFTs of the same size which are
+	 * computed by a single execution of the plan.
+	 * The arrays contain the signals one after another, i.e. the <tt>i</tt>-th signal starts at
+	 * index <tt>i*numElements</tt> where <tt>numElements</tt> is the number of elements determined
+	 * from the dimensions. Each signal is transformed as in
+	 * {@link #plan_split_c2r(NativeRealArray, NativeRealArray, NativeRealArray, long...)}.
+	 *
+	 * @param realIn real part of complex valued input array
+	 * @param imagIn imaginary part of complex valued input array
+	 * @param realOut real valued output array
+	 * @param howmany number of signals
+	 * @param dimensions of a single signal (assuming row major order)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when howmany is not positive,<br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when the lengths of the specified arrays are not howmany times the number of elements determined from the dimensions.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2r_batched(
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			NativeRealArray realOut,
+			long howmany,
+			long... dimensions)
+	{
+		initFFTW();
+		/* parameter sanity check */
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		long numElements = sanityCheckDimensions(howmany, dimensions);
+		sanityCheckLength(realIn, howmany*numElements, "real input");
+		sanityCheckLength(imagIn, howmany*numElements, "imaginary input");
+		sanityCheckLength(realOut, howmany*numElements, "real output");
+		return create(KIND_C2R, rowMajorIODims(dimensions), batchIODims(howmany, numElements), realIn, imagIn, realOut);
+	}
+
+	/**
+	 * Creates a plan for a split real to complex DFT of the sub-region described by <tt>inView</tt>
+	 * that writes the transform to the sub-region described by <tt>outView</tt>.
+	 * The views' offsets and strides are passed to FFTW directly, so the regions are transformed
+	 * within their arrays without copying. Input and output may be the same array and view
+	 * (in place transform).
+	 * <p>
+	 * Apart from the data layout, the transform is the same as
+	 * {@link #plan_split_r2c(NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * with the view's sizes as dimensions.
+	 *
+	 * @param inView view of the input array
+	 * @param realIn real valued input array
+	 * @param outView view of the output arrays
+	 * @param realOut real part of complex valued output array
+	 * @param imagOut imaginary part of complex valued output array
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when the sizes of the views differ,<br>
+	 * when a view does not fit into its arrays.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_r2c(
+			StridedView inView,
+			NativeRealArray realIn,
+			StridedView outView,
+			NativeRealArray realOut,
+			NativeRealArray imagOut)
+	{
+		initFFTW();
+		/* parameter sanity check */
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
+		sanityCheckViews(inView, outView);
+		inView.requireFitsInto(realIn.length, "real input");
+		outView.requireFitsInto(realOut.length, "real output");
+		outView.requireFitsInto(imagOut.length, "imaginary output");
+		long[] offsets = {inView.offset, outView.offset, outView.offset};
+		return create(KIND_R2C, viewIODims(inView, outView), null, offsets, realIn, realOut, imagOut);
+	}
+
+	/**
+	 * Creates a plan for a split complex to complex DFT of the sub-region described by <tt>inView</tt>
+	 * that writes the transform to the sub-region described by <tt>outView</tt>.
+	 * The views' offsets and strides are passed to FFTW directly, so the regions are transformed
+	 * within their arrays without copying. Input and output may be the same arrays and view
+	 * (in place transform).
+	 * <p>
+	 * Apart from the data layout, the transform is the same as
+	 * {@link #plan_split_c2c(NativeRealArray, NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * with the view's sizes as dimensions.
+	 *
+	 * @param inView view of the input arrays
+	 * @param realIn real valued input array (or imaginary for inverse)
+	 * @param imagIn imaginary valued input array (or real for inverse)
+	 * @param outView view of the output arrays
+	 * @param realOut real part of complex valued output array (or imaginary for inverse)
+	 * @param imagOut imaginary part of complex valued output array (or real for inverse)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when the sizes of the views differ,<br>
+	 * when a view does not fit into its arrays.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2c(
+			StridedView inView,
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			StridedView outView,
+			NativeRealArray realOut,
+			NativeRealArray imagOut)
+	{
+		initFFTW();
+		/* parameter sanity check */
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
+		sanityCheckViews(inView, outView);
+		inView.requireFitsInto(realIn.length, "real input");
+		inView.requireFitsInto(imagIn.length, "imaginary input");
+		outView.requireFitsInto(realOut.length, "real output");
+		outView.requireFitsInto(imagOut.length, "imaginary output");
+		long[] offsets = {inView.offset, inView.offset, outView.offset, outView.offset};
+		return create(KIND_C2C, viewIODims(inView, outView), null, offsets, realIn, imagIn, realOut, imagOut);
+	}
+
+	/**
+	 * Creates a plan for a split complex to real DFT of the sub-region described by <tt>inView</tt>
+	 * that writes the transform to the sub-region described by <tt>outView</tt>.
+	 * The views' offsets and strides are passed to FFTW directly, so the regions are transformed
+	 * within their arrays without copying.
+	 * <p>
+	 * Apart from the data layout, the transform is the same as
+	 * {@link #plan_split_c2r(NativeRealArray, NativeRealArray, NativeRealArray, long...)}
+	 * with the view's sizes as dimensions.
+	 *
+	 * @param inView view of the input arrays
+	 * @param realIn real part of complex valued input array
+	 * @param imagIn imaginary part of complex valued input array
+	 * @param outView view of the output array
+	 * @param realOut real valued output array
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when the sizes of the views differ,<br>
+	 * when a view does not fit into its arrays.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2r(
+			StridedView inView,
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			StridedView outView,
+			NativeRealArray realOut)
+	{
+		initFFTW();
+		/* parameter sanity check */
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		sanityCheckViews(inView, outView);
+		inView.requireFitsInto(realIn.length, "real input");
+		inView.requireFitsInto(imagIn.length, "imaginary input");
+		outView.requireFitsInto(realOut.length, "real output");
+		long[] offsets = {inView.offset, inView.offset, outView.offset};
+		return create(KIND_C2R, viewIODims(inView, outView), null, offsets, realIn, imagIn, realOut);
+	}
+
+	/**
+	 * Creates a plan for split real to complex DFTs along the specified axes of the row major data
+	 * of the specified dimensions.
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column).
+	 * A single execution of the plan computes all of these transforms.
+	 * Transforms along all axes are the same as
+	 * {@link #plan_split_r2c(NativeRealArray, NativeRealArray, NativeRealArray, long...)}.
+	 *
+	 * @param realIn real valued input array
+	 * @param realOut real part of complex valued output array
+	 * @param imagOut imaginary part of complex valued output array
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (assuming input in row major order)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when no axes were specified, an axis is out of range or is specified twice,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_r2c_axes(
+			NativeRealArray realIn,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			int[] axes,
+			long... dimensions)
+	{
+		/* parameter sanity check */
+		long numElements = sanityCheckDimensions(1, dimensions);
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
+		sanityCheckLength(realIn, numElements, "real input");
+		sanityCheckLength(realOut, numElements, "real output");
+		sanityCheckLength(imagOut, numElements, "imaginary output");
+		StridedView view = StridedView.of(dimensions);
+		return plan_split_r2c_axes(view, realIn, view, realOut, imagOut, axes);
+	}
+
+	/**
+	 * Creates a plan for split complex to complex DFTs along the specified axes of the row major data
+	 * of the specified dimensions.
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column).
+	 * A single execution of the plan computes all of these transforms.
+	 * Transforms along all axes are the same as
+	 * {@link #plan_split_c2c(NativeRealArray, NativeRealArray, NativeRealArray, NativeRealArray, long...)}.
+	 *
+	 * @param realIn real valued input array (or imaginary for inverse)
+	 * @param imagIn imaginary valued input array (or real for inverse)
+	 * @param realOut real part of complex valued output array (or imaginary for inverse)
+	 * @param imagOut imaginary part of complex valued output array (or real for inverse)
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (assuming input in row major order)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when no axes were specified, an axis is out of range or is specified twice,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2c_axes(
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			int[] axes,
+			long... dimensions)
+	{
+		/* parameter sanity check */
+		long numElements = sanityCheckDimensions(1, dimensions);
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
+		sanityCheckLength(realIn, numElements, "real input");
+		sanityCheckLength(imagIn, numElements, "imaginary input");
+		sanityCheckLength(realOut, numElements, "real output");
+		sanityCheckLength(imagOut, numElements, "imaginary output");
+		StridedView view = StridedView.of(dimensions);
+		return plan_split_c2c_axes(view, realIn, imagIn, view, realOut, imagOut, axes);
+	}
+
+	/**
+	 * Creates a plan for split complex to real DFTs along the specified axes of the row major data
+	 * of the specified dimensions.
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column).
+	 * A single execution of the plan computes all of these transforms.
+	 * Transforms along all axes are the same as
+	 * {@link #plan_split_c2r(NativeRealArray, NativeRealArray, NativeRealArray, long...)}.
+	 *
+	 * @param realIn real part of complex valued input array
+	 * @param imagIn imaginary part of complex valued input array
+	 * @param realOut real valued output array
+	 * @param axes to be transformed (indices into dimensions)
+	 * @param dimensions of the input (assuming input in row major order)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when no axes were specified, an axis is out of range or is specified twice,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2r_axes(
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			NativeRealArray realOut,
+			int[] axes,
+			long... dimensions)
+	{
+		/* parameter sanity check */
+		long numElements = sanityCheckDimensions(1, dimensions);
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		sanityCheckLength(realIn, numElements, "real input");
+		sanityCheckLength(imagIn, numElements, "imaginary input");
+		sanityCheckLength(realOut, numElements, "real output");
+		StridedView view = StridedView.of(dimensions);
+		return plan_split_c2r_axes(view, realIn, imagIn, view, realOut, axes);
+	}
+
+	/**
+	 * Creates a plan for split real to complex DFTs along the specified axes of the sub-region
+	 * described by <tt>inView</tt> that writes the transforms to the sub-region described by <tt>outView</tt>.
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column).
+	 * See {@link #plan_split_r2c(StridedView, NativeRealArray, StridedView, NativeRealArray, NativeRealArray)}
+	 * for views.
+	 *
+	 * @param inView view of the input array
+	 * @param realIn real valued input array
+	 * @param outView view of the output arrays
+	 * @param realOut real part of complex valued output array
+	 * @param imagOut imaginary part of complex valued output array
+	 * @param axes to be transformed (indices into the views' axes)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when the sizes of the views differ,<br>
+	 * when a view does not fit into its arrays,<br>
+	 * when no axes were specified, an axis is out of range or is specified twice.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_r2c_axes(
+			StridedView inView,
+			NativeRealArray realIn,
+			StridedView outView,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			int... axes)
+	{
+		initFFTW();
+		/* parameter sanity check */
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
+		sanityCheckViews(inView, outView);
+		inView.requireFitsInto(realIn.length, "real input");
+		outView.requireFitsInto(realOut.length, "real output");
+		outView.requireFitsInto(imagOut.length, "imaginary output");
+		long[][][] iodims = axesIODims(inView, outView, axes);
+		long[] offsets = {inView.offset, outView.offset, outView.offset};
+		return create(KIND_R2C, iodims[0], iodims[1], offsets, realIn, realOut, imagOut);
+	}
+
+	/**
+	 * Creates a plan for split complex to complex DFTs along the specified axes of the sub-region
+	 * described by <tt>inView</tt> that writes the transforms to the sub-region described by <tt>outView</tt>.
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column).
+	 * See {@link #plan_split_c2c(StridedView, NativeRealArray, NativeRealArray, StridedView, NativeRealArray, NativeRealArray)}
+	 * for views.
+	 *
+	 * @param inView view of the input arrays
+	 * @param realIn real valued input array (or imaginary for inverse)
+	 * @param imagIn imaginary valued input array (or real for inverse)
+	 * @param outView view of the output arrays
+	 * @param realOut real part of complex valued output array (or imaginary for inverse)
+	 * @param imagOut imaginary part of complex valued output array (or real for inverse)
+	 * @param axes to be transformed (indices into the views' axes)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when the sizes of the views differ,<br>
+	 * when a view does not fit into its arrays,<br>
+	 * when no axes were specified, an axis is out of range or is specified twice.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2c_axes(
+			StridedView inView,
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			StridedView outView,
+			NativeRealArray realOut,
+			NativeRealArray imagOut,
+			int... axes)
+	{
+		initFFTW();
+		/* parameter sanity check */
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
+		sanityCheckViews(inView, outView);
+		inView.requireFitsInto(realIn.length, "real input");
+		inView.requireFitsInto(imagIn.length, "imaginary input");
+		outView.requireFitsInto(realOut.length, "real output");
+		outView.requireFitsInto(imagOut.length, "imaginary output");
+		long[][][] iodims = axesIODims(inView, outView, axes);
+		long[] offsets = {inView.offset, inView.offset, outView.offset, outView.offset};
+		return create(KIND_C2C, iodims[0], iodims[1], offsets, realIn, imagIn, realOut, imagOut);
+	}
+
+	/**
+	 * Creates a plan for split complex to real DFTs along the specified axes of the sub-region
+	 * described by <tt>inView</tt> that writes the transforms to the sub-region described by <tt>outView</tt>.
+	 * Only the axes specified by <tt>axes</tt> are transformed, all other axes are treated as
+	 * batch dimensions, i.e. a separate transform is computed for every combination of
+	 * coordinates along the other axes (e.g. axes {0} of a 2D array transforms each row,
+	 * axes {1} each column).
+	 * See {@link #plan_split_c2r(StridedView, NativeRealArray, NativeRealArray, StridedView, NativeRealArray)}
+	 * for views.
+	 *
+	 * @param inView view of the input arrays
+	 * @param realIn real part of complex valued input array
+	 * @param imagIn imaginary part of complex valued input array
+	 * @param outView view of the output array
+	 * @param realOut real valued output array
+	 * @param axes to be transformed (indices into the views' axes)
+	 * @return the plan, which has to be closed when not needed anymore
+	 * @throws NullPointerException when one of the specified arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when the sizes of the views differ,<br>
+	 * when a view does not fit into its arrays,<br>
+	 * when no axes were specified, an axis is out of range or is specified twice.
+	 */
+	@DoublePrecisionVersion
+	public static FFTW_Plan plan_split_c2r_axes(
+			StridedView inView,
+			NativeRealArray realIn,
+			NativeRealArray imagIn,
+			StridedView outView,
+			NativeRealArray realOut,
+			int... axes)
+	{
+		initFFTW();
+		/* parameter sanity check */
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		sanityCheckViews(inView, outView);
+		inView.requireFitsInto(realIn.length, "real input");
+		inView.requireFitsInto(imagIn.length, "imaginary input");
+		outView.requireFitsInto(realOut.length, "real output");
+		long[][][] iodims = axesIODims(inView, outView, axes);
+		long[] offsets = {inView.offset, inView.offset, outView.offset};
+		return create(KIND_C2R, iodims[0], iodims[1], offsets, realIn, imagIn, realOut);
+	}
+
+	/**
+	 * Creates the native plan of specified kind for the specified transform and batch dimensions.
+	 * Arguments have to be sanity checked by the caller.
+	 * @param kind one of {@link #KIND_R2C}, {@link #KIND_C2C}, {@link #KIND_C2R}
+	 * @param iodims {sizes, strides} of the transform dimensions
+	 * @param howmanyIODims {sizes, strides} of the batch dimensions or null
+	 * @param arrays the arrays in the order of the corresponding FFTW planner function
+	 * @return the plan
+	 */
+	static FFTW_Plan create(int kind, long[][] iodims, long[][] howmanyIODims, NativeRealArray... arrays) {
+		return create(kind, iodims, howmanyIODims, null, arrays);
+	}
+
+	/**
+	 * Creates the native plan of specified kind for the specified transform and batch dimensions
+	 * where the transformed data starts at the specified offsets into the arrays.
+	 * Arguments have to be sanity checked by the caller.
+	 * @param kind one of {@link #KIND_R2C}, {@link #KIND_C2C}, {@link #KIND_C2R}
+	 * @param iodims {sizes, strides} or {sizes, input strides, output strides} of the transform dimensions
+	 * @param howmanyIODims {sizes, strides} or {sizes, input strides, output strides} of the batch dimensions or null
+	 * @param offsets index of the first element in each array or null for all zero
+	 * @param arrays the arrays in the order of the corresponding FFTW planner function
+	 * @return the plan
+	 */
+	@SuppressWarnings("deprecation")
+	static FFTW_Plan create(int kind, long[][] iodims, long[][] howmanyIODims, long[] offsets, NativeRealArray... arrays) {
+		fftw_iodim64 dims = null;
+		fftw_iodim64 howmanyDims = null;
+		fftw_iodim64 dimsArray = null; //#FLOATGEN_IGNORE
+		fftw_iodim64 howmanyArray = null; //#FLOATGEN_IGNORE
+		try {
+			/* allocate native resources */
+			dimsArray = allocIODims(iodims); //#FLOATGEN_IGNORE
+			dims = new fftw_iodim64(dimsArray);
+			int howmanyRank = 0;
+			if(howmanyIODims != null){
+				howmanyArray = allocIODims(howmanyIODims); //#FLOATGEN_IGNORE
+				howmanyDims = new fftw_iodim64(howmanyArray);
+				howmanyRank = howmanyIODims[0].length;
+			}
+			int rank = iodims[0].length;
+			int flags = (int)fftw3.FFTW_ESTIMATE;
+			long howmany = 1;
+			if(howmanyIODims != null){
+				for(long n: howmanyIODims[0]) howmany *= n;
+			}
+			long[] shape = transformShape(iodims[0]);
+			/* make plan */
+			fftw_plan plan;
+			long planningNanos;
+			Object lockEvent = FFTW_Events.begin(FFTW_Events.PLANNER_LOCK);
+			long lockTime = System.nanoTime();
+			PLANNER_REENTRANT_LOCK.lock();
+			long planTime = System.nanoTime();
+			FFTW_Events.commit(lockEvent, KIND_NAMES[kind], shape, howmany, flags, NUM_THREADS, 0);
+			try {
+				Object planEvent = FFTW_Events.begin(FFTW_Events.PLAN);
+				/* monitor of the deprecated lock still excludes code synchronizing on it */
+				synchronized(FFTW_Initializer.PLANNER_LOCK){
+					switch (kind) {
+					case KIND_R2C:
+						plan = fftw3.fftw_plan_guru64_split_dft_r2c(rank, dims, howmanyRank, howmanyDims,
+								pointer(arrays, offsets, 0), pointer(arrays, offsets, 1), pointer(arrays, offsets, 2), flags);
+						break;
+					case KIND_C2C:
+						plan = fftw3.fftw_plan_guru64_split_dft(rank, dims, howmanyRank, howmanyDims,
+								pointer(arrays, offsets, 0), pointer(arrays, offsets, 1), pointer(arrays, offsets, 2), pointer(arrays, offsets, 3), flags);
+						break;
+					case KIND_C2R:
+						plan = fftw3.fftw_plan_guru64_split_dft_c2r(rank, dims, howmanyRank, howmanyDims,
+								pointer(arrays, offsets, 0), pointer(arrays, offsets, 1), pointer(arrays, offsets, 2), flags);
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown transform kind " + kind);
+					}
+				}
+				planningNanos = System.nanoTime()-planTime;
+				FFTW_Events.commit(planEvent, KIND_NAMES[kind], shape, howmany, flags, NUM_THREADS, 0);
+				FFTW_Statistics.recordPlanning(planTime-lockTime, planningNanos);
+			} finally {
+				PLANNER_REENTRANT_LOCK.unlock();
+			}
+			if(plan == null || plan.isNull()){
+				throw new IllegalStateException("FFTW could not create a plan for the specified arguments.");
+			}
+			/* notify outside of lock, listeners may be slow */
+			Listeners.notifyListeners(Phase.PLAN, KIND_NAMES[kind], shape, howmany, 0, planningNanos);
+			return new FFTW_Plan(plan, kind, flags, shape, howmany, arrays);
+		} finally {
+			/* close resources in reverse allocation order */
+			if(howmanyDims != null) howmanyDims.close();
+			if(howmanyArray != null) howmanyArray.close();
+			if(dims != null) dims.close();
+			if(dimsArray != null) dimsArray.close();
+		}
+	}
+
+	/**
+	 * Executes this plan on the arrays it was created for.
+	 * @throws IllegalStateException when this plan or one of its arrays has already been closed.
+	 */
+	@DoublePrecisionVersion
+	public void execute() {
+		fftw_plan p = this.plan;
+		if(p == null){
+			throw new IllegalStateException("Cannot execute plan, it has already been closed.");
+		}
+		for(NativeRealArray a: arrays){
+			if(a.isClosed()){
+				throw new IllegalStateException("Cannot execute plan, one of its arrays has already been closed.");
+			}
+		}
+		Object event = FFTW_Events.begin(FFTW_Events.EXECUTE);
+		long time = System.nanoTime();
+		if(NativeRealArray.ACCESS != null){
+			NativeRealArray.ACCESS.execute(p.address());
+		} else {
+			fftw3.fftw_execute(p);
+		}
+		long nanos = System.nanoTime()-time;
+		if(FFTW_Statistics.isRecording()){
+			/* key is built on first recorded execution, benign race */
+			if(statisticsKey == null){
+				statisticsKey = FFTW_Statistics.transformKey("double " + KIND_NAMES[kind], shape);
+			}
+			FFTW_Statistics.recordExecute(statisticsKey, howmany, nanos);
+		}
+		FFTW_Events.commit(event, KIND_NAMES[kind], shape, howmany, flags, NUM_THREADS, bytes);
+		Listeners.notifyListeners(Phase.EXECUTE, KIND_NAMES[kind], shape, howmany, bytes, nanos);
+	}
+
+	/**
+	 * Destroys the native plan. The arrays this plan was created for are not closed.
+	 */
+	@Override
+	@SuppressWarnings("deprecation")
+	public void close() {
+		fftw_plan p = this.plan;
+		this.plan = null;
+		if(p != null){
+			Object lockEvent = FFTW_Events.begin(FFTW_Events.PLANNER_LOCK);
+			long lockTime = System.nanoTime();
+			PLANNER_REENTRANT_LOCK.lock();
+			FFTW_Statistics.recordLockWait(System.nanoTime()-lockTime);
+			FFTW_Events.commit(lockEvent, KIND_NAMES[kind], shape, howmany, flags, NUM_THREADS, 0);
+			try {
+				synchronized(FFTW_Initializer.PLANNER_LOCK){
+					fftw3.fftw_destroy_plan(p);
+				}
+			} finally {
+				PLANNER_REENTRANT_LOCK.unlock();
+			}
+			p.close();
+		}
+	}
+
+	/**
+	 * Returns the input/output strides for the specified dimensions of row major data
+	 * with an additional trailing dimension of size 1. The trailing dimension makes
+	 * real to complex and complex to real transforms operate on full sized complex arrays
+	 * since FFTW only halves the last dimension of these transforms.
+	 * @param dimensions of the row major data
+	 * @return {sizes, strides}
+	 */
+	static long[][] rowMajorIODims(long[] dimensions) {
+		long[] n = new long[dimensions.length+1];
+		long[] strides = new long[dimensions.length+1];
+		long stride = 1;
+		for(int i = 0; i < dimensions.length; i++){
+			n[i] = dimensions[i];
+			strides[i] = stride;
+			stride *= dimensions[i];
+		}
+		n[dimensions.length] = 1;
+		strides[dimensions.length] = stride;
+		return new long[][]{n, strides};
+	}
+
+	/**
+	 * Returns the shape of a single signal for reporting, which are the specified sizes
+	 * without trailing dimensions of size 1 (e.g. the one added by {@link #rowMajorIODims(long[])}).
+	 * @param sizes of the transform dimensions
+	 * @return shape
+	 */
+	static long[] transformShape(long[] sizes) {
+		int n = sizes.length;
+		while(n > 1 && sizes[n-1] == 1){
+			n--;
+		}
+		return Arrays.copyOf(sizes, n);
+	}
+
+	/**
+	 * Returns the input/output strides of the specified views with an additional trailing
+	 * dimension of size 1 as in {@link #rowMajorIODims(long[])}.
+	 * @param inView view of the input arrays
+	 * @param outView view of the output arrays
+	 * @return {sizes, input strides, output strides}
+	 */
+	static long[][] viewIODims(StridedView inView, StridedView outView) {
+		int rank = inView.getRank();
+		long[] n = Arrays.copyOf(inView.getSizes(), rank+1);
+		long[] is = Arrays.copyOf(inView.getStrides(), rank+1);
+		long[] os = Arrays.copyOf(outView.getStrides(), rank+1);
+		n[rank] = 1;
+		is[rank] = 1;
+		os[rank] = 1;
+		return new long[][]{n, is, os};
+	}
+
+	/**
+	 * Splits the axes of the specified views into transform dimensions (the selected axes with an
+	 * additional trailing dimension of size 1 as in {@link #rowMajorIODims(long[])}) and batch
+	 * dimensions (all other axes).
+	 * @param inView view of the input arrays
+	 * @param outView view of the output arrays
+	 * @param axes to be transformed
+	 * @return {transform iodims, batch iodims or null}, each as {sizes, input strides, output strides}
+	 * @throws IllegalArgumentException when no axes are specified, an axis is out of range or specified twice
+	 */
+	static long[][][] axesIODims(StridedView inView, StridedView outView, int[] axes) {
+		Objects.requireNonNull(axes, ()->"Cannot use null as axes parameter.");
+		int rank = inView.getRank();
+		GeneralUtils.requirePositive(axes.length, ()->"No axes were specified, need to pass at least one.");
+		boolean[] selected = new boolean[rank];
+		for(int axis: axes){
+			if(axis < 0 || axis >= rank){
+				throw new IllegalArgumentException("Axis " + axis + " is not in [0," + rank + "[.");
+			}
+			if(selected[axis]){
+				throw new IllegalArgumentException("Axis " + axis + " was specified more than once.");
+			}
+			selected[axis] = true;
+		}
+		long[] n = inView.getSizes();
+		long[] is = inView.getStrides();
+		long[] os = outView.getStrides();
+		long[][] dims = new long[3][axes.length+1];
+		long[][] batch = new long[3][rank-axes.length];
+		for(int i = 0; i < axes.length; i++){
+			dims[0][i] = n[axes[i]];
+			dims[1][i] = is[axes[i]];
+			dims[2][i] = os[axes[i]];
+		}
+		dims[0][axes.length] = 1;
+		dims[1][axes.length] = 1;
+		dims[2][axes.length] = 1;
+		for(int axis = 0, j = 0; axis < rank; axis++){
+			if(!selected[axis]){
+				batch[0][j] = n[axis];
+				batch[1][j] = is[axis];
+				batch[2][j] = os[axis];
+				j++;
+			}
+		}
+		return new long[][][]{dims, batch[0].length == 0 ? null : batch};
+	}
+
+	/**
+	 * Allocates a native array of iodims and fills it with the specified sizes and strides.
+	 * The caller is responsible for closing it.
+	 * @param iodims {sizes, strides} (same stride for input and output) or {sizes, input strides, output strides}
+	 * @return native iodim array
+	 */
+	static fftw_iodim64 allocIODims(long[][] iodims) { //#FLOATGEN_IGNORE
+		long[] n = iodims[0];
+		long[] inStrides = iodims[1];
+		long[] outStrides = iodims.length > 2 ? iodims[2] : iodims[1];
+		fftw_iodim64 array = new fftw_iodim64(n.length); //#FLOATGEN_IGNORE
+		for(int i = 0; i < n.length; i++){
+			array.position(i)
+					.n(n[i])  			// dimension size
+					.is(inStrides[i]) 	// input stride
+					.os(outStrides[i]);	// output stride
+		}
+		return array.position(0);
+	}
+
+	/**
+	 * Returns the pointer to the i-th array, positioned at the i-th offset.
+	 * A new pointer is created for a non zero offset so that the array's own pointer is not modified.
+	 */
+	private static DoublePointer pointer(NativeRealArray[] arrays, long[] offsets, int i) {
+		if(offsets == null || offsets[i] == 0){
+			return arrays[i].getPointer();
+		}
+		return arrays[i].pointerAt(offsets[i]);
+	}
+
+	/**
+	 * Returns the batch dimension for howmany consecutive signals of the specified number of elements.
+	 * @param howmany number of signals
+	 * @param numElements number of elements per signal
+	 * @return {sizes, strides}
+	 */
+	static long[][] batchIODims(long howmany, long numElements) {
+		if(howmany == 1){
+			return null;
+		}
+		return new long[][]{{howmany},{numElements}};
+	}
+
+	private static long sanityCheckDimensions(long howmany, long[] dimensions) {
+		GeneralUtils.requirePositive(howmany, ()->"Number of signals (howmany) needs to be positive but is " + howmany + ".");
+		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		return GeneralUtils.numElementsFromDimensions(dimensions);
+	}
+
+	private static void sanityCheckViews(StridedView inView, StridedView outView) {
+		Objects.requireNonNull(inView, ()->"Cannot use null as inView parameter.");
+		Objects.requireNonNull(outView, ()->"Cannot use null as outView parameter.");
+		if(!Arrays.equals(inView.getSizes(), outView.getSizes())){
+			throw new IllegalArgumentException(
+					"Sizes of input and output view differ. in:" + inView + " out:" + outView);
+		}
+	}
+
+	private static void sanityCheckLength(NativeRealArray array, long numElements, String arrayIdentifier) {
+		GeneralUtils.requireEqual(numElements, array.length,
+				()->"provided " + arrayIdentifier + " does not have the same number of elements as determined from dimensions. "
+						+ "Should be " + numElements + " but only has " + array.length);
+	}
+
+}
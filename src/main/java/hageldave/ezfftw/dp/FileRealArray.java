@@ -0,0 +1,316 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import org.bytedeco.javacpp.DoublePointer;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.FFTW_Events;
+import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.listeners.Listeners;
+import hageldave.ezfftw.listeners.TransformListener.Phase;
+
+/**
+ * The FileRealArray is an array of double values that is stored in a file instead of memory,
+ * e.g. a volume that is too large to be held in memory as a whole.
+ * It is used by {@link OutOfCoreFFT} to transform such data slab by slab.
+ * <p>
+ * The file consists of the raw values in native byte order without any header,
+ * so the number of elements is the file size divided by {@link Double#BYTES}.
+ * Values are transferred between the file and {@link NativeRealArray}s directly without
+ * intermediate copies on the heap using {@link #read(long, NativeRealArray, long, long)} and
+ * {@link #write(long, NativeRealArray, long, long)}.
+ * Reading and writing are thread safe as long as different threads access disjoint ranges.
+ * <p>
+ * I/O errors are reported as {@link UncheckedIOException}.
+ * This class implements the {@link AutoCloseable} interface to enable the use of
+ * try-with-resources statement for closing the underlying file.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * try(FileRealArray volume = FileRealArray.create(Paths.get("volume.raw"), 2048L*2048*2048)){
+ *     volume.set(0, 1.0, 2.0, 3.0);
+ *     double[] firstValues = volume.get(0, 3);
+ * }
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class FileRealArray implements AutoCloseable {
+
+	/** maximum number of bytes transferred by a single channel operation */
+	private static final int MAX_BYTES_PER_IO = 1<<30;
+
+	/** path of the file */
+	public final Path path;
+	/** number of elements */
+	public final long length;
+	private final FileChannel channel;
+
+	private FileRealArray(Path path, FileChannel channel, long length) {
+		this.path = path;
+		this.channel = channel;
+		this.length = length;
+	}
+
+	/**
+	 * Creates a new file of the specified number of elements (or truncates an existing one)
+	 * that is filled with zeros.
+	 * @param path of the file
+	 * @param length number of elements
+	 * @return the file backed array
+	 * @throws NullPointerException when path is null
+	 * @throws IllegalArgumentException when length is not positive
+	 * @throws UncheckedIOException when the file cannot be created
+	 */
+	@DoublePrecisionVersion
+	public static FileRealArray create(Path path, long length) {
+		Objects.requireNonNull(path, ()->"Cannot use null as path.");
+		GeneralUtils.requirePositive(length, ()->"Length needs to be positive but is " + length + ".");
+		try {
+			FileChannel channel = FileChannel.open(path,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+					StandardOpenOption.READ, StandardOpenOption.WRITE);
+			try {
+				/* extend to full size by writing the last byte, the file is zero filled */
+				channel.write(ByteBuffer.allocate(1), length*Double.BYTES-1);
+			} catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+			return new FileRealArray(path, channel, length);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not create " + path, e);
+		}
+	}
+
+	/**
+	 * Opens an existing file for reading and writing.
+	 * @param path of the file
+	 * @return the file backed array
+	 * @throws NullPointerException when path is null
+	 * @throws IllegalArgumentException when the file is empty or its size is not a multiple of {@link Double#BYTES}
+	 * @throws UncheckedIOException when the file cannot be opened
+	 */
+	@DoublePrecisionVersion
+	public static FileRealArray open(Path path) {
+		Objects.requireNonNull(path, ()->"Cannot use null as path.");
+		try {
+			FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			long size = channel.size();
+			if(size == 0 || size % Double.BYTES != 0){
+				channel.close();
+				throw new IllegalArgumentException(
+						"Size of " + path + " needs to be a positive multiple of " + Double.BYTES + " bytes but is " + size + ".");
+			}
+			return new FileRealArray(path, channel, size/Double.BYTES);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not open " + path, e);
+		}
+	}
+
+	/**
+	 * Reads the specified number of values from this file to the specified native array.
+	 * @param i index of first value in this file
+	 * @param dst array to read to
+	 * @param dstIndex index of first value in dst
+	 * @param n number of values to read
+	 * @return dst
+	 * @throws NullPointerException when dst is null
+	 * @throws ArrayIndexOutOfBoundsException when the specified range exceeds this file or dst
+	 * @throws IllegalStateException when dst has already been closed
+	 * @throws UncheckedIOException when reading fails
+	 */
+	@DoublePrecisionVersion
+	public NativeRealArray read(long i, NativeRealArray dst, long dstIndex, long n) {
+		Objects.requireNonNull(dst, ()->"Cannot use null as dst.");
+		requireRange(i, dstIndex, n, dst);
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		DoublePointer p = dst.pointerAt(0);
+		try {
+			for(long done = 0; done < n;){
+				long count = Math.min(n-done, MAX_BYTES_PER_IO/Double.BYTES);
+				ByteBuffer buffer = p.position(dstIndex+done).limit(dstIndex+done+count).asByteBuffer();
+				long position = (i+done)*Double.BYTES;
+				while(buffer.hasRemaining()){
+					int numRead = channel.read(buffer, position);
+					if(numRead < 0){
+						throw new EOFException("Unexpected end of " + path + " at byte " + position);
+					}
+					position += numRead;
+				}
+				done += count;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read from " + path, e);
+		}
+		long[] dims = {n};
+		FFTW_Events.commit(event, "file in", dims, 1, 0, FFTW_Plan.NUM_THREADS, n*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "file in", dims, 1, n*Double.BYTES);
+		return dst;
+	}
+
+	/**
+	 * Writes the specified number of values from the specified native array to this file.
+	 * @param i index of first value in this file
+	 * @param src array to write from
+	 * @param srcIndex index of first value in src
+	 * @param n number of values to write
+	 * @return this
+	 * @throws NullPointerException when src is null
+	 * @throws ArrayIndexOutOfBoundsException when the specified range exceeds this file or src
+	 * @throws IllegalStateException when src has already been closed
+	 * @throws UncheckedIOException when writing fails
+	 */
+	@DoublePrecisionVersion
+	public FileRealArray write(long i, NativeRealArray src, long srcIndex, long n) {
+		Objects.requireNonNull(src, ()->"Cannot use null as src.");
+		requireRange(i, srcIndex, n, src);
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		DoublePointer p = src.pointerAt(0);
+		try {
+			for(long done = 0; done < n;){
+				long count = Math.min(n-done, MAX_BYTES_PER_IO/Double.BYTES);
+				ByteBuffer buffer = p.position(srcIndex+done).limit(srcIndex+done+count).asByteBuffer();
+				long position = (i+done)*Double.BYTES;
+				while(buffer.hasRemaining()){
+					position += channel.write(buffer, position);
+				}
+				done += count;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write to " + path, e);
+		}
+		long[] dims = {n};
+		FFTW_Events.commit(event, "file out", dims, 1, 0, FFTW_Plan.NUM_THREADS, n*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "file out", dims, 1, n*Double.BYTES);
+		return this;
+	}
+
+	/**
+	 * Returns the specified number of values starting at the specified index.
+	 * @param i index of first value
+	 * @param length number of values
+	 * @return array of values
+	 * @throws ArrayIndexOutOfBoundsException when the specified range exceeds this file
+	 * @throws UncheckedIOException when reading fails
+	 */
+	@DoublePrecisionVersion
+	public double[] get(long i, int length) {
+		requireRange(i, length);
+		ByteBuffer buffer = ByteBuffer.allocate(length*Double.BYTES).order(ByteOrder.nativeOrder());
+		try {
+			long position = i*Double.BYTES;
+			while(buffer.hasRemaining()){
+				int numRead = channel.read(buffer, position);
+				if(numRead < 0){
+					throw new EOFException("Unexpected end of " + path + " at byte " + position);
+				}
+				position += numRead;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read from " + path, e);
+		}
+		buffer.flip();
+		double[] values = new double[length];
+		buffer.asDoubleBuffer().get(values);
+		return values;
+	}
+
+	/**
+	 * Sets the specified values starting at the specified index.
+	 * @param i index of first value
+	 * @param values to set
+	 * @return this
+	 * @throws NullPointerException when values is null
+	 * @throws ArrayIndexOutOfBoundsException when the specified range exceeds this file
+	 * @throws UncheckedIOException when writing fails
+	 */
+	@DoublePrecisionVersion
+	public FileRealArray set(long i, double... values) {
+		Objects.requireNonNull(values, ()->"Cannot use null as values.");
+		requireRange(i, values.length);
+		ByteBuffer buffer = ByteBuffer.allocate(values.length*Double.BYTES).order(ByteOrder.nativeOrder());
+		buffer.asDoubleBuffer().put(values);
+		try {
+			long position = i*Double.BYTES;
+			while(buffer.hasRemaining()){
+				position += channel.write(buffer, position);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write to " + path, e);
+		}
+		return this;
+	}
+
+	/**
+	 * Forces all written values to be stored on the device containing the file.
+	 * @throws UncheckedIOException when flushing fails
+	 */
+	public void flush() {
+		try {
+			channel.force(false);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not flush " + path, e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not close " + path, e);
+		}
+	}
+
+	private void requireRange(long i, long n) {
+		if(i < 0 || n < 0 || i+n > length){
+			throw new ArrayIndexOutOfBoundsException(
+				String.format("Cannot access %d values starting at index %d, file is of length %d", n, i, length));
+		}
+	}
+
+	private void requireRange(long i, long arrayIndex, long n, NativeRealArray array) {
+		requireRange(i, n);
+		if(arrayIndex < 0 || arrayIndex+n > array.length){
+			throw new ArrayIndexOutOfBoundsException(
+				String.format("Cannot access %d values starting at index %d, native array is of length %d", n, arrayIndex, array.length));
+		}
+		if(array.isClosed()){
+			throw new IllegalStateException("Cannot transfer values, native array has already been closed.");
+		}
+	}
+
+}
@@ -0,0 +1,294 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+
+/**
+ * The JavaFFTBackend is a pure Java {@link FFTBackend} that does not require the native
+ * FFTW library. It is used as fallback when the native library cannot be loaded and for
+ * tiny transforms where the overhead of native calls dominates (see {@link FFTBackends}).
+ * <p>
+ * Multi-dimensional transforms are computed as 1D transforms along each axis.
+ * Power of two sizes up to 64 are transformed by generated unrolled codelets
+ * without allocations, larger powers of two with an iterative radix-2 algorithm,
+ * all other sizes with Bluestein's algorithm, which expresses the transform as a convolution
+ * that is computed by power of two transforms.
+ * Bit reversal permutations, twiddle factors and chirps are cached per size.
+ * <p>
+ * The results agree with FFTW up to rounding errors. Complex to real transforms return the
+ * real part of the complex inverse transform, which is the same as FFTW's result for Hermitian
+ * symmetric input (the transform of a real valued signal).
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class JavaFFTBackend implements FFTBackend {
+
+	/** largest size for which kernels are cached */
+	private static final int MAX_CACHED_SIZE = 1<<16;
+	private static final ConcurrentHashMap<Integer, Kernel> KERNELS = new ConcurrentHashMap<>();
+
+	@Override
+	public String getName() {
+		return "java";
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void r2c(double[] realIn, double[] realOut, double[] imagOut, long... dimensions) {
+		if(realOut != realIn)
+			System.arraycopy(realIn, 0, realOut, 0, realIn.length);
+		Arrays.fill(imagOut, 0);
+		transform(realOut, imagOut, dimensions);
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void c2c(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		if(realOut != realIn)
+			System.arraycopy(realIn, 0, realOut, 0, realIn.length);
+		if(imagOut != imagIn)
+			System.arraycopy(imagIn, 0, imagOut, 0, imagIn.length);
+		transform(realOut, imagOut, dimensions);
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void c2r(double[] realIn, double[] imagIn, double[] realOut, long... dimensions) {
+		double[] imag = imagIn.clone();
+		if(realOut != realIn)
+			System.arraycopy(realIn, 0, realOut, 0, realIn.length);
+		/* inverse is forward transform with swapped real and imaginary parts */
+		transform(imag, realOut, dimensions);
+	}
+
+	/**
+	 * Computes the forward DFT of the specified split complex data in place.
+	 * When the arrays are longer than the number of elements determined from the dimensions,
+	 * they are treated as consecutive blocks of the dimensions which are transformed separately.
+	 * @param re real part
+	 * @param im imaginary part
+	 * @param dimensions of the data (or of a single block) in row major order
+	 */
+	@DoublePrecisionVersion
+	static void transform(double[] re, double[] im, long[] dimensions) {
+		int stride = 1;
+		for(long dimension: dimensions){
+			int size = (int)dimension;
+			if(size > 1){
+				transformAxis(re, im, size, stride);
+			}
+			stride *= size;
+		}
+	}
+
+	/* transforms all lines of the specified size along the axis with the specified stride */
+	@DoublePrecisionVersion
+	private static void transformAxis(double[] re, double[] im, int size, int stride) {
+		int blockSize = size*stride;
+		if(Codelets.isSupported(size)){
+			/* codelets work in place on strided lines */
+			for(int block = 0; block < re.length; block += blockSize){
+				for(int j = 0; j < stride; j++){
+					Codelets.fft(re, im, block+j, stride, size);
+				}
+			}
+			return;
+		}
+		Kernel kernel = kernel(size);
+		if(stride == 1){
+			for(int start = 0; start < re.length; start += size){
+				kernel.transform(re, im, start);
+			}
+			return;
+		}
+		double[] lineRe = new double[size];
+		double[] lineIm = new double[size];
+		for(int block = 0; block < re.length; block += blockSize){
+			for(int j = 0; j < stride; j++){
+				int start = block+j;
+				for(int k = 0, i = start; k < size; k++, i += stride){
+					lineRe[k] = re[i];
+					lineIm[k] = im[i];
+				}
+				kernel.transform(lineRe, lineIm, 0);
+				for(int k = 0, i = start; k < size; k++, i += stride){
+					re[i] = lineRe[k];
+					im[i] = lineIm[k];
+				}
+			}
+		}
+	}
+
+	private static Kernel kernel(int size) {
+		if(size > MAX_CACHED_SIZE){
+			return newKernel(size);
+		}
+		/* no computeIfAbsent, Bluestein kernels request their power of two kernel on construction */
+		Kernel kernel = KERNELS.get(size);
+		if(kernel == null){
+			kernel = newKernel(size);
+			Kernel previous = KERNELS.putIfAbsent(size, kernel);
+			if(previous != null)
+				kernel = previous;
+		}
+		return kernel;
+	}
+
+	private static Kernel newKernel(int size) {
+		return Integer.bitCount(size) == 1 ? new Radix2Kernel(size) : new BluesteinKernel(size);
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+	/** in place 1D transform of a fixed size */
+	private static abstract class Kernel {
+		@DoublePrecisionVersion
+		abstract void transform(double[] re, double[] im, int offset);
+	}
+
+	/** iterative decimation in time radix-2 transform */
+	private static class Radix2Kernel extends Kernel {
+		final int n;
+		final int[] bitReversal;
+		final double[] cos;
+		final double[] sin;
+
+		@DoublePrecisionVersion
+		Radix2Kernel(int n) {
+			this.n = n;
+			int bits = Integer.numberOfTrailingZeros(n);
+			this.bitReversal = new int[n];
+			for(int i = 0; i < n; i++){
+				bitReversal[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32-bits);
+			}
+			/* twiddles e^(-2*pi*i*k/n) */
+			this.cos = new double[n/2];
+			this.sin = new double[n/2];
+			for(int k = 0; k < n/2; k++){
+				cos[k] = (double)Math.cos(2*Math.PI*k/n);
+				sin[k] = (double)-Math.sin(2*Math.PI*k/n);
+			}
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		void transform(double[] re, double[] im, int offset) {
+			for(int i = 0; i < n; i++){
+				int j = bitReversal[i];
+				if(i < j){
+					double t = re[offset+i]; re[offset+i] = re[offset+j]; re[offset+j] = t;
+					t = im[offset+i]; im[offset+i] = im[offset+j]; im[offset+j] = t;
+				}
+			}
+			for(int size = 2; size <= n; size <<= 1){
+				int half = size >> 1;
+				int step = n/size;
+				for(int start = offset; start < offset+n; start += size){
+					for(int k = 0, t = 0; k < half; k++, t += step){
+						double wr = cos[t];
+						double wi = sin[t];
+						int a = start+k;
+						int b = a+half;
+						double tr = re[b]*wr - im[b]*wi;
+						double ti = re[b]*wi + im[b]*wr;
+						re[b] = re[a]-tr;
+						im[b] = im[a]-ti;
+						re[a] += tr;
+						im[a] += ti;
+					}
+				}
+			}
+		}
+	}
+
+	/** Bluestein's algorithm, transform as convolution with a chirp computed by power of two transforms */
+	private static class BluesteinKernel extends Kernel {
+		final int n;
+		final int m;
+		final Radix2Kernel sub;
+		final double[] chirpRe;
+		final double[] chirpIm;
+		final double[] filterRe;
+		final double[] filterIm;
+
+		@DoublePrecisionVersion
+		BluesteinKernel(int n) {
+			this.n = n;
+			/* smallest power of two for a linear convolution of length 2n-1 (odd, so never a power of two itself) */
+			this.m = Integer.highestOneBit(2*n-1)<<1;
+			this.sub = (Radix2Kernel)kernel(m);
+			/* chirp w_k = e^(-i*pi*k^2/n), k^2 mod 2n for accuracy */
+			this.chirpRe = new double[n];
+			this.chirpIm = new double[n];
+			for(int k = 0; k < n; k++){
+				double angle = Math.PI*(((long)k*k) % (2L*n))/n; //#FLOATGEN_IGNORE
+				chirpRe[k] = (double)Math.cos(angle);
+				chirpIm[k] = (double)-Math.sin(angle);
+			}
+			/* transform of conjugate chirp wrapped around for negative indices */
+			this.filterRe = new double[m];
+			this.filterIm = new double[m];
+			filterRe[0] = chirpRe[0];
+			filterIm[0] = -chirpIm[0];
+			for(int k = 1; k < n; k++){
+				filterRe[k] = filterRe[m-k] = chirpRe[k];
+				filterIm[k] = filterIm[m-k] = -chirpIm[k];
+			}
+			sub.transform(filterRe, filterIm, 0);
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		void transform(double[] re, double[] im, int offset) {
+			double[] ar = new double[m];
+			double[] ai = new double[m];
+			for(int k = 0; k < n; k++){
+				double xr = re[offset+k], xi = im[offset+k];
+				ar[k] = xr*chirpRe[k] - xi*chirpIm[k];
+				ai[k] = xr*chirpIm[k] + xi*chirpRe[k];
+			}
+			sub.transform(ar, ai, 0);
+			/* multiply with filter and conjugate for the inverse transform */
+			for(int k = 0; k < m; k++){
+				double r = ar[k]*filterRe[k] - ai[k]*filterIm[k];
+				double i = ar[k]*filterIm[k] + ai[k]*filterRe[k];
+				ar[k] = r;
+				ai[k] = -i;
+			}
+			sub.transform(ar, ai, 0);
+			/* conjugate, normalize and multiply with chirp */
+			double scale = 1.0/m;
+			for(int k = 0; k < n; k++){
+				double cr = ar[k]*scale, ci = -ai[k]*scale;
+				re[offset+k] = cr*chirpRe[k] - ci*chirpIm[k];
+				im[offset+k] = cr*chirpIm[k] + ci*chirpRe[k];
+			}
+		}
+	}
+
+}
@@ -18,9 +18,12 @@
 
 package hageldave.ezfftw.dp;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.bytedeco.javacpp.DoublePointer;
 
 import hageldave.ezfftw.FFTW_Initializer;
+import hageldave.ezfftw.FFTW_Statistics;
 import hageldave.ezfftw.GeneralUtils;
 import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
 
@@ -43,6 +46,11 @@ import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
  * To further avoid SEGMENTATION FAULTS, bound checks are performed when accessing
  * the array, <b>but only for upper bound, no checks for negative indices</b>.
  * <p>
+ * When enabled by the system property {@value #FOREIGN_ACCESS_PROPERTY} on JDK 22 or newer (and built
+ * with it, see <tt>src/main/java22</tt>), element access and bulk transfers go through <tt>java.lang.foreign</tt>
+ * memory segments instead of JavaCPP's pointers (see {@link #isForeignAccess()}). The memory is still
+ * allocated by JavaCPP so that the array can be passed to the FFTW bindings either way.
+ * <p>
  * Note that native arrays are capable of storing way more data than java arrays
  * when used in a 64-bit environment. While java arrays are limited to
  * {@link Integer#MAX_VALUE} number of elements, native arrays can store more
@@ -81,6 +89,23 @@ public class NativeRealArray implements AutoCloseable {
 	/** length of the array (number of elements) */
 	public final long length;
 	private DoublePointer pointer;
+	/* memory of the foreign access, null when not available or closed */
+	private NativeMemory memory;
+
+	/** system property to enable foreign memory access (set to <tt>true</tt>), disabled by default */
+	public static final String FOREIGN_ACCESS_PROPERTY = "hageldave.ezfftw.foreign";
+	/* null when JavaCPP pointers are used */
+	static final NativeAccess ACCESS = loadAccess();
+
+	/* allocation statistics */
+	private static final AtomicLong numAllocated = new AtomicLong();
+	private static final AtomicLong bytesAllocated = new AtomicLong();
+	private static final AtomicLong numLive = new AtomicLong();
+	private static final AtomicLong bytesLive = new AtomicLong();
+
+	static {
+		FFTW_Statistics.registerNativeArrays(NativeRealArray::getNumLiveArrays, NativeRealArray::getLiveBytes);
+	}
 
 	/**
 	 * Creates a new NativeDoubleArray of specified length.
@@ -95,6 +120,14 @@ public class NativeRealArray implements AutoCloseable {
 		GeneralUtils.requirePositive(length, ()->"Provided length is not positive");
 		this.pointer = new DoublePointer(length);
 		this.length = length;
+		if(ACCESS != null){
+			this.memory = ACCESS.memory(pointer.address(), length);
+		}
+		long bytes = length*Double.BYTES;
+		numAllocated.incrementAndGet();
+		bytesAllocated.addAndGet(bytes);
+		numLive.incrementAndGet();
+		bytesLive.addAndGet(bytes);
 	}
 
 	/**
@@ -112,7 +145,11 @@ public class NativeRealArray implements AutoCloseable {
 			throw new ArrayIndexOutOfBoundsException(
 				String.format("Cannot set value at %d, array is of length %d", i, this.length));
 		}
-		pointer.position(0).put(i, v);
+		if(ACCESS != null){
+			memory.set(i, v);
+		} else {
+			pointer.position(0).put(i, v);
+		}
 		return this;
 	}
 
@@ -180,7 +217,11 @@ public class NativeRealArray implements AutoCloseable {
 				String.format("Number of values to be set (%d) to insert at index %d exceed length of this array (%d)", 
 						length, i, this.length));
 		}
-		pointer.position(i).put(values, offset, length);
+		if(ACCESS != null){
+			memory.set(i, values, offset, length);
+		} else {
+			pointer.position(i).put(values, offset, length);
+		}
 		return this;
 	}
 
@@ -210,6 +251,9 @@ public class NativeRealArray implements AutoCloseable {
 			throw new ArrayIndexOutOfBoundsException(
 				String.format("Cannot get value at %d, array is of length %d", i, this.length));
 		}
+		if(ACCESS != null){
+			return memory.get(i);
+		}
 		return pointer.position(0).get(i);
 	}
 
@@ -287,12 +331,17 @@ public class NativeRealArray implements AutoCloseable {
 				String.format("Number of values to be copied (%d) starting at index %d exceed length of this array (%d)", 
 						length, i, this.length));
 		}
-		pointer.position(i).get(destination,offset,length);
+		if(ACCESS != null){
+			memory.get(i, destination, offset, length);
+		} else {
+			pointer.position(i).get(destination,offset,length);
+		}
 		return destination;
 	}
 
 	/**
 	 * Returns the native DoublePointer of this array, pointing to the position 0.
+	 * The position of the returned pointer must not be changed, use {@link #pointerAt(long)} instead.
 	 * @return pointer to this array.
 	 */
 	/*package visible*/
@@ -301,15 +350,142 @@ public class NativeRealArray implements AutoCloseable {
 		return pointer.position(0);
 	}
 
+	/**
+	 * Returns a new DoublePointer to the element at the specified index, so that its position
+	 * can be used for bulk transfers without modifying the state of this array's own pointer.
+	 * In contrast to the public accessors (which position the wrapped pointer and are therefore
+	 * not safe for concurrent use), separate pointers can be used by different threads
+	 * to transfer disjoint ranges of the same array concurrently.
+	 * @param i index of the element
+	 * @return pointer to the i-th element of this array
+	 * @throws NullPointerException when this array has already been closed
+	 * (a copy of the null pointer would point to address 0)
+	 */
+	/*package visible*/
+	@DoublePrecisionVersion
+	DoublePointer pointerAt(long i) {
+		DoublePointer p = this.pointer;
+		if(p == null){
+			throw new NullPointerException("NativeRealArray has already been closed.");
+		}
+		return new DoublePointer(p).position(i);
+	}
+
+	/**
+	 * Returns whether this array has already been closed.
+	 * @return true when closed
+	 */
+	/*package visible*/
+	@DoublePrecisionVersion
+	boolean isClosed() {
+		return pointer == null;
+	}
+
 	@Override
 	public void close() {
 		DoublePointer p = this.pointer;
 		this.pointer = null;
+		this.memory = null;
 		if(p != null){
 			p.close();
+			numLive.decrementAndGet();
+			bytesLive.addAndGet(-length*Double.BYTES);
 		}
 	}
 
+	/**
+	 * Returns the number of NativeRealArrays (of this precision) that have been allocated
+	 * and not yet closed.
+	 * @return number of live arrays
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static long getNumLiveArrays() {
+		return numLive.get();
+	}
+
+	/**
+	 * Returns the number of bytes of native memory held by NativeRealArrays (of this precision)
+	 * that have not yet been closed.
+	 * <p>
+	 * Unlike {@link org.bytedeco.javacpp.Pointer#totalBytes()} this count is decreased immediately
+	 * when an array is closed, not only after the garbage collector processed the closed pointer.
+	 * @return number of bytes held by live arrays
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static long getLiveBytes() {
+		return bytesLive.get();
+	}
+
+	/**
+	 * Returns the number of NativeRealArrays (of this precision) that have been allocated so far.
+	 * @return cumulative number of allocated arrays
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static long getNumAllocatedArrays() {
+		return numAllocated.get();
+	}
+
+	/**
+	 * Returns the number of bytes of native memory that have been allocated by NativeRealArrays
+	 * (of this precision) so far.
+	 * @return cumulative number of allocated bytes
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static long getAllocatedBytes() {
+		return bytesAllocated.get();
+	}
+
+	/**
+	 * Returns whether native arrays (of this precision) are accessed through <tt>java.lang.foreign</tt>
+	 * memory segments and plans are executed through a downcall handle instead of JavaCPP.
+	 * This has to be enabled by setting the system property {@value #FOREIGN_ACCESS_PROPERTY} to <tt>true</tt>
+	 * and requires a build and runtime of JDK 22 or newer with native access enabled for this library
+	 * (e.g. <tt>--enable-native-access=ALL-UNNAMED</tt>), otherwise JavaCPP is used.
+	 * @return true when foreign access is used, false when JavaCPP is used
+	 * @since 0.1.3
+	 */
+	public static boolean isForeignAccess() {
+		return ACCESS != null;
+	}
+
+	private static NativeAccess loadAccess() {
+		if(!Boolean.getBoolean(FOREIGN_ACCESS_PROPERTY)){
+			return null;
+		}
+		try {
+			return (NativeAccess) Class.forName("hageldave.ezfftw.dp.ForeignNativeAccess").getDeclaredConstructor().newInstance();
+		} catch (LinkageError | ReflectiveOperationException | SecurityException e) {
+			/* not compiled (JDK < 22), unsupported class version, native access not enabled or fftw symbols not found */
+			return null;
+		}
+	}
+
+	/**
+	 * Access to the native memory of the arrays and execution of plans.
+	 * Implemented by <tt>ForeignNativeAccess</tt> (src/main/java22), which is only compiled on JDK 22+.
+	 */
+	interface NativeAccess {
+		/* memory of length elements starting at address */
+		NativeMemory memory(long address, long length);
+		/* fftw_execute of the plan at address */
+		void execute(long plan);
+	}
+
+	/**
+	 * Element access and bulk transfers of the memory of a single array,
+	 * implemented on a <tt>java.lang.foreign.MemorySegment</tt> so that this class does not depend on it.
+	 */
+	interface NativeMemory {
+		void set(long i, double v);
+		double get(long i);
+		void set(long i, double[] values, int offset, int length);
+		void get(long i, double[] destination, int offset, int length);
+	}
+
 	/**
 	 * Closes this NativeDoubleArray on finalization.
 	 */
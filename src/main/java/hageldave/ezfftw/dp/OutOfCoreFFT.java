@@ -0,0 +1,382 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.StridedView;
+
+/**
+ * The OutOfCoreFFT computes multi-dimensional transforms of {@link FileRealArray}s that are
+ * too large to be held in memory, using a bounded amount of native memory.
+ * <p>
+ * The data (in row major order) is processed in two passes over the files:
+ * <ol>
+ * <li>The file is cut into slabs of consecutive planes along the slowest (last) axis.
+ * Each slab is read into memory and all other axes are transformed with a single batched
+ * plan, before the slab is written back.</li>
+ * <li>The planes are cut into blocks of consecutive columns, and each block is read for all
+ * planes, so that the slowest axis can be transformed with a batched strided plan.
+ * Since every block consists of one contiguous run per plane, no transpose on disk is required.</li>
+ * </ol>
+ * Data that fits into a single slab is transformed in a single pass.
+ * Two sets of slab buffers are used so that the next slab is read and the previous slab is
+ * written by a background thread while the current slab is transformed.
+ * <p>
+ * At most 4*{@link #slabSize} values are held in native memory, which has to be large enough
+ * for a single plane (the product of all but the last dimension) as well as for a single column
+ * along the slowest axis (the last dimension).
+ * The second pass reads runs of <tt>slabSize/lastDimension</tt> values, so the slab size
+ * should be much larger than the last dimension for efficient I/O.
+ * <p>
+ * The output files may be the same as the input files for an in-place transform.
+ * Transforms are unnormalized just like the ones of {@link FFT}, and complex
+ * outputs are full-sized.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * // transform a 2048^3 volume using 4*2^26 values (2GB) of memory
+ * long[] dims = {2048,2048,2048};
+ * try(FileRealArray volume = FileRealArray.open(Paths.get("volume.raw"));
+ *     FileRealArray real = FileRealArray.create(Paths.get("real.raw"), volume.length);
+ *     FileRealArray imag = FileRealArray.create(Paths.get("imag.raw"), volume.length))
+ * {
+ *     new OutOfCoreFFT(1<<26).fft(volume, real, imag, dims);
+ * }
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class OutOfCoreFFT {
+
+	/** default number of values per slab buffer (2^22) */
+	public static final long DEFAULT_SLAB_SIZE = 1<<22;
+
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+	/** number of values per slab buffer */
+	public final long slabSize;
+
+	/**
+	 * Creates a new OutOfCoreFFT with slabs of {@link #DEFAULT_SLAB_SIZE}.
+	 */
+	@DoublePrecisionVersion
+	public OutOfCoreFFT() {
+		this(DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * Creates a new OutOfCoreFFT with slabs of the specified number of values.
+	 * @param slabSize number of values per slab buffer
+	 * @throws IllegalArgumentException when slab size is not positive
+	 */
+	@DoublePrecisionVersion
+	public OutOfCoreFFT(long slabSize) {
+		GeneralUtils.requirePositive(slabSize, ()->"Slab size needs to be positive but is " + slabSize + ".");
+		this.slabSize = slabSize;
+	}
+
+	/**
+	 * Executes a real to complex DFT of the specified dimensions.
+	 * @param realIn real valued input file
+	 * @param realOut real part of complex valued output file
+	 * @param imagOut imaginary part of complex valued output file
+	 * @param dimensions of the data in row major order
+	 * @throws NullPointerException when one of the files is null
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions are specified or one is not positive <br>
+	 * when a file's length does not match the number of elements determined from the dimensions <br>
+	 * when a plane or a column along the last axis does not fit into a slab
+	 * @throws UncheckedIOException when reading or writing fails
+	 */
+	@DoublePrecisionVersion
+	public void fft(FileRealArray realIn, FileRealArray realOut, FileRealArray imagOut, long... dimensions) {
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		transform(realIn, null, realOut, imagOut, dimensions);
+	}
+
+	/**
+	 * Executes a complex to complex DFT of the specified dimensions.
+	 * @param realIn real part of complex valued input file
+	 * @param imagIn imaginary part of complex valued input file
+	 * @param realOut real part of complex valued output file
+	 * @param imagOut imaginary part of complex valued output file
+	 * @param dimensions of the data in row major order
+	 * @throws NullPointerException when one of the files is null
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions are specified or one is not positive <br>
+	 * when a file's length does not match the number of elements determined from the dimensions <br>
+	 * when a plane or a column along the last axis does not fit into a slab
+	 * @throws UncheckedIOException when reading or writing fails
+	 */
+	@DoublePrecisionVersion
+	public void fft(FileRealArray realIn, FileRealArray imagIn, FileRealArray realOut, FileRealArray imagOut, long... dimensions) {
+		Objects.requireNonNull(realIn, ()->"Cannot use null as realIn parameter.");
+		Objects.requireNonNull(imagIn, ()->"Cannot use null as imagIn parameter.");
+		transform(realIn, imagIn, realOut, imagOut, dimensions);
+	}
+
+	/**
+	 * Executes a complex to complex inverse DFT of the specified dimensions.
+	 * @param realIn real part of complex valued input file
+	 * @param imagIn imaginary part of complex valued input file
+	 * @param realOut real part of complex valued output file
+	 * @param imagOut imaginary part of complex valued output file
+	 * @param dimensions of the data in row major order
+	 * @throws NullPointerException when one of the files is null
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions are specified or one is not positive <br>
+	 * when a file's length does not match the number of elements determined from the dimensions <br>
+	 * when a plane or a column along the last axis does not fit into a slab
+	 * @throws UncheckedIOException when reading or writing fails
+	 */
+	@DoublePrecisionVersion
+	public void ifft(FileRealArray realIn, FileRealArray imagIn, FileRealArray realOut, FileRealArray imagOut, long... dimensions) {
+		/* inverse is forward transform with swapped real and imaginary parts */
+		fft(imagIn, realIn, imagOut, realOut, dimensions);
+	}
+
+	private void transform(FileRealArray realIn, FileRealArray imagIn, FileRealArray realOut, FileRealArray imagOut, long[] dimensions) {
+		/* sanity checks */
+		Objects.requireNonNull(realOut, ()->"Cannot use null as realOut parameter.");
+		Objects.requireNonNull(imagOut, ()->"Cannot use null as imagOut parameter.");
+		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		requireLength(realIn, numElements, "real input");
+		if(imagIn != null)
+			requireLength(imagIn, numElements, "imaginary input");
+		requireLength(realOut, numElements, "real output");
+		requireLength(imagOut, numElements, "imaginary output");
+
+		/* data that fits into a slab is done in a single pass over all axes */
+		boolean singlePass = numElements <= slabSize;
+		int numPlaneAxes = singlePass || dimensions.length < 2 ? dimensions.length : dimensions.length-1;
+		long[] planeDims = Arrays.copyOf(dimensions, numPlaneAxes);
+		long planeSize = GeneralUtils.numElementsFromDimensions(planeDims);
+		long depth = numElements/planeSize;
+		if(!singlePass && (planeSize > slabSize || depth > slabSize)){
+			throw new IllegalArgumentException(String.format(
+					"Cannot transform data of dimensions %s with slabs of %d values, "
+					+ "a slab needs to hold at least a plane of %d values and a column of %d values.",
+					Arrays.toString(dimensions), slabSize, planeSize, depth));
+		}
+		int[] planeAxes = new int[numPlaneAxes];
+		Arrays.setAll(planeAxes, i->i);
+
+		Buffers[] buffers = new Buffers[singlePass ? 1 : 2];
+		try {
+			for(int i = 0; i < buffers.length; i++){
+				buffers[i] = new Buffers(Math.min(slabSize, numElements));
+			}
+			/* first pass: slabs of planes, transform plane axes */
+			long planesPerSlab = Math.min(depth, slabSize/planeSize);
+			long numSlabs = (depth+planesPerSlab-1)/planesPerSlab;
+			LongFunction<long[]> slabRange = slab -> new long[]{
+					slab*planesPerSlab*planeSize,
+					Math.min(planesPerSlab, depth-slab*planesPerSlab)*planeSize};
+			pipeline(numSlabs, buffers,
+				(slab, buf) -> {
+					long[] range = slabRange.apply(slab);
+					realIn.read(range[0], buf.real, 0, range[1]);
+					if(imagIn != null)
+						imagIn.read(range[0], buf.imag, 0, range[1]);
+				},
+				(slab, buf) -> buf.plan(slabRange.apply(slab)[1]/planeSize, numPlanes -> {
+					long[] slabDims = Arrays.copyOf(planeDims, numPlaneAxes+1);
+					slabDims[numPlaneAxes] = numPlanes;
+					StridedView view = StridedView.of(slabDims);
+					return imagIn == null ?
+							FFTW_Plan.plan_split_r2c_axes(view, buf.real, view, buf.real, buf.imag, planeAxes):
+							FFTW_Plan.plan_split_c2c_axes(view, buf.real, buf.imag, view, buf.real, buf.imag, planeAxes);
+				}).execute(),
+				(slab, buf) -> {
+					long[] range = slabRange.apply(slab);
+					realOut.write(range[0], buf.real, 0, range[1]);
+					imagOut.write(range[0], buf.imag, 0, range[1]);
+				});
+			if(singlePass)
+				return;
+
+			/* second pass: blocks of columns, transform last axis */
+			for(Buffers buf: buffers)
+				buf.closePlans();
+			long columnsPerBlock = Math.min(planeSize, slabSize/depth);
+			long numBlocks = (planeSize+columnsPerBlock-1)/columnsPerBlock;
+			pipeline(numBlocks, buffers,
+				(block, buf) -> {
+					long first = block*columnsPerBlock;
+					long numColumns = Math.min(columnsPerBlock, planeSize-first);
+					for(long z = 0; z < depth; z++){
+						realOut.read(z*planeSize+first, buf.real, z*numColumns, numColumns);
+						imagOut.read(z*planeSize+first, buf.imag, z*numColumns, numColumns);
+					}
+				},
+				(block, buf) -> buf.plan(Math.min(columnsPerBlock, planeSize-block*columnsPerBlock), numColumns -> {
+					StridedView view = StridedView.of(numColumns, depth);
+					return FFTW_Plan.plan_split_c2c_axes(view, buf.real, buf.imag, view, buf.real, buf.imag, 1);
+				}).execute(),
+				(block, buf) -> {
+					long first = block*columnsPerBlock;
+					long numColumns = Math.min(columnsPerBlock, planeSize-first);
+					for(long z = 0; z < depth; z++){
+						realOut.write(z*planeSize+first, buf.real, z*numColumns, numColumns);
+						imagOut.write(z*planeSize+first, buf.imag, z*numColumns, numColumns);
+					}
+				});
+		} finally {
+			/* close resources in reverse allocation order */
+			for(int i = buffers.length-1; i >= 0; i--){
+				if(buffers[i] != null)
+					buffers[i].close();
+			}
+		}
+	}
+
+	/**
+	 * Processes the specified number of slabs alternating between the buffers.
+	 * Reads and writes are done by a background thread in submission order, so that the
+	 * read of the next slab is queued behind the write of the previous slab using the same buffers.
+	 */
+	private static void pipeline(long numSlabs, Buffers[] buffers, SlabOperation read, SlabOperation compute, SlabOperation write) {
+		ExecutorService io = Executors.newSingleThreadExecutor(IO_THREAD_FACTORY);
+		try {
+			Future<?> pendingRead = io.submit(()->read.apply(0, buffers[0]));
+			Future<?> previousWrite = null;
+			Future<?> lastWrite = null;
+			for(long slab = 0; slab < numSlabs; slab++){
+				Buffers current = buffers[(int)(slab % buffers.length)];
+				await(pendingRead);
+				if(previousWrite != null)
+					await(previousWrite); // already done, was queued before pending read
+				if(slab+1 < numSlabs){
+					long next = slab+1;
+					Buffers nextBuffers = buffers[(int)(next % buffers.length)];
+					pendingRead = io.submit(()->read.apply(next, nextBuffers));
+				}
+				compute.apply(slab, current);
+				long done = slab;
+				previousWrite = lastWrite;
+				lastWrite = io.submit(()->write.apply(done, current));
+			}
+			if(previousWrite != null)
+				await(previousWrite);
+			await(lastWrite);
+		} finally {
+			/* let queued I/O finish before buffers are released,
+			 * interrupting the thread would close the file channels */
+			io.shutdown();
+			boolean interrupted = false;
+			while(!io.isTerminated()){
+				try {
+					io.awaitTermination(1, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if(interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(Future<?> future) {
+		try {
+			future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			if(cause instanceof Error)
+				throw (Error)cause;
+			throw new IllegalStateException(cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for slab I/O."));
+		}
+	}
+
+	private static void requireLength(FileRealArray file, long numElements, String fileIdentifier) {
+		Objects.requireNonNull(file, ()->"Cannot use null as " + fileIdentifier + " file.");
+		GeneralUtils.requireEqual(file.length, numElements,
+				()->"Length of " + fileIdentifier + " file does not match number of elements determined from dimensions. "
+						+ "File length:" + file.length + " Num elements:" + numElements);
+	}
+
+	private static final ThreadFactory IO_THREAD_FACTORY = r -> {
+		Thread t = new Thread(r, "ezfftw-out-of-core-io-" + THREAD_COUNTER.getAndIncrement());
+		t.setDaemon(true);
+		return t;
+	};
+
+	private static interface SlabOperation {
+		void apply(long slab, Buffers buffers);
+	}
+
+	/** pair of slab buffers and the plans operating on them (by batch count) */
+	private static class Buffers implements AutoCloseable {
+		final NativeRealArray real;
+		final NativeRealArray imag;
+		final Map<Long, FFTW_Plan> plans = new HashMap<>();
+
+		Buffers(long length) {
+			this.real = new NativeRealArray(length);
+			try {
+				this.imag = new NativeRealArray(length);
+			} catch (RuntimeException e) {
+				real.close();
+				throw e;
+			}
+		}
+
+		FFTW_Plan plan(long count, LongFunction<FFTW_Plan> planner) {
+			return plans.computeIfAbsent(count, planner::apply);
+		}
+
+		void closePlans() {
+			plans.values().forEach(FFTW_Plan::close);
+			plans.clear();
+		}
+
+		@Override
+		public void close() {
+			closePlans();
+			imag.close();
+			real.close();
+		}
+	}
+
+}
@@ -0,0 +1,641 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package hageldave.ezfftw.dp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.bytedeco.javacpp.Pointer;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.StridedView;
+
+/**
+ * The ParallelFFT computes multi-dimensional transforms on a {@link ForkJoinPool}
+ * by decomposing them into independent batched transforms, as an alternative to
+ * threading inside of FFTW. This allows to share a single application wide pool
+ * and to control the number of cores used for transforms precisely.
+ * The parallel mode of {@link FFT} (e.g. {@link FFT#fftParallel(double[], double[], double[], long...)})
+ * uses a shared ParallelFFT on the common pool.
+ * <p>
+ * A transform of data in row major order is done in two stages:
+ * <ol>
+ * <li>The planes along the last (slowest) axis are split into one slab per worker,
+ * and each worker transforms all other axes of its slab with a single batched plan.</li>
+ * <li>The columns along the last axis are split into one block per worker,
+ * and each worker transforms the last axis of its block with a single batched strided plan.</li>
+ * </ol>
+ * Since FFTW supports strided transforms, no transpose between the stages is required.
+ * One dimensional data and data with less than {@link #MIN_PARALLEL_ELEMENTS} elements
+ * are transformed by the calling thread with a single plan.
+ * <p>
+ * The per worker plans are bound to native arrays owned by this ParallelFFT, which are cached
+ * together with the plans per transform kind and shape, so that repeated transforms do not have
+ * to plan again (planning is serialized by the planner lock). Data is copied to and from these
+ * arrays, the input arrays are never modified. At most {@link #MAX_CACHED_WORKSPACES} unused
+ * sets of plans and arrays are kept, the least recently used are closed first. Concurrent
+ * transforms of the same kind and shape use separate sets.
+ * <p>
+ * The results are the same as the ones of the corresponding {@link FFTW_Guru} and {@link FFT}
+ * methods, i.e. unnormalized and with full-sized complex outputs.
+ * <p>
+ * This class implements the {@link AutoCloseable} interface to release the cached native resources,
+ * a closed ParallelFFT can still be used but does not cache anymore.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * try(ParallelFFT parallel = new ParallelFFT(applicationPool)){
+ *     parallel.fft(volume, real, imag, width, height, depth);
+ * }
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class ParallelFFT implements AutoCloseable {
+
+	/** number of elements from which on transforms are decomposed */
+	public static final long MIN_PARALLEL_ELEMENTS = 1<<15;
+	/** maximum number of unused sets of plans and native arrays that are cached */
+	public static final int MAX_CACHED_WORKSPACES = 4;
+
+	private final ForkJoinPool pool;
+	/* unused workspaces in access order (least recently used first), guarded by cacheLock */
+	private final ReentrantLock cacheLock = new ReentrantLock();
+	private final LinkedHashMap<WorkspaceKey, ArrayDeque<Workspace>> cache = new LinkedHashMap<>(16, 0.75f, true);
+	private int numCachedWorkspaces = 0;
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new ParallelFFT using the common ForkJoinPool.
+	 */
+	@DoublePrecisionVersion
+	public ParallelFFT() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a new ParallelFFT using the specified pool.
+	 * Transforms are decomposed into as many parts as the parallelism of the pool.
+	 * @param pool to execute transforms on
+	 * @throws NullPointerException when pool is null
+	 */
+	@DoublePrecisionVersion
+	public ParallelFFT(ForkJoinPool pool) {
+		this.pool = Objects.requireNonNull(pool, ()->"Cannot use null as pool.");
+	}
+
+	/**
+	 * Returns the ParallelFFT on the common pool used by the parallel mode of {@link FFT}.
+	 * @return shared ParallelFFT
+	 */
+	/*package visible*/
+	static ParallelFFT common() {
+		return CommonHolder.COMMON;
+	}
+
+	/**
+	 * Parallel version of {@link FFTW_Guru#execute_split_r2c(NativeRealArray, NativeRealArray, NativeRealArray, long...)}.
+	 * @param realIn real valued input array
+	 * @param realOut real part of complex valued output array
+	 * @param imagOut imaginary part of complex valued output array
+	 * @param dimensions of the input in row major order
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 */
+	@DoublePrecisionVersion
+	public void execute_split_r2c(NativeRealArray realIn, NativeRealArray realOut, NativeRealArray imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		if(!isDecomposed(numElements, dimensions)){
+			FFTW_Guru.execute_split_r2c(realIn, realOut, imagOut, dimensions);
+			return;
+		}
+		execute(FFTW_Plan.KIND_R2C, numElements, dimensions, realIn, realOut, imagOut);
+	}
+
+	/**
+	 * Parallel version of {@link FFTW_Guru#execute_split_c2c(NativeRealArray, NativeRealArray, NativeRealArray, NativeRealArray, long...)}.
+	 * For the inverse transform real and imaginary parts have to be swapped in both, input and output.
+	 * @param realIn real valued input array (or imaginary for inverse)
+	 * @param imagIn imaginary valued input array (or real for inverse)
+	 * @param realOut real part of complex valued output array (or imaginary for inverse)
+	 * @param imagOut imaginary part of complex valued output array (or real for inverse)
+	 * @param dimensions of the input in row major order
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 */
+	@DoublePrecisionVersion
+	public void execute_split_c2c(NativeRealArray realIn, NativeRealArray imagIn, NativeRealArray realOut, NativeRealArray imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		if(!isDecomposed(numElements, dimensions)){
+			FFTW_Guru.execute_split_c2c(realIn, imagIn, realOut, imagOut, dimensions);
+			return;
+		}
+		execute(FFTW_Plan.KIND_C2C, numElements, dimensions, realIn, imagIn, realOut, imagOut);
+	}
+
+	/**
+	 * Parallel version of {@link FFTW_Guru#execute_split_c2r(NativeRealArray, NativeRealArray, NativeRealArray, long...)}.
+	 * The decomposition transforms the last axis in place on cached copies of the input arrays,
+	 * the specified input arrays are not modified by it.
+	 * @param realIn real part of complex valued input array
+	 * @param imagIn imaginary part of complex valued input array
+	 * @param realOut real valued output array
+	 * @param dimensions of the input in row major order
+	 * @throws NullPointerException when one of the specified array arguments is null.
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were specified,<br>
+	 * when one of the specified dimensions is not positive,<br>
+	 * when the number of elements determined from the dimensions does not match the lengths of the specified arrays.
+	 */
+	@DoublePrecisionVersion
+	public void execute_split_c2r(NativeRealArray realIn, NativeRealArray imagIn, NativeRealArray realOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		if(!isDecomposed(numElements, dimensions)){
+			FFTW_Guru.execute_split_c2r(realIn, imagIn, realOut, dimensions);
+			return;
+		}
+		execute(FFTW_Plan.KIND_C2R, numElements, dimensions, realIn, imagIn, realOut);
+	}
+
+	/**
+	 * Parallel version of {@link FFT#fft(double[], double[], double[], long...)}.
+	 * @param realIn real valued input in row major order
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 */
+	@DoublePrecisionVersion
+	public void fft(double[] realIn, double[] realOut, double[] imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		if(!isDecomposed(numElements, dimensions)){
+			FFT.fft(realIn, realOut, imagOut, dimensions);
+			return;
+		}
+		Workspace w = acquire(FFTW_Plan.KIND_R2C, dimensions);
+		try {
+			PrecisionDependentUtils.fillNativeArrayFromArray(w.arrays[0], realIn, dimensions);
+			w.execute();
+			PrecisionDependentUtils.readNativeArrayToArray(w.arrays[1], realOut, dimensions);
+			PrecisionDependentUtils.readNativeArrayToArray(w.arrays[2], imagOut, dimensions);
+		} finally {
+			release(w);
+		}
+	}
+
+	/**
+	 * Parallel version of {@link FFT#fft(double[], double[], double[], double[], long...)}.
+	 * @param realIn real valued part of the input in row major order
+	 * @param imagIn imaginary valued part of the input in row major order
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 */
+	@DoublePrecisionVersion
+	public void fft(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		PrecisionDependentUtils.sanityCheckArray(imagOut, numElements, "imaginary output");
+		if(!isDecomposed(numElements, dimensions)){
+			FFT.fft(realIn, imagIn, realOut, imagOut, dimensions);
+			return;
+		}
+		Workspace w = acquire(FFTW_Plan.KIND_C2C, dimensions);
+		try {
+			PrecisionDependentUtils.fillNativeArrayFromArray(w.arrays[0], realIn, dimensions);
+			PrecisionDependentUtils.fillNativeArrayFromArray(w.arrays[1], imagIn, dimensions);
+			w.execute();
+			PrecisionDependentUtils.readNativeArrayToArray(w.arrays[2], realOut, dimensions);
+			PrecisionDependentUtils.readNativeArrayToArray(w.arrays[3], imagOut, dimensions);
+		} finally {
+			release(w);
+		}
+	}
+
+	/**
+	 * Parallel version of {@link FFT#ifft(double[], double[], double[], double[], long...)}.
+	 * @param realIn real valued part of the input in row major order
+	 * @param imagIn imaginary valued part of the input in row major order
+	 * @param realOut real valued part of the resulting transform in row major order
+	 * @param imagOut imaginary valued part of the resulting transform in row major order
+	 * @param dimensions of the input
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 */
+	@DoublePrecisionVersion
+	public void ifft(double[] realIn, double[] imagIn, double[] realOut, double[] imagOut, long... dimensions) {
+		/* inverse is forward transform with swapped real and imaginary parts */
+		fft(imagIn, realIn, imagOut, realOut, dimensions);
+	}
+
+	/**
+	 * Parallel version of {@link FFT#ifft(double[], double[], double[], long...)}.
+	 * @param realIn real valued part of the input in row major order
+	 * @param imagIn imaginary valued part of the input in row major order
+	 * @param realOut real valued transform result in row major order
+	 * @param dimensions of the input
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions were provided <br>
+	 * when one of the dimensions is not positive <br>
+	 * when the length of the supplied arrays do not match the number of elements resulting from specified dimensions
+	 * @throws NullPointerException if any of the specified arrays is null.
+	 */
+	@DoublePrecisionVersion
+	public void ifft(double[] realIn, double[] imagIn, double[] realOut, long... dimensions) {
+		long numElements = sanityCheckDimensions(dimensions);
+		PrecisionDependentUtils.sanityCheckArray(realIn,  numElements, "real input");
+		PrecisionDependentUtils.sanityCheckArray(imagIn,  numElements, "imaginary input");
+		PrecisionDependentUtils.sanityCheckArray(realOut, numElements, "real output");
+		if(!isDecomposed(numElements, dimensions)){
+			FFT.ifft(realIn, imagIn, realOut, dimensions);
+			return;
+		}
+		Workspace w = acquire(FFTW_Plan.KIND_C2R, dimensions);
+		try {
+			PrecisionDependentUtils.fillNativeArrayFromArray(w.arrays[0], realIn, dimensions);
+			PrecisionDependentUtils.fillNativeArrayFromArray(w.arrays[1], imagIn, dimensions);
+			w.execute();
+			PrecisionDependentUtils.readNativeArrayToArray(w.arrays[2], realOut, dimensions);
+		} finally {
+			release(w);
+		}
+	}
+
+	/**
+	 * Returns the pool transforms are executed on.
+	 * @return the pool
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Returns the number of cached sets of plans and native arrays that are currently not in use.
+	 * @return number of cached sets, at most {@link #MAX_CACHED_WORKSPACES}
+	 */
+	public int getNumCachedWorkspaces() {
+		cacheLock.lock();
+		try {
+			return numCachedWorkspaces;
+		} finally {
+			cacheLock.unlock();
+		}
+	}
+
+	/**
+	 * Closes all cached plans and their native arrays that are currently not in use.
+	 */
+	public void clearCache() {
+		ArrayList<Workspace> evicted = new ArrayList<>();
+		cacheLock.lock();
+		try {
+			for(ArrayDeque<Workspace> workspaces: cache.values()){
+				evicted.addAll(workspaces);
+			}
+			cache.clear();
+			numCachedWorkspaces = 0;
+		} finally {
+			cacheLock.unlock();
+		}
+		/* close outside of lock, destroying plans takes the planner lock */
+		for(Workspace w: evicted){
+			w.close();
+		}
+	}
+
+	/**
+	 * Releases all cached native resources. Transforms that are in progress still complete,
+	 * subsequent transforms create their plans and arrays again and close them afterwards.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		clearCache();
+	}
+
+	/* --- implementation --- */
+
+	private boolean isDecomposed(long numElements, long[] dimensions) {
+		return dimensions.length > 1 && numElements >= MIN_PARALLEL_ELEMENTS && pool.getParallelism() > 1;
+	}
+
+	/* copies the arguments (inputs then outputs in planner order) to and from a workspace */
+	private void execute(int kind, long numElements, long[] dimensions, NativeRealArray... arrays) {
+		sanityCheckArrays(numElements, arrays);
+		Workspace w = acquire(kind, dimensions);
+		try {
+			for(int a = 0; a < w.numInputs; a++){
+				copy(arrays[a], w.arrays[a]);
+			}
+			w.execute();
+			for(int a = w.numInputs; a < arrays.length; a++){
+				copy(w.arrays[a], arrays[a]);
+			}
+		} finally {
+			release(w);
+		}
+	}
+
+	private Workspace acquire(int kind, long[] dimensions) {
+		WorkspaceKey key = new WorkspaceKey(kind, dimensions);
+		cacheLock.lock();
+		try {
+			ArrayDeque<Workspace> workspaces = cache.get(key);
+			if(workspaces != null){
+				Workspace w = workspaces.poll();
+				numCachedWorkspaces--;
+				if(workspaces.isEmpty())
+					cache.remove(key);
+				return w;
+			}
+		} finally {
+			cacheLock.unlock();
+		}
+		return new Workspace(new WorkspaceKey(kind, dimensions.clone()));
+	}
+
+	private void release(Workspace w) {
+		if(closed){
+			w.close();
+			return;
+		}
+		ArrayList<Workspace> evicted = new ArrayList<>();
+		cacheLock.lock();
+		try {
+			cache.computeIfAbsent(w.key, k->new ArrayDeque<>()).add(w);
+			numCachedWorkspaces++;
+			/* evict least recently used workspaces */
+			Iterator<ArrayDeque<Workspace>> lru = cache.values().iterator();
+			while(numCachedWorkspaces > MAX_CACHED_WORKSPACES){
+				ArrayDeque<Workspace> workspaces = lru.next();
+				evicted.add(workspaces.poll());
+				numCachedWorkspaces--;
+				if(workspaces.isEmpty())
+					lru.remove();
+			}
+		} finally {
+			cacheLock.unlock();
+		}
+		for(Workspace e: evicted){
+			e.close();
+		}
+		/* close could have happened in between */
+		if(closed){
+			clearCache();
+		}
+	}
+
+	/**
+	 * Splits [0,count[ into one contiguous range per worker and creates a plan for each range.
+	 */
+	private FFTW_Plan[] planRanges(long count, RangePlanner planner) {
+		int numTasks = (int)Math.min(count, pool.getParallelism());
+		FFTW_Plan[] plans = new FFTW_Plan[numTasks];
+		try {
+			for(int t = 0; t < numTasks; t++){
+				long first = count*t/numTasks;
+				long last = count*(t+1)/numTasks;
+				plans[t] = planner.plan(first, last-first);
+			}
+		} catch (RuntimeException e) {
+			for(int t = numTasks-1; t >= 0; t--){
+				if(plans[t] != null) plans[t].close();
+			}
+			throw e;
+		}
+		return plans;
+	}
+
+	/** executes the plans in parallel on the pool */
+	private void executeAll(FFTW_Plan[] plans) {
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(plans.length);
+		for(FFTW_Plan plan: plans){
+			tasks.add(ForkJoinTask.adapt(plan::execute));
+		}
+		pool.invoke(ForkJoinTask.adapt(()->ForkJoinTask.invokeAll(tasks)));
+	}
+
+	@DoublePrecisionVersion
+	private static void copy(NativeRealArray src, NativeRealArray dst) {
+		/* untyped pointers, length is in bytes */
+		Pointer.memcpy(new Pointer(dst.pointerAt(0)), new Pointer(src.pointerAt(0)), src.length*Double.BYTES);
+	}
+
+	private static long sanityCheckDimensions(long[] dimensions) {
+		Objects.requireNonNull(dimensions, ()->"Cannot use null as dimensions.");
+		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		return GeneralUtils.numElementsFromDimensions(dimensions);
+	}
+
+	private static void sanityCheckArrays(long numElements, NativeRealArray... arrays) {
+		for(NativeRealArray array: arrays){
+			Objects.requireNonNull(array, ()->"Cannot use null as array parameter.");
+			GeneralUtils.requireEqual(numElements, array.length,
+					()->"provided array does not have the same number of elements as determined from dimensions. "
+							+ "Should be " + numElements + " but has " + array.length);
+		}
+	}
+
+	private static interface RangePlanner {
+		FFTW_Plan plan(long first, long count);
+	}
+
+	/** split of the data into planes (all but last axis) and columns (along last axis) */
+	private static class Decomposition {
+		final long[] dimensions;
+		final int[] planeAxes;
+		final long planeSize;
+		final long depth;
+		final StridedView volume;
+		final StridedView columns;
+
+		Decomposition(long[] dimensions) {
+			int last = dimensions.length-1;
+			this.dimensions = dimensions;
+			this.planeAxes = new int[last];
+			Arrays.setAll(planeAxes, i->i);
+			this.depth = dimensions[last];
+			this.planeSize = GeneralUtils.numElementsFromDimensions(dimensions)/depth;
+			this.volume = StridedView.of(dimensions);
+			this.columns = StridedView.of(planeSize, depth);
+		}
+
+		/** planes [first, first+count[ */
+		StridedView slab(long first, long count) {
+			long[] origin = new long[dimensions.length];
+			long[] sizes = dimensions.clone();
+			origin[dimensions.length-1] = first;
+			sizes[dimensions.length-1] = count;
+			return volume.region(origin, sizes);
+		}
+
+		/** columns [first, first+count[ along the last axis */
+		StridedView block(long first, long count) {
+			return columns.region(new long[]{first,0}, new long[]{count,depth});
+		}
+	}
+
+	/** lazily created ParallelFFT on the common pool */
+	private static final class CommonHolder {
+		static final ParallelFFT COMMON = new ParallelFFT();
+	}
+
+	/** transform kind and shape */
+	private static final class WorkspaceKey {
+		final int kind;
+		final long[] dimensions;
+
+		WorkspaceKey(int kind, long[] dimensions) {
+			this.kind = kind;
+			this.dimensions = dimensions;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(dimensions)*31 + kind;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof WorkspaceKey))
+				return false;
+			WorkspaceKey other = (WorkspaceKey)obj;
+			return kind == other.kind && Arrays.equals(dimensions, other.dimensions);
+		}
+	}
+
+	/**
+	 * Native arrays of a transform (inputs then outputs in planner order) and the per worker
+	 * plans of both stages bound to them.
+	 */
+	private final class Workspace implements AutoCloseable {
+		final WorkspaceKey key;
+		final NativeRealArray[] arrays;
+		final int numInputs;
+		final FFTW_Plan[][] stages = new FFTW_Plan[2][];
+
+		Workspace(WorkspaceKey key) {
+			this.key = key;
+			int kind = key.kind;
+			int numArrays = kind == FFTW_Plan.KIND_C2C ? 4:3;
+			this.numInputs = kind == FFTW_Plan.KIND_R2C ? 1:2;
+			this.arrays = new NativeRealArray[numArrays];
+			Decomposition d = new Decomposition(key.dimensions);
+			try {
+				for(int i = 0; i < numArrays; i++){
+					arrays[i] = new NativeRealArray(d.planeSize*d.depth);
+				}
+				NativeRealArray[] a = arrays;
+				switch (kind) {
+				case FFTW_Plan.KIND_R2C:
+					stages[0] = planRanges(d.depth, (first, count) -> {
+						StridedView slab = d.slab(first, count);
+						return FFTW_Plan.plan_split_r2c_axes(slab, a[0], slab, a[1], a[2], d.planeAxes);
+					});
+					stages[1] = planRanges(d.planeSize, (first, count) -> {
+						StridedView block = d.block(first, count);
+						return FFTW_Plan.plan_split_c2c_axes(block, a[1], a[2], block, a[1], a[2], 1);
+					});
+					break;
+				case FFTW_Plan.KIND_C2C:
+					stages[0] = planRanges(d.depth, (first, count) -> {
+						StridedView slab = d.slab(first, count);
+						return FFTW_Plan.plan_split_c2c_axes(slab, a[0], a[1], slab, a[2], a[3], d.planeAxes);
+					});
+					stages[1] = planRanges(d.planeSize, (first, count) -> {
+						StridedView block = d.block(first, count);
+						return FFTW_Plan.plan_split_c2c_axes(block, a[2], a[3], block, a[2], a[3], 1);
+					});
+					break;
+				default:
+					/* inverse of the last axis in place on the inputs (swapped real and imaginary),
+					 * then the real valued output from the remaining axes */
+					stages[0] = planRanges(d.planeSize, (first, count) -> {
+						StridedView block = d.block(first, count);
+						return FFTW_Plan.plan_split_c2c_axes(block, a[1], a[0], block, a[1], a[0], 1);
+					});
+					stages[1] = planRanges(d.depth, (first, count) -> {
+						StridedView slab = d.slab(first, count);
+						return FFTW_Plan.plan_split_c2r_axes(slab, a[0], a[1], slab, a[2], d.planeAxes);
+					});
+					break;
+				}
+			} catch (RuntimeException e) {
+				close();
+				throw e;
+			}
+		}
+
+		void execute() {
+			executeAll(stages[0]);
+			executeAll(stages[1]);
+		}
+
+		@Override
+		public void close() {
+			/* close resources in reverse allocation order */
+			for(int s = stages.length-1; s >= 0; s--){
+				if(stages[s] == null)
+					continue;
+				for(int t = stages[s].length-1; t >= 0; t--){
+					if(stages[s][t] != null) stages[s][t].close();
+				}
+			}
+			for(int i = arrays.length-1; i >= 0; i--){
+				if(arrays[i] != null) arrays[i].close();
+			}
+		}
+	}
+
+}
@@ -19,9 +19,13 @@
 package hageldave.ezfftw.dp;
 
 import java.util.Objects;
+import java.util.stream.IntStream;
 
+import hageldave.ezfftw.FFTW_Events;
 import hageldave.ezfftw.GeneralUtils;
 import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.listeners.Listeners;
+import hageldave.ezfftw.listeners.TransformListener.Phase;
 import hageldave.ezfftw.dp.samplers.RealValuedSampler;
 import hageldave.ezfftw.dp.writers.RealValuedWriter;
 
@@ -35,6 +39,12 @@ import hageldave.ezfftw.dp.writers.RealValuedWriter;
 @DoublePrecisionVersion
 public class PrecisionDependentUtils {
 
+	/** number of elements from which on rows are transferred to and from native arrays in parallel */
+	public static final long PARALLEL_TRANSFER_THRESHOLD = 1<<18;
+
+	/* number of elements of the heap chunks used for element wise transfers */
+	private static final int TRANSFER_CHUNK_SIZE = 1<<12;
+
 	/**
 	 * Fills the specified {@link NativeRealArray} in row major order using
 	 * the specified {@link RealValuedSampler} with the specified dimensions.
@@ -54,13 +64,26 @@ public class PrecisionDependentUtils {
 		GeneralUtils.requireEqual(GeneralUtils.numElementsFromDimensions(dimensions), array.length,
 				()->"number of elements determined from dimensions do not match the number of elements in specified NativeDoubleArray. "
 						+ "From dimensions:" + GeneralUtils.numElementsFromDimensions(dimensions) + " array:" + array.length);
-		long index = 0;
+		if(sampler instanceof ChunkedArrayAccessor && ((ChunkedArrayAccessor)sampler).hasDimensions(dimensions)){
+			/* pages are already in row major order of the dimensions, bulk copy */
+			fillNativeArrayFromChunks(array, (ChunkedArrayAccessor)sampler);
+			return;
+		}
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		/* sample into heap chunks and bulk copy, instead of a native call per element */
+		double[] chunk = new double[(int)Math.min(TRANSFER_CHUNK_SIZE, array.length)];
 		long[] coordinates = new long[dimensions.length];
-		while(coordinates[dimensions.length-1] < dimensions[dimensions.length-1]){
-			double val = sampler.getValueAt(coordinates);
-			array.set(index++, val);
-			GeneralUtils.incrementCoords(coordinates, dimensions);
+		for(long start = 0; start < array.length; start += chunk.length){
+			int n = (int)Math.min(chunk.length, array.length-start);
+			for(int i = 0; i < n; i++){
+				chunk[i] = sampler.getValueAt(coordinates);
+				GeneralUtils.incrementCoords(coordinates, dimensions);
+			}
+			array.set(start, n, 0, chunk);
 		}
+		FFTW_Events.commit(event, "sampler", dimensions, 1, 0, FFTW_Plan.NUM_THREADS, array.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "sampler", dimensions, 1, array.length*Double.BYTES);
 	}
 
 	/**
@@ -83,13 +106,341 @@ public class PrecisionDependentUtils {
 		GeneralUtils.requireEqual(GeneralUtils.numElementsFromDimensions(dimensions), array.length,
 				()->"number of elements determined from dimensions do not match the number of elements in specified NativeDoubleArray. "
 						+ "From dimensions:" + GeneralUtils.numElementsFromDimensions(dimensions) + " array:" + array.length);
-		long index = 0;
+		if(writer instanceof ChunkedArrayAccessor && ((ChunkedArrayAccessor)writer).hasDimensions(dimensions)){
+			/* pages are already in row major order of the dimensions, bulk copy */
+			readNativeArrayToChunks(array, (ChunkedArrayAccessor)writer);
+			return;
+		}
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		/* bulk copy heap chunks, instead of a native call per element */
+		double[] chunk = new double[(int)Math.min(TRANSFER_CHUNK_SIZE, array.length)];
 		long[] coordinates = new long[dimensions.length];
-		while(coordinates[dimensions.length-1] < dimensions[dimensions.length-1]){
-			double val = array.get(index++);
-			writer.setValueAt(val, coordinates);
-			GeneralUtils.incrementCoords(coordinates, dimensions);
+		for(long start = 0; start < array.length; start += chunk.length){
+			int n = (int)Math.min(chunk.length, array.length-start);
+			array.get(start, n, 0, chunk);
+			for(int i = 0; i < n; i++){
+				writer.setValueAt(chunk[i], coordinates);
+				GeneralUtils.incrementCoords(coordinates, dimensions);
+			}
+		}
+		FFTW_Events.commit(event, "writer", dimensions, 1, 0, FFTW_Plan.NUM_THREADS, array.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "writer", dimensions, 1, array.length*Double.BYTES);
+	}
+
+	/**
+	 * Copies the values of the specified java array to the specified {@link NativeRealArray}
+	 * which are both in row major order of the specified dimensions.
+	 * @param array to be filled
+	 * @param values to be copied
+	 * @param dimensions of the data (only used for reporting the transfer)
+	 * @throws IllegalArgumentException when the lengths of the arrays differ
+	 * @see #readNativeArrayToArray(NativeRealArray, double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fillNativeArrayFromArray(NativeRealArray array, double[] values, long... dimensions){
+		fillNativeArrayFromBlocks(array, values, 1, dimensions);
+	}
+
+	/**
+	 * Copies the values of the specified java array to the specified {@link NativeRealArray},
+	 * which both contain <tt>howmany</tt> blocks of the specified dimensions one after another.
+	 * @param array to be filled
+	 * @param values to be copied
+	 * @param howmany number of blocks (only used for reporting the transfer)
+	 * @param blockDimensions dimensions of a single block (only used for reporting the transfer)
+	 * @throws IllegalArgumentException when the lengths of the arrays differ
+	 */
+	/*package visible*/
+	@DoublePrecisionVersion
+	static void fillNativeArrayFromBlocks(NativeRealArray array, double[] values, long howmany, long[] blockDimensions){
+		GeneralUtils.requireEqual(array.length, (long)values.length,
+				()->"number of elements of the native array (" + array.length + ") does not match the length of the java array (" + values.length + ").");
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		array.set(values);
+		FFTW_Events.commit(event, "array in", blockDimensions, howmany, 0, FFTW_Plan.NUM_THREADS, array.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "array in", blockDimensions, howmany, array.length*Double.BYTES);
+	}
+
+	/**
+	 * Copies the values of the specified {@link NativeRealArray} to the specified java array
+	 * which are both in row major order of the specified dimensions.
+	 * @param array to read from
+	 * @param destination to be filled
+	 * @param dimensions of the data (only used for reporting the transfer)
+	 * @throws IllegalArgumentException when the lengths of the arrays differ
+	 * @see #fillNativeArrayFromArray(NativeRealArray, double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void readNativeArrayToArray(NativeRealArray array, double[] destination, long... dimensions){
+		readNativeArrayToBlocks(array, destination, 1, dimensions);
+	}
+
+	/**
+	 * Copies the values of the specified {@link NativeRealArray} to the specified java array,
+	 * which both contain <tt>howmany</tt> blocks of the specified dimensions one after another.
+	 * @param array to read from
+	 * @param destination to be filled
+	 * @param howmany number of blocks (only used for reporting the transfer)
+	 * @param blockDimensions dimensions of a single block (only used for reporting the transfer)
+	 * @throws IllegalArgumentException when the lengths of the arrays differ
+	 */
+	/*package visible*/
+	@DoublePrecisionVersion
+	static void readNativeArrayToBlocks(NativeRealArray array, double[] destination, long howmany, long[] blockDimensions){
+		GeneralUtils.requireEqual(array.length, (long)destination.length,
+				()->"number of elements of the native array (" + array.length + ") does not match the length of the java array (" + destination.length + ").");
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		array.get(0, destination);
+		FFTW_Events.commit(event, "array out", blockDimensions, howmany, 0, FFTW_Plan.NUM_THREADS, array.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "array out", blockDimensions, howmany, array.length*Double.BYTES);
+	}
+
+	/**
+	 * Copies the interleaved complex values (real, imaginary, real, ...) of the specified java array to the
+	 * specified {@link NativeRealArray}s of real and imaginary parts, which are in row major order of the
+	 * specified dimensions. Values are split in heap chunks using the {@link ArrayMath} kernels.
+	 * @param real to be filled with the real parts
+	 * @param imag to be filled with the imaginary parts
+	 * @param interleaved values to be copied, twice the length of the native arrays
+	 * @param dimensions of the data (only used for reporting the transfer)
+	 * @throws NullPointerException when interleaved is null
+	 * @throws IllegalArgumentException when the lengths of the arrays do not match
+	 * @see #readNativeArraysToInterleaved(NativeRealArray, NativeRealArray, double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fillNativeArraysFromInterleaved(NativeRealArray real, NativeRealArray imag, double[] interleaved, long... dimensions){
+		sanityCheckInterleaved(real, imag, interleaved);
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		double[] chunkReal = new double[(int)Math.min(TRANSFER_CHUNK_SIZE, real.length)];
+		double[] chunkImag = new double[chunkReal.length];
+		for(long start = 0; start < real.length; start += chunkReal.length){
+			int n = (int)Math.min(chunkReal.length, real.length-start);
+			ArrayMath.KERNELS.deinterleave(interleaved, (int)(2*start), chunkReal, chunkImag, 0, n);
+			real.set(start, n, 0, chunkReal);
+			imag.set(start, n, 0, chunkImag);
+		}
+		FFTW_Events.commit(event, "interleaved in", dimensions, 1, 0, FFTW_Plan.NUM_THREADS, 2*real.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "interleaved in", dimensions, 1, 2*real.length*Double.BYTES);
+	}
+
+	/**
+	 * Copies the values of the specified {@link NativeRealArray}s of real and imaginary parts to the
+	 * specified java array in interleaved format (real, imaginary, real, ...), which are in row major
+	 * order of the specified dimensions. Values are interleaved in heap chunks using the {@link ArrayMath} kernels.
+	 * @param real to read the real parts from
+	 * @param imag to read the imaginary parts from
+	 * @param interleaved to be filled, twice the length of the native arrays
+	 * @param dimensions of the data (only used for reporting the transfer)
+	 * @throws NullPointerException when interleaved is null
+	 * @throws IllegalArgumentException when the lengths of the arrays do not match
+	 * @see #fillNativeArraysFromInterleaved(NativeRealArray, NativeRealArray, double[], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void readNativeArraysToInterleaved(NativeRealArray real, NativeRealArray imag, double[] interleaved, long... dimensions){
+		sanityCheckInterleaved(real, imag, interleaved);
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		double[] chunkReal = new double[(int)Math.min(TRANSFER_CHUNK_SIZE, real.length)];
+		double[] chunkImag = new double[chunkReal.length];
+		for(long start = 0; start < real.length; start += chunkReal.length){
+			int n = (int)Math.min(chunkReal.length, real.length-start);
+			real.get(start, n, 0, chunkReal);
+			imag.get(start, n, 0, chunkImag);
+			ArrayMath.KERNELS.interleave(chunkReal, chunkImag, 0, interleaved, (int)(2*start), n);
+		}
+		FFTW_Events.commit(event, "interleaved out", dimensions, 1, 0, FFTW_Plan.NUM_THREADS, 2*real.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "interleaved out", dimensions, 1, 2*real.length*Double.BYTES);
+	}
+
+	private static void sanityCheckInterleaved(NativeRealArray real, NativeRealArray imag, double[] interleaved) {
+		GeneralUtils.requireEqual(real.length, imag.length,
+				()->"number of elements of the real (" + real.length + ") and imaginary (" + imag.length + ") native arrays differ.");
+		sanityCheckArray(interleaved, 2*real.length, "interleaved");
+	}
+
+	/**
+	 * Copies the values of the specified {@link ChunkedArrayAccessor} to the specified {@link NativeRealArray}
+	 * page by page (see {@link ChunkedArrayAccessor#copyTo(NativeRealArray)}).
+	 * @param array to be filled
+	 * @param chunks to be copied
+	 * @throws IllegalArgumentException when the lengths of the arrays differ
+	 * @see #readNativeArrayToChunks(NativeRealArray, ChunkedArrayAccessor)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fillNativeArrayFromChunks(NativeRealArray array, ChunkedArrayAccessor chunks){
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		chunks.copyTo(array);
+		long[] dimensions = chunks.getDimensions();
+		FFTW_Events.commit(event, "chunks in", dimensions, 1, 0, FFTW_Plan.NUM_THREADS, array.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "chunks in", dimensions, 1, array.length*Double.BYTES);
+	}
+
+	/**
+	 * Copies the values of the specified {@link NativeRealArray} to the specified {@link ChunkedArrayAccessor}
+	 * page by page (see {@link ChunkedArrayAccessor#copyFrom(NativeRealArray)}).
+	 * @param array to read from
+	 * @param chunks to be filled
+	 * @throws IllegalArgumentException when the lengths of the arrays differ
+	 * @see #fillNativeArrayFromChunks(NativeRealArray, ChunkedArrayAccessor)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void readNativeArrayToChunks(NativeRealArray array, ChunkedArrayAccessor chunks){
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		chunks.copyFrom(array);
+		long[] dimensions = chunks.getDimensions();
+		FFTW_Events.commit(event, "chunks out", dimensions, 1, 0, FFTW_Plan.NUM_THREADS, array.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "chunks out", dimensions, 1, array.length*Double.BYTES);
+	}
+
+	/**
+	 * Returns the row major dimensions {width, height} of the specified 2D array,
+	 * where <tt>array[y][x]</tt> is the element at coordinates (x,y).
+	 * @param array 2D array with rows of equal length
+	 * @param arrayIdentifier name of the array argument to provide informal errors.
+	 * @return dimensions
+	 * @throws NullPointerException when array or one of its rows is null
+	 * @throws IllegalArgumentException when the array is empty or rows differ in length
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static long[] dimensionsOf(double[][] array, String arrayIdentifier) {
+		Objects.requireNonNull(array, ()->arrayIdentifier + " array cannot be null");
+		GeneralUtils.requirePositive(array.length, ()->arrayIdentifier + " array has no rows.");
+		Objects.requireNonNull(array[0], ()->arrayIdentifier + " array has null row");
+		long[] dimensions = {array[0].length, array.length};
+		GeneralUtils.requirePositive(dimensions[0], ()->arrayIdentifier + " array has rows of length 0.");
+		for(double[] row: array){
+			sanityCheckArray(row, dimensions[0], arrayIdentifier + " row");
 		}
+		return dimensions;
+	}
+
+	/**
+	 * Returns the row major dimensions {width, height, depth} of the specified 3D array,
+	 * where <tt>array[z][y][x]</tt> is the element at coordinates (x,y,z).
+	 * @param array 3D array with rows of equal length and slices with equal number of rows
+	 * @param arrayIdentifier name of the array argument to provide informal errors.
+	 * @return dimensions
+	 * @throws NullPointerException when array or one of its slices or rows is null
+	 * @throws IllegalArgumentException when the array is empty or slices or rows differ in length
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static long[] dimensionsOf(double[][][] array, String arrayIdentifier) {
+		Objects.requireNonNull(array, ()->arrayIdentifier + " array cannot be null");
+		GeneralUtils.requirePositive(array.length, ()->arrayIdentifier + " array has no slices.");
+		long[] slice = dimensionsOf(array[0], arrayIdentifier);
+		for(double[][] s: array){
+			long[] sliceDims = dimensionsOf(s, arrayIdentifier);
+			if(sliceDims[0] != slice[0] || sliceDims[1] != slice[1]){
+				throw new IllegalArgumentException(arrayIdentifier + " array has slices of different sizes, "
+						+ GeneralUtils.dimensionsToString(slice) + " and " + GeneralUtils.dimensionsToString(sliceDims));
+			}
+		}
+		return new long[]{slice[0], slice[1], array.length};
+	}
+
+	/**
+	 * Returns the rows of the specified 3D array in row major order (references, no values are copied),
+	 * i.e. row <tt>array[z][y]</tt> is at index <tt>z*height+y</tt>.
+	 * @param array 3D array
+	 * @return rows of all slices
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static double[][] rowsOf(double[][][] array) {
+		int height = array[0].length;
+		double[][] rows = new double[array.length*height][];
+		for(int z = 0; z < array.length; z++){
+			System.arraycopy(array[z], 0, rows, z*height, height);
+		}
+		return rows;
+	}
+
+	/**
+	 * Copies the specified rows (of equal length) one after another to the specified {@link NativeRealArray}
+	 * using a bulk copy per row. When the number of elements is at least {@link #PARALLEL_TRANSFER_THRESHOLD},
+	 * rows are copied in parallel using the common ForkJoinPool.
+	 * @param array to be filled
+	 * @param rows to be copied
+	 * @param dimensions of the data (only used for reporting the transfer)
+	 * @throws IllegalArgumentException when the number of elements of the rows differs from the array length
+	 * @throws NullPointerException when the array has already been closed
+	 * @see #readNativeArrayToRows(NativeRealArray, double[][], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void fillNativeArrayFromRows(NativeRealArray array, double[][] rows, long... dimensions){
+		int width = rows[0].length;
+		GeneralUtils.requireEqual(array.length, ((long)width)*rows.length,
+				()->"number of elements of the native array (" + array.length + ") does not match the number of elements in rows (" + ((long)width)*rows.length + ").");
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		if(array.length < PARALLEL_TRANSFER_THRESHOLD){
+			for(int r = 0; r < rows.length; r++){
+				array.set(((long)r)*width, width, 0, rows[r]);
+			}
+		} else {
+			if(array.isClosed()){
+				/* fail before starting parallel tasks, like the other accessors of NativeRealArray */
+				throw new NullPointerException("NativeRealArray has already been closed.");
+			}
+			IntStream.range(0, rows.length).parallel().forEach(r->
+				/* separate pointer per row, position of shared pointer must not change concurrently */
+				array.pointerAt(((long)r)*width).put(rows[r], 0, width)
+			);
+		}
+		FFTW_Events.commit(event, "rows in", dimensions, 1, 0, FFTW_Plan.NUM_THREADS, array.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "rows in", dimensions, 1, array.length*Double.BYTES);
+	}
+
+	/**
+	 * Copies the values of the specified {@link NativeRealArray} to the specified rows (of equal length)
+	 * using a bulk copy per row. When the number of elements is at least {@link #PARALLEL_TRANSFER_THRESHOLD},
+	 * rows are copied in parallel using the common ForkJoinPool.
+	 * @param array to read from
+	 * @param rows to be filled
+	 * @param dimensions of the data (only used for reporting the transfer)
+	 * @throws IllegalArgumentException when the number of elements of the rows differs from the array length
+	 * @throws NullPointerException when the array has already been closed
+	 * @see #fillNativeArrayFromRows(NativeRealArray, double[][], long...)
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void readNativeArrayToRows(NativeRealArray array, double[][] rows, long... dimensions){
+		int width = rows[0].length;
+		GeneralUtils.requireEqual(array.length, ((long)width)*rows.length,
+				()->"number of elements of the native array (" + array.length + ") does not match the number of elements in rows (" + ((long)width)*rows.length + ").");
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		if(array.length < PARALLEL_TRANSFER_THRESHOLD){
+			for(int r = 0; r < rows.length; r++){
+				array.get(((long)r)*width, width, 0, rows[r]);
+			}
+		} else {
+			if(array.isClosed()){
+				/* fail before starting parallel tasks, like the other accessors of NativeRealArray */
+				throw new NullPointerException("NativeRealArray has already been closed.");
+			}
+			IntStream.range(0, rows.length).parallel().forEach(r->
+				/* separate pointer per row, position of shared pointer must not change concurrently */
+				array.pointerAt(((long)r)*width).get(rows[r], 0, width)
+			);
+		}
+		FFTW_Events.commit(event, "rows out", dimensions, 1, 0, FFTW_Plan.NUM_THREADS, array.length*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "rows out", dimensions, 1, array.length*Double.BYTES);
 	}
 
 	/**
@@ -112,4 +463,25 @@ public class PrecisionDependentUtils {
 		}
 	}
 
+	/**
+	 * Throws NullpointerException or IllegalArgumentException when chunked array is null or does not have
+	 * the expected dimensions.
+	 * @param chunks to check
+	 * @param expectedDimensions of chunks
+	 * @param arrayIdentifier name of the array argument to provide informal errors.
+	 * @throws NullPointerException when chunks is null
+	 * @throws IllegalArgumentException when dimensions of chunks do not equal expected dimensions
+	 * @since 0.1.3
+	 */
+	@DoublePrecisionVersion
+	public static void sanityCheckChunks(ChunkedArrayAccessor chunks, long[] expectedDimensions, String arrayIdentifier) {
+		Objects.requireNonNull(chunks, ()->arrayIdentifier + " array cannot be null");
+		if(!chunks.hasDimensions(expectedDimensions)) {
+			throw new IllegalArgumentException(
+					"Dimensions of " + arrayIdentifier + " do not match. "
+					+ GeneralUtils.dimensionsToString(expectedDimensions) + " expected but is "
+					+ GeneralUtils.dimensionsToString(chunks.getDimensions()));
+		}
+	}
+
 }
@@ -0,0 +1,491 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.GeneralUtils;
+
+/**
+ * The STFT class computes short-time Fourier transforms (STFT) of 1D signals and
+ * their inverse (ISTFT).
+ * <p>
+ * A signal is divided into frames of {@link #frameSize} samples, where consecutive frames
+ * start {@link #hopSize} samples apart. Each frame is multiplied with the window function
+ * and zero padded to {@link #fftSize} before it is transformed. For each frame the first
+ * {@link #numBins} = <tt>fftSize/2+1</tt> frequency bins are delivered to a {@link FrameConsumer}
+ * (the remaining bins are the complex conjugates of these, since the signal is real).
+ * <p>
+ * Frames are not transformed one by one, instead up to {@link #batchSize} frames are
+ * transformed by a single execution of a batched {@link FFTW_Plan}. Buffers and the plans for full
+ * batches are created on construction, plans for smaller batches (e.g. the last frames of a signal
+ * or the frames completed by a single push) on first use, so an STFT object should be reused for
+ * many signals.
+ * <p>
+ * There are two ways of computing the STFT:
+ * <ul>
+ * <li>{@link #forward(double[], FrameConsumer)} transforms all frames of a complete signal.</li>
+ * <li>{@link #push(double[], int, int, FrameConsumer)} accepts the signal piece by piece (e.g.
+ * from a stream) and delivers each frame as soon as all of its samples have been pushed.</li>
+ * </ul>
+ * The inverse transform {@link #inverse(double[][], double[][])} reconstructs a signal from its
+ * frames using weighted overlap-add, i.e. each inverse transformed frame is multiplied with the
+ * window again, added to the output, and the output is normalized by the sum of squared windows.
+ * Unlike the FFT methods of this library, STFT and ISTFT are normalized so that
+ * <tt>inverse(forward(x))</tt> restores <tt>x</tt> (where covered by frames with non zero window).
+ * <p>
+ * This class is not thread safe and implements the {@link AutoCloseable} interface to enable
+ * the use of try-with-resources statement for easy management of the native resources.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * try(STFT stft = new STFT(STFT.hannWindow(1024), 256)){
+ *     double[][] spectrogram = new double[(int)stft.numFrames(signal.length)][stft.numBins];
+ *     stft.forward(signal, (frame, real, imag)->{
+ *         for(int k = 0; k < real.length; k++)
+ *             spectrogram[(int)frame][k] = Math.hypot(real[k], imag[k]);
+ *     });
+ * }
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class STFT implements AutoCloseable {
+
+	/**
+	 * Receives the spectrum of a single STFT frame.
+	 */
+	@DoublePrecisionVersion
+	public static interface FrameConsumer {
+		/**
+		 * Accepts the spectrum of the frame with the specified index.
+		 * The arrays are reused for subsequent frames, so their contents have to be
+		 * copied if needed after this method returns.
+		 * @param frameIndex index of the frame, the frame starts at sample <tt>frameIndex*hopSize</tt>
+		 * @param real real parts of the frequency bins (length {@link STFT#numBins})
+		 * @param imag imaginary parts of the frequency bins (length {@link STFT#numBins})
+		 */
+		@DoublePrecisionVersion
+		void accept(long frameIndex, double[] real, double[] imag);
+	}
+
+	/** number of samples per frame (length of window) */
+	public final int frameSize;
+	/** number of samples between the starts of consecutive frames */
+	public final int hopSize;
+	/** size of the FFT, frames are zero padded to this size */
+	public final int fftSize;
+	/** number of frequency bins per frame that are delivered (fftSize/2+1) */
+	public final int numBins;
+	/** maximum number of frames transformed by a single plan execution */
+	public final int batchSize;
+
+	private final double[] window;
+	/* java side buffers */
+	private final double[] stagedReal;
+	private final double[] stagedImag;
+	private final double[] binsReal;
+	private final double[] binsImag;
+	private int numStaged = 0;
+	private long firstStagedFrame = 0;
+	/* streaming state */
+	private final double[] streamBuffer;
+	private int streamFill = 0;
+	private long streamSkip = 0;
+	private long streamFrame = 0;
+	/* native resources, plans for n frames at index n-1 */
+	private final NativeRealArray batchSignal;
+	private final NativeRealArray batchReal;
+	private final NativeRealArray batchImag;
+	private final FFTW_Plan[] forwardPlans;
+	private final FFTW_Plan[] inversePlans;
+
+	/**
+	 * Creates a new STFT with the specified window and hop size.
+	 * The fft size equals the window length (no zero padding) and up to 32 frames are
+	 * transformed per plan execution.
+	 * @param window the window function, its length determines the frame size
+	 * @param hopSize number of samples between the starts of consecutive frames
+	 * @throws NullPointerException when window is null
+	 * @throws IllegalArgumentException when window is empty or hop size is not positive
+	 * @see #hannWindow(int)
+	 * @see #hammingWindow(int)
+	 */
+	@DoublePrecisionVersion
+	public STFT(double[] window, int hopSize) {
+		this(window, hopSize, window == null ? 0:window.length, 32);
+	}
+
+	/**
+	 * Creates a new STFT.
+	 * @param window the window function, its length determines the frame size
+	 * @param hopSize number of samples between the starts of consecutive frames
+	 * @param fftSize size of the FFT, frames are zero padded to this size. Needs to be at least the frame size.
+	 * @param batchSize maximum number of frames that are transformed per plan execution
+	 * @throws NullPointerException when window is null
+	 * @throws IllegalArgumentException <br>
+	 * when window is empty <br>
+	 * when hop size or batch size is not positive <br>
+	 * when fft size is smaller than window length
+	 */
+	@DoublePrecisionVersion
+	public STFT(double[] window, int hopSize, int fftSize, int batchSize) {
+		Objects.requireNonNull(window, ()->"Cannot use null as window.");
+		GeneralUtils.requirePositive(window.length, ()->"Provided window is empty, need at least one sample.");
+		GeneralUtils.requirePositive(hopSize, ()->"Hop size needs to be positive but is " + hopSize + ".");
+		GeneralUtils.requirePositive(batchSize, ()->"Batch size needs to be positive but is " + batchSize + ".");
+		GeneralUtils.requirePositive(fftSize-window.length+1,
+				()->"fft size (" + fftSize + ") needs to be at least the window length (" + window.length + ").");
+		this.window = window.clone();
+		this.frameSize = window.length;
+		this.hopSize = hopSize;
+		this.fftSize = fftSize;
+		this.numBins = fftSize/2+1;
+		this.batchSize = batchSize;
+		this.stagedReal = new double[batchSize*fftSize];
+		this.stagedImag = new double[batchSize*fftSize];
+		this.binsReal = new double[numBins];
+		this.binsImag = new double[numBins];
+		this.streamBuffer = new double[frameSize];
+
+		NativeRealArray[] arrays = new NativeRealArray[3];
+		try {
+			arrays[0] = new NativeRealArray((long)batchSize*fftSize);
+			arrays[1] = new NativeRealArray((long)batchSize*fftSize);
+			arrays[2] = new NativeRealArray((long)batchSize*fftSize);
+		} catch (RuntimeException e) {
+			/* close resources in reverse allocation order */
+			for(int i = arrays.length-1; i >= 0; i--){
+				if(arrays[i] != null) arrays[i].close();
+			}
+			throw e;
+		}
+		this.batchSignal = arrays[0];
+		this.batchReal = arrays[1];
+		this.batchImag = arrays[2];
+		this.forwardPlans = new FFTW_Plan[batchSize];
+		this.inversePlans = new FFTW_Plan[batchSize];
+		try {
+			forwardPlan(batchSize);
+			inversePlan(batchSize);
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of frames that fit into a signal of the specified length
+	 * (only complete frames are counted).
+	 * @param signalLength number of samples of the signal
+	 * @return number of frames
+	 */
+	@DoublePrecisionVersion
+	public long numFrames(long signalLength) {
+		return signalLength < frameSize ? 0 : (signalLength-frameSize)/hopSize+1;
+	}
+
+	/**
+	 * Computes the STFT of the specified signal. Only complete frames are transformed,
+	 * see {@link #numFrames(long)}. The frames are delivered to the specified consumer
+	 * in order of their index.
+	 * <p>
+	 * This method does not interfere with the streaming state of {@link #push(double[], int, int, FrameConsumer)}.
+	 * @param signal to be transformed
+	 * @param consumer receiving the spectrum of each frame
+	 * @throws NullPointerException when signal or consumer is null
+	 */
+	@DoublePrecisionVersion
+	public void forward(double[] signal, FrameConsumer consumer) {
+		Objects.requireNonNull(signal, ()->"Cannot use null as signal.");
+		Objects.requireNonNull(consumer, ()->"Cannot use null as consumer.");
+		long numFrames = numFrames(signal.length);
+		firstStagedFrame = 0;
+		for(long frame = 0; frame < numFrames; frame++){
+			stageFrame(signal, (int)(frame*hopSize));
+			if(numStaged == batchSize){
+				flushForward(consumer);
+			}
+		}
+		flushForward(consumer);
+	}
+
+	/**
+	 * Pushes the next samples of a streamed signal. Each frame is delivered to the specified
+	 * consumer as soon as all of its samples have been pushed. When a single push completes
+	 * multiple frames, these are transformed as a batch. Frame indices count from the first
+	 * sample pushed after creation or the last {@link #resetStream()}.
+	 * @param samples array containing the next samples of the stream
+	 * @param offset index of the first sample in samples
+	 * @param length number of samples to push
+	 * @param consumer receiving the spectrum of each completed frame
+	 * @throws NullPointerException when samples or consumer is null
+	 * @throws IllegalArgumentException when length is negative
+	 * @throws ArrayIndexOutOfBoundsException when the specified range exceeds the samples array
+	 */
+	@DoublePrecisionVersion
+	public void push(double[] samples, int offset, int length, FrameConsumer consumer) {
+		Objects.requireNonNull(samples, ()->"Cannot use null as samples.");
+		Objects.requireNonNull(consumer, ()->"Cannot use null as consumer.");
+		if(length < 0){
+			throw new IllegalArgumentException("Cannot push negative number of samples: " + length);
+		}
+		if(offset < 0 || offset+length > samples.length){
+			throw new ArrayIndexOutOfBoundsException(
+				String.format("Cannot read %d samples starting from %d, array is of length %d",
+						length, offset, samples.length));
+		}
+		firstStagedFrame = streamFrame;
+		int end = offset+length;
+		int pos = offset;
+		while(pos < end){
+			/* skip samples between frames when hop size is larger than frame size */
+			if(streamSkip > 0){
+				int n = (int)Math.min(streamSkip, end-pos);
+				streamSkip -= n;
+				pos += n;
+				continue;
+			}
+			int n = Math.min(frameSize-streamFill, end-pos);
+			System.arraycopy(samples, pos, streamBuffer, streamFill, n);
+			streamFill += n;
+			pos += n;
+			if(streamFill == frameSize){
+				stageFrame(streamBuffer, 0);
+				streamFrame++;
+				if(numStaged == batchSize){
+					flushForward(consumer);
+				}
+				/* advance stream by hop size */
+				if(hopSize < frameSize){
+					System.arraycopy(streamBuffer, hopSize, streamBuffer, 0, frameSize-hopSize);
+					streamFill = frameSize-hopSize;
+				} else {
+					streamFill = 0;
+					streamSkip = hopSize-frameSize;
+				}
+			}
+		}
+		flushForward(consumer);
+	}
+
+	/**
+	 * Resets the streaming state of this STFT, discarding all samples that were pushed
+	 * but not yet part of a complete frame. Frame indices start again from zero.
+	 */
+	@DoublePrecisionVersion
+	public void resetStream() {
+		streamFill = 0;
+		streamSkip = 0;
+		streamFrame = 0;
+	}
+
+	/**
+	 * Computes the inverse STFT (ISTFT) of the specified frames using weighted overlap-add.
+	 * Each frame consists of {@link #numBins} frequency bins as delivered by
+	 * {@link #forward(double[], FrameConsumer)}.
+	 * The resulting signal has length <tt>(numFrames-1)*hopSize+frameSize</tt>.
+	 * @param real real parts of the frames' bins, real[i] is the i-th frame
+	 * @param imag imaginary parts of the frames' bins, imag[i] is the i-th frame
+	 * @return reconstructed signal
+	 * @throws NullPointerException when one of the arguments is null
+	 * @throws IllegalArgumentException <br>
+	 * when the number of real and imaginary frames differs or is zero <br>
+	 * when a frame does not have {@link #numBins} elements
+	 */
+	@DoublePrecisionVersion
+	public double[] inverse(double[][] real, double[][] imag) {
+		Objects.requireNonNull(real, ()->"Cannot use null as real frames.");
+		Objects.requireNonNull(imag, ()->"Cannot use null as imaginary frames.");
+		GeneralUtils.requirePositive(real.length, ()->"Need at least one frame.");
+		double[] output = new double[(real.length-1)*hopSize+frameSize];
+		inverse(real, imag, output);
+		return output;
+	}
+
+	/**
+	 * Computes the inverse STFT (ISTFT) of the specified frames using weighted overlap-add
+	 * and writes the reconstructed signal to the specified output array.
+	 * Output samples beyond <tt>(numFrames-1)*hopSize+frameSize</tt> are left unchanged.
+	 * @param real real parts of the frames' bins, real[i] is the i-th frame
+	 * @param imag imaginary parts of the frames' bins, imag[i] is the i-th frame
+	 * @param output array the reconstructed signal is written to
+	 * @throws NullPointerException when one of the arguments is null
+	 * @throws IllegalArgumentException <br>
+	 * when the number of real and imaginary frames differs or is zero <br>
+	 * when a frame does not have {@link #numBins} elements <br>
+	 * when output is shorter than <tt>(numFrames-1)*hopSize+frameSize</tt>
+	 * @see #inverse(double[][], double[][])
+	 */
+	@DoublePrecisionVersion
+	public void inverse(double[][] real, double[][] imag, double[] output) {
+		Objects.requireNonNull(real, ()->"Cannot use null as real frames.");
+		Objects.requireNonNull(imag, ()->"Cannot use null as imaginary frames.");
+		Objects.requireNonNull(output, ()->"Cannot use null as output.");
+		GeneralUtils.requirePositive(real.length, ()->"Need at least one frame.");
+		GeneralUtils.requireEqual(real.length, imag.length,
+				()->"Number of real frames (" + real.length + ") does not match number of imaginary frames (" + imag.length + ").");
+		int signalLength = (real.length-1)*hopSize+frameSize;
+		GeneralUtils.requirePositive(output.length-signalLength+1,
+				()->"Output needs to be of length " + signalLength + " but is only of length " + output.length + ".");
+		for(int i = 0; i < real.length; i++){
+			final int i_ = i;
+			PrecisionDependentUtils.sanityCheckArray(real[i], numBins, "real frame " + i_);
+			PrecisionDependentUtils.sanityCheckArray(imag[i], numBins, "imaginary frame " + i_);
+		}
+		double[] normalization = new double[signalLength];
+		Arrays.fill(output, 0, signalLength, 0);
+		int frame = 0;
+		while(frame < real.length){
+			int n = Math.min(batchSize, real.length-frame);
+			/* stage full (hermitian) spectra of n frames */
+			for(int f = 0; f < n; f++){
+				double[] re = real[frame+f];
+				double[] im = imag[frame+f];
+				int base = f*fftSize;
+				for(int k = 0; k < numBins; k++){
+					stagedReal[base+k] = re[k];
+					stagedImag[base+k] = im[k];
+				}
+				for(int k = numBins; k < fftSize; k++){
+					stagedReal[base+k] = re[fftSize-k];
+					stagedImag[base+k] = -im[fftSize-k];
+				}
+			}
+			/* inverse transform */
+			batchReal.set(0, n*fftSize, 0, stagedReal);
+			batchImag.set(0, n*fftSize, 0, stagedImag);
+			inversePlan(n).execute();
+			batchSignal.get(0, n*fftSize, 0, stagedReal);
+			/* weighted overlap-add */
+			double scaling = 1.0/fftSize;
+			for(int f = 0; f < n; f++){
+				int start = (frame+f)*hopSize;
+				int base = f*fftSize;
+				for(int i = 0; i < frameSize; i++){
+					output[start+i] += stagedReal[base+i]*scaling*window[i];
+					normalization[start+i] += window[i]*window[i];
+				}
+			}
+			frame += n;
+		}
+		for(int i = 0; i < signalLength; i++){
+			if(normalization[i] > 1e-10){
+				output[i] /= normalization[i];
+			}
+		}
+	}
+
+	/**
+	 * Creates a periodic Hann window of the specified length, which satisfies the constant
+	 * overlap-add property for hop sizes of length/2 and length/4.
+	 * @param length of the window
+	 * @return window
+	 */
+	@DoublePrecisionVersion
+	public static double[] hannWindow(int length) {
+		double[] window = new double[length];
+		for(int i = 0; i < length; i++){
+			window[i] = (double)(0.5-0.5*Math.cos(2*Math.PI*i/length));
+		}
+		return window;
+	}
+
+	/**
+	 * Creates a periodic Hamming window of the specified length.
+	 * @param length of the window
+	 * @return window
+	 */
+	@DoublePrecisionVersion
+	public static double[] hammingWindow(int length) {
+		double[] window = new double[length];
+		for(int i = 0; i < length; i++){
+			window[i] = (double)(0.54-0.46*Math.cos(2*Math.PI*i/length));
+		}
+		return window;
+	}
+
+	/* copies the windowed frame starting at offset into the staging buffer */
+	private void stageFrame(double[] signal, int offset) {
+		int base = numStaged*fftSize;
+		for(int i = 0; i < frameSize; i++){
+			stagedReal[base+i] = signal[offset+i]*window[i];
+		}
+		for(int i = frameSize; i < fftSize; i++){
+			stagedReal[base+i] = 0;
+		}
+		numStaged++;
+	}
+
+	/* transforms the staged frames and delivers them to the consumer */
+	private void flushForward(FrameConsumer consumer) {
+		int n = numStaged;
+		if(n == 0){
+			return;
+		}
+		numStaged = 0;
+		batchSignal.set(0, n*fftSize, 0, stagedReal);
+		forwardPlan(n).execute();
+		for(int f = 0; f < n; f++){
+			batchReal.get((long)f*fftSize, numBins, 0, binsReal);
+			batchImag.get((long)f*fftSize, numBins, 0, binsImag);
+			consumer.accept(firstStagedFrame++, binsReal, binsImag);
+		}
+	}
+
+	/* batched r2c plan for the first n frames of the batch arrays, created on first use */
+	private FFTW_Plan forwardPlan(int n) {
+		FFTW_Plan plan = forwardPlans[n-1];
+		if(plan == null){
+			plan = forwardPlans[n-1] = FFTW_Plan.create(FFTW_Plan.KIND_R2C,
+					FFTW_Plan.rowMajorIODims(new long[]{fftSize}), FFTW_Plan.batchIODims(n, fftSize),
+					batchSignal, batchReal, batchImag);
+		}
+		return plan;
+	}
+
+	/* batched c2r plan for the first n frames of the batch arrays, created on first use */
+	private FFTW_Plan inversePlan(int n) {
+		FFTW_Plan plan = inversePlans[n-1];
+		if(plan == null){
+			plan = inversePlans[n-1] = FFTW_Plan.create(FFTW_Plan.KIND_C2R,
+					FFTW_Plan.rowMajorIODims(new long[]{fftSize}), FFTW_Plan.batchIODims(n, fftSize),
+					batchReal, batchImag, batchSignal);
+		}
+		return plan;
+	}
+
+	@Override
+	public void close() {
+		/* close resources in reverse allocation order */
+		for(int i = batchSize-1; i >= 0; i--){
+			if(inversePlans[i] != null) inversePlans[i].close();
+			if(forwardPlans[i] != null) forwardPlans[i].close();
+		}
+		batchImag.close();
+		batchReal.close();
+		batchSignal.close();
+	}
+
+}
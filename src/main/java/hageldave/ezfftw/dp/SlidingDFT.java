@@ -0,0 +1,301 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.GeneralUtils;
+
+/**
+ * The SlidingDFT keeps track of the discrete Fourier transform of the last {@link #windowSize}
+ * samples of a 1D signal while samples are added one by one.
+ * <p>
+ * Instead of recomputing the whole transform for every new sample, each tracked frequency bin
+ * is updated in constant time using the sliding DFT recurrence
+ * <br><tt>X_k(n) = (X_k(n-1) - x[n-N] + x[n]) * e^(i*2*pi*k/N)</tt>.<br>
+ * The bins to be tracked can be selected on construction, so that only a few bins of a large
+ * window need to be updated.
+ * <p>
+ * Since the recurrence accumulates rounding errors, the spectrum is periodically resynchronized
+ * after {@link #resyncInterval} samples by computing the exact transform of the window with an
+ * {@link FFTW_Plan}. {@link #resynchronize()} can also be called manually.
+ * <p>
+ * The spectrum refers to the window ordered from oldest to newest sample, i.e. the oldest sample
+ * of the window is at index 0 of the transformed signal, and is unnormalized as the transforms
+ * of {@link FFT}. Samples before the first update are zero.
+ * <p>
+ * This class is not thread safe and implements the {@link AutoCloseable} interface to enable
+ * the use of try-with-resources statement for easy management of the native resources.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * // track 50Hz and 100Hz bins of a 1s window sampled at 1000Hz
+ * try(SlidingDFT sdft = new SlidingDFT(1000, 1000, 50, 100)){
+ *     while(sensor.isActive()){
+ *         sdft.update(sensor.nextSample());
+ *         double power50 = Math.hypot(sdft.getReal(0), sdft.getImag(0));
+ *         double power100 = Math.hypot(sdft.getReal(1), sdft.getImag(1));
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class SlidingDFT implements AutoCloseable {
+
+	/** number of samples in the window (size of the DFT) */
+	public final int windowSize;
+	/** number of updates after which the spectrum is resynchronized with an exact transform */
+	public final int resyncInterval;
+
+	private final int[] bins;
+	private final double[] twiddleReal;
+	private final double[] twiddleImag;
+	private final double[] real;
+	private final double[] imag;
+	/* window of last samples as ring buffer, ringPos is index of oldest sample */
+	private final double[] ring;
+	private int ringPos = 0;
+	private int updatesSinceSync = 0;
+	/* native resources for resynchronization */
+	private final double[] scratch;
+	private final NativeRealArray signal;
+	private final NativeRealArray spectrumReal;
+	private final NativeRealArray spectrumImag;
+	private final FFTW_Plan plan;
+
+	/**
+	 * Creates a new SlidingDFT tracking all {@link #windowSize} bins, that is resynchronized
+	 * once per window size updates.
+	 * @param windowSize number of samples in the window
+	 * @throws IllegalArgumentException when window size is not positive
+	 */
+	@DoublePrecisionVersion
+	public SlidingDFT(int windowSize) {
+		this(windowSize, windowSize, allBins(windowSize));
+	}
+
+	/**
+	 * Creates a new SlidingDFT tracking the specified bins.
+	 * @param windowSize number of samples in the window
+	 * @param resyncInterval number of updates after which the spectrum is resynchronized
+	 * with an exact transform
+	 * @param bins indices of the frequency bins to be tracked, each in [0, windowSize[.
+	 * The i-th specified bin is accessed with index i, e.g. by {@link #getReal(int)}.
+	 * @throws NullPointerException when bins is null
+	 * @throws IllegalArgumentException <br>
+	 * when window size or resync interval is not positive <br>
+	 * when no bins are specified or a bin is not in [0, windowSize[
+	 */
+	@DoublePrecisionVersion
+	public SlidingDFT(int windowSize, int resyncInterval, int... bins) {
+		GeneralUtils.requirePositive(windowSize, ()->"Window size needs to be positive but is " + windowSize + ".");
+		GeneralUtils.requirePositive(resyncInterval, ()->"Resync interval needs to be positive but is " + resyncInterval + ".");
+		Objects.requireNonNull(bins, ()->"Cannot use null as bins.");
+		GeneralUtils.requirePositive(bins.length, ()->"No bins were specified, need to track at least one bin.");
+		for(int i = 0; i < bins.length; i++){
+			if(bins[i] < 0 || bins[i] >= windowSize){
+				throw new IllegalArgumentException(
+						"Bin number " + i + " is " + bins[i] + " which is not in [0," + windowSize + "[.");
+			}
+		}
+		this.windowSize = windowSize;
+		this.resyncInterval = resyncInterval;
+		this.bins = bins.clone();
+		this.twiddleReal = new double[bins.length];
+		this.twiddleImag = new double[bins.length];
+		for(int i = 0; i < bins.length; i++){
+			twiddleReal[i] = (double)Math.cos(2*Math.PI*bins[i]/windowSize);
+			twiddleImag[i] = (double)Math.sin(2*Math.PI*bins[i]/windowSize);
+		}
+		this.real = new double[bins.length];
+		this.imag = new double[bins.length];
+		this.ring = new double[windowSize];
+		this.scratch = new double[windowSize];
+		NativeRealArray signal = null, spectrumReal = null, spectrumImag = null;
+		try {
+			signal = new NativeRealArray(windowSize);
+			spectrumReal = new NativeRealArray(windowSize);
+			spectrumImag = new NativeRealArray(windowSize);
+			this.plan = FFTW_Plan.plan_split_r2c(signal, spectrumReal, spectrumImag, windowSize);
+		} catch (RuntimeException e) {
+			/* close resources in reverse allocation order */
+			if(spectrumImag != null) spectrumImag.close();
+			if(spectrumReal != null) spectrumReal.close();
+			if(signal != null) signal.close();
+			throw e;
+		}
+		this.signal = signal;
+		this.spectrumReal = spectrumReal;
+		this.spectrumImag = spectrumImag;
+	}
+
+	/**
+	 * Adds the specified sample to the window (removing the oldest sample) and updates
+	 * the tracked bins.
+	 * @param sample the new sample
+	 */
+	@DoublePrecisionVersion
+	public void update(double sample) {
+		double delta = sample-ring[ringPos];
+		ring[ringPos] = sample;
+		ringPos = ringPos+1 == windowSize ? 0 : ringPos+1;
+		for(int i = 0; i < bins.length; i++){
+			double r = real[i]+delta;
+			double j = imag[i];
+			real[i] = r*twiddleReal[i] - j*twiddleImag[i];
+			imag[i] = r*twiddleImag[i] + j*twiddleReal[i];
+		}
+		if(++updatesSinceSync >= resyncInterval){
+			resynchronize();
+		}
+	}
+
+	/**
+	 * Adds the specified samples one after another, as if calling {@link #update(double)}
+	 * for each sample.
+	 * @param samples array containing the new samples
+	 * @param offset index of first sample in samples
+	 * @param length number of samples to add
+	 * @throws NullPointerException when samples is null
+	 * @throws ArrayIndexOutOfBoundsException when the specified range exceeds the samples array
+	 */
+	@DoublePrecisionVersion
+	public void update(double[] samples, int offset, int length) {
+		Objects.requireNonNull(samples, ()->"Cannot use null as samples.");
+		if(offset < 0 || length < 0 || offset+length > samples.length){
+			throw new ArrayIndexOutOfBoundsException(
+				String.format("Cannot read %d samples starting from %d, array is of length %d",
+						length, offset, samples.length));
+		}
+		for(int i = offset; i < offset+length; i++){
+			update(samples[i]);
+		}
+	}
+
+	/**
+	 * Recomputes the tracked bins exactly using FFTW, discarding the rounding errors that
+	 * were accumulated by the sliding updates.
+	 */
+	@DoublePrecisionVersion
+	public void resynchronize() {
+		/* copy window in order from oldest to newest */
+		signal.set(0, windowSize-ringPos, ringPos, ring);
+		signal.set(windowSize-ringPos, ringPos, 0, ring);
+		plan.execute();
+		spectrumReal.get(0, scratch);
+		for(int i = 0; i < bins.length; i++){
+			real[i] = scratch[bins[i]];
+		}
+		spectrumImag.get(0, scratch);
+		for(int i = 0; i < bins.length; i++){
+			imag[i] = scratch[bins[i]];
+		}
+		updatesSinceSync = 0;
+	}
+
+	/**
+	 * Resets this SlidingDFT to its initial state, all samples of the window are zero.
+	 */
+	@DoublePrecisionVersion
+	public void reset() {
+		Arrays.fill(ring, 0);
+		Arrays.fill(real, 0);
+		Arrays.fill(imag, 0);
+		ringPos = 0;
+		updatesSinceSync = 0;
+	}
+
+	/**
+	 * Returns the number of tracked bins.
+	 * @return number of bins
+	 */
+	@DoublePrecisionVersion
+	public int getNumBins() {
+		return bins.length;
+	}
+
+	/**
+	 * Returns the frequency bin index of the i-th tracked bin.
+	 * @param i index of tracked bin
+	 * @return frequency bin index in [0, windowSize[
+	 */
+	@DoublePrecisionVersion
+	public int getBin(int i) {
+		return bins[i];
+	}
+
+	/**
+	 * Returns the real part of the i-th tracked bin.
+	 * @param i index of tracked bin (in order of bins specified on construction)
+	 * @return real part
+	 */
+	@DoublePrecisionVersion
+	public double getReal(int i) {
+		return real[i];
+	}
+
+	/**
+	 * Returns the imaginary part of the i-th tracked bin.
+	 * @param i index of tracked bin (in order of bins specified on construction)
+	 * @return imaginary part
+	 */
+	@DoublePrecisionVersion
+	public double getImag(int i) {
+		return imag[i];
+	}
+
+	/**
+	 * Copies the current values of all tracked bins into the specified arrays.
+	 * @param realDst destination for real parts, needs to be of length {@link #getNumBins()}
+	 * @param imagDst destination for imaginary parts, needs to be of length {@link #getNumBins()}
+	 * @throws NullPointerException when one of the arrays is null
+	 * @throws IllegalArgumentException when one of the arrays does not have the number of tracked bins as length
+	 */
+	@DoublePrecisionVersion
+	public void getSpectrum(double[] realDst, double[] imagDst) {
+		PrecisionDependentUtils.sanityCheckArray(realDst, bins.length, "real destination");
+		PrecisionDependentUtils.sanityCheckArray(imagDst, bins.length, "imaginary destination");
+		System.arraycopy(real, 0, realDst, 0, bins.length);
+		System.arraycopy(imag, 0, imagDst, 0, bins.length);
+	}
+
+	@Override
+	public void close() {
+		/* close resources in reverse allocation order */
+		plan.close();
+		spectrumImag.close();
+		spectrumReal.close();
+		signal.close();
+	}
+
+	private static int[] allBins(int windowSize) {
+		int[] bins = new int[Math.max(0, windowSize)];
+		for(int i = 0; i < bins.length; i++){
+			bins[i] = i;
+		}
+		return bins;
+	}
+
+}
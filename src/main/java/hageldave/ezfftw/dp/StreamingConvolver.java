@@ -0,0 +1,274 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.GeneralUtils;
+
+/**
+ * The StreamingConvolver convolves an unbounded 1D signal with a fixed FIR kernel
+ * using the overlap-save method.
+ * <p>
+ * The signal is passed in blocks of arbitrary size through
+ * {@link #process(double[], int, double[], int, int)} and for every input sample one
+ * output sample is produced. Internally the samples are gathered until {@link #blockSize}
+ * new samples are available, which are then filtered using a forward and inverse {@link FFTW_Plan}
+ * of size {@link #fftSize}. The kernel spectrum is computed only once on construction, and
+ * all buffers are allocated on construction, so memory consumption is constant regardless
+ * of the length of the stream.
+ * <p>
+ * Because a whole block has to be gathered before it can be filtered, the output is delayed
+ * by {@link #blockSize} samples (the latency). The output sample at stream position <tt>t</tt>
+ * is the convolution result <tt>y[t-blockSize] = sum_k kernel[k]*x[t-blockSize-k]</tt>, where
+ * samples before the start of the stream are zero. Unlike the FFT methods of this library
+ * the result is properly normalized (not scaled by the fft size).
+ * <p>
+ * This class implements the {@link AutoCloseable} interface to enable the use
+ * of try-with-resources statement for easy management of the native resources.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * try(StreamingConvolver lowpass = new StreamingConvolver(kernel)){
+ *     while(sensor.isActive()){
+ *         int n = sensor.read(samples);
+ *         lowpass.process(samples, 0, filtered, 0, n);
+ *         // do something with filtered samples
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class StreamingConvolver implements AutoCloseable {
+
+	/** number of coefficients of the FIR kernel */
+	public final int kernelLength;
+	/** size of the FFTs used for filtering a block */
+	public final int fftSize;
+	/** number of new samples filtered per block (fftSize-kernelLength+1), also the latency in samples */
+	public final int blockSize;
+
+	/* kernel spectrum, pre scaled by 1/fftSize */
+	private final double[] kernelReal;
+	private final double[] kernelImag;
+	/* java side buffers */
+	private final double[] history;
+	private final double[] inBuffer;
+	private final double[] outBuffer;
+	private final double[] specReal;
+	private final double[] specImag;
+	private int numBuffered = 0;
+	/* native resources */
+	private final NativeRealArray block;
+	private final NativeRealArray nativeSpecReal;
+	private final NativeRealArray nativeSpecImag;
+	private final FFTW_Plan forward;
+	private final FFTW_Plan inverse;
+
+	/**
+	 * Creates a new StreamingConvolver for the specified kernel with an fft size
+	 * of the smallest power of 2 that is at least twice the kernel length.
+	 * @param kernel coefficients of the FIR filter
+	 * @throws NullPointerException when kernel is null
+	 * @throws IllegalArgumentException when kernel is empty
+	 */
+	@DoublePrecisionVersion
+	public StreamingConvolver(double[] kernel) {
+		this(kernel, defaultFFTSize(kernel));
+	}
+
+	/**
+	 * Creates a new StreamingConvolver for the specified kernel and fft size.
+	 * Each block will filter <tt>fftSize-kernel.length+1</tt> new samples, so a larger
+	 * fft size reduces the number of transforms per sample but increases the latency.
+	 * @param kernel coefficients of the FIR filter
+	 * @param fftSize size of the FFTs, needs to be at least the kernel length
+	 * @throws NullPointerException when kernel is null
+	 * @throws IllegalArgumentException <br>
+	 * when kernel is empty <br>
+	 * when fft size is smaller than the kernel length
+	 */
+	@DoublePrecisionVersion
+	public StreamingConvolver(double[] kernel, int fftSize) {
+		Objects.requireNonNull(kernel, ()->"Cannot use null as kernel.");
+		GeneralUtils.requirePositive(kernel.length, ()->"Provided kernel is empty, need at least one coefficient.");
+		GeneralUtils.requirePositive(fftSize-kernel.length+1,
+				()->"fft size (" + fftSize + ") needs to be at least the kernel length (" + kernel.length + ").");
+		this.kernelLength = kernel.length;
+		this.fftSize = fftSize;
+		this.blockSize = fftSize-kernel.length+1;
+		this.kernelReal = new double[fftSize];
+		this.kernelImag = new double[fftSize];
+		this.history = new double[kernelLength-1];
+		this.inBuffer = new double[blockSize];
+		this.outBuffer = new double[blockSize];
+		this.specReal = new double[fftSize];
+		this.specImag = new double[fftSize];
+		NativeRealArray block = null, nativeSpecReal = null, nativeSpecImag = null;
+		FFTW_Plan forward = null, inverse = null;
+		try {
+			block = new NativeRealArray(fftSize);
+			nativeSpecReal = new NativeRealArray(fftSize);
+			nativeSpecImag = new NativeRealArray(fftSize);
+			forward = FFTW_Plan.plan_split_r2c(block, nativeSpecReal, nativeSpecImag, fftSize);
+			inverse = FFTW_Plan.plan_split_c2r(nativeSpecReal, nativeSpecImag, block, fftSize);
+			/* precompute kernel spectrum */
+			block.fill(0).set(kernel);
+			forward.execute();
+			nativeSpecReal.get(0, kernelReal);
+			nativeSpecImag.get(0, kernelImag);
+			ArrayMath.normalize(kernelReal, kernelImag);
+		} catch(RuntimeException e) {
+			/* close resources in reverse allocation order */
+			if(inverse != null) inverse.close();
+			if(forward != null) forward.close();
+			if(nativeSpecImag != null) nativeSpecImag.close();
+			if(nativeSpecReal != null) nativeSpecReal.close();
+			if(block != null) block.close();
+			throw e;
+		}
+		this.block = block;
+		this.nativeSpecReal = nativeSpecReal;
+		this.nativeSpecImag = nativeSpecImag;
+		this.forward = forward;
+		this.inverse = inverse;
+	}
+
+	/**
+	 * Filters the next <tt>length</tt> samples of the stream.
+	 * The samples are read from <tt>input</tt> starting at <tt>inOffset</tt> and the same number
+	 * of filtered samples is written to <tt>output</tt> starting at <tt>outOffset</tt>.
+	 * The filtered samples are delayed by {@link #blockSize} samples, see class description.
+	 * <p>
+	 * Input and output may be the same array when input and output offset are equal.
+	 *
+	 * @param input array containing the next samples of the stream
+	 * @param inOffset index of the first sample in input
+	 * @param output array to write the filtered samples to
+	 * @param outOffset index in output at which the first filtered sample is written
+	 * @param length number of samples to process
+	 * @throws NullPointerException when input or output is null
+	 * @throws IllegalArgumentException when length is negative
+	 * @throws ArrayIndexOutOfBoundsException when the specified range exceeds input or output
+	 */
+	@DoublePrecisionVersion
+	public void process(double[] input, int inOffset, double[] output, int outOffset, int length) {
+		Objects.requireNonNull(input, ()->"Cannot use null as input.");
+		Objects.requireNonNull(output, ()->"Cannot use null as output.");
+		if(length < 0){
+			throw new IllegalArgumentException("Cannot process negative number of samples: " + length);
+		}
+		if(inOffset < 0 || inOffset+length > input.length){
+			throw new ArrayIndexOutOfBoundsException(
+				String.format("Cannot read %d samples starting from %d, input array is of length %d",
+						length, inOffset, input.length));
+		}
+		if(outOffset < 0 || outOffset+length > output.length){
+			throw new ArrayIndexOutOfBoundsException(
+				String.format("Cannot write %d samples starting from %d, output array is of length %d",
+						length, outOffset, output.length));
+		}
+		int done = 0;
+		while(done < length){
+			int n = Math.min(length-done, blockSize-numBuffered);
+			System.arraycopy(input, inOffset+done, inBuffer, numBuffered, n);
+			System.arraycopy(outBuffer, numBuffered, output, outOffset+done, n);
+			numBuffered += n;
+			done += n;
+			if(numBuffered == blockSize){
+				filterBlock();
+				numBuffered = 0;
+			}
+		}
+	}
+
+	/**
+	 * Filters the specified samples of the stream and writes the filtered samples to the
+	 * specified output array.
+	 * Same as {@code process(input, 0, output, 0, input.length)}.
+	 * @param input the next samples of the stream
+	 * @param output array to write the filtered samples to, needs to be at least as long as input
+	 * @throws NullPointerException when input or output is null
+	 * @throws ArrayIndexOutOfBoundsException when output is shorter than input
+	 * @see #process(double[], int, double[], int, int)
+	 */
+	@DoublePrecisionVersion
+	public void process(double[] input, double[] output) {
+		Objects.requireNonNull(input, ()->"Cannot use null as input.");
+		process(input, 0, output, 0, input.length);
+	}
+
+	/**
+	 * Resets the state of this convolver, so that it behaves as if newly created.
+	 * All buffered samples are discarded.
+	 */
+	@DoublePrecisionVersion
+	public void reset() {
+		Arrays.fill(history, 0);
+		Arrays.fill(inBuffer, 0);
+		Arrays.fill(outBuffer, 0);
+		numBuffered = 0;
+	}
+
+	/* overlap-save filtering of the samples in inBuffer, result goes to outBuffer */
+	private void filterBlock() {
+		int overlap = kernelLength-1;
+		/* block = [history, inBuffer] */
+		block.set(0, overlap, 0, history);
+		block.set(overlap, blockSize, 0, inBuffer);
+		forward.execute();
+		nativeSpecReal.get(0, specReal);
+		nativeSpecImag.get(0, specImag);
+		ArrayMath.multiply(specReal, specImag, kernelReal, kernelImag, specReal, specImag);
+		nativeSpecReal.set(specReal);
+		nativeSpecImag.set(specImag);
+		inverse.execute();
+		/* first kernelLength-1 samples are circular convolution artifacts */
+		block.get(overlap, blockSize, 0, outBuffer);
+		/* keep last kernelLength-1 samples of [history, inBuffer] as new history */
+		if(blockSize >= overlap){
+			System.arraycopy(inBuffer, blockSize-overlap, history, 0, overlap);
+		} else {
+			System.arraycopy(history, blockSize, history, 0, overlap-blockSize);
+			System.arraycopy(inBuffer, 0, history, overlap-blockSize, blockSize);
+		}
+	}
+
+	@Override
+	public void close() {
+		/* close resources in reverse allocation order */
+		inverse.close();
+		forward.close();
+		nativeSpecImag.close();
+		nativeSpecReal.close();
+		block.close();
+	}
+
+	private static int defaultFFTSize(double[] kernel) {
+		Objects.requireNonNull(kernel, ()->"Cannot use null as kernel.");
+		return Math.max(2, Integer.highestOneBit(Math.max(1, kernel.length)*2-1)*2);
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Objects;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.StridedView;
+import hageldave.ezfftw.dp.samplers.RealValuedSampler;
+import hageldave.ezfftw.dp.writers.RealValuedWriter;
+
+/**
+ * The StridedArrayAccessor implements the {@link RealValuedSampler} and
+ * {@link RealValuedWriter} interfaces for sampling and writing arbitrary
+ * dimensional data that is stored in a double[] with the memory layout described
+ * by a {@link StridedView}, e.g. C order data ({@link StridedView#lastFastest(long...)})
+ * or a sub-region of a larger array.
+ * <p>
+ * Coordinates are interpreted in the axis order of the view, so this accessor makes it possible
+ * to use the sampler/writer based methods of the {@link FFT} class with data in any layout
+ * without transposing it.
+ * <p>
+ * Please note that for performance reasons, no checks are made to the fitness
+ * of the coordinates passed to {@link #getValueAt(long...)} or {@link #setValueAt(double, long...)}. 
+ * When using this class, it has to be made sure that only appropriate coordinates will be
+ * used with it (correct dimensions here: {@link #getDimensions()}).
+ * 
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class StridedArrayAccessor implements RealValuedSampler, RealValuedWriter {
+
+	/** the values for sampling */
+	public final double[] array;
+	/** the layout of the values in the array */
+	public final StridedView view;
+
+	/**
+	 * Creates a new {@link StridedArrayAccessor} for the specified array with the specified layout.
+	 * 
+	 * @param array of values
+	 * @param view describing the location of the elements in the array
+	 * 
+	 * @throws IllegalArgumentException when the view does not fit into the array
+	 * @throws NullPointerException if <tt>array</tt> or <tt>view</tt> is null.
+	 */
+	@DoublePrecisionVersion
+	public StridedArrayAccessor(double[] array, StridedView view) {
+		Objects.requireNonNull(array, ()->"Cannot use null as array.");
+		Objects.requireNonNull(view, ()->"Cannot use null as view.");
+		view.requireFitsInto(array.length, "double[]");
+		this.array = array;
+		this.view = view;
+	}
+
+	/**
+	 * Calculates the array index for the specified coordinates using the view of this sampler,
+	 * and gets the value.
+	 */
+	@Override
+	@DoublePrecisionVersion
+	public double getValueAt(long... coordinates) {
+		return array[(int)view.indexOf(coordinates)];
+	}
+
+	/**
+	 * Calculates the array index for the specified coordinates using the view of this writer,
+	 * and sets the value.
+	 */
+	@Override
+	@DoublePrecisionVersion
+	public void setValueAt(double val, long... coordinates) {
+		array[(int)view.indexOf(coordinates)] = val;
+	}
+
+	/**
+	 * Returns the dimensions of this accessor, which are the sizes of its view.
+	 * @return dimensions
+	 */
+	@DoublePrecisionVersion
+	public long[] getDimensions() {
+		return view.getSizes();
+	}
+
+}
@@ -0,0 +1,310 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.Pointer;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import hageldave.ezfftw.FFTW_Events;
+import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.listeners.Listeners;
+import hageldave.ezfftw.listeners.TransformListener.Phase;
+
+/**
+ * Class for transposing and permuting the axes of multi-dimensional data
+ * stored in {@link NativeRealArray}s in row major order.
+ * <p>
+ * The data is processed in tiles of {@link #BLOCK_SIZE}x{@link #BLOCK_SIZE} elements that are
+ * moved with bulk copies between native memory and a small heap buffer, in which the tile is
+ * transposed. This keeps both the reads and the writes sequential and cache friendly.
+ * When the fastest axis is not permuted, whole rows are copied directly from native to native memory.
+ * Arrays with at least {@link PrecisionDependentUtils#PARALLEL_TRANSFER_THRESHOLD} elements are
+ * processed in parallel using the common ForkJoinPool.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * // swap rows and columns of a 1024x768 image, result is 768x1024
+ * Transpose.transpose(image, transposed, 1024,768);
+ * // reorder axes (x,y,z) of a volume to (z,x,y)
+ * Transpose.permute(volume, permuted, new int[]{2,0,1}, width,height,depth);
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+@DoublePrecisionVersion
+public class Transpose {
+
+	/** edge length of the tiles in elements */
+	public static final int BLOCK_SIZE = 64;
+
+	/* number of task ranges per thread of the common pool, more than one for load balancing */
+	private static final int RANGES_PER_THREAD = 4;
+
+	/* tile buffers per thread */
+	private static final ThreadLocal<double[][]> BUFFERS = ThreadLocal.withInitial(
+			()->new double[][]{new double[BLOCK_SIZE*BLOCK_SIZE], new double[BLOCK_SIZE*BLOCK_SIZE], new double[BLOCK_SIZE*BLOCK_SIZE]});
+
+	private Transpose() {}
+
+	/**
+	 * Transposes the 2D data of the specified width and height in row major order,
+	 * i.e. the element at (x,y) in <tt>src</tt> is written to (y,x) in <tt>dst</tt>,
+	 * which is of width <tt>height</tt> and height <tt>width</tt>.
+	 * @param src array to read from
+	 * @param dst array to write to (not the same as src)
+	 * @param width of src
+	 * @param height of src
+	 * @throws NullPointerException when an array is null
+	 * @throws IllegalArgumentException <br>
+	 * when width or height is not positive <br>
+	 * when an array's length does not match width*height <br>
+	 * when src and dst are the same array
+	 * @throws IllegalStateException when an array has already been closed
+	 * @see #transposeInPlace(NativeRealArray, long)
+	 */
+	@DoublePrecisionVersion
+	public static void transpose(NativeRealArray src, NativeRealArray dst, long width, long height) {
+		permute(src, dst, new int[]{1,0}, width, height);
+	}
+
+	/**
+	 * Permutes the axes of the data of the specified dimensions in row major order.
+	 * Axis i of the result is axis <tt>permutation[i]</tt> of the source, so the result has
+	 * dimensions <tt>{dimensions[permutation[0]], dimensions[permutation[1]], ...}</tt>
+	 * (e.g. permutation {1,0} is the 2D transpose).
+	 * @param src array to read from
+	 * @param dst array to write to (not the same as src)
+	 * @param permutation of the axes
+	 * @param dimensions of src
+	 * @throws NullPointerException when an array or the permutation is null
+	 * @throws IllegalArgumentException <br>
+	 * when no dimensions are specified or one is not positive <br>
+	 * when permutation is not a permutation of the axes <br>
+	 * when an array's length does not match the number of elements determined from the dimensions <br>
+	 * when src and dst are the same array
+	 * @throws IllegalStateException when an array has already been closed
+	 */
+	@DoublePrecisionVersion
+	public static void permute(NativeRealArray src, NativeRealArray dst, int[] permutation, long... dimensions) {
+		/* sanity checks */
+		Objects.requireNonNull(src, ()->"Cannot use null as src parameter.");
+		Objects.requireNonNull(dst, ()->"Cannot use null as dst parameter.");
+		Objects.requireNonNull(permutation, ()->"Cannot use null as permutation parameter.");
+		GeneralUtils.requirePositive(dimensions.length, ()->"Provided dimensions are empty, need to pass at least one.");
+		GeneralUtils.requirePosititveDimensions(dimensions);
+		int rank = dimensions.length;
+		GeneralUtils.requireEqual(permutation.length, rank,
+				()->"Permutation has " + permutation.length + " axes but dimensions have " + rank + ".");
+		boolean[] used = new boolean[rank];
+		for(int axis: permutation){
+			if(axis < 0 || axis >= rank || used[axis]){
+				throw new IllegalArgumentException("Not a permutation of " + rank + " axes: " + Arrays.toString(permutation));
+			}
+			used[axis] = true;
+		}
+		long numElements = GeneralUtils.numElementsFromDimensions(dimensions);
+		requireLength(src, numElements, "src");
+		requireLength(dst, numElements, "dst");
+		if(src == dst){
+			throw new IllegalArgumentException("Cannot permute in place, src and dst are the same array.");
+		}
+		requireOpen(src);
+		requireOpen(dst);
+		/* strides of the source axes in source and destination */
+		long[] inStrides = new long[rank];
+		long[] outStrides = new long[rank];
+		long stride = 1;
+		for(int i = 0; i < rank; i++){
+			inStrides[i] = stride;
+			stride *= dimensions[i];
+		}
+		stride = 1;
+		for(int i = 0; i < rank; i++){
+			outStrides[permutation[i]] = stride;
+			stride *= dimensions[permutation[i]];
+		}
+
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		int a = permutation[0];
+		if(a == 0){
+			/* fastest axis stays the fastest, copy whole rows */
+			long rowLength = dimensions[0];
+			forEachRange(numElements/rowLength, numElements, (from,to)->{
+				/* untyped pointers, their position is in bytes */
+				Pointer in = new Pointer(src.pointerAt(0));
+				Pointer out = new Pointer(dst.pointerAt(0));
+				for(long row = from; row < to; row++){
+					long outIndex = 0;
+					long rem = row;
+					for(int j = 1; j < rank; j++){
+						outIndex += (rem % dimensions[j])*outStrides[j];
+						rem /= dimensions[j];
+					}
+					Pointer.memcpy(out.position(outIndex*Double.BYTES), in.position(row*rowLength*Double.BYTES), rowLength*Double.BYTES);
+				}
+			});
+		} else {
+			/* tiles spanned by the fastest source axis (0) and the fastest destination axis (a) */
+			long tilesX = (dimensions[0]+BLOCK_SIZE-1)/BLOCK_SIZE;
+			long tilesY = (dimensions[a]+BLOCK_SIZE-1)/BLOCK_SIZE;
+			long numOther = numElements/(dimensions[0]*dimensions[a]);
+			forEachRange(numOther*tilesX*tilesY, numElements, (from,to)->{
+				DoublePointer in = src.pointerAt(0);
+				DoublePointer out = dst.pointerAt(0);
+				double[][] buffers = BUFFERS.get();
+				for(long tile = from; tile < to; tile++){
+					long x0 = (tile % tilesX)*BLOCK_SIZE;
+					long y0 = ((tile / tilesX) % tilesY)*BLOCK_SIZE;
+					long rem = tile/(tilesX*tilesY);
+					long inBase = x0 + y0*inStrides[a];
+					long outBase = x0*outStrides[0] + y0;
+					for(int j = 1; j < rank; j++){
+						if(j != a){
+							long c = rem % dimensions[j];
+							rem /= dimensions[j];
+							inBase += c*inStrides[j];
+							outBase += c*outStrides[j];
+						}
+					}
+					int w = (int)Math.min(BLOCK_SIZE, dimensions[0]-x0);
+					int h = (int)Math.min(BLOCK_SIZE, dimensions[a]-y0);
+					readTile(in, inBase, inStrides[a], w, h, buffers[0]);
+					transposeTile(buffers[0], buffers[1], w, h);
+					writeTile(out, outBase, outStrides[0], h, w, buffers[1]);
+				}
+			});
+		}
+		FFTW_Events.commit(event, "permute", dimensions, 1, 0, FFTW_Plan.NUM_THREADS, numElements*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "permute", dimensions, 1, numElements*Double.BYTES);
+	}
+
+	/**
+	 * Transposes the square 2D data of the specified size in place,
+	 * i.e. swaps the elements at (x,y) and (y,x).
+	 * @param array to be transposed
+	 * @param size width and height of the data
+	 * @throws NullPointerException when the array is null
+	 * @throws IllegalArgumentException <br>
+	 * when size is not positive <br>
+	 * when the array's length is not size*size
+	 * @throws IllegalStateException when the array has already been closed
+	 * @see #transpose(NativeRealArray, NativeRealArray, long, long)
+	 */
+	@DoublePrecisionVersion
+	public static void transposeInPlace(NativeRealArray array, long size) {
+		/* sanity checks */
+		Objects.requireNonNull(array, ()->"Cannot use null as array parameter.");
+		GeneralUtils.requirePositive(size, ()->"Size needs to be positive but is " + size + ".");
+		long numElements = size*size;
+		requireLength(array, numElements, "array");
+		requireOpen(array);
+
+		Object event = FFTW_Events.begin(FFTW_Events.TRANSFER);
+		long startTime = Listeners.startTime();
+		long tiles = (size+BLOCK_SIZE-1)/BLOCK_SIZE;
+		/* each task swaps the tiles of a tile row right of the diagonal with their mirrored tiles */
+		tasks(tiles, numElements).forEach(ti->{
+			DoublePointer p = array.pointerAt(0);
+			double[][] buffers = BUFFERS.get();
+			long y0 = ti*BLOCK_SIZE;
+			int h = (int)Math.min(BLOCK_SIZE, size-y0);
+			for(long tj = ti; tj < tiles; tj++){
+				long x0 = tj*BLOCK_SIZE;
+				int w = (int)Math.min(BLOCK_SIZE, size-x0);
+				readTile(p, x0+y0*size, size, w, h, buffers[0]);
+				if(tj != ti){
+					readTile(p, y0+x0*size, size, h, w, buffers[1]);
+					transposeTile(buffers[1], buffers[2], h, w);
+					writeTile(p, x0+y0*size, size, w, h, buffers[2]);
+				}
+				transposeTile(buffers[0], buffers[2], w, h);
+				writeTile(p, y0+x0*size, size, h, w, buffers[2]);
+			}
+		});
+		FFTW_Events.commit(event, "transpose", new long[]{size,size}, 1, 0, FFTW_Plan.NUM_THREADS, numElements*Double.BYTES);
+		Listeners.notifySince(startTime, Phase.TRANSFER, "transpose", new long[]{size,size}, 1, numElements*Double.BYTES);
+	}
+
+	/* reads h rows of w elements that are rowStride apart into buffer (w x h tile) */
+	private static void readTile(DoublePointer p, long base, long rowStride, int w, int h, double[] buffer) {
+		for(int y = 0; y < h; y++){
+			p.position(base+y*rowStride).get(buffer, y*w, w);
+		}
+	}
+
+	/* writes h rows of w elements from buffer (w x h tile) with rows rowStride apart */
+	private static void writeTile(DoublePointer p, long base, long rowStride, int w, int h, double[] buffer) {
+		for(int y = 0; y < h; y++){
+			p.position(base+y*rowStride).put(buffer, y*w, w);
+		}
+	}
+
+	/* transposes the w x h tile src into the h x w tile dst */
+	private static void transposeTile(double[] src, double[] dst, int w, int h) {
+		for(int y = 0; y < h; y++){
+			for(int x = 0; x < w; x++){
+				dst[x*h+y] = src[y*w+x];
+			}
+		}
+	}
+
+	/* splits the tasks into a few contiguous ranges per worker thread, so that per range state (pointers, buffers) is set up once */
+	private static void forEachRange(long numTasks, long numElements, RangeTask task) {
+		long numRanges = numElements < PrecisionDependentUtils.PARALLEL_TRANSFER_THRESHOLD ?
+				1 : Math.min(numTasks, RANGES_PER_THREAD*ForkJoinPool.getCommonPoolParallelism());
+		if(numRanges == 1){
+			task.run(0, numTasks);
+		} else {
+			LongStream.range(0, numRanges).parallel()
+			.forEach(r->task.run(r*numTasks/numRanges, (r+1)*numTasks/numRanges));
+		}
+	}
+
+	private interface RangeTask {
+		/* processes the tasks from (inclusive) to (exclusive) */
+		void run(long from, long to);
+	}
+
+	private static LongStream tasks(long numTasks, long numElements) {
+		LongStream tasks = LongStream.range(0, numTasks);
+		return numElements < PrecisionDependentUtils.PARALLEL_TRANSFER_THRESHOLD ? tasks : tasks.parallel();
+	}
+
+	private static void requireLength(NativeRealArray array, long numElements, String arrayIdentifier) {
+		GeneralUtils.requireEqual(array.length, numElements,
+				()->"Length of " + arrayIdentifier + " (" + array.length + ") does not match number of elements determined from dimensions (" + numElements + ").");
+	}
+
+	private static void requireOpen(NativeRealArray array) {
+		if(array.isClosed()){
+			/* a copy of the null pointer would point to address 0 */
+			throw new IllegalStateException("Cannot transpose, native array has already been closed.");
+		}
+	}
+
+}
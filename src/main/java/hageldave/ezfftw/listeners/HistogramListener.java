@@ -0,0 +1,178 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.listeners;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link TransformListener} that aggregates the durations of each {@link Phase} in
+ * histograms with logarithmic (power of two) buckets.
+ * <p>
+ * Bucket <tt>b</tt> counts durations <tt>d</tt> with <tt>2^(b-1) &lt;= d &lt; 2^b</tt> nanoseconds
+ * (bucket 0 counts durations of 0ns). Recording is lock free and does not allocate,
+ * percentiles are therefore only accurate up to a factor of 2 and are reported as the upper
+ * bound of the bucket containing the percentile.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+public class HistogramListener implements TransformListener {
+
+	/** number of buckets of a histogram */
+	public static final int NUM_BUCKETS = 64;
+
+	private final Histogram[] histograms = new Histogram[Phase.values().length];
+
+	/**
+	 * Creates a new HistogramListener with empty histograms.
+	 */
+	public HistogramListener() {
+		for(int i = 0; i < histograms.length; i++){
+			histograms[i] = new Histogram();
+		}
+	}
+
+	@Override
+	public void onCall(Phase phase, String kind, long[] shape, long howmany, long bytes, long nanos) {
+		histograms[phase.ordinal()].record(Math.max(0, nanos), bytes);
+	}
+
+	/**
+	 * Returns the number of recorded calls of the specified phase.
+	 * @param phase of interest
+	 * @return number of calls
+	 */
+	public long getCount(Phase phase) {
+		return histograms[phase.ordinal()].count.sum();
+	}
+
+	/**
+	 * Returns the accumulated duration of the specified phase.
+	 * @param phase of interest
+	 * @return total nanoseconds
+	 */
+	public long getTotalNanos(Phase phase) {
+		return histograms[phase.ordinal()].totalNanos.sum();
+	}
+
+	/**
+	 * Returns the longest duration of the specified phase.
+	 * @param phase of interest
+	 * @return maximum nanoseconds
+	 */
+	public long getMaxNanos(Phase phase) {
+		return histograms[phase.ordinal()].maxNanos.get();
+	}
+
+	/**
+	 * Returns the accumulated number of bytes read and written in the specified phase.
+	 * @param phase of interest
+	 * @return total bytes
+	 */
+	public long getTotalBytes(Phase phase) {
+		return histograms[phase.ordinal()].totalBytes.sum();
+	}
+
+	/**
+	 * Returns the counts of the buckets of the specified phase's histogram.
+	 * @param phase of interest
+	 * @return array of {@link #NUM_BUCKETS} counts
+	 */
+	public long[] getBucketCounts(Phase phase) {
+		AtomicLongArray buckets = histograms[phase.ordinal()].buckets;
+		long[] counts = new long[NUM_BUCKETS];
+		for(int b = 0; b < NUM_BUCKETS; b++){
+			counts[b] = buckets.get(b);
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns an estimate of the specified percentile of the durations of the specified phase,
+	 * which is the upper bound of the bucket containing the percentile (but at most the maximum duration).
+	 * @param phase of interest
+	 * @param percentile in [0,1], e.g. 0.99 for the 99th percentile
+	 * @return estimated percentile in nanoseconds, 0 when no calls were recorded
+	 * @throws IllegalArgumentException when percentile is not in [0,1]
+	 */
+	public long getPercentileNanos(Phase phase, double percentile) {
+		if(!(percentile >= 0 && percentile <= 1)){
+			throw new IllegalArgumentException("Percentile needs to be in [0,1] but is " + percentile + ".");
+		}
+		long[] counts = getBucketCounts(phase);
+		long total = 0;
+		for(long c: counts)
+			total += c;
+		if(total == 0){
+			return 0;
+		}
+		long rank = Math.max(1, (long)Math.ceil(percentile*total));
+		long cumulative = 0;
+		for(int b = 0; b < NUM_BUCKETS; b++){
+			cumulative += counts[b];
+			if(cumulative >= rank){
+				long upperBound = b == 0 ? 0 : (b == NUM_BUCKETS-1 ? Long.MAX_VALUE : (1L<<b)-1);
+				return Math.min(upperBound, getMaxNanos(phase));
+			}
+		}
+		return getMaxNanos(phase);
+	}
+
+	/**
+	 * Clears all histograms.
+	 * Calls that are recorded concurrently may be partially cleared.
+	 */
+	public void reset() {
+		for(Histogram h: histograms){
+			h.reset();
+		}
+	}
+
+	private static final class Histogram {
+		final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+		final LongAdder count = new LongAdder();
+		final LongAdder totalNanos = new LongAdder();
+		final LongAdder totalBytes = new LongAdder();
+		final AtomicLong maxNanos = new AtomicLong();
+
+		void record(long nanos, long bytes) {
+			/* floor(log2(nanos))+1, 0 for nanos=0 */
+			int bucket = Math.min(NUM_BUCKETS-1, 64-Long.numberOfLeadingZeros(nanos));
+			buckets.incrementAndGet(bucket);
+			count.increment();
+			totalNanos.add(nanos);
+			totalBytes.add(bytes);
+			long max;
+			while(nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos));
+		}
+
+		void reset() {
+			for(int b = 0; b < NUM_BUCKETS; b++){
+				buckets.set(b, 0);
+			}
+			count.reset();
+			totalNanos.reset();
+			totalBytes.reset();
+			maxNanos.set(0);
+		}
+	}
+
+}
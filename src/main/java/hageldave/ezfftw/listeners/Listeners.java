@@ -0,0 +1,172 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.listeners;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hageldave.ezfftw.listeners.TransformListener.Phase;
+
+/**
+ * Registry of the {@link TransformListener}s that are notified by the transforms of ezFFTW.
+ * <p>
+ * The registered listeners are kept in an array that is replaced on every change
+ * (copy on write), so that notifying does not require locking. When no listener is
+ * registered, the cost of the notification hooks is a single volatile read.
+ * Exceptions thrown by listeners are logged and do not affect the transform.
+ * <p>
+ * Example Code:
+ * <pre>
+ * {@code
+ * HistogramListener histogram = new HistogramListener();
+ * Listeners.add(histogram);
+ * Listeners.add(new SlowCallLogger(10, TimeUnit.MILLISECONDS));
+ * ...
+ * long p99 = histogram.getPercentileNanos(Phase.EXECUTE, 0.99);
+ * }</pre>
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+public final class Listeners {
+
+	/** start time returned by {@link #startTime()} when no listener is registered */
+	public static final long NOT_LISTENING = Long.MIN_VALUE;
+
+	private static final TransformListener[] NONE = {};
+	private static final ReentrantLock LOCK = new ReentrantLock();
+	private static final Logger LOGGER = Logger.getLogger(Listeners.class.getName());
+	private static volatile TransformListener[] listeners = NONE;
+
+	private Listeners() {}
+
+	/**
+	 * Registers the specified listener. A listener that is added multiple times is notified multiple times.
+	 * @param listener to be notified
+	 * @throws NullPointerException when listener is null
+	 */
+	public static void add(TransformListener listener) {
+		Objects.requireNonNull(listener, ()->"Cannot add null as listener.");
+		LOCK.lock();
+		try {
+			TransformListener[] l = Arrays.copyOf(listeners, listeners.length+1);
+			l[l.length-1] = listener;
+			listeners = l;
+		} finally {
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Unregisters the specified listener (once if it was added multiple times).
+	 * @param listener to be removed
+	 * @return true when the listener was registered
+	 */
+	public static boolean remove(TransformListener listener) {
+		LOCK.lock();
+		try {
+			TransformListener[] l = listeners;
+			for(int i = 0; i < l.length; i++){
+				if(l[i] == listener){
+					TransformListener[] removed = Arrays.copyOf(l, l.length-1);
+					System.arraycopy(l, i+1, removed, i, l.length-i-1);
+					listeners = removed.length == 0 ? NONE : removed;
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Unregisters all listeners.
+	 */
+	public static void clear() {
+		listeners = NONE;
+	}
+
+	/**
+	 * Returns the registered listeners.
+	 * @return copy of the array of registered listeners
+	 */
+	public static TransformListener[] getListeners() {
+		return listeners.clone();
+	}
+
+	/**
+	 * Returns whether at least one listener is registered.
+	 * @return true when listeners are registered
+	 */
+	public static boolean isListening() {
+		return listeners.length != 0;
+	}
+
+	/**
+	 * Returns the current time for timing a phase that is reported by {@link #notifySince(long, Phase, String, long[], long, long)},
+	 * or {@link #NOT_LISTENING} when no listener is registered so that the time does not need to be taken.
+	 * @return {@link System#nanoTime()} or {@link #NOT_LISTENING}
+	 */
+	public static long startTime() {
+		return listeners.length == 0 ? NOT_LISTENING : System.nanoTime();
+	}
+
+	/**
+	 * Notifies the registered listeners about a phase that started at the specified time.
+	 * Does nothing when the start time is {@link #NOT_LISTENING}.
+	 * @param startTime as returned by {@link #startTime()}
+	 * @param phase completed phase
+	 * @param kind transform kind or transfer source/destination
+	 * @param shape dimensions of a single signal
+	 * @param howmany number of signals
+	 * @param bytes number of bytes read and written
+	 * @see TransformListener#onCall(Phase, String, long[], long, long, long)
+	 */
+	public static void notifySince(long startTime, Phase phase, String kind, long[] shape, long howmany, long bytes) {
+		if(startTime != NOT_LISTENING){
+			notifyListeners(phase, kind, shape, howmany, bytes, System.nanoTime()-startTime);
+		}
+	}
+
+	/**
+	 * Notifies the registered listeners about a completed phase.
+	 * @param phase completed phase
+	 * @param kind transform kind or transfer source/destination
+	 * @param shape dimensions of a single signal
+	 * @param howmany number of signals
+	 * @param bytes number of bytes read and written
+	 * @param nanos duration of the phase
+	 * @see TransformListener#onCall(Phase, String, long[], long, long, long)
+	 */
+	public static void notifyListeners(Phase phase, String kind, long[] shape, long howmany, long bytes, long nanos) {
+		TransformListener[] l = listeners;
+		for(int i = 0; i < l.length; i++){
+			try {
+				l[i].onCall(phase, kind, shape, howmany, bytes, nanos);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Listener " + l[i] + " threw an exception.", e);
+			}
+		}
+	}
+
+}
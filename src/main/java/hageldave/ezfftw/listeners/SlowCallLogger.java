@@ -0,0 +1,85 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.listeners;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hageldave.ezfftw.GeneralUtils;
+
+/**
+ * A {@link TransformListener} that logs phases taking longer than a threshold
+ * using <tt>java.util.logging</tt>, e.g.
+ * <pre>
+ * Slow EXECUTE of r2c 4096x4096: 412.345 ms (1 signals, 402653184 bytes)
+ * </pre>
+ * By default, messages are logged to the logger <tt>hageldave.ezfftw</tt> at level {@link Level#WARNING}.
+ * Nothing is formatted for calls below the threshold.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ */
+public class SlowCallLogger implements TransformListener {
+
+	/** name of the default logger */
+	public static final String DEFAULT_LOGGER_NAME = "hageldave.ezfftw";
+
+	/** calls taking at least this many nanoseconds are logged */
+	public final long thresholdNanos;
+	private final Logger logger;
+	private final Level level;
+
+	/**
+	 * Creates a new SlowCallLogger logging to the default logger at level {@link Level#WARNING}.
+	 * @param threshold duration from which on calls are logged
+	 * @param unit of the threshold
+	 * @throws NullPointerException when unit is null
+	 */
+	public SlowCallLogger(long threshold, TimeUnit unit) {
+		this(threshold, unit, Logger.getLogger(DEFAULT_LOGGER_NAME), Level.WARNING);
+	}
+
+	/**
+	 * Creates a new SlowCallLogger.
+	 * @param threshold duration from which on calls are logged
+	 * @param unit of the threshold
+	 * @param logger to log to
+	 * @param level to log at
+	 * @throws NullPointerException when one of unit, logger or level is null
+	 */
+	public SlowCallLogger(long threshold, TimeUnit unit, Logger logger, Level level) {
+		Objects.requireNonNull(unit, ()->"Cannot use null as unit.");
+		Objects.requireNonNull(logger, ()->"Cannot use null as logger.");
+		Objects.requireNonNull(level, ()->"Cannot use null as level.");
+		this.thresholdNanos = unit.toNanos(threshold);
+		this.logger = logger;
+		this.level = level;
+	}
+
+	@Override
+	public void onCall(Phase phase, String kind, long[] shape, long howmany, long bytes, long nanos) {
+		if(nanos >= thresholdNanos && logger.isLoggable(level)){
+			logger.log(level, String.format("Slow %s of %s %s: %.3f ms (%d signals, %d bytes)",
+					phase, kind, GeneralUtils.dimensionsToString(shape), nanos*1e-6, howmany, bytes));
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.listeners;
+
+/**
+ * The TransformListener interface is a single method interface for observing the
+ * planning, execution and data transfer phases of the transforms of ezFFTW
+ * (e.g. to feed a metrics library).
+ * Listeners are registered through {@link Listeners#add(TransformListener)}.
+ * <p>
+ * Listeners are called synchronously on the thread performing the transform,
+ * possibly from many threads concurrently. Implementations should therefore be
+ * thread safe and return quickly.
+ *
+ * @author hageldave
+ * @since 0.1.3
+ * @see HistogramListener
+ * @see SlowCallLogger
+ */
+@FunctionalInterface
+public interface TransformListener {
+
+	/** Phase of a transform that is reported to a {@link TransformListener}. */
+	public static enum Phase {
+		/** creation of a plan by the FFTW planner */
+		PLAN,
+		/** execution of a plan */
+		EXECUTE,
+		/** copying data between a native array and a java array, sampler or writer */
+		TRANSFER;
+	}
+
+	/**
+	 * Is called after a phase of a transform has completed.
+	 * @param phase the completed phase
+	 * @param kind for {@link Phase#PLAN} and {@link Phase#EXECUTE} the transform kind (<tt>r2c</tt>, <tt>c2c</tt> or <tt>c2r</tt>),
+	 * for {@link Phase#TRANSFER} the source or destination (<tt>sampler</tt>, <tt>writer</tt>, <tt>array in</tt> or <tt>array out</tt>)
+	 * @param shape dimensions of a single signal, must not be modified
+	 * @param howmany number of signals of a batched transform, 1 otherwise
+	 * @param bytes number of bytes read and written (0 for planning)
+	 * @param nanos duration of the phase in nanoseconds
+	 */
+	public void onCall(Phase phase, String kind, long[] shape, long howmany, long bytes, long nanos);
+
+}
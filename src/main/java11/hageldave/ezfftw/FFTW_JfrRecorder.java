@@ -0,0 +1,140 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder backed implementation of {@link FFTW_Events}.
+ * This class references the jdk.jfr API and is therefore only loaded when it is present.
+ *
+ * @author hageldave
+ */
+final class FFTW_JfrRecorder implements FFTW_Events.Recorder {
+
+	/* event types in order of FFTW_Events constants, looked up once flight recorder is initialized */
+	private volatile EventType[] types;
+
+	@Override
+	public boolean isEnabled(int type) {
+		/* no recording has ever been started, avoid initializing jfr metadata */
+		if(!FlightRecorder.isInitialized()){
+			return false;
+		}
+		EventType[] t = types;
+		if(t == null){
+			types = t = new EventType[]{
+					EventType.getEventType(PlanEvent.class),
+					EventType.getEventType(ExecuteEvent.class),
+					EventType.getEventType(PlannerLockEvent.class),
+					EventType.getEventType(TransferEvent.class)};
+		}
+		return t[type].isEnabled();
+	}
+
+	@Override
+	public Object begin(int type) {
+		if(!isEnabled(type)){
+			return null;
+		}
+		FFTWEvent event;
+		switch (type) {
+		case FFTW_Events.PLAN:         event = new PlanEvent(); break;
+		case FFTW_Events.EXECUTE:      event = new ExecuteEvent(); break;
+		case FFTW_Events.PLANNER_LOCK: event = new PlannerLockEvent(); break;
+		case FFTW_Events.TRANSFER:     event = new TransferEvent(); break;
+		default: throw new IllegalArgumentException("Unknown event type " + type);
+		}
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void commit(Object event, String kind, long[] shape, long howmany, int flags, int threads, long bytes) {
+		FFTWEvent e = (FFTWEvent) event;
+		e.end();
+		if(e.shouldCommit()){
+			e.kind = kind;
+			e.shape = GeneralUtils.dimensionsToString(shape);
+			e.howmany = howmany;
+			e.flags = flags;
+			e.threads = threads;
+			e.bytes = bytes;
+			e.commit();
+		}
+	}
+
+	@Category("ezFFTW")
+	@Enabled(false)
+	@StackTrace(false)
+	static abstract class FFTWEvent extends Event {
+		@Label("Kind")
+		@Description("Transform kind (r2c, c2c, c2r) or transfer source/destination (sampler, writer, array in, array out)")
+		String kind;
+
+		@Label("Shape")
+		@Description("Dimensions of a single signal")
+		String shape;
+
+		@Label("Signals")
+		@Description("Number of signals of a batched transform")
+		long howmany;
+
+		@Label("Planner Flags")
+		int flags;
+
+		@Label("FFTW Threads")
+		int threads;
+
+		@Label("Bytes")
+		@Description("Number of bytes read and written")
+		@DataAmount
+		long bytes;
+	}
+
+	@Name("hageldave.ezfftw.Plan")
+	@Label("FFTW Planning")
+	@Description("Creation of an FFTW plan (while holding the planner lock)")
+	static final class PlanEvent extends FFTWEvent {}
+
+	@Name("hageldave.ezfftw.Execute")
+	@Label("FFTW Execution")
+	@Description("Execution of an FFTW plan")
+	static final class ExecuteEvent extends FFTWEvent {}
+
+	@Name("hageldave.ezfftw.PlannerLock")
+	@Label("FFTW Planner Lock")
+	@Description("Waiting for the planner lock before creating or destroying a plan")
+	static final class PlannerLockEvent extends FFTWEvent {}
+
+	@Name("hageldave.ezfftw.Transfer")
+	@Label("ezFFTW Transfer")
+	@Description("Copying between a java array, sampler or writer and a native array")
+	static final class TransferEvent extends FFTWEvent {}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+import jdk.incubator.vector.DoubleVector; //#FLOATGEN_IGNORE
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of the {@link ArrayMath} kernels.
+ * This class references the <tt>jdk.incubator.vector</tt> module and is therefore only compiled
+ * on JDK 16+ and loaded by {@link ArrayMath} when the module is available.
+ * Elements that do not fill a whole vector are processed by scalar loops.
+ *
+ * @author hageldave
+ */
+@DoublePrecisionVersion
+final class VectorizedArrayMath implements ArrayMath.Kernels {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	/* single vector shuffles and blend masks for (de)interleaving, two vector shuffles are not intrinsified */
+	private static final VectorShuffle<Double> ZIP_LO = zip(0), ZIP_HI = zip(1);
+	private static final VectorShuffle<Double> UNZIP_EVEN = unzip(0), UNZIP_ODD = unzip(1);
+	private static final VectorMask<Double> ODD_LANES = VectorMask.fromLong(SPECIES, 0xAAAAAAAAAAAAAAAAL);
+	private static final VectorMask<Double> UPPER_LANES = VectorMask.fromLong(SPECIES, -1L << SPECIES.length()/2);
+	/* species of equal number of lanes for precision conversion */
+	private static final VectorSpecies<Double> WIDE = DoubleVector.SPECIES_PREFERRED; //#FLOATGEN_IGNORE
+	private static final VectorSpecies<Float> NARROW = VectorSpecies.of(float.class, VectorShape.forBitSize(WIDE.vectorBitSize()/2)); //#FLOATGEN_IGNORE
+
+	/* duplicates each lane of the lower or upper half, (x0,x0,x1,x1,..) */
+	private static VectorShuffle<Double> zip(int half) {
+		int n = SPECIES.length();
+		return VectorShuffle.fromOp(SPECIES, j -> half*n/2 + j/2);
+	}
+
+	/* moves even or odd lanes to the lower half and again to the upper half, (x0,x2,..,x0,x2,..) */
+	private static VectorShuffle<Double> unzip(int parity) {
+		int n = SPECIES.length();
+		return VectorShuffle.fromOp(SPECIES, j -> (2*j+parity) % n);
+	}
+
+	@Override
+	public void widen(float[] src, int srcPos, double[] dst, int dstPos, int length) { //#FLOATGEN_IGNORE
+		int i = 0;
+		for(int bound = WIDE.loopBound(length); i < bound; i += WIDE.length()){ //#FLOATGEN_IGNORE
+			FloatVector f = FloatVector.fromArray(NARROW, src, srcPos+i);
+			((DoubleVector)f.convertShape(VectorOperators.F2D, WIDE, 0)).intoArray(dst, dstPos+i); //#FLOATGEN_IGNORE
+		}
+		for(; i < length; i++){
+			dst[dstPos+i] = src[srcPos+i];
+		}
+	}
+
+	@Override
+	public void narrow(double[] src, int srcPos, float[] dst, int dstPos, int length) { //#FLOATGEN_IGNORE
+		int i = 0;
+		for(int bound = WIDE.loopBound(length); i < bound; i += WIDE.length()){ //#FLOATGEN_IGNORE
+			DoubleVector d = DoubleVector.fromArray(WIDE, src, srcPos+i); //#FLOATGEN_IGNORE
+			((FloatVector)d.convertShape(VectorOperators.D2F, NARROW, 0)).intoArray(dst, dstPos+i); //#FLOATGEN_IGNORE
+		}
+		for(; i < length; i++){
+			dst[dstPos+i] = (float)src[srcPos+i]; //#FLOATGEN_IGNORE
+		}
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void interleave(double[] real, double[] imag, int pos, double[] interleaved, int interleavedPos, int length) {
+		int n = SPECIES.length();
+		int i = 0;
+		for(int bound = SPECIES.loopBound(length); i < bound; i += n){
+			DoubleVector re = DoubleVector.fromArray(SPECIES, real, pos+i);
+			DoubleVector im = DoubleVector.fromArray(SPECIES, imag, pos+i);
+			re.rearrange(ZIP_LO).blend(im.rearrange(ZIP_LO), ODD_LANES).intoArray(interleaved, interleavedPos+2*i);
+			re.rearrange(ZIP_HI).blend(im.rearrange(ZIP_HI), ODD_LANES).intoArray(interleaved, interleavedPos+2*i+n);
+		}
+		for(; i < length; i++){
+			interleaved[interleavedPos+2*i] = real[pos+i];
+			interleaved[interleavedPos+2*i+1] = imag[pos+i];
+		}
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void deinterleave(double[] interleaved, int interleavedPos, double[] real, double[] imag, int pos, int length) {
+		int n = SPECIES.length();
+		int i = 0;
+		for(int bound = SPECIES.loopBound(length); i < bound; i += n){
+			DoubleVector lo = DoubleVector.fromArray(SPECIES, interleaved, interleavedPos+2*i);
+			DoubleVector hi = DoubleVector.fromArray(SPECIES, interleaved, interleavedPos+2*i+n);
+			lo.rearrange(UNZIP_EVEN).blend(hi.rearrange(UNZIP_EVEN), UPPER_LANES).intoArray(real, pos+i);
+			lo.rearrange(UNZIP_ODD).blend(hi.rearrange(UNZIP_ODD), UPPER_LANES).intoArray(imag, pos+i);
+		}
+		for(; i < length; i++){
+			real[pos+i] = interleaved[interleavedPos+2*i];
+			imag[pos+i] = interleaved[interleavedPos+2*i+1];
+		}
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void multiply(double[] aReal, double[] aImag, double[] bReal, double[] bImag, double[] outReal, double[] outImag, int length) {
+		int i = 0;
+		for(int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()){
+			DoubleVector ar = DoubleVector.fromArray(SPECIES, aReal, i);
+			DoubleVector ai = DoubleVector.fromArray(SPECIES, aImag, i);
+			DoubleVector br = DoubleVector.fromArray(SPECIES, bReal, i);
+			DoubleVector bi = DoubleVector.fromArray(SPECIES, bImag, i);
+			ar.mul(br).sub(ai.mul(bi)).intoArray(outReal, i);
+			ar.mul(bi).add(ai.mul(br)).intoArray(outImag, i);
+		}
+		for(; i < length; i++){
+			double ar = aReal[i], ai = aImag[i];
+			double br = bReal[i], bi = bImag[i];
+			outReal[i] = ar*br - ai*bi;
+			outImag[i] = ar*bi + ai*br;
+		}
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void magnitude(double[] real, double[] imag, double[] magnitude, int length) {
+		int i = 0;
+		for(int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()){
+			DoubleVector r = DoubleVector.fromArray(SPECIES, real, i);
+			DoubleVector j = DoubleVector.fromArray(SPECIES, imag, i);
+			r.mul(r).add(j.mul(j)).lanewise(VectorOperators.SQRT).intoArray(magnitude, i);
+		}
+		for(; i < length; i++){
+			double r = real[i], j = imag[i];
+			magnitude[i] = (double)Math.sqrt(r*r + j*j);
+		}
+	}
+
+	@Override
+	@DoublePrecisionVersion
+	public void scale(double[] array, double factor, int length) {
+		int i = 0;
+		for(int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()){
+			DoubleVector.fromArray(SPECIES, array, i).mul(factor).intoArray(array, i);
+		}
+		for(; i < length; i++){
+			array[i] *= factor;
+		}
+	}
+
+}
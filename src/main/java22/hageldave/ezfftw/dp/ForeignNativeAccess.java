@@ -0,0 +1,116 @@
+/*
+ * ezFFTW - Copyright 2018 David Haegele
+ * 
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package hageldave.ezfftw.dp;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+
+import hageldave.ezfftw.FFTW_Initializer;
+import hageldave.ezfftw.Annotations.DoublePrecisionVersion;
+
+/**
+ * <tt>java.lang.foreign</tt> implementation of the {@link NativeRealArray} memory access and plan execution.
+ * This class is only compiled on JDK 22+ and loaded by {@link NativeRealArray} when enabled by
+ * {@link NativeRealArray#FOREIGN_ACCESS_PROPERTY}. It refuses to load when native access is not enabled
+ * for its module, so that the restricted methods are never called with a warning or an exception.
+ * Bulk transfers are {@link MemorySegment#copy(Object, int, MemorySegment, ValueLayout, long, int)}
+ * and plans are executed through a downcall handle to <tt>fftw_execute</tt> of the library loaded by JavaCPP.
+ * <p>
+ * The segments are views of the memory allocated by JavaCPP with global scope,
+ * {@link NativeRealArray} drops them when closed.
+ *
+ * @author hageldave
+ */
+@DoublePrecisionVersion
+final class ForeignNativeAccess implements NativeRealArray.NativeAccess {
+
+	private static final ValueLayout.OfDouble ELEMENT = ValueLayout.JAVA_DOUBLE;
+
+	private final MethodHandle execute;
+
+	ForeignNativeAccess() {
+		if(!ForeignNativeAccess.class.getModule().isNativeAccessEnabled()){
+			throw new UnsupportedOperationException("Foreign access requires native access to be enabled (--enable-native-access).");
+		}
+		/* plan passed as 64 bit integer (same calling convention as a pointer on 64 bit platforms),
+		 * wrapping it in a MemorySegment on every execution would allocate */
+		if(ValueLayout.ADDRESS.byteSize() != Long.BYTES){
+			throw new UnsupportedOperationException("Foreign access requires a 64 bit platform.");
+		}
+		/* symbols of the libraries loaded by JavaCPP are visible to the loader lookup */
+		FFTW_Initializer.initFFTW();
+		MemorySegment symbol = SymbolLookup.loaderLookup().find("fftw_execute").orElseThrow();
+		this.execute = Linker.nativeLinker().downcallHandle(symbol, FunctionDescriptor.ofVoid(ValueLayout.JAVA_LONG));
+	}
+
+	@Override
+	public NativeRealArray.NativeMemory memory(long address, long length) {
+		return new SegmentMemory(MemorySegment.ofAddress(address).reinterpret(length*ELEMENT.byteSize()));
+	}
+
+	@Override
+	public void execute(long plan) {
+		try {
+			execute.invokeExact(plan);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException("Failed to execute plan.", t);
+		}
+	}
+
+	/** memory of a single array */
+	private static final class SegmentMemory implements NativeRealArray.NativeMemory {
+
+		private final MemorySegment segment;
+
+		SegmentMemory(MemorySegment segment) {
+			this.segment = segment;
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		public void set(long i, double v) {
+			segment.setAtIndex(ELEMENT, i, v);
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		public double get(long i) {
+			return segment.getAtIndex(ELEMENT, i);
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		public void set(long i, double[] values, int offset, int length) {
+			MemorySegment.copy(values, offset, segment, ELEMENT, i*ELEMENT.byteSize(), length);
+		}
+
+		@Override
+		@DoublePrecisionVersion
+		public void get(long i, double[] destination, int offset, int length) {
+			MemorySegment.copy(segment, ELEMENT, i*ELEMENT.byteSize(), destination, offset, length);
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package hageldave.ezfftw;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.dp.FFTW_Guru;
+import hageldave.ezfftw.dp.NativeRealArray;
+
+public class FFTW_InitializerTest {
+
+	@Test
+	public void testInitAsync() throws Exception {
+		CompletableFuture<Void> future = FFTW_Initializer.initFFTWAsync();
+		future.get(60, TimeUnit.SECONDS);
+		assertTrue(FFTW_Initializer.isInitialized());
+		assertFalse(future.isCompletedExceptionally());
+		// subsequent calls return completed futures
+		assertTrue(FFTW_Initializer.initFFTWAsync().isDone());
+		FFTW_Initializer.initFFTW();
+		assertFalse(FFTW_Initializer.PLANNER_REENTRANT_LOCK.isLocked());
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testLegacyPlannerLock() throws Exception {
+		CompletableFuture<Void> transform;
+		try(NativeRealArray a = new NativeRealArray(64); NativeRealArray b = new NativeRealArray(64);
+			NativeRealArray c = new NativeRealArray(64); NativeRealArray d = new NativeRealArray(64))
+		{
+			synchronized(FFTW_Initializer.PLANNER_LOCK){
+				transform = CompletableFuture.runAsync(()->FFTW_Guru.execute_split_c2c(a, b, c, d, 64));
+				// planning has to wait for the monitor of the deprecated lock
+				Thread.sleep(200);
+				assertFalse(transform.isDone());
+			}
+			transform.get(60, TimeUnit.SECONDS);
+		}
+		assertFalse(FFTW_Initializer.PLANNER_REENTRANT_LOCK.isLocked());
+	}
+
+}
@@ -0,0 +1,140 @@
+package hageldave.ezfftw;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.dp.AsyncFFT;
+import hageldave.ezfftw.dp.CoalescingFFT;
+import hageldave.ezfftw.dp.FFT;
+import hageldave.ezfftw.dp.FFTW_Plan;
+import hageldave.ezfftw.dp.NativeRealArray;
+
+public class FFTW_StatisticsTest {
+
+	@Test
+	public void testStatistics() throws Exception {
+		FFTW_Statistics stats = FFTW_Statistics.getStatistics();
+		stats.resetCounters();
+		assertEquals(0, stats.getNumTransforms());
+		assertEquals(0, stats.getNumPlans());
+		assertEquals(0, stats.getPlanningTimeMaxNanos());
+		assertEquals(0, stats.getPlanCacheHitRate(), 0);
+
+		double[] in = new double[13*5];
+		double[] re = new double[13*5];
+		double[] im = new double[13*5];
+		FFT.fft(in, re, im, 13,5);
+		FFT.fft(in, re, im, 13,5);
+		Map<String, Long> counts = stats.getTransformCounts();
+		assertEquals(Long.valueOf(2), counts.get("double r2c 13x5"));
+		assertTrue(stats.getNumTransforms() >= 2);
+		assertTrue(stats.getNumPlans() >= 2);
+		assertTrue(stats.getPlanningTimeTotalNanos() >= stats.getPlanningTimeMaxNanos());
+		assertTrue(stats.getExecuteTimeMaxNanos() > 0);
+		assertTrue(stats.getExecuteTimeTotalNanos() >= stats.getExecuteTimeMaxNanos());
+		assertTrue(stats.getPlannerLockWaitTotalNanos() >= stats.getPlannerLockWaitMaxNanos());
+
+		// live native arrays
+		long liveArrays = stats.getLiveNativeArrays();
+		long liveBytes = stats.getLiveNativeBytes();
+		try(NativeRealArray a = new NativeRealArray(10)){
+			assertEquals(liveArrays+1, stats.getLiveNativeArrays());
+			assertEquals(liveBytes+10*Double.BYTES, stats.getLiveNativeBytes());
+		}
+		assertEquals(liveArrays, stats.getLiveNativeArrays());
+
+		// pool usage
+		int poolThreads = stats.getPoolThreads();
+		try(AsyncFFT async = new AsyncFFT(3)){
+			assertEquals(poolThreads+3, stats.getPoolThreads());
+			async.fft(in, re, im, 13,5).get();
+			assertTrue(stats.getPoolActiveThreads() >= 0);
+			assertTrue(stats.getPoolQueuedTasks() >= 0);
+		}
+		assertEquals(poolThreads, stats.getPoolThreads());
+		assertEquals(Long.valueOf(3), stats.getTransformCounts().get("double r2c 13x5"));
+
+		// plan cache
+		try(CoalescingFFT coalescer = new CoalescingFFT(1, 0, java.util.concurrent.TimeUnit.NANOSECONDS)){
+			coalescer.fft(in, re, im, 13,5);
+			coalescer.fft(in, re, im, 13,5);
+		}
+		assertEquals(1, stats.getPlanCacheHits());
+		assertEquals(1, stats.getPlanCacheMisses());
+		assertEquals(0.5, stats.getPlanCacheHitRate(), 0);
+
+		// reset
+		stats.resetCounters();
+		assertEquals(0, stats.getNumTransforms());
+		assertEquals(0, stats.getExecuteTimeTotalNanos());
+		assertEquals(0, stats.getPlanCacheHits());
+		assertTrue(stats.getTransformCounts().isEmpty());
+		assertEquals(liveArrays, stats.getLiveNativeArrays());
+	}
+
+	@Test
+	public void testBatchedAndDisabled() throws Exception {
+		FFTW_Statistics stats = FFTW_Statistics.getStatistics();
+		stats.resetCounters();
+		// batched transforms are counted per signal under the shape of a single signal
+		try(
+			NativeRealArray in = new NativeRealArray(4*9);
+			NativeRealArray re = new NativeRealArray(4*9);
+			NativeRealArray im = new NativeRealArray(4*9);
+			FFTW_Plan plan = FFTW_Plan.plan_split_r2c_batched(in, re, im, 4, 9);
+		){
+			plan.execute();
+			plan.execute();
+			assertEquals(Long.valueOf(8), stats.getTransformCounts().get("double r2c 9"));
+			assertEquals(1, stats.getTransformCounts().size());
+
+			stats.setEnabled(false);
+			try {
+				assertFalse(FFTW_Statistics.isRecording());
+				plan.execute();
+				FFT.fft(new double[11], new double[11], new double[11], 11);
+				assertEquals(8, stats.getNumTransforms());
+				assertNull(stats.getTransformCounts().get("double r2c 11"));
+			} finally {
+				stats.setEnabled(true);
+			}
+			plan.execute();
+			assertEquals(12, stats.getNumTransforms());
+		}
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		assertTrue(FFTW_Statistics.registerMBean());
+		assertTrue(FFTW_Statistics.registerMBean());
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(FFTW_Statistics.OBJECT_NAME);
+		assertTrue(server.isRegistered(name));
+
+		FFT.fft(new double[7], new double[7], new double[7], 7);
+		assertTrue((Long)server.getAttribute(name, "NumTransforms") > 0);
+		TabularData counts = (TabularData)server.getAttribute(name, "TransformCounts");
+		boolean found = false;
+		for(Object row: counts.values()){
+			CompositeData entry = (CompositeData)row;
+			found |= "double r2c 7".equals(entry.get("key"));
+		}
+		assertTrue(found);
+
+		server.invoke(name, "resetCounters", null, null);
+		assertEquals(0L, server.getAttribute(name, "NumTransforms"));
+	}
+
+}
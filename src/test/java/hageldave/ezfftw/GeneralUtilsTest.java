@@ -26,6 +26,13 @@ public class GeneralUtilsTest {
 		JunitUtils.testException(()->GeneralUtils.requireEqual("hello", "hellu", ()->""), IllegalArgumentException.class);
 	}
 
+	@Test
+	public void testDimensionsToString() {
+		assertEquals("1024", GeneralUtils.dimensionsToString(1024));
+		assertEquals("16x4x1", GeneralUtils.dimensionsToString(16,4,1));
+		assertEquals("", GeneralUtils.dimensionsToString());
+	}
+
 	@Test
 	public void testCoordinates() {
 		assertEquals(0,GeneralUtils.numElementsFromDimensions(new long[]{}));
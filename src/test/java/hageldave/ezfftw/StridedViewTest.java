@@ -0,0 +1,71 @@
+package hageldave.ezfftw;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class StridedViewTest {
+
+	@Test
+	public void testViews() {
+		StridedView v = StridedView.of(10,9,8);
+		assertEquals(0, v.offset);
+		assertEquals(3, v.getRank());
+		assertArrayEquals(new long[]{10,9,8}, v.getSizes());
+		assertArrayEquals(new long[]{1,10,90}, v.getStrides());
+		assertEquals(720, v.getNumElements());
+		assertEquals(719, v.getMaxIndex());
+		long[] dims = {10,9,8};
+		assertEquals(GeneralUtils.indexFromCoordinates(new long[]{3,4,5}, dims), v.indexOf(3,4,5));
+
+		StridedView r = v.region(new long[]{2,3,4}, new long[]{5,6,4});
+		assertEquals(v.indexOf(2,3,4), r.offset);
+		assertEquals(v.indexOf(3,5,7), r.indexOf(1,2,3));
+		assertEquals(v.indexOf(6,8,7), r.getMaxIndex());
+
+		StridedView s = v.subsample(3,2,8);
+		assertArrayEquals(new long[]{4,5,1}, s.getSizes());
+		assertArrayEquals(new long[]{3,20,720}, s.getStrides());
+		assertEquals(v.indexOf(9,8,0), s.getMaxIndex());
+
+		StridedView column = v.axis(1, 4,100,6);
+		assertEquals(1, column.getRank());
+		assertArrayEquals(new long[]{9}, column.getSizes());
+		assertEquals(v.indexOf(4,0,6), column.offset);
+		assertEquals(v.indexOf(4,8,6), column.getMaxIndex());
+
+		r.requireFitsInto(720, "array");
+		JunitUtils.testException(()->v.requireFitsInto(719, "array"), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testLayouts() {
+		StridedView c = StridedView.lastFastest(8,9,10);
+		assertArrayEquals(new long[]{8,9,10}, c.getSizes());
+		assertArrayEquals(new long[]{90,10,1}, c.getStrides());
+		assertEquals(5*90+4*10+3, c.indexOf(5,4,3));
+		assertEquals(719, c.getMaxIndex());
+		StridedView f = StridedView.firstFastest(10,9,8);
+		assertArrayEquals(StridedView.of(10,9,8).getStrides(), f.getStrides());
+		// same memory order, axes reversed
+		assertEquals(f.indexOf(3,4,5), c.indexOf(5,4,3));
+	}
+
+	@Test
+	public void testExceptions() {
+		JunitUtils.testException(()->new StridedView(-1, new long[]{1}, new long[]{1}), IllegalArgumentException.class);
+		JunitUtils.testException(()->new StridedView(0, new long[]{}, new long[]{}), IllegalArgumentException.class);
+		JunitUtils.testException(()->new StridedView(0, new long[]{2,2}, new long[]{1}), IllegalArgumentException.class);
+		JunitUtils.testException(()->new StridedView(0, new long[]{2,0}, new long[]{1,2}), IllegalArgumentException.class);
+		JunitUtils.testException(()->new StridedView(0, new long[]{2,2}, new long[]{1,0}), IllegalArgumentException.class);
+		JunitUtils.testException(()->new StridedView(0, null, new long[]{1}), NullPointerException.class);
+		StridedView v = StridedView.of(4,4);
+		JunitUtils.testException(()->v.region(new long[]{2,2}, new long[]{3,1}), IllegalArgumentException.class);
+		JunitUtils.testException(()->v.region(new long[]{-1,0}, new long[]{1,1}), IllegalArgumentException.class);
+		JunitUtils.testException(()->v.region(new long[]{0}, new long[]{1}), IllegalArgumentException.class);
+		JunitUtils.testException(()->v.subsample(1,0), IllegalArgumentException.class);
+		JunitUtils.testException(()->v.axis(2, 0,0), IllegalArgumentException.class);
+	}
+
+}
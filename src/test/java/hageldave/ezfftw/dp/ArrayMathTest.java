@@ -0,0 +1,130 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class ArrayMathTest {
+
+	@Test
+	public void testConversions() {
+		float[] f = {1.5f, -2.25f, 3, 4};
+		double[] d = new double[6]; //#FLOATGEN_IGNORE
+		ArrayMath.widen(f, 1, d, 2, 3);
+		assertArrayEquals(new double[]{0,0,-2.25,3,4,0}, d, 0); //#FLOATGEN_IGNORE
+		float[] back = new float[4];
+		ArrayMath.narrow(d, 2, back, 0, 3);
+		assertArrayEquals(new float[]{-2.25f,3,4,0}, back, 0);
+
+		double[] real = {1,2,3};
+		double[] imag = {4,5,6};
+		double[] interleaved = new double[6];
+		ArrayMath.interleave(real, imag, interleaved);
+		assertArrayEquals(new double[]{1,4,2,5,3,6}, interleaved, 0);
+		double[] r = new double[3], i = new double[3];
+		ArrayMath.deinterleave(interleaved, r, i);
+		assertArrayEquals(real, r, 0);
+		assertArrayEquals(imag, i, 0);
+	}
+
+	@Test
+	public void testSpectralMath() {
+		Random rnd = new Random(0);
+		int n = 1001;
+		double[] aReal = new double[n], aImag = new double[n], bReal = new double[n], bImag = new double[n];
+		for(int k = 0; k < n; k++){
+			aReal[k] = rnd.nextDouble()*2-1;
+			aImag[k] = rnd.nextDouble()*2-1;
+			bReal[k] = rnd.nextDouble()*2-1;
+			bImag[k] = rnd.nextDouble()*2-1;
+		}
+		double[] outReal = new double[n], outImag = new double[n], magnitude = new double[n];
+		ArrayMath.multiply(aReal, aImag, bReal, bImag, outReal, outImag);
+		ArrayMath.magnitude(aReal, aImag, magnitude);
+		for(int k = 0; k < n; k++){
+			assertEquals(aReal[k]*bReal[k]-aImag[k]*bImag[k], outReal[k], doubleTolerance);
+			assertEquals(aReal[k]*bImag[k]+aImag[k]*bReal[k], outImag[k], doubleTolerance);
+			assertEquals(Math.hypot(aReal[k], aImag[k]), magnitude[k], doubleTolerance);
+		}
+		// in place
+		ArrayMath.multiply(aReal, aImag, bReal, bImag, aReal, aImag);
+		assertArrayEquals(outReal, aReal, 0);
+		assertArrayEquals(outImag, aImag, 0);
+		// normalization undoes unnormalized inverse
+		double[] real = new double[n], imag = new double[n];
+		FFT.fft(bReal, bImag, outReal, outImag, n);
+		FFT.ifft(outReal, outImag, real, imag, n);
+		ArrayMath.normalize(real, imag);
+		assertArrayEquals(bReal, real, doubleTolerance);
+		assertArrayEquals(bImag, imag, doubleTolerance);
+		ArrayMath.scale(real, 2);
+		assertEquals(bReal[7]*2, real[7], doubleTolerance);
+	}
+
+	@Test
+	public void testKernels() {
+		// loaded kernels (vectorized when available) agree with scalar kernels, including tails and offsets
+		Random rnd = new Random(1);
+		ArrayMath.Kernels kernels = ArrayMath.KERNELS;
+		ArrayMath.Kernels scalar = ArrayMath.SCALAR;
+		for(int n = 0; n < 70; n++){
+			double[] re = new double[n+3], im = new double[n+3];
+			for(int k = 0; k < n+3; k++){
+				re[k] = rnd.nextDouble()*2-1;
+				im[k] = rnd.nextDouble()*2-1;
+			}
+			double[] expected = new double[2*n+5], actual = new double[2*n+5];
+			scalar.interleave(re, im, 3, expected, 5, n);
+			kernels.interleave(re, im, 3, actual, 5, n);
+			assertArrayEquals(expected, actual, 0);
+			double[] expRe = new double[n+1], expIm = new double[n+1], actRe = new double[n+1], actIm = new double[n+1];
+			scalar.deinterleave(expected, 5, expRe, expIm, 1, n);
+			kernels.deinterleave(expected, 5, actRe, actIm, 1, n);
+			assertArrayEquals(expRe, actRe, 0);
+			assertArrayEquals(expIm, actIm, 0);
+
+			double[] src = new double[n+3], wideExp = new double[n+1], wideAct = new double[n+1]; //#FLOATGEN_IGNORE
+			for(int k = 0; k < n+3; k++)
+				src[k] = re[k];
+			float[] f = new float[n+2], fAct = new float[n+2];
+			scalar.narrow(src, 3, f, 2, n);
+			kernels.narrow(src, 3, fAct, 2, n);
+			assertArrayEquals(f, fAct, 0);
+			scalar.widen(f, 2, wideExp, 1, n);
+			kernels.widen(f, 2, wideAct, 1, n);
+			assertArrayEquals(wideExp, wideAct, 0);
+
+			expRe = new double[n]; expIm = new double[n]; actRe = new double[n]; actIm = new double[n];
+			scalar.multiply(re, im, im, re, expRe, expIm, n);
+			kernels.multiply(re, im, im, re, actRe, actIm, n);
+			assertArrayEquals(expRe, actRe, doubleTolerance);
+			assertArrayEquals(expIm, actIm, doubleTolerance);
+			scalar.magnitude(re, im, expRe, n);
+			kernels.magnitude(re, im, actRe, n);
+			assertArrayEquals(expRe, actRe, doubleTolerance);
+			scalar.scale(expRe, 3, n);
+			kernels.scale(actRe, 3, n);
+			assertArrayEquals(expRe, actRe, doubleTolerance);
+		}
+	}
+
+	@Test
+	public void testExceptions() {
+		double[] a = new double[4], b = new double[3];
+		JunitUtils.testException(()->ArrayMath.widen(new float[4], 2, new double[4], 0, 3), ArrayIndexOutOfBoundsException.class); //#FLOATGEN_IGNORE
+		JunitUtils.testException(()->ArrayMath.narrow(new double[4], 0, new float[4], -1, 2), ArrayIndexOutOfBoundsException.class); //#FLOATGEN_IGNORE
+		JunitUtils.testException(()->ArrayMath.narrow(null, 0, new float[4], 0, 2), NullPointerException.class);
+		JunitUtils.testException(()->ArrayMath.interleave(a, a, a), IllegalArgumentException.class);
+		JunitUtils.testException(()->ArrayMath.multiply(a, a, a, b, a, a), IllegalArgumentException.class);
+		JunitUtils.testException(()->ArrayMath.magnitude(a, null, a), NullPointerException.class);
+		JunitUtils.testException(()->ArrayMath.normalize(a, b), IllegalArgumentException.class);
+	}
+
+}
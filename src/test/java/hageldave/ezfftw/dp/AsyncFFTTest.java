@@ -0,0 +1,156 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+import hageldave.ezfftw.dp.samplers.ComplexValuedSampler;
+import hageldave.ezfftw.dp.writers.RealValuedWriter;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class AsyncFFTTest {
+
+	@Test
+	public void testResults() throws Exception {
+		Random rnd = new Random(29);
+		int w = 12, h = 10;
+		try(AsyncFFT async = new AsyncFFT(3)){
+			assertEquals(3, async.getNumThreads());
+			List<double[][]> jobs = new ArrayList<>();
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			for(int j = 0; j < 20; j++){
+				double[] in = new double[w*h];
+				for(int i = 0; i < in.length; i++)
+					in[i] = rnd.nextDouble();
+				double[][] job = {in, new double[w*h], new double[w*h], new double[w*h]};
+				jobs.add(job);
+				futures.add(async.fft(job[0], job[1], job[2], w, h)
+						.thenCompose(v->async.ifft(job[1], job[2], job[3], w, h)));
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+			double[] re = new double[w*h];
+			double[] im = new double[w*h];
+			for(double[][] job: jobs){
+				FFT.fft(job[0], re, im, w, h);
+				assertArrayEquals(re, job[1], doubleTolerance);
+				assertArrayEquals(im, job[2], doubleTolerance);
+				for(int i = 0; i < w*h; i++)
+					assertEquals(job[0][i]*w*h, job[3][i], doubleTolerance*w*h);
+			}
+			// sampler version
+			double[] samplerRe = new double[w*h];
+			double[] samplerIm = new double[w*h];
+			double[] in = jobs.get(0)[0];
+			async.fft((long... c)->in[(int)(c[0]+c[1]*w)], (v, imaginary, c)->{
+				if(imaginary) samplerIm[(int)(c[0]+c[1]*w)] = v;
+				else samplerRe[(int)(c[0]+c[1]*w)] = v;
+			}, w, h).get(10, TimeUnit.SECONDS);
+			assertArrayEquals(jobs.get(0)[1], samplerRe, doubleTolerance);
+			assertArrayEquals(jobs.get(0)[2], samplerIm, doubleTolerance);
+		}
+	}
+
+	@Test
+	public void testCancellation() throws Exception {
+		try(AsyncFFT async = new AsyncFFT(1)){
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			CompletableFuture<Void> blocker = async.submit(()->{
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			started.await();
+			double[] out = new double[8];
+			CompletableFuture<Void> queued = async.fft(new double[]{1,1,1,1,1,1,1,1}, out, new double[8], 8);
+			assertEquals(1, async.getNumQueued());
+			assertTrue(queued.cancel(false));
+			assertEquals(0, async.getNumQueued());
+			release.countDown();
+			blocker.get(10, TimeUnit.SECONDS);
+			assertTrue(queued.isCancelled());
+			// was never executed
+			assertArrayEquals(new double[8], out, 0);
+		}
+	}
+
+	@Test
+	public void testExceptions() throws Exception {
+		try(AsyncFFT async = new AsyncFFT(1)){
+			// validation is done synchronously
+			JunitUtils.testException(()->async.fft(new double[4], new double[4], new double[3], 4), IllegalArgumentException.class);
+			JunitUtils.testException(()->async.fft(new double[4], new double[4], new double[4]), IllegalArgumentException.class);
+			JunitUtils.testException(()->async.ifft(new double[4], new double[4], new double[4], 0), IllegalArgumentException.class);
+			JunitUtils.testException(()->async.ifft(null, new double[4], new double[4], 4), NullPointerException.class);
+			JunitUtils.testException(()->async.ifft((ComplexValuedSampler)null, (RealValuedWriter)null, 4), NullPointerException.class);
+			JunitUtils.testException(()->async.submit(null), NullPointerException.class);
+			// failures during execution complete exceptionally
+			CompletableFuture<Void> failing = async.fft((long... c)->{throw new IllegalStateException();}, (v,i,c)->{}, 4);
+			try {
+				failing.get(10, TimeUnit.SECONDS);
+				fail("expected ExecutionException");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+			assertTrue(failing.isCompletedExceptionally());
+			assertFalse(failing.isCancelled());
+			async.close();
+			JunitUtils.testException(()->async.submit(()->{}), IllegalStateException.class);
+		}
+		new AsyncFFT().close();
+		JunitUtils.testException(()->new AsyncFFT(0), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testCloseWhileSubmitting() throws Exception {
+		for(int round = 0; round < 20; round++){
+			AsyncFFT async = new AsyncFFT(1);
+			CountDownLatch start = new CountDownLatch(1);
+			List<Thread> submitters = new ArrayList<>();
+			List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+			for(int t = 0; t < 4; t++){
+				Thread thread = new Thread(()->{
+					try {
+						start.await();
+						while(true){
+							async.submit(()->{});
+						}
+					} catch (IllegalStateException e) {
+						// expected once closed
+					} catch (Throwable e) {
+						unexpected.add(e);
+					}
+				});
+				thread.start();
+				submitters.add(thread);
+			}
+			start.countDown();
+			Thread.sleep(1);
+			async.close();
+			for(Thread thread: submitters){
+				thread.join(10000);
+				assertFalse(thread.isAlive());
+			}
+			assertTrue(unexpected.toString(), unexpected.isEmpty());
+		}
+	}
+
+}
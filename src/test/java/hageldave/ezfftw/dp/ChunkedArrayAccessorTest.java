@@ -0,0 +1,128 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class ChunkedArrayAccessorTest {
+
+	@Test
+	public void testAccess() {
+		// 105 elements in pages of 8, last page holds 1 element
+		ChunkedArrayAccessor chunks = new ChunkedArrayAccessor(new long[]{5,7,3}, 8);
+		RowMajorArrayAccessor rmaa = new RowMajorArrayAccessor(5,7,3);
+		assertEquals(105, chunks.length);
+		assertEquals(14, chunks.pages.length);
+		assertEquals(8, chunks.getPageLength(0));
+		assertEquals(1, chunks.getPageLength(13));
+		double v = 0;
+		for(int k = 0; k < 3; k++){
+			for(int j = 0; j < 7; j++){
+				for(int i = 0; i < 5; i++){
+					chunks.setValueAt(v, i,j,k);
+					rmaa.setValueAt(v, i,j,k);
+					v+=1;
+				}
+			}
+		}
+		for(int i = 0; i < 105; i++){
+			assertEquals(rmaa.array[i], chunks.get(i), 0);
+			assertEquals(rmaa.array[i], chunks.pages[i/8][i%8], 0);
+		}
+		assertEquals(rmaa.getValueAt(4,6,2), chunks.getValueAt(4,6,2), 0);
+
+		// bulk transfer to native and back
+		try(NativeRealArray a = new NativeRealArray(105)){
+			chunks.copyTo(a);
+			for(int i = 0; i < 105; i++){
+				assertEquals(rmaa.array[i], a.get(i), 0);
+			}
+			ChunkedArrayAccessor copy = new ChunkedArrayAccessor(new long[]{5,7,3}, 16);
+			copy.copyFrom(a);
+			for(int i = 0; i < 105; i++){
+				assertEquals(rmaa.array[i], copy.get(i), 0);
+			}
+			// sampler/writer transfer takes bulk path for matching dimensions
+			a.fill(0);
+			PrecisionDependentUtils.fillNativeArrayFromSampler(a, chunks, 5,7,3);
+			PrecisionDependentUtils.readNativeArrayToWriter(a, copy, 5,7,3);
+			for(int i = 0; i < 105; i++){
+				assertEquals(rmaa.array[i], copy.get(i), 0);
+			}
+			// and element wise path for other dimensions with same number of elements
+			PrecisionDependentUtils.fillNativeArrayFromSampler(a, (long... c)->chunks.get(c[0]+7*c[1]), 7,15);
+			for(int i = 0; i < 105; i++){
+				assertEquals(rmaa.array[i], a.get(i), 0);
+			}
+			JunitUtils.testException(()->chunks.copyTo(new NativeRealArray(104)), IllegalArgumentException.class);
+		}
+	}
+
+	@Test
+	public void testFFT() {
+		Random rnd = new Random(0x3939);
+		long[] dims = {6,5,4};
+		int n = 120;
+		double[] realIn = new double[n];
+		double[] imagIn = new double[n];
+		ChunkedArrayAccessor chunkRealIn = new ChunkedArrayAccessor(dims, 16);
+		ChunkedArrayAccessor chunkImagIn = new ChunkedArrayAccessor(dims, 32);
+		for(int i = 0; i < n; i++){
+			realIn[i] = rnd.nextDouble();
+			imagIn[i] = rnd.nextDouble();
+			chunkRealIn.set(i, realIn[i]);
+			chunkImagIn.set(i, imagIn[i]);
+		}
+		double[] refReal = new double[n];
+		double[] refImag = new double[n];
+		ChunkedArrayAccessor outReal = new ChunkedArrayAccessor(dims, 16);
+		ChunkedArrayAccessor outImag = new ChunkedArrayAccessor(dims, 64);
+
+		FFT.fft(realIn, refReal, refImag, dims);
+		FFT.fft(chunkRealIn, outReal, outImag);
+		assertEqualValues(refReal, outReal);
+		assertEqualValues(refImag, outImag);
+
+		FFT.fft(realIn, imagIn, refReal, refImag, dims);
+		FFT.fft(chunkRealIn, chunkImagIn, outReal, outImag);
+		assertEqualValues(refReal, outReal);
+		assertEqualValues(refImag, outImag);
+
+		FFT.ifft(realIn, imagIn, refReal, refImag, dims);
+		FFT.ifft(chunkRealIn, chunkImagIn, outReal, outImag);
+		assertEqualValues(refReal, outReal);
+		assertEqualValues(refImag, outImag);
+
+		FFT.ifft(realIn, imagIn, refReal, dims);
+		FFT.ifft(chunkRealIn, chunkImagIn, outReal);
+		assertEqualValues(refReal, outReal);
+	}
+
+	@Test
+	public void testExceptions() {
+		JunitUtils.testException(()->new ChunkedArrayAccessor(), IllegalArgumentException.class);
+		JunitUtils.testException(()->new ChunkedArrayAccessor(4,0), IllegalArgumentException.class);
+		JunitUtils.testException(()->new ChunkedArrayAccessor(new long[]{4,4}, 0), IllegalArgumentException.class);
+		JunitUtils.testException(()->new ChunkedArrayAccessor(new long[]{4,4}, 6), IllegalArgumentException.class);
+		JunitUtils.testException(()->new ChunkedArrayAccessor(null, 8), NullPointerException.class);
+		ChunkedArrayAccessor a = new ChunkedArrayAccessor(4,4);
+		ChunkedArrayAccessor b = new ChunkedArrayAccessor(4,5);
+		JunitUtils.testException(()->FFT.fft(a, a, b), IllegalArgumentException.class);
+		JunitUtils.testException(()->FFT.fft(a, a, null), NullPointerException.class);
+		JunitUtils.testException(()->FFT.ifft(null, a, a), NullPointerException.class);
+	}
+
+	static void assertEqualValues(double[] expected, ChunkedArrayAccessor actual) {
+		assertEquals(expected.length, actual.length);
+		for(int i = 0; i < expected.length; i++){
+			assertEquals(expected[i], actual.get(i), doubleTolerance);
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class CoalescingFFTTest {
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		final int numThreads = 24;
+		final int size = 256;
+		try(CoalescingFFT coalescer = new CoalescingFFT(8, 50, TimeUnit.MILLISECONDS)){
+			CountDownLatch latch = new CountDownLatch(numThreads);
+			AtomicInteger failures = new AtomicInteger();
+			LinkedList<Thread> threads = new LinkedList<>();
+			for(int t = 0; t < numThreads; t++){
+				final int seed = t;
+				Thread thread = new Thread(()->{
+					Random rnd = new Random(seed);
+					double[] in = new double[size];
+					for(int i = 0; i < size; i++)
+						in[i] = rnd.nextDouble();
+					double[] re = new double[size], im = new double[size], back = new double[size];
+					double[] refRe = new double[size], refIm = new double[size];
+					FFT.fft(in, refRe, refIm, size);
+					latch.countDown();
+					try {
+						latch.await();
+					} catch (InterruptedException e) {
+						failures.incrementAndGet();
+					}
+					coalescer.fft(in, re, im, size);
+					coalescer.ifft(re, im, back, size);
+					for(int i = 0; i < size; i++){
+						if(Math.abs(refRe[i]-re[i]) > doubleTolerance || Math.abs(refIm[i]-im[i]) > doubleTolerance)
+							failures.incrementAndGet();
+						if(Math.abs(in[i]*size-back[i]) > doubleTolerance*size)
+							failures.incrementAndGet();
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			for(Thread t: threads){
+				t.join(20000);
+			}
+			assertEquals(0, failures.get());
+			assertEquals(2*numThreads, coalescer.getNumRequests());
+			// requests were merged into batches
+			assertTrue(coalescer.getNumBatches() < coalescer.getNumRequests());
+			assertEquals(coalescer.getNumBatches(), coalescer.getCacheHits()+coalescer.getCacheMisses());
+		}
+	}
+
+	@Test
+	public void testComplexAndCaching() {
+		Random rnd = new Random(31);
+		int w = 6, h = 5;
+		double[] inRe = new double[w*h], inIm = new double[w*h];
+		for(int i = 0; i < w*h; i++){
+			inRe[i] = rnd.nextDouble();
+			inIm[i] = rnd.nextDouble();
+		}
+		double[] refRe = new double[w*h], refIm = new double[w*h];
+		double[] re = new double[w*h], im = new double[w*h];
+		try(CoalescingFFT coalescer = new CoalescingFFT(1, 0, TimeUnit.NANOSECONDS)){
+			for(int k = 0; k < 3; k++){
+				FFT.fft(inRe, inIm, refRe, refIm, w, h);
+				coalescer.fft(inRe, inIm, re, im, w, h);
+				assertArrayEquals(refRe, re, doubleTolerance);
+				assertArrayEquals(refIm, im, doubleTolerance);
+				FFT.ifft(inRe, inIm, refRe, refIm, w, h);
+				coalescer.ifft(inRe, inIm, re, im, w, h);
+				assertArrayEquals(refRe, re, doubleTolerance);
+				assertArrayEquals(refIm, im, doubleTolerance);
+			}
+			// forward and inverse c2c share the same plan
+			assertEquals(6, coalescer.getNumBatches());
+			assertEquals(1, coalescer.getCacheMisses());
+			assertEquals(5, coalescer.getCacheHits());
+			coalescer.clearCache();
+			coalescer.fft(inRe, inIm, re, im, w, h);
+			assertEquals(2, coalescer.getCacheMisses());
+		}
+	}
+
+	@Test
+	public void testCacheEviction() {
+		try(CoalescingFFT coalescer = new CoalescingFFT(1, 0, TimeUnit.NANOSECONDS)){
+			int numShapes = CoalescingFFT.MAX_CACHED_PLANS+4;
+			for(int n = 1; n <= numShapes; n++){
+				double[] in = new double[n], re = new double[n], im = new double[n];
+				coalescer.fft(in, re, im, n);
+			}
+			assertEquals(numShapes, coalescer.getCacheMisses());
+			assertEquals(CoalescingFFT.MAX_CACHED_PLANS, coalescer.getNumCachedPlans());
+			// most recently used shape is still cached, least recently used was evicted
+			coalescer.fft(new double[numShapes], new double[numShapes], new double[numShapes], numShapes);
+			assertEquals(1, coalescer.getCacheHits());
+			coalescer.fft(new double[1], new double[1], new double[1], 1);
+			assertEquals(numShapes+1, coalescer.getCacheMisses());
+			assertEquals(CoalescingFFT.MAX_CACHED_PLANS, coalescer.getNumCachedPlans());
+			coalescer.clearCache();
+			assertEquals(0, coalescer.getNumCachedPlans());
+		}
+	}
+
+	@Test
+	public void testExceptions() {
+		JunitUtils.testException(()->new CoalescingFFT(0, 1, TimeUnit.SECONDS), IllegalArgumentException.class);
+		JunitUtils.testException(()->new CoalescingFFT(1, -1, TimeUnit.SECONDS), IllegalArgumentException.class);
+		JunitUtils.testException(()->new CoalescingFFT(1, 1, null), NullPointerException.class);
+		CoalescingFFT coalescer = new CoalescingFFT();
+		JunitUtils.testException(()->coalescer.fft(new double[4], new double[4], new double[3], 4), IllegalArgumentException.class);
+		JunitUtils.testException(()->coalescer.fft(new double[4], new double[4], new double[4]), IllegalArgumentException.class);
+		JunitUtils.testException(()->coalescer.ifft(null, new double[4], new double[4], 4), NullPointerException.class);
+		coalescer.close();
+		JunitUtils.testException(()->coalescer.fft(new double[4], new double[4], new double[4], 4), IllegalStateException.class);
+	}
+
+}
@@ -0,0 +1,67 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class CodeletsTest {
+
+	@Test
+	public void testAgainstFFTW() {
+		Random rnd = new Random(0);
+		for(int n = 1; n <= Codelets.MAX_SIZE; n <<= 1){
+			double[] realIn = new double[n], imagIn = new double[n];
+			for(int i = 0; i < n; i++){
+				realIn[i] = rnd.nextDouble();
+				imagIn[i] = rnd.nextDouble();
+			}
+			double[] realExpected = new double[n], imagExpected = new double[n];
+			FFTBackends.FFTW.c2c(realIn, imagIn, realExpected, imagExpected, n);
+			// strided line with offset, other elements stay untouched
+			int offset = 3, stride = 5;
+			double[] re = new double[offset+n*stride], im = new double[offset+n*stride];
+			for(int i = 0; i < n; i++){
+				re[offset+i*stride] = realIn[i];
+				im[offset+i*stride] = imagIn[i];
+			}
+			re[offset+1] = 42;
+			Codelets.fft(re, im, offset, stride, n);
+			for(int i = 0; i < n; i++){
+				assertEquals(realExpected[i], re[offset+i*stride], doubleTolerance*n);
+				assertEquals(imagExpected[i], im[offset+i*stride], doubleTolerance*n);
+			}
+			if(stride*(n-1) > 1)
+				assertEquals(42, re[offset+1], 0);
+		}
+	}
+
+	@Test
+	public void testSupport() {
+		assertTrue(Codelets.isSupported(1));
+		assertTrue(Codelets.isSupported(8));
+		assertTrue(Codelets.isSupported(64));
+		assertFalse(Codelets.isSupported(0));
+		assertFalse(Codelets.isSupported(12));
+		assertFalse(Codelets.isSupported(128));
+		double[] a = new double[12];
+		JunitUtils.testException(()->Codelets.fft(a, a, 0, 1, 12), IllegalArgumentException.class);
+		// 2D blocks use codelets along both axes
+		double[] re = new double[16*8], im = new double[16*8];
+		re[17] = 1;
+		double[] realExpected = new double[16*8], imagExpected = new double[16*8];
+		FFTBackends.FFTW.c2c(re, im, realExpected, imagExpected, 16,8);
+		JavaFFTBackend.transform(re, im, new long[]{16,8});
+		assertArrayEquals(realExpected, re, doubleTolerance*128);
+		assertArrayEquals(imagExpected, im, doubleTolerance*128);
+	}
+
+}
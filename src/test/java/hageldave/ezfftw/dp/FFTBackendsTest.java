@@ -0,0 +1,78 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class FFTBackendsTest {
+
+	@Test
+	public void testSelection() {
+		long smallSize = FFTBackends.getSmallTransformSize();
+		try {
+			// automatically determined backend routes small transforms
+			FFTBackends.resetBackend();
+			assertEquals(FFTBackends.FFTW, FFTBackends.getBackend());
+			FFTBackends.setSmallTransformSize(256);
+			assertEquals(FFTBackends.JAVA, FFTBackends.select(new long[]{256}));
+			assertEquals(FFTBackends.FFTW, FFTBackends.select(new long[]{512}));
+			// only the calibrated shape class (1D power of two)
+			assertEquals(FFTBackends.FFTW, FFTBackends.select(new long[]{255}));
+			assertEquals(FFTBackends.FFTW, FFTBackends.select(new long[]{3,5}));
+			assertEquals(FFTBackends.FFTW, FFTBackends.select(new long[]{128,2}));
+			// tiny shapes are computed by codelets
+			assertEquals(FFTBackends.JAVA, FFTBackends.select(new long[]{64}));
+			assertEquals(FFTBackends.JAVA, FFTBackends.select(new long[]{8,8}));
+			assertEquals(FFTBackends.JAVA, FFTBackends.select(new long[]{64,64}));
+			assertEquals(FFTBackends.FFTW, FFTBackends.select(new long[]{1024}));
+			assertEquals(FFTBackends.FFTW, FFTBackends.select(new long[]{64,64,2}));
+			assertEquals(FFTBackends.FFTW, FFTBackends.select(new long[]{8,9}));
+			// explicitly selected backend is not overridden by the small transform size
+			FFTBackends.setBackend(FFTBackends.FFTW);
+			assertEquals(FFTBackends.FFTW, FFTBackends.select(new long[]{256}));
+			assertEquals(FFTBackends.FFTW, FFTBackends.select(new long[]{8,8}));
+			// blocks are transformed by FFTW as well, results agree with codelets
+			double[] blocks = new double[2*8*8];
+			for(int i = 0; i < blocks.length; i++) blocks[i] = i%7;
+			double[] realBlocksFFTW = new double[blocks.length], imagBlocksFFTW = new double[blocks.length];
+			FFT.fftBlocks(blocks, realBlocksFFTW, imagBlocksFFTW, 8,8);
+			FFTBackends.resetBackend();
+			double[] realBlocks = new double[blocks.length], imagBlocks = new double[blocks.length];
+			FFT.fftBlocks(blocks, realBlocks, imagBlocks, 8,8);
+			assertArrayEquals(realBlocks, realBlocksFFTW, doubleTolerance*64);
+			assertArrayEquals(imagBlocks, imagBlocksFFTW, doubleTolerance*64);
+			FFTBackends.setBackend(FFTBackends.JAVA);
+			assertEquals(FFTBackends.JAVA, FFTBackends.select(new long[]{1<<20}));
+			// FFT uses selected backend, results agree
+			double[] real = {1,2,3,4,5,6,7};
+			double[] imag = {0,1,0,1,0,1,0};
+			double[] realJava = new double[7], imagJava = new double[7];
+			FFT.fft(real, imag, realJava, imagJava, 7);
+			FFTBackends.setBackend(FFTBackends.FFTW);
+			double[] realFFTW = new double[7], imagFFTW = new double[7];
+			FFT.fft(real, imag, realFFTW, imagFFTW, 7);
+			assertArrayEquals(realFFTW, realJava, doubleTolerance*8);
+			assertArrayEquals(imagFFTW, imagJava, doubleTolerance*8);
+			// calibration
+			long calibrated = FFTBackends.calibrate();
+			assertTrue(calibrated >= 0);
+			assertEquals(calibrated, FFTBackends.getSmallTransformSize());
+		} finally {
+			FFTBackends.resetBackend();
+			FFTBackends.setSmallTransformSize(smallSize);
+		}
+	}
+
+	@Test
+	public void testExceptions() {
+		JunitUtils.testException(()->FFTBackends.setBackend(null), NullPointerException.class);
+		JunitUtils.testException(()->FFTBackends.setSmallTransformSize(-1), IllegalArgumentException.class);
+	}
+
+}
@@ -2,15 +2,23 @@ package hageldave.ezfftw.dp;
 
 import static hageldave.ezfftw.JunitUtils.doubleTolerance;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 
 import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import hageldave.ezfftw.FFTW_Initializer;
+import hageldave.ezfftw.JunitUtils;
 
 /* --- DOUBLE PRECISION VERSION --- */
 public class FFTTest {
@@ -197,6 +205,121 @@ public class FFTTest {
 
 	}
 	
+	@Test
+	public void testAxes() {
+		// 2D signal of 8 rows of length 16, each row is a shifted sine
+		int w = 16, h = 8;
+		double[] realIn = new double[w*h];
+		double[] imagIn = new double[w*h];
+		for(int y = 0; y < h; y++){
+			for(int x = 0; x < w; x++){
+				realIn[x+y*w] = (double)Math.sin((x+y)*2*Math.PI/w);
+			}
+		}
+		double[] realOut = new double[w*h];
+		double[] imagOut = new double[w*h];
+		// row wise transforms
+		FFT.fft(realIn, realOut, imagOut, new int[]{0}, w,h);
+		double[] rowR = new double[w];
+		double[] rowI = new double[w];
+		for(int y = 0; y < h; y++){
+			FFT.fft(Arrays.copyOfRange(realIn, y*w, y*w+w), rowR, rowI, w);
+			for(int x = 0; x < w; x++){
+				assertEquals(rowR[x], realOut[x+y*w], doubleTolerance);
+				assertEquals(rowI[x], imagOut[x+y*w], doubleTolerance);
+			}
+		}
+		// c2c along rows and back
+		double[] realBack = new double[w*h];
+		double[] imagBack = new double[w*h];
+		FFT.fft(realIn, imagIn, realOut, imagOut, new int[]{0}, w,h);
+		FFT.ifft(realOut, imagOut, realBack, imagBack, new int[]{0}, w,h);
+		for(int i = 0; i < w*h; i++){
+			assertEquals(realIn[i]*w, realBack[i], doubleTolerance);
+			assertEquals(0, imagBack[i], doubleTolerance);
+		}
+		FFT.ifft(realOut, imagOut, realBack, new int[]{0}, w,h);
+		for(int i = 0; i < w*h; i++){
+			assertEquals(realIn[i]*w, realBack[i], doubleTolerance);
+		}
+		// column wise transform is full transform for a single column
+		FFT.fft(realIn, realOut, imagOut, new int[]{1}, w,h);
+		double[] colIn = new double[h];
+		double[] colR = new double[h];
+		double[] colI = new double[h];
+		for(int y = 0; y < h; y++){
+			colIn[y] = realIn[3+y*w];
+		}
+		FFT.fft(colIn, colR, colI, h);
+		for(int y = 0; y < h; y++){
+			assertEquals(colR[y], realOut[3+y*w], doubleTolerance);
+			assertEquals(colI[y], imagOut[3+y*w], doubleTolerance);
+		}
+	}
+
+	@Test
+	public void testMultiDimensionalArrays() {
+		int w = 6, h = 5, d = 4;
+		double[] flat = new double[w*h*d];
+		double[] flatImag = new double[w*h*d];
+		double[][][] volume = new double[d][h][w];
+		double[][][] volumeImag = new double[d][h][w];
+		for(int z = 0; z < d; z++){
+			for(int y = 0; y < h; y++){
+				for(int x = 0; x < w; x++){
+					int i = x+y*w+z*w*h;
+					flat[i] = volume[z][y][x] = (i*7)%11;
+					flatImag[i] = volumeImag[z][y][x] = (i*5)%13;
+				}
+			}
+		}
+		double[] refR = new double[w*h*d];
+		double[] refI = new double[w*h*d];
+		double[][][] outR = new double[d][h][w];
+		double[][][] outI = new double[d][h][w];
+		FFT.fft(flat, refR, refI, w,h,d);
+		FFT.fft(volume, outR, outI);
+		assertVolumeEquals(refR, outR);
+		assertVolumeEquals(refI, outI);
+		FFT.fft(flat, flatImag, refR, refI, w,h,d);
+		FFT.fft(volume, volumeImag, outR, outI);
+		assertVolumeEquals(refR, outR);
+		assertVolumeEquals(refI, outI);
+		FFT.ifft(flat, flatImag, refR, refI, w,h,d);
+		FFT.ifft(volume, volumeImag, outR, outI);
+		assertVolumeEquals(refR, outR);
+		assertVolumeEquals(refI, outI);
+		FFT.ifft(flat, flatImag, refR, w,h,d);
+		FFT.ifft(volume, volumeImag, outR);
+		assertVolumeEquals(refR, outR);
+
+		// 2D is first slice
+		double[] sliceR = new double[w*h];
+		double[] sliceI = new double[w*h];
+		double[][] out2R = new double[h][w];
+		double[][] out2I = new double[h][w];
+		FFT.fft(Arrays.copyOf(flat, w*h), sliceR, sliceI, w,h);
+		FFT.fft(volume[0], out2R, out2I);
+		assertVolumeEquals(sliceR, new double[][][]{out2R});
+		assertVolumeEquals(sliceI, new double[][][]{out2I});
+		FFT.ifft(Arrays.copyOf(flat, w*h), Arrays.copyOf(flatImag, w*h), sliceR, w,h);
+		FFT.ifft(volume[0], volumeImag[0], out2R);
+		assertVolumeEquals(sliceR, new double[][][]{out2R});
+
+		JunitUtils.testException(()->FFT.fft(volume, outR, new double[d][h][w+1]), IllegalArgumentException.class);
+		JunitUtils.testException(()->FFT.fft(volume[0], out2R, new double[h+1][w]), IllegalArgumentException.class);
+		JunitUtils.testException(()->FFT.fft(volume[0], null, out2I), NullPointerException.class);
+	}
+
+	static void assertVolumeEquals(double[] expected, double[][][] actual) {
+		int i = 0;
+		for(double[][] slice: actual)
+			for(double[] row: slice)
+				for(double v: row)
+					assertEquals(expected[i++], v, doubleTolerance);
+		assertEquals(expected.length, i);
+	}
+
 	@Test
 	public void concurrentInvocations() {
 		FFTW_Initializer.initFFTW();
@@ -232,4 +355,129 @@ public class FFTTest {
 		}
 	}
 	
+
+	@Test
+	public void concurrentInvocationsOnVirtualThreads() throws Exception {
+		FFTW_Initializer.initFFTW();
+		ExecutorService executor;
+		try {
+			// virtual threads are only available on Java 21+, fall back to a large platform thread pool
+			executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException e) {
+			executor = Executors.newFixedThreadPool(64);
+		}
+		final int numTasks = 4000;
+		final CountDownLatch latch = new CountDownLatch(1);
+		AtomicInteger failures = new AtomicInteger();
+		LinkedList<Future<?>> futures = new LinkedList<>();
+		for(int i = 0; i < numTasks; i++){
+			final int size = 16 + (i%7)*8;
+			futures.add(executor.submit(()->{
+				try {
+					double[] in = new double[size];
+					for(int k = 0; k < size; k++)
+						in[k] = k%5;
+					double[][] arrays = new double[3][size];
+					latch.await();
+					FFT.fft(in, arrays[0], arrays[1], size);
+					FFT.ifft(arrays[0], arrays[1], arrays[2], size);
+					for(int k = 0; k < size; k++){
+						if(Math.abs(in[k]*size-arrays[2][k]) > doubleTolerance*size)
+							failures.incrementAndGet();
+					}
+				} catch (InterruptedException e) {
+					failures.incrementAndGet();
+				}
+			}));
+		}
+		latch.countDown();
+		for(Future<?> f: futures){
+			f.get(60, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+		assertEquals(0, failures.get());
+		assertFalse(FFTW_Initializer.PLANNER_REENTRANT_LOCK.isLocked());
+	}
+
+	@Test
+	public void testNativeArraysReleased() {
+		int n = 128;
+		double[] a = new double[n], b = new double[n], c = new double[n], d = new double[n];
+		RowMajorArrayAccessor accA = new RowMajorArrayAccessor(a, n);
+		RowMajorArrayAccessor accB = new RowMajorArrayAccessor(b, n);
+		Runnable allPaths = ()->{
+			FFT.fft(a, b, c, n);
+			FFT.fft(a, b, c, d, n);
+			FFT.ifft(a, b, c, d, n);
+			FFT.ifft(a, b, c, n);
+			FFT.fft(accA, accA.combineToComplexWriter(accB), n);
+			FFT.ifft(accA.combineToComplexSampler(accB), accA, n);
+		};
+		long numAllocated = NativeRealArray.getNumAllocatedArrays();
+		allPaths.run();
+		long arraysPerRun = NativeRealArray.getNumAllocatedArrays()-numAllocated;
+		long liveArrays = NativeRealArray.getNumLiveArrays();
+		long liveBytes = NativeRealArray.getLiveBytes();
+		long allocatedBytes = NativeRealArray.getAllocatedBytes();
+		for(int k = 0; k < 100; k++){
+			allPaths.run();
+		}
+		// all native arrays were closed after each call
+		assertEquals(liveArrays, NativeRealArray.getNumLiveArrays());
+		assertEquals(liveBytes, NativeRealArray.getLiveBytes());
+		// only arrays of signal size were allocated
+		assertEquals(100*arraysPerRun*n*Double.BYTES, NativeRealArray.getAllocatedBytes()-allocatedBytes);
+	}
+
+	@Test
+	public void testBlocks() {
+		// codelet blocks and blocks transformed by batched FFTW plan
+		long[][] blockShapes = {{8,8},{16,16},{5,3}};
+		Random rnd = new Random(0);
+		for(long[] blockDims: blockShapes){
+			int blockSize = (int)(blockDims[0]*blockDims[1]);
+			int numBlocks = 100;
+			int n = blockSize*numBlocks;
+			double[] realIn = new double[n], imagIn = new double[n];
+			for(int i = 0; i < n; i++){
+				realIn[i] = rnd.nextDouble();
+				imagIn[i] = rnd.nextDouble();
+			}
+			double[] realOut = new double[n], imagOut = new double[n];
+			double[] realBlock = new double[blockSize], imagBlock = new double[blockSize];
+			double[] realExpected = new double[blockSize], imagExpected = new double[blockSize];
+			FFT.fftBlocks(realIn, imagIn, realOut, imagOut, blockDims);
+			for(int b = 0; b < numBlocks; b++){
+				System.arraycopy(realIn, b*blockSize, realBlock, 0, blockSize);
+				System.arraycopy(imagIn, b*blockSize, imagBlock, 0, blockSize);
+				FFTBackends.FFTW.c2c(realBlock, imagBlock, realExpected, imagExpected, blockDims);
+				for(int i = 0; i < blockSize; i++){
+					assertEquals(realExpected[i], realOut[b*blockSize+i], doubleTolerance*blockSize);
+					assertEquals(imagExpected[i], imagOut[b*blockSize+i], doubleTolerance*blockSize);
+				}
+			}
+			// inverse restores scaled blocks
+			double[] realBack = new double[n], imagBack = new double[n];
+			FFT.ifftBlocks(realOut, imagOut, realBack, imagBack, blockDims);
+			for(int i = 0; i < n; i++){
+				assertEquals(realIn[i], realBack[i]/blockSize, doubleTolerance);
+				assertEquals(imagIn[i], imagBack[i]/blockSize, doubleTolerance);
+			}
+			// r2c equals c2c with zero imaginary part
+			double[] zeros = new double[n];
+			FFT.fftBlocks(realIn, zeros, realBack, imagBack, blockDims);
+			FFT.fftBlocks(realIn, realOut, imagOut, blockDims);
+			for(int i = 0; i < n; i++){
+				assertEquals(realBack[i], realOut[i], doubleTolerance*blockSize);
+				assertEquals(imagBack[i], imagOut[i], doubleTolerance*blockSize);
+			}
+		}
+		double[] a = new double[64*3];
+		JunitUtils.testException(()->FFT.fftBlocks(a, a, a, 7), IllegalArgumentException.class);
+		JunitUtils.testException(()->FFT.fftBlocks(a, a, a, 128), IllegalArgumentException.class);
+		JunitUtils.testException(()->FFT.fftBlocks(a, a, a), IllegalArgumentException.class);
+		JunitUtils.testException(()->FFT.fftBlocks(a, a, new double[64], 8,8), IllegalArgumentException.class);
+		JunitUtils.testException(()->FFT.fftBlocks(a, null, a, a, 8,8), NullPointerException.class);
+	}
+
 }
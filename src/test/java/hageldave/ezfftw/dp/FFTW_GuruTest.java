@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 import org.junit.Test;
 
 import hageldave.ezfftw.JunitUtils;
+import hageldave.ezfftw.StridedView;
 import hageldave.ezfftw.dp.FFTW_Guru;
 import hageldave.ezfftw.dp.NativeRealArray;
 
@@ -120,5 +121,75 @@ public class FFTW_GuruTest {
 
 	}
 
+	@Test
+	public void testViews() {
+		java.util.Random rnd = new java.util.Random(0x4040);
+		// 10x9 parent array, 4x3 region at (5,2)
+		StridedView parent = StridedView.of(10,9);
+		StridedView roi = parent.region(new long[]{5,2}, new long[]{4,3});
+		try(
+				NativeRealArray real = new NativeRealArray(90);
+				NativeRealArray imag = new NativeRealArray(90);
+				NativeRealArray copyR = new NativeRealArray(12);
+				NativeRealArray copyI = new NativeRealArray(12);
+				NativeRealArray refR = new NativeRealArray(12);
+				NativeRealArray refI = new NativeRealArray(12);
+				)
+		{
+			for(long i = 0; i < 90; i++){
+				real.set(i, rnd.nextDouble());
+				imag.set(i, rnd.nextDouble());
+			}
+			double[] before = real.get(0, 90);
+			for(int y = 0; y < 3; y++){
+				for(int x = 0; x < 4; x++){
+					copyR.set(x+y*4, real.get(roi.indexOf(x,y)));
+					copyI.set(x+y*4, imag.get(roi.indexOf(x,y)));
+				}
+			}
+			// r2c of region into dense arrays
+			FFTW_Guru.execute_split_r2c(copyR, refR, refI, 4,3);
+			try(NativeRealArray outR = new NativeRealArray(12); NativeRealArray outI = new NativeRealArray(12)){
+				FFTW_Guru.execute_split_r2c(roi, real, StridedView.of(4,3), outR, outI);
+				for(long i = 0; i < 12; i++){
+					assertEquals(refR.get(i), outR.get(i), JunitUtils.doubleTolerance);
+					assertEquals(refI.get(i), outI.get(i), JunitUtils.doubleTolerance);
+				}
+			}
+			// in place c2c of region leaves rest of parent untouched
+			FFTW_Guru.execute_split_c2c(copyR, copyI, refR, refI, 4,3);
+			FFTW_Guru.execute_split_c2c(roi, real, imag, roi, real, imag);
+			for(int y = 0; y < 9; y++){
+				for(int x = 0; x < 10; x++){
+					boolean inside = x >= 5 && x < 9 && y >= 2 && y < 5;
+					if(inside){
+						assertEquals(refR.get((x-5)+(y-2)*4), real.get(parent.indexOf(x,y)), JunitUtils.doubleTolerance);
+						assertEquals(refI.get((x-5)+(y-2)*4), imag.get(parent.indexOf(x,y)), JunitUtils.doubleTolerance);
+					} else {
+						assertEquals(before[x+y*10], real.get(parent.indexOf(x,y)), 0);
+					}
+				}
+			}
+			// c2r of a single column
+			StridedView column = parent.axis(1, 7,0);
+			try(NativeRealArray out = new NativeRealArray(9); NativeRealArray colR = new NativeRealArray(9); NativeRealArray colI = new NativeRealArray(9)){
+				for(int y = 0; y < 9; y++){
+					colR.set(y, real.get(column.indexOf(y)));
+					colI.set(y, imag.get(column.indexOf(y)));
+				}
+				FFTW_Guru.execute_split_c2r(colR, colI, out, 9);
+				double[] expected = out.get(0, 9);
+				out.fill(0);
+				FFTW_Guru.execute_split_c2r(column, real, imag, StridedView.of(9), out);
+				for(int y = 0; y < 9; y++){
+					assertEquals(expected[y], out.get(y), JunitUtils.doubleTolerance);
+				}
+			}
+			// view not fitting or mismatching sizes
+			JunitUtils.testException(()->FFTW_Guru.execute_split_c2c(roi, real, imag, roi, copyR, copyI), IllegalArgumentException.class);
+			JunitUtils.testException(()->FFTW_Guru.execute_split_c2c(roi, real, imag, parent, real, imag), IllegalArgumentException.class);
+			JunitUtils.testException(()->FFTW_Guru.execute_split_r2c(null, real, roi, real, imag), NullPointerException.class);
+		}
+	}
 
 }
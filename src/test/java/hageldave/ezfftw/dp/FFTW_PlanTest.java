@@ -0,0 +1,322 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.bytedeco.javacpp.Pointer;
+import org.junit.Assume;
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+import hageldave.ezfftw.StridedView;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class FFTW_PlanTest {
+
+	@Test
+	public void testEquivalenceToGuru() {
+		Random rnd = new Random(0x2626);
+		try(
+				NativeRealArray in_r = new NativeRealArray(48);
+				NativeRealArray in_i = new NativeRealArray(48);
+				NativeRealArray out_r = new NativeRealArray(48);
+				NativeRealArray out_i = new NativeRealArray(48);
+				NativeRealArray ref_r = new NativeRealArray(48);
+				NativeRealArray ref_i = new NativeRealArray(48);
+				FFTW_Plan r2c = FFTW_Plan.plan_split_r2c(in_r, out_r, out_i, 4,3,4);
+				FFTW_Plan c2c = FFTW_Plan.plan_split_c2c(in_r, in_i, out_r, out_i, 4,3,4);
+				FFTW_Plan c2r = FFTW_Plan.plan_split_c2r(in_r, in_i, out_r, 4,3,4);
+				)
+		{
+			// execute plans multiple times with different data and compare to one shot guru methods
+			for(int rep = 0; rep < 3; rep++){
+				for(long i = 0; i < 48; i++){
+					in_r.set(i, rnd.nextDouble());
+					in_i.set(i, rnd.nextDouble());
+				}
+				r2c.execute();
+				FFTW_Guru.execute_split_r2c(in_r, ref_r, ref_i, 4,3,4);
+				for(long i = 0; i < 48; i++){
+					assertEquals(ref_r.get(i), out_r.get(i), doubleTolerance);
+					assertEquals(ref_i.get(i), out_i.get(i), doubleTolerance);
+				}
+				c2c.execute();
+				FFTW_Guru.execute_split_c2c(in_r, in_i, ref_r, ref_i, 4,3,4);
+				for(long i = 0; i < 48; i++){
+					assertEquals(ref_r.get(i), out_r.get(i), doubleTolerance);
+					assertEquals(ref_i.get(i), out_i.get(i), doubleTolerance);
+				}
+			}
+			// c2r of r2c restores scaled signal
+			for(long i = 0; i < 48; i++){
+				ref_r.set(i, rnd.nextDouble());
+			}
+			FFTW_Guru.execute_split_r2c(ref_r, in_r, in_i, 4,3,4);
+			c2r.execute();
+			for(long i = 0; i < 48; i++){
+				assertEquals(ref_r.get(i)*48, out_r.get(i), doubleTolerance);
+			}
+		}
+	}
+
+	@Test
+	public void testBatched() {
+		Random rnd = new Random(0x2727);
+		int howmany = 5;
+		try(
+				NativeRealArray in_r = new NativeRealArray(howmany*12);
+				NativeRealArray in_i = new NativeRealArray(howmany*12);
+				NativeRealArray out_r = new NativeRealArray(howmany*12);
+				NativeRealArray out_i = new NativeRealArray(howmany*12);
+				NativeRealArray single_r = new NativeRealArray(12);
+				NativeRealArray single_i = new NativeRealArray(12);
+				NativeRealArray ref_r = new NativeRealArray(12);
+				NativeRealArray ref_i = new NativeRealArray(12);
+				FFTW_Plan r2c = FFTW_Plan.plan_split_r2c_batched(in_r, out_r, out_i, howmany, 4,3);
+				FFTW_Plan c2c = FFTW_Plan.plan_split_c2c_batched(in_r, in_i, out_r, out_i, howmany, 4,3);
+				)
+		{
+			for(long i = 0; i < in_r.length; i++){
+				in_r.set(i, rnd.nextDouble());
+				in_i.set(i, rnd.nextDouble());
+			}
+			r2c.execute();
+			for(int h = 0; h < howmany; h++){
+				single_r.set(in_r.get(h*12, 12));
+				FFTW_Guru.execute_split_r2c(single_r, ref_r, ref_i, 4,3);
+				for(int i = 0; i < 12; i++){
+					assertEquals(ref_r.get(i), out_r.get(h*12+i), doubleTolerance);
+					assertEquals(ref_i.get(i), out_i.get(h*12+i), doubleTolerance);
+				}
+			}
+			c2c.execute();
+			for(int h = 0; h < howmany; h++){
+				single_r.set(in_r.get(h*12, 12));
+				single_i.set(in_i.get(h*12, 12));
+				FFTW_Guru.execute_split_c2c(single_r, single_i, ref_r, ref_i, 4,3);
+				for(int i = 0; i < 12; i++){
+					assertEquals(ref_r.get(i), out_r.get(h*12+i), doubleTolerance);
+					assertEquals(ref_i.get(i), out_i.get(h*12+i), doubleTolerance);
+				}
+			}
+			// wrong length for howmany
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2r_batched(in_r, in_i, out_r, howmany+1, 4,3), IllegalArgumentException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2r_batched(in_r, in_i, out_r, 0, 4,3), IllegalArgumentException.class);
+		}
+	}
+
+	@Test
+	public void testAxes() {
+		Random rnd = new Random(0x4141);
+		// 6x5x4 array, transform along axis 1 and along axes {0,2}
+		try(
+				NativeRealArray in_r = new NativeRealArray(120);
+				NativeRealArray in_i = new NativeRealArray(120);
+				NativeRealArray out_r = new NativeRealArray(120);
+				NativeRealArray out_i = new NativeRealArray(120);
+				NativeRealArray line_r = new NativeRealArray(5);
+				NativeRealArray line_i = new NativeRealArray(5);
+				NativeRealArray plane_r = new NativeRealArray(24);
+				NativeRealArray plane_i = new NativeRealArray(24);
+				FFTW_Plan c2c = FFTW_Plan.plan_split_c2c_axes(in_r, in_i, out_r, out_i, new int[]{1}, 6,5,4);
+				FFTW_Plan r2c = FFTW_Plan.plan_split_r2c_axes(in_r, out_r, out_i, new int[]{0,2}, 6,5,4);
+				FFTW_Plan all = FFTW_Plan.plan_split_r2c_axes(in_r, out_r, out_i, new int[]{2,1,0}, 6,5,4);
+				)
+		{
+			for(long i = 0; i < 120; i++){
+				in_r.set(i, rnd.nextDouble());
+				in_i.set(i, rnd.nextDouble());
+			}
+			c2c.execute();
+			for(int z = 0; z < 4; z++){
+				for(int x = 0; x < 6; x++){
+					for(int y = 0; y < 5; y++){
+						line_r.set(y, in_r.get(x+6*y+30*z));
+						line_i.set(y, in_i.get(x+6*y+30*z));
+					}
+					FFTW_Guru.execute_split_c2c(line_r, line_i, line_r, line_i, 5);
+					for(int y = 0; y < 5; y++){
+						assertEquals(line_r.get(y), out_r.get(x+6*y+30*z), doubleTolerance);
+						assertEquals(line_i.get(y), out_i.get(x+6*y+30*z), doubleTolerance);
+					}
+				}
+			}
+			r2c.execute();
+			for(int y = 0; y < 5; y++){
+				for(int z = 0; z < 4; z++){
+					for(int x = 0; x < 6; x++){
+						plane_r.set(x+6*z, in_r.get(x+6*y+30*z));
+					}
+				}
+				FFTW_Guru.execute_split_r2c(plane_r, plane_r, plane_i, 6,4);
+				for(int z = 0; z < 4; z++){
+					for(int x = 0; x < 6; x++){
+						assertEquals(plane_r.get(x+6*z), out_r.get(x+6*y+30*z), doubleTolerance);
+						assertEquals(plane_i.get(x+6*z), out_i.get(x+6*y+30*z), doubleTolerance);
+					}
+				}
+			}
+			// all axes (in any order) is the full transform
+			all.execute();
+			try(NativeRealArray ref_r = new NativeRealArray(120); NativeRealArray ref_i = new NativeRealArray(120)){
+				FFTW_Guru.execute_split_r2c(in_r, ref_r, ref_i, 6,5,4);
+				for(long i = 0; i < 120; i++){
+					assertEquals(ref_r.get(i), out_r.get(i), doubleTolerance);
+					assertEquals(ref_i.get(i), out_i.get(i), doubleTolerance);
+				}
+			}
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2c_axes(in_r, in_i, out_r, out_i, new int[]{}, 6,5,4), IllegalArgumentException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2c_axes(in_r, in_i, out_r, out_i, new int[]{3}, 6,5,4), IllegalArgumentException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2c_axes(in_r, in_i, out_r, out_i, new int[]{1,1}, 6,5,4), IllegalArgumentException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2r_axes(in_r, in_i, line_r, new int[]{0}, 6,5,4), IllegalArgumentException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2r_axes(in_r, in_i, out_r, null, 6,5,4), NullPointerException.class);
+		}
+	}
+
+	@Test
+	public void testLayouts() {
+		Random rnd = new Random(0x4242);
+		// C order data of shape (3,5,4) has the same memory order as row major data of dimensions {4,5,3}
+		StridedView c = StridedView.lastFastest(3,5,4);
+		StridedView f = StridedView.firstFastest(3,5,4);
+		try(
+				NativeRealArray in_r = new NativeRealArray(60);
+				NativeRealArray in_i = new NativeRealArray(60);
+				NativeRealArray out_r = new NativeRealArray(60);
+				NativeRealArray out_i = new NativeRealArray(60);
+				NativeRealArray f_r = new NativeRealArray(60);
+				NativeRealArray f_i = new NativeRealArray(60);
+				NativeRealArray ref_r = new NativeRealArray(60);
+				NativeRealArray ref_i = new NativeRealArray(60);
+				FFTW_Plan c2c = FFTW_Plan.plan_split_c2c(c, in_r, in_i, c, out_r, out_i);
+				FFTW_Plan c2f = FFTW_Plan.plan_split_c2c(c, in_r, in_i, f, f_r, f_i);
+				)
+		{
+			for(long i = 0; i < 60; i++){
+				in_r.set(i, rnd.nextDouble());
+				in_i.set(i, rnd.nextDouble());
+			}
+			c2c.execute();
+			c2f.execute();
+			FFTW_Guru.execute_split_c2c(in_r, in_i, ref_r, ref_i, 4,5,3);
+			for(int z = 0; z < 3; z++){
+				for(int y = 0; y < 5; y++){
+					for(int x = 0; x < 4; x++){
+						long i = x+4*y+20*z;
+						assertEquals(ref_r.get(i), out_r.get(c.indexOf(z,y,x)), doubleTolerance);
+						assertEquals(ref_i.get(i), out_i.get(c.indexOf(z,y,x)), doubleTolerance);
+						// output in other layout
+						assertEquals(ref_r.get(i), f_r.get(f.indexOf(z,y,x)), doubleTolerance);
+						assertEquals(ref_i.get(i), f_i.get(f.indexOf(z,y,x)), doubleTolerance);
+					}
+				}
+			}
+		}
+		// sampler/writer based FFT with accessors in C order
+		double[] array = new double[60];
+		for(int i = 0; i < 60; i++)
+			array[i] = rnd.nextDouble();
+		StridedArrayAccessor input = new StridedArrayAccessor(array, c);
+		StridedArrayAccessor real = new StridedArrayAccessor(new double[60], c);
+		StridedArrayAccessor imag = new StridedArrayAccessor(new double[60], c);
+		FFT.fft(input, real.combineToComplexWriter(imag), input.getDimensions());
+		double[] refReal = new double[60];
+		double[] refImag = new double[60];
+		FFT.fft(array, refReal, refImag, 4,5,3);
+		for(int i = 0; i < 60; i++){
+			assertEquals(refReal[i], real.array[i], doubleTolerance);
+			assertEquals(refImag[i], imag.array[i], doubleTolerance);
+		}
+		JunitUtils.testException(()->new StridedArrayAccessor(new double[59], c), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testExceptions() {
+		try(
+				NativeRealArray a1 = new NativeRealArray(4);
+				NativeRealArray a2 = new NativeRealArray(4);
+				NativeRealArray a3 = new NativeRealArray(5);
+				NativeRealArray a4 = new NativeRealArray(5);
+				)
+		{
+			JunitUtils.testException(()->FFTW_Plan.plan_split_r2c(null, a1, a2, 2,2), NullPointerException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2r(a1, null, a2, 2,2), NullPointerException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2c(a1, a2, a1, null, 2,2), NullPointerException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_r2c(a1, a1, a2), IllegalArgumentException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2r(a1, a2, a1, 0,4), IllegalArgumentException.class);
+			JunitUtils.testException(()->FFTW_Plan.plan_split_c2c(a1, a2, a3, a2, 2,2), IllegalArgumentException.class);
+
+			// closed plan or closed arrays
+			FFTW_Plan plan = FFTW_Plan.plan_split_r2c(a1, a1, a2, 2,2);
+			plan.execute();
+			plan.close();
+			plan.close(); // closing twice is fine
+			JunitUtils.testException(()->plan.execute(), IllegalStateException.class);
+			try(FFTW_Plan plan2 = FFTW_Plan.plan_split_r2c(a3, a3, a4, 5)){
+				a3.close();
+				JunitUtils.testException(()->plan2.execute(), IllegalStateException.class);
+			}
+		}
+	}
+
+	@Test
+	public void testZeroAllocationWhenWarm() {
+		java.lang.management.ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)mxBean;
+		Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+		long threadId = Thread.currentThread().getId();
+		int n = 256;
+		double[] in = new double[n];
+		double[] re = new double[n];
+		double[] im = new double[n];
+		for(int i = 0; i < n; i++)
+			in[i] = i%7;
+		try(
+				NativeRealArray in_r = new NativeRealArray(n);
+				NativeRealArray out_r = new NativeRealArray(n);
+				NativeRealArray out_i = new NativeRealArray(n);
+				FFTW_Plan r2c = FFTW_Plan.plan_split_r2c(in_r, out_r, out_i, n);
+				FFTW_Plan c2r = FFTW_Plan.plan_split_c2r(out_r, out_i, in_r, n);
+				)
+		{
+			// warm up
+			for(int k = 0; k < 20000; k++){
+				transferAndExecute(r2c, c2r, in_r, out_r, out_i, in, re, im);
+			}
+			long nativeBytes = Pointer.totalBytes();
+			// minimum over several rounds, a single round may see sporadic allocations of the JVM (e.g. after deoptimization)
+			long allocated = Long.MAX_VALUE;
+			for(int round = 0; round < 5; round++){
+				long start = threadBean.getThreadAllocatedBytes(threadId);
+				long measurementOverhead = threadBean.getThreadAllocatedBytes(threadId)-start;
+				start = threadBean.getThreadAllocatedBytes(threadId);
+				for(int k = 0; k < 1000; k++){
+					transferAndExecute(r2c, c2r, in_r, out_r, out_i, in, re, im);
+				}
+				allocated = Math.min(allocated, threadBean.getThreadAllocatedBytes(threadId)-start-measurementOverhead);
+			}
+			assertEquals("heap bytes allocated by warm plan execution", 0, allocated);
+			assertEquals("native bytes retained by warm plan execution", nativeBytes, Pointer.totalBytes());
+		}
+	}
+
+	static void transferAndExecute(
+			FFTW_Plan r2c, FFTW_Plan c2r,
+			NativeRealArray in_r, NativeRealArray out_r, NativeRealArray out_i,
+			double[] in, double[] re, double[] im)
+	{
+		in_r.set(in);
+		r2c.execute();
+		out_r.get(0, re);
+		out_i.get(0, im);
+		c2r.execute();
+		in_r.get(0, in);
+		for(int i = 0; i < in.length; i++)
+			in[i] /= in.length;
+	}
+
+}
@@ -0,0 +1,62 @@
+package hageldave.ezfftw.dp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class FileRealArrayTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testReadWrite() throws Exception {
+		Path path = folder.newFile().toPath();
+		try(FileRealArray file = FileRealArray.create(path, 100); NativeRealArray array = new NativeRealArray(50)){
+			assertEquals(100, file.length);
+			assertArrayEquals(new double[4], file.get(96, 4), 0);
+			file.set(10, 1,2,3);
+			assertArrayEquals(new double[]{0,1,2,3,0}, file.get(9, 5), 0);
+			for(int i = 0; i < array.length; i++)
+				array.set(i, i);
+			file.write(60, array, 5, 40);
+			array.fill(0);
+			file.read(59, array, 0, 41);
+			assertEquals(0, array.get(0), 0);
+			assertEquals(5, array.get(1), 0);
+			assertEquals(44, array.get(40), 0);
+			assertEquals(0, array.get(41), 0);
+		}
+		// reopen
+		try(FileRealArray file = FileRealArray.open(path)){
+			assertEquals(100, file.length);
+			assertArrayEquals(new double[]{1,2,3}, file.get(10, 3), 0);
+		}
+	}
+
+	@Test
+	public void testExceptions() throws Exception {
+		Path path = folder.newFile().toPath();
+		JunitUtils.testException(()->FileRealArray.open(path), IllegalArgumentException.class);
+		JunitUtils.testException(()->FileRealArray.create(path, 0), IllegalArgumentException.class);
+		JunitUtils.testException(()->FileRealArray.create(null, 10), NullPointerException.class);
+		try(FileRealArray file = FileRealArray.create(path, 10); NativeRealArray array = new NativeRealArray(5)){
+			JunitUtils.testException(()->file.get(8, 3), ArrayIndexOutOfBoundsException.class);
+			JunitUtils.testException(()->file.set(-1, 1), ArrayIndexOutOfBoundsException.class);
+			JunitUtils.testException(()->file.read(0, array, 1, 5), ArrayIndexOutOfBoundsException.class);
+			JunitUtils.testException(()->file.write(6, array, 0, 5), ArrayIndexOutOfBoundsException.class);
+			JunitUtils.testException(()->file.read(0, null, 0, 1), NullPointerException.class);
+			array.close();
+			JunitUtils.testException(()->file.read(0, array, 0, 1), IllegalStateException.class);
+		}
+	}
+
+}
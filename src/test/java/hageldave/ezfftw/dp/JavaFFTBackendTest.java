@@ -0,0 +1,77 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.GeneralUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class JavaFFTBackendTest {
+
+	@Test
+	public void testAgainstFFTW() {
+		FFTBackend java = FFTBackends.JAVA;
+		FFTBackend fftw = FFTBackends.FFTW;
+		assertEquals("java", java.getName());
+		// power of two, prime, composite, 1D to 3D
+		long[][] shapes = {{1},{2},{64},{7},{97},{12},{100},{16,8},{5,12},{13,1},{4,6,9},{3,5,7}};
+		Random rnd = new Random(0);
+		for(long[] dims: shapes){
+			int n = (int)GeneralUtils.numElementsFromDimensions(dims);
+			double tolerance = doubleTolerance*n*4;
+			double[] realIn = new double[n];
+			double[] imagIn = new double[n];
+			for(int i = 0; i < n; i++){
+				realIn[i] = rnd.nextDouble();
+				imagIn[i] = rnd.nextDouble();
+			}
+			double[] realExpected = new double[n], imagExpected = new double[n];
+			double[] realOut = new double[n], imagOut = new double[n];
+			// r2c
+			fftw.r2c(realIn, realExpected, imagExpected, dims);
+			java.r2c(realIn, realOut, imagOut, dims);
+			assertArrayEquals(realExpected, realOut, tolerance);
+			assertArrayEquals(imagExpected, imagOut, tolerance);
+			// c2r of hermitian spectrum (copied since FFTW may overwrite its input)
+			double[] realBackExpected = new double[n], realBack = new double[n];
+			fftw.c2r(realExpected.clone(), imagExpected.clone(), realBackExpected, dims);
+			java.c2r(realOut, imagOut, realBack, dims);
+			assertArrayEquals(realBackExpected, realBack, tolerance);
+			for(int i = 0; i < n; i++)
+				realBack[i] /= n;
+			assertArrayEquals(realIn, realBack, doubleTolerance*4);
+			// c2c
+			fftw.c2c(realIn, imagIn, realExpected, imagExpected, dims);
+			java.c2c(realIn, imagIn, realOut, imagOut, dims);
+			assertArrayEquals(realExpected, realOut, tolerance);
+			assertArrayEquals(imagExpected, imagOut, tolerance);
+			// in place
+			double[] real = realIn.clone(), imag = imagIn.clone();
+			java.c2c(real, imag, real, imag, dims);
+			assertArrayEquals(realExpected, real, tolerance);
+			assertArrayEquals(imagExpected, imag, tolerance);
+		}
+	}
+
+	@Test
+	public void testLargeSizes() {
+		// sizes beyond kernel cache
+		for(int n: new int[]{(1<<16)+1, 1<<17}){
+			double[] real = new double[n];
+			double[] imag = new double[n];
+			real[1] = 1;
+			JavaFFTBackend.transform(real, imag, new long[]{n});
+			// transform of shifted impulse is e^(-2*pi*i*k/n)
+			for(int k = 0; k < n; k += 997){
+				assertEquals(Math.cos(2*Math.PI*k/n), real[k], doubleTolerance*16);
+				assertEquals(-Math.sin(2*Math.PI*k/n), imag[k], doubleTolerance*16);
+			}
+		}
+	}
+
+}
@@ -124,4 +124,21 @@ public class NativeRealArrayTest {
 		}
 	}
 
+	@Test
+	public void testForeignAccessOptIn() {
+		// opt-in, the ffm profile enables it together with native access
+		if(!Boolean.getBoolean(NativeRealArray.FOREIGN_ACCESS_PROPERTY)){
+			assertFalse(NativeRealArray.isForeignAccess());
+		} else if(!System.getProperty("java.specification.version").startsWith("1.")
+				&& Integer.parseInt(System.getProperty("java.specification.version")) >= 22)
+		{
+			assertTrue(NativeRealArray.isForeignAccess());
+		}
+		try(NativeRealArray a = new NativeRealArray(4)){
+			a.set(0, 0, 1, 2, 3);
+			assertEquals(2, a.get(2), 0);
+			assertArrayEquals(new double[]{0, 1, 2, 3}, a.get(0, 4), 0);
+		}
+	}
+
 }
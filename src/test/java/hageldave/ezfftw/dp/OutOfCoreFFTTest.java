@@ -0,0 +1,90 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertArrayEquals;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class OutOfCoreFFTTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFFT() throws Exception {
+		long[] dims = {12,10,9};
+		int n = 12*10*9;
+		Random rnd = new Random(0);
+		double[] realIn = new double[n];
+		double[] imagIn = new double[n];
+		for(int i = 0; i < n; i++){
+			realIn[i] = rnd.nextDouble();
+			imagIn[i] = rnd.nextDouble();
+		}
+		double[] realExpected = new double[n];
+		double[] imagExpected = new double[n];
+		double[] realExpectedC = new double[n];
+		double[] imagExpectedC = new double[n];
+		FFT.fft(realIn, realExpected, imagExpected, dims);
+		FFT.fft(realIn, imagIn, realExpectedC, imagExpectedC, dims);
+
+		// two passes with one plane per slab and partial column blocks, two planes per slab, single pass
+		for(long slabSize: new long[]{130, 250, n}){
+			OutOfCoreFFT fft = new OutOfCoreFFT(slabSize);
+			try(FileRealArray re = FileRealArray.create(newPath(), n);
+				FileRealArray im = FileRealArray.create(newPath(), n);
+				FileRealArray reOut = FileRealArray.create(newPath(), n);
+				FileRealArray imOut = FileRealArray.create(newPath(), n))
+			{
+				re.set(0, realIn);
+				im.set(0, imagIn);
+				fft.fft(re, reOut, imOut, dims);
+				assertArrayEquals(realExpected, reOut.get(0, n), doubleTolerance);
+				assertArrayEquals(imagExpected, imOut.get(0, n), doubleTolerance);
+
+				fft.fft(re, im, reOut, imOut, dims);
+				assertArrayEquals(realExpectedC, reOut.get(0, n), doubleTolerance);
+				assertArrayEquals(imagExpectedC, imOut.get(0, n), doubleTolerance);
+
+				// in place inverse
+				fft.ifft(reOut, imOut, reOut, imOut, dims);
+				double[] realBack = reOut.get(0, n);
+				double[] imagBack = imOut.get(0, n);
+				for(int i = 0; i < n; i++){
+					realBack[i] /= n;
+					imagBack[i] /= n;
+				}
+				assertArrayEquals(realIn, realBack, doubleTolerance);
+				assertArrayEquals(imagIn, imagBack, doubleTolerance);
+			}
+		}
+	}
+
+	@Test
+	public void testExceptions() throws Exception {
+		JunitUtils.testException(()->new OutOfCoreFFT(0), IllegalArgumentException.class);
+		try(FileRealArray a = FileRealArray.create(newPath(), 100); FileRealArray b = FileRealArray.create(newPath(), 100)){
+			// 1D, plane or column not fitting into slab
+			JunitUtils.testException(()->new OutOfCoreFFT(50).fft(a, a, b, 100), IllegalArgumentException.class);
+			JunitUtils.testException(()->new OutOfCoreFFT(40).fft(a, a, b, 50,2), IllegalArgumentException.class);
+			JunitUtils.testException(()->new OutOfCoreFFT(60).fft(a, a, b, 1,100), IllegalArgumentException.class);
+			// length mismatch
+			JunitUtils.testException(()->new OutOfCoreFFT().fft(a, a, b, 10,11), IllegalArgumentException.class);
+			JunitUtils.testException(()->new OutOfCoreFFT().fft(a, null, b, 10,10), NullPointerException.class);
+			JunitUtils.testException(()->new OutOfCoreFFT().fft(a, a, b), IllegalArgumentException.class);
+		}
+	}
+
+	private Path newPath() throws Exception {
+		return folder.newFile().toPath();
+	}
+
+}
@@ -0,0 +1,142 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class ParallelFFTTest {
+
+	@Test
+	public void testTransforms() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try(ParallelFFT parallel = new ParallelFFT(pool)) {
+			// 3D and 2D decomposed (uneven split), 1D and small serial
+			long[][] shapes = {{40,30,33},{256,199},{1<<16},{8,8}};
+			Random rnd = new Random(0);
+			for(long[] dims: shapes){
+				int n = (int)GeneralUtils.numElementsFromDimensions(dims);
+				double[] realIn = new double[n];
+				double[] imagIn = new double[n];
+				for(int i = 0; i < n; i++){
+					realIn[i] = rnd.nextDouble();
+					imagIn[i] = rnd.nextDouble();
+				}
+				double[] realExpected = new double[n], imagExpected = new double[n];
+				double[] realOut = new double[n], imagOut = new double[n];
+				// r2c
+				FFT.fft(realIn, realExpected, imagExpected, dims);
+				parallel.fft(realIn, realOut, imagOut, dims);
+				assertArrayEquals(realExpected, realOut, doubleTolerance*n);
+				assertArrayEquals(imagExpected, imagOut, doubleTolerance*n);
+				// c2r of spectrum of real signal
+				double[] realBack = new double[n];
+				parallel.ifft(realOut, imagOut, realBack, dims);
+				for(int i = 0; i < n; i++)
+					realBack[i] /= n;
+				assertArrayEquals(realIn, realBack, doubleTolerance);
+				// c2c
+				FFT.fft(realIn, imagIn, realExpected, imagExpected, dims);
+				parallel.fft(realIn, imagIn, realOut, imagOut, dims);
+				assertArrayEquals(realExpected, realOut, doubleTolerance*n);
+				assertArrayEquals(imagExpected, imagOut, doubleTolerance*n);
+				FFT.ifft(realIn, imagIn, realExpected, imagExpected, dims);
+				parallel.ifft(realIn, imagIn, realOut, imagOut, dims);
+				assertArrayEquals(realExpected, realOut, doubleTolerance*n);
+				assertArrayEquals(imagExpected, imagOut, doubleTolerance*n);
+				// parallel mode of FFT
+				FFT.fftParallel(realIn, imagIn, realOut, imagOut, dims);
+				FFT.fft(realIn, imagIn, realExpected, imagExpected, dims);
+				assertArrayEquals(realExpected, realOut, doubleTolerance*n);
+				assertArrayEquals(imagExpected, imagOut, doubleTolerance*n);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testWorkspaceCache() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try(ParallelFFT parallel = new ParallelFFT(pool)) {
+			long[] dims = {256,256};
+			int n = 256*256;
+			double[] realIn = new double[n], realOut = new double[n], imagOut = new double[n];
+			for(int i = 0; i < 3; i++){
+				parallel.fft(realIn, realOut, imagOut, dims);
+				assertEquals(1, parallel.getNumCachedWorkspaces());
+			}
+			// different kinds and shapes are cached separately, least recently used are evicted
+			parallel.ifft(realOut, imagOut, realIn, dims);
+			assertEquals(2, parallel.getNumCachedWorkspaces());
+			for(int d = 1; d <= ParallelFFT.MAX_CACHED_WORKSPACES; d++){
+				parallel.fft(realIn, realOut, imagOut, 256>>d, 256<<d);
+			}
+			assertEquals(ParallelFFT.MAX_CACHED_WORKSPACES, parallel.getNumCachedWorkspaces());
+			parallel.clearCache();
+			assertEquals(0, parallel.getNumCachedWorkspaces());
+			// closed does not cache anymore but still transforms
+			parallel.close();
+			parallel.fft(realIn, realOut, imagOut, dims);
+			assertEquals(0, parallel.getNumCachedWorkspaces());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testInputsUnmodified() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		long[] dims = {128,256};
+		int n = 128*256;
+		Random rnd = new Random(0);
+		double[] real = new double[n], imag = new double[n];
+		for(int i = 0; i < n; i++){
+			real[i] = rnd.nextDouble();
+			imag[i] = rnd.nextDouble();
+		}
+		double[] expected = new double[n], result = new double[n];
+		FFT.ifft(real, imag, expected, dims);
+		try(ParallelFFT parallel = new ParallelFFT(pool);
+			NativeRealArray ri = new NativeRealArray(n);
+			NativeRealArray ii = new NativeRealArray(n);
+			NativeRealArray ro = new NativeRealArray(n))
+		{
+			ri.set(real);
+			ii.set(imag);
+			parallel.execute_split_c2r(ri, ii, ro, dims);
+			ro.get(0, result);
+			assertArrayEquals(expected, result, doubleTolerance*n);
+			double[] check = new double[n];
+			ri.get(0, check);
+			assertArrayEquals(real, check, 0);
+			ii.get(0, check);
+			assertArrayEquals(imag, check, 0);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testExceptions() {
+		ParallelFFT parallel = new ParallelFFT();
+		JunitUtils.testException(()->new ParallelFFT(null), NullPointerException.class);
+		double[] a = new double[1<<16];
+		JunitUtils.testException(()->parallel.fft(a, a, a), IllegalArgumentException.class);
+		JunitUtils.testException(()->parallel.fft(a, a, a, 256,255), IllegalArgumentException.class);
+		JunitUtils.testException(()->parallel.fft(a, null, a, 256,256), NullPointerException.class);
+		try(NativeRealArray n1 = new NativeRealArray(1<<16); NativeRealArray n2 = new NativeRealArray(1<<15)){
+			JunitUtils.testException(()->parallel.execute_split_r2c(n1, n1, n2, 256,256), IllegalArgumentException.class);
+			JunitUtils.testException(()->parallel.execute_split_c2r(n1, null, n1, 256,256), NullPointerException.class);
+		}
+	}
+
+}
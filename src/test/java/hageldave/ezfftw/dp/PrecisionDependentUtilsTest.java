@@ -1,6 +1,8 @@
 package hageldave.ezfftw.dp;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -73,4 +75,62 @@ public class PrecisionDependentUtilsTest {
 
 	}
 
+	@Test
+	public void testInterleavedAndChunks() {
+		// more elements than fit into a single transfer chunk
+		int w = 71, h = 97;
+		double[] interleaved = new double[2*w*h];
+		for(int i = 0; i < interleaved.length; i++)
+			interleaved[i] = i;
+		try(NativeRealArray re = new NativeRealArray(w*h); NativeRealArray im = new NativeRealArray(w*h)){
+			PrecisionDependentUtils.fillNativeArraysFromInterleaved(re, im, interleaved, w,h);
+			for(long i = 0; i < re.length; i+=13){
+				assertEquals(2*i, re.get(i), 0);
+				assertEquals(2*i+1, im.get(i), 0);
+			}
+			double[] copy = new double[2*w*h];
+			PrecisionDependentUtils.readNativeArraysToInterleaved(re, im, copy, w,h);
+			assertArrayEquals(interleaved, copy, 0);
+			JunitUtils.testException(()->PrecisionDependentUtils.readNativeArraysToInterleaved(re, im, new double[w*h], w,h), IllegalArgumentException.class);
+
+			// sampler and writer in row major order
+			PrecisionDependentUtils.fillNativeArrayFromSampler(re, coords->coords[0]+coords[1]*w, w,h);
+			double[] written = new double[w*h];
+			PrecisionDependentUtils.readNativeArrayToWriter(re, (v,coords)->written[(int)(coords[0]+coords[1]*w)] = v, w,h);
+			for(int i = 0; i < w*h; i++)
+				assertEquals(i, written[i], 0);
+		}
+	}
+
+	@Test
+	public void testRows() {
+		// small (serial) and large (parallel) transfers
+		for(int height: new int[]{3, 1+(int)(PrecisionDependentUtils.PARALLEL_TRANSFER_THRESHOLD/100)}){
+			double[][] rows = new double[height][100];
+			for(int y = 0; y < height; y++)
+				for(int x = 0; x < 100; x++)
+					rows[y][x] = x+y*100;
+			try(NativeRealArray a = new NativeRealArray(height*100L)){
+				PrecisionDependentUtils.fillNativeArrayFromRows(a, rows, 100,height);
+				for(long i = 0; i < a.length; i+=37){
+					assertEquals(i, a.get(i), 0);
+				}
+				double[][] copy = new double[height][100];
+				PrecisionDependentUtils.readNativeArrayToRows(a, copy, 100,height);
+				for(int y = 0; y < height; y++)
+					assertArrayEquals(rows[y], copy[y], 0);
+				JunitUtils.testException(()->PrecisionDependentUtils.fillNativeArrayFromRows(a, new double[2][100], 100,2), IllegalArgumentException.class);
+			}
+		}
+		double[][][] volume = new double[4][3][2];
+		assertArrayEquals(new long[]{2,3,4}, PrecisionDependentUtils.dimensionsOf(volume, ""));
+		double[][] rows = PrecisionDependentUtils.rowsOf(volume);
+		assertEquals(12, rows.length);
+		assertSame(volume[2][1], rows[2*3+1]);
+		JunitUtils.testException(()->PrecisionDependentUtils.dimensionsOf(new double[][]{{1,2},{3}}, ""), IllegalArgumentException.class);
+		JunitUtils.testException(()->PrecisionDependentUtils.dimensionsOf(new double[][][]{new double[2][2], new double[3][2]}, ""), IllegalArgumentException.class);
+		JunitUtils.testException(()->PrecisionDependentUtils.dimensionsOf(new double[][]{{1,2},null}, ""), NullPointerException.class);
+		JunitUtils.testException(()->PrecisionDependentUtils.dimensionsOf(new double[0][], ""), IllegalArgumentException.class);
+	}
+
 }
@@ -0,0 +1,171 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+import hageldave.ezfftw.listeners.Listeners;
+import hageldave.ezfftw.listeners.TransformListener;
+import hageldave.ezfftw.listeners.TransformListener.Phase;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class STFTTest {
+
+	static double[] randomSignal(int length, long seed) {
+		Random rnd = new Random(seed);
+		double[] signal = new double[length];
+		for(int i = 0; i < length; i++){
+			signal[i] = rnd.nextDouble()*2-1;
+		}
+		return signal;
+	}
+
+	@Test
+	public void testForwardAgainstFFT() {
+		double[] signal = randomSignal(1000, 27);
+		// (frame size, hop, fft size, batch)
+		int[][] configs = {{64,16,64,32}, {50,20,64,4}, {32,40,33,3}, {16,16,16,1}};
+		for(int[] config: configs){
+			double[] window = STFT.hannWindow(config[0]);
+			try(STFT stft = new STFT(window, config[1], config[2], config[3])){
+				long[] count = {0};
+				stft.forward(signal, (frame, real, imag)->{
+					assertEquals(count[0]++, frame);
+					assertEquals(stft.numBins, real.length);
+					// reference: fft of windowed and zero padded frame
+					double[] padded = new double[stft.fftSize];
+					for(int i = 0; i < stft.frameSize; i++){
+						padded[i] = signal[(int)frame*stft.hopSize+i]*window[i];
+					}
+					double[] refReal = new double[stft.fftSize];
+					double[] refImag = new double[stft.fftSize];
+					FFT.fft(padded, refReal, refImag, stft.fftSize);
+					for(int k = 0; k < stft.numBins; k++){
+						assertEquals(refReal[k], real[k], doubleTolerance*10);
+						assertEquals(refImag[k], imag[k], doubleTolerance*10);
+					}
+				});
+				assertEquals(stft.numFrames(signal.length), count[0]);
+			}
+		}
+	}
+
+	@Test
+	public void testPushEqualsForward() {
+		double[] signal = randomSignal(2000, 270);
+		int[][] configs = {{64,16,64,8}, {30,45,32,4}, {40,40,64,2}};
+		for(int[] config: configs){
+			try(STFT stft = new STFT(STFT.hammingWindow(config[0]), config[1], config[2], config[3])){
+				ArrayList<double[]> forwardFrames = new ArrayList<>();
+				stft.forward(signal, (frame, real, imag)->{
+					forwardFrames.add(real.clone());
+					forwardFrames.add(imag.clone());
+				});
+				for(int rep = 0; rep < 2; rep++){
+					ArrayList<double[]> pushedFrames = new ArrayList<>();
+					long[] expectedIndex = {0};
+					int pos = 0, chunk = 0;
+					while(pos < signal.length){
+						int n = Math.min(signal.length-pos, (chunk++ * 53)%301);
+						stft.push(signal, pos, n, (frame, real, imag)->{
+							assertEquals(expectedIndex[0]++, frame);
+							pushedFrames.add(real.clone());
+							pushedFrames.add(imag.clone());
+						});
+						pos += n;
+					}
+					assertEquals(forwardFrames.size(), pushedFrames.size());
+					for(int i = 0; i < forwardFrames.size(); i++){
+						double[] expected = forwardFrames.get(i);
+						double[] actual = pushedFrames.get(i);
+						for(int k = 0; k < expected.length; k++){
+							assertEquals(expected[k], actual[k], doubleTolerance);
+						}
+					}
+					stft.resetStream();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testInverse() {
+		double[] signal = randomSignal(1500, 2700);
+		// (frame size, hop, fft size, batch)
+		int[][] configs = {{64,16,64,32}, {64,32,100,3}, {63,21,63,5}};
+		for(int[] config: configs){
+			try(STFT stft = new STFT(STFT.hannWindow(config[0]), config[1], config[2], config[3])){
+				int numFrames = (int)stft.numFrames(signal.length);
+				double[][] real = new double[numFrames][];
+				double[][] imag = new double[numFrames][];
+				stft.forward(signal, (frame, re, im)->{
+					real[(int)frame] = re.clone();
+					imag[(int)frame] = im.clone();
+				});
+				double[] reconstructed = stft.inverse(real, imag);
+				assertEquals((numFrames-1)*stft.hopSize+stft.frameSize, reconstructed.length);
+				// first sample has zero window weight, all others are covered
+				for(int i = 1; i < reconstructed.length; i++){
+					final int i_ = i;
+					JunitUtils.testWithMsg(()->assertEquals(signal[i_], reconstructed[i_], doubleTolerance*10), ()->"sample "+i_);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPartialBatch() {
+		AtomicInteger executions = new AtomicInteger();
+		TransformListener counter = (phase, kind, shape, howmany, bytes, nanos)->{
+			if(phase == Phase.EXECUTE) executions.incrementAndGet();
+		};
+		// frame size 16, hop 8, batch 32
+		try(STFT stft = new STFT(STFT.hannWindow(16), 8, 16, 32)){
+			double[] signal = randomSignal(16+4*8, 12);
+			ArrayList<double[]> forwardFrames = new ArrayList<>();
+			stft.forward(signal, (frame, real, imag)->forwardFrames.add(real.clone()));
+			Listeners.add(counter);
+			try {
+				// a single push completing 5 frames executes a single plan
+				ArrayList<double[]> pushedFrames = new ArrayList<>();
+				stft.push(signal, 0, signal.length, (frame, real, imag)->pushedFrames.add(real.clone()));
+				assertEquals(5, pushedFrames.size());
+				assertEquals(1, executions.get());
+				for(int i = 0; i < 5; i++){
+					assertArrayEquals(forwardFrames.get(i), pushedFrames.get(i), doubleTolerance);
+				}
+				// inverse of 3 frames executes a single plan
+				executions.set(0);
+				stft.inverse(new double[3][stft.numBins], new double[3][stft.numBins]);
+				assertEquals(1, executions.get());
+			} finally {
+				Listeners.remove(counter);
+			}
+		}
+	}
+
+	@Test
+	public void testExceptions() {
+		JunitUtils.testException(()->new STFT(null, 4), NullPointerException.class);
+		JunitUtils.testException(()->new STFT(new double[0], 4), IllegalArgumentException.class);
+		JunitUtils.testException(()->new STFT(new double[8], 0), IllegalArgumentException.class);
+		JunitUtils.testException(()->new STFT(new double[8], 4, 7, 4), IllegalArgumentException.class);
+		JunitUtils.testException(()->new STFT(new double[8], 4, 8, 0), IllegalArgumentException.class);
+		try(STFT stft = new STFT(STFT.hannWindow(8), 4)){
+			JunitUtils.testException(()->stft.push(new double[4], 2, 4, (f,r,i)->{}), ArrayIndexOutOfBoundsException.class);
+			JunitUtils.testException(()->stft.push(new double[4], 0, 4, null), NullPointerException.class);
+			JunitUtils.testException(()->stft.inverse(new double[0][], new double[0][]), IllegalArgumentException.class);
+			JunitUtils.testException(()->stft.inverse(new double[1][4], new double[1][4]), IllegalArgumentException.class);
+			JunitUtils.testException(()->stft.inverse(new double[2][5], new double[1][5]), IllegalArgumentException.class);
+			JunitUtils.testException(()->stft.inverse(new double[2][5], new double[2][5], new double[11]), IllegalArgumentException.class);
+		}
+	}
+
+}
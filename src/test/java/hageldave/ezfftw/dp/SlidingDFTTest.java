@@ -0,0 +1,109 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class SlidingDFTTest {
+
+	/* fft of the last windowSize samples up to (excluding) end */
+	static void windowFFT(double[] signal, int end, int windowSize, double[] real, double[] imag) {
+		double[] window = new double[windowSize];
+		for(int i = 0; i < windowSize; i++){
+			int idx = end-windowSize+i;
+			window[i] = idx < 0 ? 0:signal[idx];
+		}
+		FFT.fft(window, real, imag, windowSize);
+	}
+
+	@Test
+	public void testAgainstFFT() {
+		Random rnd = new Random(28);
+		double[] signal = new double[500];
+		for(int i = 0; i < signal.length; i++){
+			signal[i] = rnd.nextDouble()*2-1;
+		}
+		int windowSize = 24;
+		double[] refReal = new double[windowSize];
+		double[] refImag = new double[windowSize];
+		try(
+				SlidingDFT all = new SlidingDFT(windowSize);
+				SlidingDFT some = new SlidingDFT(windowSize, 100, 3, 0, 12, 23);
+				)
+		{
+			double[] r = new double[4];
+			double[] i = new double[4];
+			for(int t = 0; t < signal.length; t++){
+				all.update(signal[t]);
+				some.update(signal, t, 1);
+				windowFFT(signal, t+1, windowSize, refReal, refImag);
+				for(int k = 0; k < windowSize; k++){
+					assertEquals(k, all.getBin(k));
+					assertEquals(refReal[k], all.getReal(k), doubleTolerance);
+					assertEquals(refImag[k], all.getImag(k), doubleTolerance);
+				}
+				some.getSpectrum(r, i);
+				for(int k = 0; k < some.getNumBins(); k++){
+					assertEquals(refReal[some.getBin(k)], r[k], doubleTolerance);
+					assertEquals(refImag[some.getBin(k)], i[k], doubleTolerance);
+				}
+			}
+			// reset
+			all.reset();
+			all.update(1);
+			for(int k = 0; k < windowSize; k++){
+				double angle = 2*Math.PI*k*(windowSize-1)/windowSize; //#FLOATGEN_IGNORE
+				assertEquals(Math.cos(angle), all.getReal(k), doubleTolerance);
+				assertEquals(-Math.sin(angle), all.getImag(k), doubleTolerance);
+			}
+		}
+	}
+
+	@Test
+	public void testResynchronization() {
+		Random rnd = new Random(280);
+		int windowSize = 64;
+		double[] signal = new double[20000];
+		for(int i = 0; i < signal.length; i++){
+			signal[i] = rnd.nextDouble()*1000;
+		}
+		double[] refReal = new double[windowSize];
+		double[] refImag = new double[windowSize];
+		try(SlidingDFT sdft = new SlidingDFT(windowSize, 5000, 1, 7)){
+			sdft.update(signal, 0, signal.length);
+			// last update resynchronized exactly
+			windowFFT(signal, signal.length, windowSize, refReal, refImag);
+			assertEquals(refReal[1], sdft.getReal(0), doubleTolerance*1000);
+			assertEquals(refImag[7], sdft.getImag(1), doubleTolerance*1000);
+			// manual resync gives same result
+			sdft.update(5);
+			sdft.resynchronize();
+			double[] extended = java.util.Arrays.copyOf(signal, signal.length+1);
+			extended[signal.length] = 5;
+			windowFFT(extended, extended.length, windowSize, refReal, refImag);
+			assertEquals(refReal[1], sdft.getReal(0), doubleTolerance*1000);
+			assertEquals(refImag[7], sdft.getImag(1), doubleTolerance*1000);
+		}
+	}
+
+	@Test
+	public void testExceptions() {
+		JunitUtils.testException(()->new SlidingDFT(0), IllegalArgumentException.class);
+		JunitUtils.testException(()->new SlidingDFT(8, 0, 1), IllegalArgumentException.class);
+		JunitUtils.testException(()->new SlidingDFT(8, 8), IllegalArgumentException.class);
+		JunitUtils.testException(()->new SlidingDFT(8, 8, 8), IllegalArgumentException.class);
+		JunitUtils.testException(()->new SlidingDFT(8, 8, -1), IllegalArgumentException.class);
+		JunitUtils.testException(()->new SlidingDFT(8, 8, (int[])null), NullPointerException.class);
+		try(SlidingDFT sdft = new SlidingDFT(8, 8, 1, 2)){
+			JunitUtils.testException(()->sdft.update(new double[4], 2, 3), ArrayIndexOutOfBoundsException.class);
+			JunitUtils.testException(()->sdft.getSpectrum(new double[3], new double[2]), IllegalArgumentException.class);
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package hageldave.ezfftw.dp;
+
+import static hageldave.ezfftw.JunitUtils.doubleTolerance;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class StreamingConvolverTest {
+
+	@Test
+	public void testAgainstDirectConvolution() {
+		Random rnd = new Random(0x2626);
+		double[] signal = new double[3000];
+		for(int i = 0; i < signal.length; i++){
+			signal[i] = rnd.nextDouble()*2-1;
+		}
+		for(int kernelLength : new int[]{1,7,33}){
+			double[] kernel = new double[kernelLength];
+			for(int i = 0; i < kernelLength; i++){
+				kernel[i] = rnd.nextDouble()*2-1;
+			}
+			double[] expected = directConvolution(signal, kernel);
+			for(int fftSize : new int[]{0, kernelLength, kernelLength+1, 100}){
+				try(StreamingConvolver conv = fftSize == 0 ? new StreamingConvolver(kernel):new StreamingConvolver(kernel, fftSize)){
+					double[] output = new double[signal.length];
+					// feed signal in chunks of varying size
+					int pos = 0;
+					int chunk = 0;
+					while(pos < signal.length){
+						int n = Math.min(signal.length-pos, (chunk++ * 37)%129);
+						conv.process(signal, pos, output, pos, n);
+						pos += n;
+					}
+					int latency = conv.blockSize;
+					final int kl = kernelLength, fs = conv.fftSize;
+					for(int t = 0; t < signal.length; t++){
+						final int t_ = t;
+						double exp = t < latency ? 0:expected[t-latency];
+						JunitUtils.testWithMsg(()->assertEquals(exp, output[t_], doubleTolerance*10),
+								()->"kernel length "+kl+" fft size "+fs+" at "+t_);
+					}
+					// reset restores initial state
+					conv.reset();
+					double[] output2 = new double[signal.length];
+					conv.process(signal, output2);
+					for(int t = 0; t < signal.length; t++){
+						assertEquals(output[t], output2[t], doubleTolerance);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testExceptions() {
+		JunitUtils.testException(()->new StreamingConvolver(null), NullPointerException.class);
+		JunitUtils.testException(()->new StreamingConvolver(new double[0]), IllegalArgumentException.class);
+		JunitUtils.testException(()->new StreamingConvolver(new double[8], 7), IllegalArgumentException.class);
+		try(StreamingConvolver conv = new StreamingConvolver(new double[]{1,2,3})){
+			JunitUtils.testException(()->conv.process(new double[4], 0, new double[4], 1, 4), ArrayIndexOutOfBoundsException.class);
+			JunitUtils.testException(()->conv.process(new double[4], 1, new double[4], 0, 4), ArrayIndexOutOfBoundsException.class);
+			JunitUtils.testException(()->conv.process(new double[4], 0, new double[4], 0, -1), IllegalArgumentException.class);
+			JunitUtils.testException(()->conv.process(null, new double[4]), NullPointerException.class);
+		}
+	}
+
+	static double[] directConvolution(double[] signal, double[] kernel) {
+		double[] result = new double[signal.length];
+		for(int t = 0; t < signal.length; t++){
+			double sum = 0;
+			for(int k = 0; k < kernel.length && k <= t; k++){
+				sum += kernel[k]*signal[t-k];
+			}
+			result[t] = sum;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,103 @@
+package hageldave.ezfftw.dp;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.GeneralUtils;
+import hageldave.ezfftw.JunitUtils;
+
+/* --- DOUBLE PRECISION VERSION --- */
+public class TransposeTest {
+
+	@Test
+	public void testTranspose() {
+		// small (serial) with partial tiles and large (parallel)
+		long[][] sizes = {{130,70},{1,5},{700,400}};
+		for(long[] size: sizes){
+			long w = size[0], h = size[1];
+			try(NativeRealArray src = new NativeRealArray(w*h); NativeRealArray dst = new NativeRealArray(w*h)){
+				fillWithIndex(src);
+				Transpose.transpose(src, dst, w,h);
+				for(long y = 0; y < h; y+=3){
+					for(long x = 0; x < w; x++){
+						assertEquals(src.get(x+y*w), dst.get(y+x*h), 0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPermute() {
+		long[] dims = {70,3,66};
+		int[][] permutations = {{0,1,2},{0,2,1},{1,0,2},{1,2,0},{2,0,1},{2,1,0}};
+		try(NativeRealArray src = new NativeRealArray(70*3*66); NativeRealArray dst = new NativeRealArray(70*3*66)){
+			fillWithIndex(src);
+			for(int[] perm: permutations){
+				dst.fill(-1);
+				Transpose.permute(src, dst, perm, dims);
+				long[] outDims = {dims[perm[0]], dims[perm[1]], dims[perm[2]]};
+				long[] c = new long[3];
+				long[] outC = new long[3];
+				for(long i = 0; i < src.length; i++){
+					for(int k = 0; k < 3; k++)
+						outC[k] = c[perm[k]];
+					assertEquals(src.get(i), dst.get(GeneralUtils.indexFromCoordinates(outC, outDims)), 0);
+					GeneralUtils.incrementCoords(c, dims);
+				}
+			}
+			// 4D with a permutation keeping the fastest axis
+			Transpose.permute(src, dst, new int[]{0,3,2,1}, 70,3,2,33);
+			assertEquals(src.get(5 + 70*(2 + 3*(1 + 2*30))), dst.get(5 + 70*(30 + 33*(1 + 2*2))), 0);
+		}
+		// large (parallel) row copies
+		try(NativeRealArray src = new NativeRealArray(100*50*60); NativeRealArray dst = new NativeRealArray(100*50*60)){
+			fillWithIndex(src);
+			Transpose.permute(src, dst, new int[]{0,2,1}, 100,50,60);
+			for(long z = 0; z < 60; z++){
+				for(long y = 0; y < 50; y++){
+					for(long x = 0; x < 100; x++){
+						assertEquals(src.get(x+100*(y+50*z)), dst.get(x+100*(z+60*y)), 0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testTransposeInPlace() {
+		for(long n: new long[]{1,63,130,600}){
+			try(NativeRealArray a = new NativeRealArray(n*n)){
+				fillWithIndex(a);
+				Transpose.transposeInPlace(a, n);
+				for(long y = 0; y < n; y++){
+					for(long x = 0; x < n; x++){
+						assertEquals(y+x*n, a.get(x+y*n), 0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testExceptions() {
+		try(NativeRealArray a = new NativeRealArray(12); NativeRealArray b = new NativeRealArray(12); NativeRealArray c = new NativeRealArray(13)){
+			JunitUtils.testException(()->Transpose.transpose(a, a, 3,4), IllegalArgumentException.class);
+			JunitUtils.testException(()->Transpose.transpose(a, c, 3,4), IllegalArgumentException.class);
+			JunitUtils.testException(()->Transpose.transpose(a, null, 3,4), NullPointerException.class);
+			JunitUtils.testException(()->Transpose.permute(a, b, new int[]{0,0}, 3,4), IllegalArgumentException.class);
+			JunitUtils.testException(()->Transpose.permute(a, b, new int[]{0,1,2}, 3,4), IllegalArgumentException.class);
+			JunitUtils.testException(()->Transpose.transposeInPlace(a, 3), IllegalArgumentException.class);
+			NativeRealArray closed = new NativeRealArray(12);
+			closed.close();
+			JunitUtils.testException(()->Transpose.transpose(a, closed, 3,4), IllegalStateException.class);
+		}
+	}
+
+	static void fillWithIndex(NativeRealArray a) {
+		for(long i = 0; i < a.length; i++)
+			a.set(i, i);
+	}
+
+}
@@ -0,0 +1,80 @@
+package hageldave.ezfftw.listeners;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+import hageldave.ezfftw.listeners.TransformListener.Phase;
+
+public class HistogramListenerTest {
+
+	@Test
+	public void testHistogram() {
+		HistogramListener h = new HistogramListener();
+		assertEquals(0, h.getPercentileNanos(Phase.EXECUTE, 0.5));
+		long[] shape = {8};
+		for(long nanos: new long[]{0, 1, 2, 3, 4, 1000, 1000, 1000, 1000, 5000}){
+			h.onCall(Phase.EXECUTE, "r2c", shape, 1, 64, nanos);
+		}
+		h.onCall(Phase.PLAN, "r2c", shape, 1, 0, 123);
+
+		assertEquals(10, h.getCount(Phase.EXECUTE));
+		assertEquals(1, h.getCount(Phase.PLAN));
+		assertEquals(0, h.getCount(Phase.TRANSFER));
+		assertEquals(10+4000+5000, h.getTotalNanos(Phase.EXECUTE));
+		assertEquals(640, h.getTotalBytes(Phase.EXECUTE));
+		assertEquals(5000, h.getMaxNanos(Phase.EXECUTE));
+
+		long[] expected = new long[HistogramListener.NUM_BUCKETS];
+		expected[0] = 1; // 0
+		expected[1] = 1; // 1
+		expected[2] = 2; // 2,3
+		expected[3] = 1; // 4
+		expected[10] = 4; // 512..1023
+		expected[13] = 1; // 4096..8191
+		assertArrayEquals(expected, h.getBucketCounts(Phase.EXECUTE));
+
+		assertEquals(0, h.getPercentileNanos(Phase.EXECUTE, 0));
+		assertEquals(3, h.getPercentileNanos(Phase.EXECUTE, 0.4));
+		assertEquals(1023, h.getPercentileNanos(Phase.EXECUTE, 0.9));
+		// upper bound of last bucket is clamped to max
+		assertEquals(5000, h.getPercentileNanos(Phase.EXECUTE, 1));
+		assertEquals(123, h.getPercentileNanos(Phase.PLAN, 0.5));
+		JunitUtils.testException(()->h.getPercentileNanos(Phase.PLAN, 1.5), IllegalArgumentException.class);
+		JunitUtils.testException(()->h.getPercentileNanos(Phase.PLAN, Double.NaN), IllegalArgumentException.class);
+
+		h.reset();
+		assertEquals(0, h.getCount(Phase.EXECUTE));
+		assertEquals(0, h.getMaxNanos(Phase.EXECUTE));
+		assertArrayEquals(new long[HistogramListener.NUM_BUCKETS], h.getBucketCounts(Phase.EXECUTE));
+	}
+
+	@Test
+	public void testConcurrentRecording() throws InterruptedException {
+		HistogramListener h = new HistogramListener();
+		long[] shape = {8};
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		for(int t = 0; t < 8; t++){
+			pool.execute(()->{
+				for(int i = 0; i < 10000; i++)
+					h.onCall(Phase.TRANSFER, "sampler", shape, 1, 8, i);
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(1, TimeUnit.MINUTES);
+		assertEquals(80000, h.getCount(Phase.TRANSFER));
+		assertEquals(640000, h.getTotalBytes(Phase.TRANSFER));
+		assertEquals(9999, h.getMaxNanos(Phase.TRANSFER));
+		long sum = 0;
+		for(long c: h.getBucketCounts(Phase.TRANSFER))
+			sum += c;
+		assertEquals(80000, sum);
+	}
+
+}
@@ -0,0 +1,103 @@
+package hageldave.ezfftw.listeners;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+import hageldave.ezfftw.dp.FFT;
+import hageldave.ezfftw.listeners.TransformListener.Phase;
+
+public class ListenersTest {
+
+	@Test
+	public void testRegistration() {
+		TransformListener l1 = (phase, kind, shape, howmany, bytes, nanos)->{};
+		TransformListener l2 = (phase, kind, shape, howmany, bytes, nanos)->{};
+		assertFalse(Listeners.isListening());
+		assertEquals(Listeners.NOT_LISTENING, Listeners.startTime());
+		try {
+			Listeners.add(l1);
+			Listeners.add(l2);
+			Listeners.add(l1);
+			assertTrue(Listeners.isListening());
+			assertArrayEquals(new TransformListener[]{l1,l2,l1}, Listeners.getListeners());
+			assertTrue(Listeners.remove(l1));
+			assertArrayEquals(new TransformListener[]{l2,l1}, Listeners.getListeners());
+			assertTrue(Listeners.remove(l2));
+			assertTrue(Listeners.remove(l1));
+			assertFalse(Listeners.remove(l1));
+			assertFalse(Listeners.isListening());
+			JunitUtils.testException(()->Listeners.add(null), NullPointerException.class);
+		} finally {
+			Listeners.clear();
+		}
+	}
+
+	@Test
+	public void testNotifications() {
+		List<String> calls = Collections.synchronizedList(new ArrayList<>());
+		TransformListener recorder = (phase, kind, shape, howmany, bytes, nanos)->{
+			assertTrue(nanos >= 0);
+			calls.add(phase + " " + kind + " " + shape[0] + "x" + shape[1] + " " + bytes);
+		};
+		TransformListener faulty = (phase, kind, shape, howmany, bytes, nanos)->{
+			throw new IllegalStateException("listener failure must not affect transform");
+		};
+		Listeners.add(faulty);
+		Listeners.add(recorder);
+		try {
+			double[] in = new double[6*3];
+			in[0] = 1;
+			double[] re = new double[6*3];
+			double[] im = new double[6*3];
+			FFT.fft(in, re, im, 6,3);
+			assertEquals(1, re[5], 0);
+			long bytes = 6*3*Double.BYTES;
+			assertEquals(Arrays.asList(
+					"TRANSFER array in 6x3 " + bytes,
+					"PLAN r2c 6x3 0",
+					"EXECUTE r2c 6x3 " + 3*bytes,
+					"TRANSFER array out 6x3 " + bytes,
+					"TRANSFER array out 6x3 " + bytes),
+					calls);
+		} finally {
+			Listeners.clear();
+		}
+		calls.clear();
+		FFT.fft(new double[4], new double[4], new double[4], 2,2);
+		assertTrue(calls.isEmpty());
+	}
+
+	@Test
+	public void testBlockTransfers() {
+		List<String> calls = Collections.synchronizedList(new ArrayList<>());
+		Listeners.add((phase, kind, shape, howmany, bytes, nanos)->{
+			calls.add(phase + " " + kind + " " + shape[0] + "x" + shape[1] + " " + howmany + " " + bytes);
+		});
+		try {
+			// 4 blocks of 3x5, not transformed by codelets
+			double[] in = new double[4*3*5];
+			FFT.fftBlocks(in, new double[in.length], new double[in.length], 3,5);
+			long bytes = in.length*Double.BYTES;
+			assertEquals(Arrays.asList(
+					"PLAN r2c 3x5 4 0",
+					"TRANSFER array in 3x5 4 " + bytes,
+					"EXECUTE r2c 3x5 4 " + 3*bytes,
+					"TRANSFER array out 3x5 4 " + bytes,
+					"TRANSFER array out 3x5 4 " + bytes),
+					calls);
+		} finally {
+			Listeners.clear();
+		}
+	}
+
+}
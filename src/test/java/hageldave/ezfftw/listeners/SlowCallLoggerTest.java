@@ -0,0 +1,49 @@
+package hageldave.ezfftw.listeners;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+import hageldave.ezfftw.JunitUtils;
+import hageldave.ezfftw.listeners.TransformListener.Phase;
+
+public class SlowCallLoggerTest {
+
+	@Test
+	public void testThreshold() {
+		List<LogRecord> records = new ArrayList<>();
+		Logger logger = Logger.getAnonymousLogger();
+		logger.setUseParentHandlers(false);
+		logger.addHandler(new Handler() {
+			@Override public void publish(LogRecord record) { records.add(record); }
+			@Override public void flush() {}
+			@Override public void close() {}
+		});
+		SlowCallLogger slowCalls = new SlowCallLogger(2, TimeUnit.MILLISECONDS, logger, Level.INFO);
+		assertEquals(2000000, slowCalls.thresholdNanos);
+
+		slowCalls.onCall(Phase.EXECUTE, "r2c", new long[]{64,64}, 1, 98304, 1999999);
+		assertEquals(0, records.size());
+		slowCalls.onCall(Phase.EXECUTE, "r2c", new long[]{64,64}, 4, 98304, 2500000);
+		assertEquals(1, records.size());
+		assertEquals(Level.INFO, records.get(0).getLevel());
+		assertEquals("Slow EXECUTE of r2c 64x64: 2.500 ms (4 signals, 98304 bytes)", records.get(0).getMessage());
+
+		// not loggable
+		logger.setLevel(Level.WARNING);
+		slowCalls.onCall(Phase.PLAN, "r2c", new long[]{64,64}, 1, 0, 3000000);
+		assertEquals(1, records.size());
+
+		JunitUtils.testException(()->new SlowCallLogger(1, null), NullPointerException.class);
+		JunitUtils.testException(()->new SlowCallLogger(1, TimeUnit.SECONDS, null, Level.INFO), NullPointerException.class);
+	}
+
+}
@@ -0,0 +1,223 @@
+package hageldave.generator;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Generates the unrolled fixed size transforms of hageldave.ezfftw.dp.Codelets.
+ * <p>
+ * Sizes up to {@link #MAX_UNROLLED_SIZE} are straight line radix-2 decimation in time transforms
+ * on local variables. Larger sizes apply one unrolled decimation in frequency stage on the arrays,
+ * transform both halves with the codelet of half the size, and reorder the results with an unrolled
+ * permutation, which keeps each method well below the bytecode size limit for JIT compilation.
+ * Run from the project root (see generate_codelets.sh).
+ */
+public class CodeletGenerator {
+
+	static final int MAX_SIZE = 64;
+	static final int MAX_UNROLLED_SIZE = 32;
+
+	public static void main(String[] args) throws IOException {
+		File target = new File("src/main/java/hageldave/ezfftw/dp/Codelets.java");
+		/* reuse license header of a hand written class */
+		List<String> headerSource = Files.readAllLines(new File("src/main/java/hageldave/ezfftw/dp/FFT.java").toPath());
+		try(PrintWriter w = new PrintWriter(new FileWriter(target))){
+			for(String line: headerSource){
+				if(line.startsWith("package"))
+					break;
+				w.println(line);
+			}
+			genClass(w);
+		}
+		System.out.println("Done creating " + target.getPath());
+	}
+
+	static void genClass(PrintWriter w) {
+		w.println("package hageldave.ezfftw.dp;");
+		w.println();
+		w.println("import hageldave.ezfftw.Annotations.DoublePrecisionVersion;");
+		w.println();
+		w.println("/**");
+		w.println(" * Unrolled, allocation free forward transforms of fixed power of two sizes from 2 to " + MAX_SIZE + ",");
+		w.println(" * working in place on split complex arrays with arbitrary offset and stride.");
+		w.println(" * <p>");
+		w.println(" * THIS CLASS WAS GENERATED BY hageldave.generator.CodeletGenerator, DO NOT MODIFY");
+		w.println(" *");
+		w.println(" * @author hageldave");
+		w.println(" * @since 0.1.3");
+		w.println(" */");
+		w.println("@DoublePrecisionVersion");
+		w.println("final class Codelets {");
+		w.println();
+		w.println("\t/** largest size of a codelet */");
+		w.println("\tstatic final int MAX_SIZE = " + MAX_SIZE + ";");
+		w.println();
+		w.println("\t/* twiddle factors e^(-2*pi*i*k/n) */");
+		for(int n = 8; n <= MAX_SIZE; n <<= 1){
+			/* even k reduce to a twiddle of a smaller size */
+			for(int k = 1; k < n/2; k += 2){
+				if(!isTrivial(n, k)){
+					w.println("\tprivate static final double " + cos(n,k) + " = (double)Math.cos(2*Math.PI*" + k + "/" + n + ");");
+					w.println("\tprivate static final double " + sin(n,k) + " = (double)-Math.sin(2*Math.PI*" + k + "/" + n + ");");
+				}
+			}
+		}
+		w.println();
+		w.println("\tprivate Codelets() {}");
+		w.println();
+		w.println("\t/**");
+		w.println("\t * Returns whether there is a codelet for the specified size.");
+		w.println("\t * @param n size of the transform");
+		w.println("\t * @return true when n is a power of two from 1 to {@link #MAX_SIZE}");
+		w.println("\t */");
+		w.println("\tstatic boolean isSupported(long n) {");
+		w.println("\t\treturn n > 0 && n <= MAX_SIZE && Long.bitCount(n) == 1;");
+		w.println("\t}");
+		w.println();
+		w.println("\t/**");
+		w.println("\t * Computes the forward DFT of the n elements at <tt>offset + k*stride</tt> in place.");
+		w.println("\t * @param re real part");
+		w.println("\t * @param im imaginary part");
+		w.println("\t * @param offset index of first element");
+		w.println("\t * @param stride distance between consecutive elements");
+		w.println("\t * @param n size of the transform, needs to be supported (see {@link #isSupported(long)})");
+		w.println("\t */");
+		w.println("\t@DoublePrecisionVersion");
+		w.println("\tstatic void fft(double[] re, double[] im, int offset, int stride, int n) {");
+		w.println("\t\tswitch(n){");
+		w.println("\t\tcase 1: return;");
+		for(int n = 2; n <= MAX_SIZE; n <<= 1){
+			w.println("\t\tcase " + n + ": fft" + n + "(re, im, offset, stride); return;");
+		}
+		w.println("\t\tdefault: throw new IllegalArgumentException(\"No codelet for size \" + n + \".\");");
+		w.println("\t\t}");
+		w.println("\t}");
+		for(int n = 2; n <= MAX_SIZE; n <<= 1){
+			w.println();
+			if(n <= MAX_UNROLLED_SIZE){
+				genUnrolled(w, n);
+			} else {
+				genSplit(w, n);
+			}
+		}
+		w.println();
+		w.println("}");
+	}
+
+	/* straight line radix-2 decimation in time on locals */
+	static void genUnrolled(PrintWriter w, int n) {
+		int bits = Integer.numberOfTrailingZeros(n);
+		w.println("\t@DoublePrecisionVersion");
+		w.println("\tprivate static void fft" + n + "(double[] re, double[] im, int o, int s) {");
+		/* local j holds element bitreverse(j) */
+		for(int j = 0; j < n; j++){
+			int src = Integer.reverse(j) >>> (32-bits);
+			w.println("\t\tdouble r" + j + " = re[" + index(src) + "], i" + j + " = im[" + index(src) + "];");
+		}
+		w.println("\t\tdouble tr, ti;");
+		for(int size = 2; size <= n; size <<= 1){
+			int half = size/2;
+			for(int start = 0; start < n; start += size){
+				for(int k = 0; k < half; k++){
+					genButterfly(w, "\t\t", start+k, start+k+half, size, k);
+				}
+			}
+		}
+		for(int j = 0; j < n; j++){
+			w.println("\t\tre[" + index(j) + "] = r" + j + "; im[" + index(j) + "] = i" + j + ";");
+		}
+		w.println("\t}");
+	}
+
+	/* butterfly a,b = a+w*b, a-w*b on locals with w = e^(-2*pi*i*k/size) */
+	static void genButterfly(PrintWriter w, String indent, int a, int b, int size, int k) {
+		String ra = "r"+a, ia = "i"+a, rb = "r"+b, ib = "i"+b;
+		if(k == 0){
+			w.println(indent + "tr = " + rb + "; ti = " + ib + ";");
+		} else if(4*k == size){
+			/* w = -i */
+			w.println(indent + "tr = " + ib + "; ti = -" + rb + ";");
+		} else {
+			String c = cos(size,k), s = sin(size,k);
+			w.println(indent + "tr = " + rb + "*" + c + " - " + ib + "*" + s + "; ti = " + rb + "*" + s + " + " + ib + "*" + c + ";");
+		}
+		w.println(indent + rb + " = " + ra + " - tr; " + ib + " = " + ia + " - ti; " + ra + " += tr; " + ia + " += ti;");
+	}
+
+	/* one decimation in frequency stage, half size codelets and unshuffle */
+	static void genSplit(PrintWriter w, int n) {
+		int half = n/2;
+		w.println("\t@DoublePrecisionVersion");
+		w.println("\tprivate static void fft" + n + "(double[] re, double[] im, int o, int s) {");
+		w.println("\t\tdouble ar, ai, br, bi;");
+		for(int k = 0; k < half; k++){
+			String a = index(k), b = index(k+half);
+			w.println("\t\tar = re[" + a + "]; ai = im[" + a + "]; br = re[" + b + "]; bi = im[" + b + "];");
+			w.println("\t\tre[" + a + "] = ar + br; im[" + a + "] = ai + bi;");
+			if(k == 0){
+				w.println("\t\tre[" + b + "] = ar - br; im[" + b + "] = ai - bi;");
+			} else {
+				w.println("\t\tar -= br; ai -= bi;");
+				if(4*k == n){
+					w.println("\t\tre[" + b + "] = ai; im[" + b + "] = -ar;");
+				} else {
+					String c = cos(n,k), si = sin(n,k);
+					w.println("\t\tre[" + b + "] = ar*" + c + " - ai*" + si + "; im[" + b + "] = ar*" + si + " + ai*" + c + ";");
+				}
+			}
+		}
+		w.println("\t\tfft" + half + "(re, im, o, s);");
+		w.println("\t\tfft" + half + "(re, im, " + index(half) + ", s);");
+		/* position p<half holds X[2p], position half+p holds X[2p+1], follow cycles of the permutation */
+		w.println("\t\t/* even frequencies are in the first half, odd in the second */");
+		boolean[] done = new boolean[n];
+		for(int c = 0; c < n; c++){
+			if(done[c] || source(c, n) == c){
+				done[c] = true;
+				continue;
+			}
+			w.println("\t\tar = re[" + index(c) + "]; ai = im[" + index(c) + "];");
+			int q = c;
+			while(true){
+				done[q] = true;
+				int src = source(q, n);
+				if(src == c){
+					w.println("\t\tre[" + index(q) + "] = ar; im[" + index(q) + "] = ai;");
+					break;
+				}
+				w.println("\t\tre[" + index(q) + "] = re[" + index(src) + "]; im[" + index(q) + "] = im[" + index(src) + "];");
+				q = src;
+			}
+		}
+		w.println("\t}");
+	}
+
+	/* position of X[q] after the half size transforms */
+	static int source(int q, int n) {
+		return (q%2 == 0) ? q/2 : n/2 + q/2;
+	}
+
+	static boolean isTrivial(int n, int k) {
+		return k == 0 || 4*k == n;
+	}
+
+	static String index(int k) {
+		return k == 0 ? "o" : (k == 1 ? "o+s" : "o+" + k + "*s");
+	}
+
+	static String cos(int n, int k) {
+		/* reduce fraction so that equal twiddles of different sizes share a constant */
+		while(k%2 == 0 && n > 2){ k/=2; n/=2; }
+		return "C" + n + "_" + k;
+	}
+
+	static String sin(int n, int k) {
+		while(k%2 == 0 && n > 2){ k/=2; n/=2; }
+		return "S" + n + "_" + k;
+	}
+
+}
@@ -15,30 +15,25 @@ public class FloatVersionGenerator {
 	static final String ignoreDirective = "//#FLOATGEN_IGNORE";
 	static final String keeplineDirective = "//#FLOATGEN_KEEPLINE";
 
-	public static void main(String[] args) {
-		File mainpath_dp = new File("src/main/java/hageldave/ezfftw/dp");
-		File mainpath_fp = new File("src/main/java/hageldave/ezfftw/fp");
-		File testpath_dp = new File("src/test/java/hageldave/ezfftw/dp");
-		File testpath_fp = new File("src/test/java/hageldave/ezfftw/fp");
-
-		if(!mainpath_fp.exists()){
-			mainpath_fp.mkdir();
-			System.out.println("Created dir " + mainpath_fp.getPath());
-		}
-		if(!testpath_fp.exists()){
-			testpath_fp.mkdir();
-			System.out.println("Created dir " + testpath_fp.getPath());
-		}
-		for(File classFile : listRecursiveFiles(mainpath_dp, (file)->file.getName().endsWith(".java"))){
-			int filepathindex = mainpath_dp.getAbsolutePath().length();
-			String classFileName = classFile.getAbsolutePath().substring(filepathindex);
-			genFloatClass(new File(mainpath_dp,classFileName), new File(mainpath_fp, classFileName));
-		}
+	/** source roots containing dp packages, including the roots of sources for newer JDKs (see pom.xml profiles) */
+	static final String[] sourceRoots = {"src/main/java", "src/test/java", "src/main/java16", "src/main/java22"};
 
-		for(File classFile : listRecursiveFiles(testpath_dp, (file)->file.getName().endsWith(".java"))){
-			int filepathindex = testpath_dp.getAbsolutePath().length();
-			String classFileName = classFile.getAbsolutePath().substring(filepathindex);
-			genFloatClass(new File(testpath_dp,classFileName), new File(testpath_fp, classFileName));
+	public static void main(String[] args) {
+		for(String sourceRoot: sourceRoots){
+			File path_dp = new File(sourceRoot + "/hageldave/ezfftw/dp");
+			File path_fp = new File(sourceRoot + "/hageldave/ezfftw/fp");
+			if(!path_dp.exists()){
+				continue;
+			}
+			if(!path_fp.exists()){
+				path_fp.mkdir();
+				System.out.println("Created dir " + path_fp.getPath());
+			}
+			for(File classFile : listRecursiveFiles(path_dp, (file)->file.getName().endsWith(".java"))){
+				int filepathindex = path_dp.getAbsolutePath().length();
+				String classFileName = classFile.getAbsolutePath().substring(filepathindex);
+				genFloatClass(new File(path_dp,classFileName), new File(path_fp, classFileName));
+			}
 		}
 //		for(String classfile : new String[]{
 //				"FFTW_GuruTest.java",
@@ -95,6 +90,7 @@ public class FloatVersionGenerator {
 								.replace("Double", "Float")
 								.replace("double", "float")
 								.replace("fftw_", "fftwf_")
+								.replace("JAVA_DOUBLE", "JAVA_FLOAT")
 								.replace("_D", "_F")
 								.replace(".0", ".0f")
 								.replace("ezfftw.dp", "ezfftw.fp")
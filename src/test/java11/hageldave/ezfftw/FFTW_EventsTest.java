@@ -0,0 +1,84 @@
+package hageldave.ezfftw;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import hageldave.ezfftw.dp.FFT;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FFTW_EventsTest {
+
+	@Test
+	public void testEvents() throws Exception {
+		Assume.assumeTrue(FFTW_Events.isAvailable());
+		// disabled by default
+		try(Recording recording = new Recording()){
+			recording.start();
+			assertFalse(FFTW_Events.isEnabled(FFTW_Events.EXECUTE));
+			assertNull(FFTW_Events.begin(FFTW_Events.EXECUTE));
+		}
+
+		Path file = Files.createTempFile("ezfftw", ".jfr");
+		try {
+			try(Recording recording = new Recording()){
+				recording.enable("hageldave.ezfftw.Plan").withoutThreshold();
+				recording.enable("hageldave.ezfftw.Execute").withoutThreshold();
+				recording.enable("hageldave.ezfftw.PlannerLock").withoutThreshold();
+				recording.enable("hageldave.ezfftw.Transfer").withoutThreshold();
+				recording.start();
+				assertTrue(FFTW_Events.isEnabled(FFTW_Events.EXECUTE));
+				FFT.fft((long... coords)->coords[0]+coords[1], (v,imag,coords)->{}, 16,4);
+				recording.stop();
+				recording.dump(file);
+			}
+			assertFalse(FFTW_Events.isEnabled(FFTW_Events.EXECUTE));
+
+			Map<String, Integer> counts = new HashMap<>();
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			for(RecordedEvent e: events){
+				String name = e.getEventType().getName();
+				if(!name.startsWith("hageldave.ezfftw.")){
+					continue;
+				}
+				counts.merge(name, 1, Integer::sum);
+				assertEquals("16x4", e.getString("shape"));
+				assertEquals(1, e.getLong("howmany"));
+				assertEquals(1, e.getInt("threads"));
+				switch (name) {
+				case "hageldave.ezfftw.Transfer":
+					assertTrue(e.getString("kind").equals("sampler") || e.getString("kind").equals("writer"));
+					assertEquals(64*Double.BYTES, e.getLong("bytes"));
+					break;
+				case "hageldave.ezfftw.Execute":
+					assertEquals("r2c", e.getString("kind"));
+					assertEquals(3*64*Double.BYTES, e.getLong("bytes"));
+					break;
+				default:
+					assertEquals("r2c", e.getString("kind"));
+				}
+			}
+			assertEquals(Integer.valueOf(1), counts.get("hageldave.ezfftw.Plan"));
+			assertEquals(Integer.valueOf(1), counts.get("hageldave.ezfftw.Execute"));
+			// planning and destroying
+			assertEquals(Integer.valueOf(2), counts.get("hageldave.ezfftw.PlannerLock"));
+			// sampler, real writer, imaginary writer
+			assertEquals(Integer.valueOf(3), counts.get("hageldave.ezfftw.Transfer"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+}